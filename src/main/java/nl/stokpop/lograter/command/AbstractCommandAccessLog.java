@@ -31,6 +31,9 @@ public abstract class AbstractCommandAccessLog extends AbstractCommandMapperAndC
 	@Parameter(names = { "-multi-hit", "--count-multiple-hits-in-mapper" },
             description = "Will count all hits in the mapper file, otherwise only the first hit will be counted.")
 	public boolean doCountMultipleMapperHits = false;
+	@Parameter(names = { "-mapper-automaton" },
+            description = "Match the urls with one automaton for all mappers of all mapper sections, instead of a regular expression per mapper. Gives the same results, faster for large mapper files.")
+	public boolean useMapperAutomaton = false;
     @Parameter(names = { "-count-no-mapper-as-one" },
             description = "Will count all no-mappers as one line, default count all no-mappers separately.")
     public boolean countNoMappersAsOne = false;
@@ -66,6 +69,7 @@ public abstract class AbstractCommandAccessLog extends AbstractCommandMapperAndC
 			"removeParametersFromUrl=" + removeParametersFromUrl +
 			", ignoreMultiAndNoMatches=" + ignoreMultiAndNoMatches +
 			", doCountMultipleMapperHits=" + doCountMultipleMapperHits +
+			", useMapperAutomaton=" + useMapperAutomaton +
 			", countNoMappersAsOne=" + countNoMappersAsOne +
 			", doGroupByHttpStatus=" + doGroupByHttpStatus +
 			", doGroupByHttpMethod=" + doGroupByHttpMethod +
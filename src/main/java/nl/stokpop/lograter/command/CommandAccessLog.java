@@ -29,10 +29,48 @@ public class CommandAccessLog extends AbstractCommandAccessLog {
             "Use apache logformat (e.g. %t, %D, etc...) or use nginx style log format (e.g. with $request, $status, ...")
     public LogType logType = LogType.apache;
 
+    @Parameter(names = { "-threads" }, description = "Number of threads to parse log files in parallel. " +
+            "Large uncompressed log files are split in chunks that are parsed in parallel. " +
+            "Clickpaths and session durations are always determined using one thread, " +
+            "as are all log files with a -storage other than memory. Default 1.")
+    public int threads = 1;
+
+    @Parameter(names = { "-gz-index" }, description = "Create and use an index for gzip log files to skip the parts " +
+            "outside the -st and -et filter period. The index files are stored next to the gzip files, or in -storage.dir when set. " +
+            "Decompression can only start at a gzip member: a file made by plain gzip has one member and is still decompressed from " +
+            "the start, only the parsing is skipped. Files with many members, like bgzip files or concatenated rotated logs, " +
+            "are skipped per member.")
+    public boolean useGzipIndex = false;
+
+    @Parameter(names = { "-checkpoint-file" }, description = "Store the offsets up to which the log files are processed in this file, " +
+            "and resume processing at these offsets in the next run. Only the new lines of the log files are reported, " +
+            "the counters of previous runs are not included. The offsets are stored after the report is created. " +
+            "Rotated log files are recognised by file key (inode).")
+    public String checkpointFile;
+
+    @Parameter(names = { "-follow-seconds" }, description = "Keep reading lines that are appended to the log files " +
+            "for this number of seconds, then create the report. Log files are read with one thread. Default 0.")
+    public int followSeconds = 0;
+
+    @Parameter(names = { "-report-interval-seconds" }, description = "With -follow-seconds, create a report every this number of seconds " +
+            "of the lines that are appended since the previous report, instead of one report at the end. Default 0.")
+    public int reportIntervalSeconds = 0;
+
+    @Parameter(names = { "-result-cache" }, description = "Cache the parsed results of each log file in -storage.dir. " +
+            "A next run with the same settings only parses new and changed log files and uses the cached results of the other log files. " +
+            "Only used with memory -storage, and not with -checkpoint-file or -follow-seconds.")
+    public boolean useResultCache = false;
+
     @Override
     public String toString() {
         return "CommandAccessLog{" +
             "logType=" + logType +
+            ", threads=" + threads +
+            ", useGzipIndex=" + useGzipIndex +
+            ", checkpointFile='" + checkpointFile + '\'' +
+            ", followSeconds=" + followSeconds +
+            ", reportIntervalSeconds=" + reportIntervalSeconds +
+            ", useResultCache=" + useResultCache +
             "} " + super.toString();
     }
 
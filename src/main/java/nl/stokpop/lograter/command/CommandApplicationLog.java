@@ -15,6 +15,7 @@
  */
 package nl.stokpop.lograter.command;
 
+import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
 @Parameters(separators = "=", commandDescription = "Parse an (Java logback) application log file.")
@@ -22,9 +23,13 @@ public class CommandApplicationLog extends AbstractCommandBasic {
 	
 	private static final String COMMANDNAME = "application";
 
+	@Parameter(names = { "-threads" }, description = "Number of threads to parse log files in parallel. " +
+			"Large uncompressed log files are split in chunks that are parsed in parallel. Default 1.")
+	public int threads = 1;
+
 	@Override
 	public String toString() {
-		return "CommandApplicationLog [toString()=" + super.toString() + "]";
+		return "CommandApplicationLog [threads=" + threads + ", toString()=" + super.toString() + "]";
 	}
 
 	@Override
@@ -18,7 +18,11 @@ package nl.stokpop.lograter.counter;
 import com.healthmarketscience.jackcess.util.OleBlob;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Objects;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class CounterKey implements Comparable<CounterKey> {
@@ -26,10 +30,13 @@ public class CounterKey implements Comparable<CounterKey> {
     public static final char SEP_CHAR = ',';
     private final String name;
     private final CounterKeyMetaData metaData;
+    // counter keys are used as hash map keys for each log entry
+    private final int hash;
 
     private CounterKey(String name, CounterKeyMetaData meta) {
         this.name = name;
         this.metaData = meta;
+        this.hash = name.hashCode();
     }
 
     /**
@@ -37,6 +44,9 @@ public class CounterKey implements Comparable<CounterKey> {
      */
     @NotNull
     public static CounterKey createCounterKeyWithFieldsInName(String baseName, CounterKeyMetaData metaData) {
+        if (metaData.getValues().isEmpty()) {
+            return of(baseName, metaData);
+        }
         StringBuilder builder = new StringBuilder(baseName);
         for (String fieldValue : metaData.getValues()) {
             String sanitizedField = fieldValue.replace(",", "_");
@@ -72,17 +82,46 @@ public class CounterKey implements Comparable<CounterKey> {
         return new CounterKey(name, metaData);
     }
 
+    /**
+     * Write the name and meta data, to be read with readFrom.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(name);
+        List<String> fields = metaData.getFields();
+        List<String> values = metaData.getValues();
+        out.writeInt(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            out.writeUTF(fields.get(i));
+            out.writeUTF(values.get(i));
+        }
+    }
+
+    public static CounterKey readFrom(DataInput in) throws IOException {
+        String name = in.readUTF();
+        int size = in.readInt();
+        if (size == 0) {
+            return of(name);
+        }
+        List<String> fields = new ArrayList<>(size);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fields.add(in.readUTF());
+            values.add(in.readUTF());
+        }
+        return of(name, new CounterKeyMetaData(fields, values));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CounterKey that = (CounterKey) o;
-        return Objects.equals(name, that.name);
+        return hash == that.hash && name.equals(that.name);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return hash;
     }
 
     @Override
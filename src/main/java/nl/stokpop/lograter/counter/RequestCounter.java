@@ -121,6 +121,25 @@ public class RequestCounter extends Counter implements Iterable<TimeMeasurement>
 		updateFirstAndLastTimestamp(timestamp);
 	}
 
+	/**
+	 * Add all time measurements of the other counter, for instance to merge partial results.
+	 */
+	public void addAll(RequestCounter other) {
+		if (other.isEmpty()) {
+			return;
+		}
+		this.timeMeasurements.addAll(other.timeMeasurements);
+		if (other.firstTimestamp != TimePeriod.NOT_SET) {
+			updateFirstAndLastTimestamp(other.firstTimestamp);
+			updateFirstAndLastTimestamp(other.lastTimestamp - 1);
+		}
+		else {
+			for (TimeMeasurement timeMeasurement : other) {
+				updateFirstAndLastTimestamp(timeMeasurement.getTimestamp());
+			}
+		}
+	}
+
 	private void updateFirstAndLastTimestamp(long timestamp) {
 		if (timestamp < this.firstTimestamp || this.firstTimestamp == TimePeriod.NOT_SET) {
 			this.firstTimestamp = timestamp;
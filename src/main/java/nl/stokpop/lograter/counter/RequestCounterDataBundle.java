@@ -32,4 +32,12 @@ public interface RequestCounterDataBundle {
 	boolean doesSupportFailureRequestCounters();
 
 	BasicCounterLogConfig getConfig();
+
+	/**
+	 * Close the request counter stores, call when the reports are done.
+	 */
+	default void close() {
+		getTotalRequestCounterStorePair().close();
+		getRequestCounterStorePairs().forEach(RequestCounterStorePair::close);
+	}
 }
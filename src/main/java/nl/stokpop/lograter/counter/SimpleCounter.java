@@ -27,6 +27,10 @@ public class SimpleCounter implements Comparable<SimpleCounter> {
 	public void inc() {
 		this.count++;
 	}
+
+	public void add(long count) {
+		this.count += count;
+	}
 	
 	public long getCount() {
 		return this.count;
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import nl.stokpop.lograter.parser.line.ParseResult;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A Feeder that can also be fed log lines as byte slices, to skip decoding each line to a String.
+ * Used by the FileFeeder for uncompressed files without line filters, the String path is used otherwise.
+ */
+public interface ByteSliceFeeder extends Feeder {
+
+	/**
+	 * The log line is the UTF-8 encoded content between position and limit of the buffer, without line terminator.
+	 * The buffer is a read only view that is reused for the next line: it is only valid during this call.
+	 * Use ByteSliceUtils.toString to get a String for the log line.
+	 */
+	void addLogLine(String filename, ByteBuffer logLine);
+
+	/**
+	 * Same as tryAddLogLine for a String, the default calls addLogLine.
+	 */
+	default ParseResult<?> tryAddLogLine(String filename, ByteBuffer logLine) {
+		addLogLine(filename, logLine);
+		return ParseResult.parsedWithoutEntry();
+	}
+
+}
@@ -16,6 +16,7 @@
 package nl.stokpop.lograter.feeder;
 
 import nl.stokpop.lograter.LogRaterException;
+import nl.stokpop.lograter.parser.line.ParseResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +67,24 @@ public abstract class ChainedFeeder implements Feeder {
         }
     }
 
+    @Override
+    public ParseResult<?> tryAddLogLine(final String filename, final String logLine) {
+
+        String nextLogLine = executeFeeder(filename, logLine);
+
+        if (next != null && nextLogLine != null) {
+            return next.tryAddLogLine(filename, nextLogLine);
+        }
+        return ParseResult.parsedWithoutEntry();
+    }
+
+    @Override
+    public void endOfInput() {
+        if (next != null) {
+            next.endOfInput();
+        }
+    }
+
     /**
      * Put the specific logic for this chained feeder in this method.
      *
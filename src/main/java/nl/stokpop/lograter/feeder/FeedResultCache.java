@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+/**
+ * Cache of the results of fed inputs, so unchanged inputs do not need to be fed again in a next run.
+ * Called from the feeder threads, for different inputs at the same time.
+ */
+public interface FeedResultCache<T extends Feeder> {
+
+    /**
+     * @param inputKey identifies the input and its content, e.g. path, size, modification time and fingerprint
+     * @return true if there are cached results for the input
+     */
+    boolean contains(String inputKey);
+
+    /**
+     * Load the cached results of the input into a new Feeder.
+     * @return false if the cached results cannot be loaded, the Feeder is then not to be used
+     */
+    boolean load(String inputKey, T feeder);
+
+    /**
+     * Store the results of the Feeder that has been fed the input.
+     */
+    void store(String inputKey, T feeder);
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import net.jcip.annotations.ThreadSafe;
+import nl.stokpop.lograter.LogRaterException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Stores the results of each input in a separate file in the cache directory. The name of the
+ * file is a hash of the input key and a fingerprint of the configuration that determines the results,
+ * so results of a different configuration are never used.
+ */
+@ThreadSafe
+public class FeedResultFileCache<T extends Feeder> implements FeedResultCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedResultFileCache.class);
+
+    private static final String CACHE_FILE_EXTENSION = ".lograter-cache";
+    private static final int MAGIC = 0x4c524352;
+    private static final int VERSION = 2;
+
+    private final File cacheDir;
+    private final String configHash;
+    private final ResultWriter<T> resultWriter;
+    private final ResultReader<T> resultReader;
+
+    /**
+     * @param configFingerprint all configuration that determines the results of an input
+     */
+    public FeedResultFileCache(File cacheDir, String configFingerprint, ResultWriter<T> resultWriter, ResultReader<T> resultReader) {
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            throw new LogRaterException("Cannot create cache directory: " + cacheDir);
+        }
+        this.cacheDir = cacheDir;
+        this.configHash = sha256(configFingerprint);
+        this.resultWriter = resultWriter;
+        this.resultReader = resultReader;
+    }
+
+    @Override
+    public boolean contains(String inputKey) {
+        return cacheFile(inputKey).isFile();
+    }
+
+    @Override
+    public boolean load(String inputKey, T feeder) {
+        File cacheFile = cacheFile(inputKey);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.info("Ignoring cached results of other version: {}", cacheFile);
+                return false;
+            }
+            if (!configHash.equals(in.readUTF()) || !inputKey.equals(in.readUTF())) {
+                log.info("Ignoring cached results of other input: {}", cacheFile);
+                return false;
+            }
+            resultReader.read(feeder, in);
+            log.info("Loaded cached results of [{}] from {}", inputKey, cacheFile);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable cached results [{}]: {}", cacheFile, e.toString());
+            return false;
+        }
+    }
+
+    @Override
+    public void store(String inputKey, T feeder) {
+        File cacheFile = cacheFile(inputKey);
+        File tempFile = new File(cacheFile.getPath() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(configHash);
+                out.writeUTF(inputKey);
+                resultWriter.write(feeder, out);
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            log.info("Stored results of [{}] in {}", inputKey, cacheFile);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot store results of [{}] in cache: {}", inputKey, e.toString());
+            if (tempFile.exists() && !tempFile.delete()) {
+                log.warn("Cannot delete temporary cache file: {}", tempFile);
+            }
+        }
+    }
+
+    private File cacheFile(String inputKey) {
+        return new File(cacheDir, sha256(configHash + "\n" + inputKey) + CACHE_FILE_EXTENSION);
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new LogRaterException("SHA-256 not available.", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ResultWriter<T> {
+        void write(T feeder, DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ResultReader<T> {
+        void read(T feeder, DataInputStream in) throws IOException;
+    }
+}
@@ -15,8 +15,40 @@
  */
 package nl.stokpop.lograter.feeder;
 
+import nl.stokpop.lograter.parser.line.ParseResult;
+
 public interface Feeder {
 
 	void addLogLine(String filename, String logLine);
 
+	/**
+	 * Same as addLogLine, but a log line that cannot be parsed is returned as a result instead of thrown
+	 * as an exception, which is expensive for log files with many of those lines.
+	 * Override to avoid the exception, the default calls addLogLine.
+	 *
+	 * @return the parse result, the entry of the result can be null
+	 */
+	default ParseResult<?> tryAddLogLine(String filename, String logLine) {
+		addLogLine(filename, logLine);
+		return ParseResult.parsedWithoutEntry();
+	}
+
+	/**
+	 * When a file is split in chunks that are fed in parallel, a chunk starts at the first line that
+	 * is the start of a log entry, and a chunk continues after its end up to the next start of a log entry.
+	 * Override for log files with multi-line log entries, such as stack traces in application logs.
+	 *
+	 * @return true if this log line is the start of a new log entry, default is true for every line
+	 */
+	default boolean isStartOfEntry(String logLine) {
+		return true;
+	}
+
+	/**
+	 * Called at the end of each file, archive entry or chunk of a file that is fed to this feeder.
+	 * Override to process state that is kept while feeding, such as the last multi-line log entry.
+	 */
+	default void endOfInput() {
+	}
+
 }
@@ -17,27 +17,62 @@ package nl.stokpop.lograter.feeder;
 
 import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.counter.SimpleCounter;
-import nl.stokpop.lograter.parser.ApplicationLogParser;
+import nl.stokpop.lograter.parser.line.ParseResult;
+import nl.stokpop.lograter.util.ByteSliceUtils;
 import nl.stokpop.lograter.util.FileUtils;
 import nl.stokpop.lograter.util.LogRaterUtils;
+import nl.stokpop.lograter.util.RegExpLiteralFilter;
+import nl.stokpop.lograter.util.time.TimePeriod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
-public class FileFeeder implements FeedProcessor {
+public class FileFeeder implements ParallelFeedProcessor {
 	
 	private static final Logger log = LoggerFactory.getLogger(FileFeeder.class);
+
+	public static final long DEFAULT_CHUNK_SIZE_BYTES = 64L * 1024 * 1024;
+
+	// log lines are not strictly ordered by timestamp, e.g. access logs contain the start time of requests
+	private static final long TIME_RANGE_MARGIN_MILLIS = 60_000;
+
 	private final Pattern filterPatternIncludes;
     private final Pattern filterPatternExcludes;
+    // literals that lines must contain to match the filter patterns, to skip most regular expression matches
+    private final RegExpLiteralFilter filterLiteralsIncludes;
+    private final RegExpLiteralFilter filterLiteralsExcludes;
     private final int skipLines;
 	private final List<File> files;
+	private final int threads;
+	private final long chunkSizeBytes;
+
+	private final Map<String, SimpleCounter> exceptionsCounter = new HashMap<>();
+
+	private boolean isGzipIndexEnabled = false;
+	private File gzipIndexDir;
+	private long gzipIndexCheckpointInterval = GzipIndex.DEFAULT_CHECKPOINT_INTERVAL;
 
-	private Map<String, SimpleCounter> exceptionsCounter = new HashMap<>();
+	private File checkpointFile;
+	private long followMillis = 0;
+	private long followPollMillis = 1000;
+	// kept between feeds, so a next feed only processes the lines appended since the previous feed
+	private FileOffsetCheckpoints checkpoints;
+	// files rotated away from the files while following, these are followed until they are removed
+	private final List<File> rotatedFiles = new ArrayList<>();
 
 	public FileFeeder(List<File> files) {
 		this(files,null, (Pattern) null, 0);
@@ -47,6 +82,10 @@ public class FileFeeder implements FeedProcessor {
 		this(files, null, (Pattern) null, skipLines);
 	}
 
+	public FileFeeder(List<File> files, int skipLines, int threads) {
+		this(files, null, (Pattern) null, skipLines, threads);
+	}
+
     /**
      * Feed files line by line to a Feeder.
      * @param filterPatternIncludes regular expression to allowed lines (will be included)
@@ -54,10 +93,43 @@ public class FileFeeder implements FeedProcessor {
      * @param skipLines number of lines to skip for each file (e.g. skip a header line)
      */
     public FileFeeder(List<File> files, final Pattern filterPatternIncludes, final Pattern filterPatternExcludes, final int skipLines) {
+        this(files, filterPatternIncludes, filterPatternExcludes, skipLines, 1);
+    }
+
+    /**
+     * Feed files line by line to a Feeder.
+     * @param filterPatternIncludes regular expression to allowed lines (will be included)
+     * @param filterPatternExcludes regular expression to denied lines (will be skipped)
+     * @param skipLines number of lines to skip for each file (e.g. skip a header line)
+     * @param threads number of threads to feed files in parallel via feedParallel, one file per thread at a time
+     */
+    public FileFeeder(List<File> files, final Pattern filterPatternIncludes, final Pattern filterPatternExcludes, final int skipLines, final int threads) {
+        this(files, filterPatternIncludes, filterPatternExcludes, skipLines, threads, DEFAULT_CHUNK_SIZE_BYTES);
+    }
+
+    /**
+     * Feed files line by line to a Feeder.
+     * @param filterPatternIncludes regular expression to allowed lines (will be included)
+     * @param filterPatternExcludes regular expression to denied lines (will be skipped)
+     * @param skipLines number of lines to skip for each file (e.g. skip a header line)
+     * @param threads number of threads to feed files in parallel via feedParallel
+     * @param chunkSizeBytes uncompressed files larger than this are split in chunks of about this size that are fed in parallel
+     */
+    public FileFeeder(List<File> files, final Pattern filterPatternIncludes, final Pattern filterPatternExcludes, final int skipLines, final int threads, final long chunkSizeBytes) {
+        if (threads < 1) {
+            throw new LogRaterException("Number of feeder threads should be at least 1: " + threads);
+        }
+        if (chunkSizeBytes < 1) {
+            throw new LogRaterException("Chunk size in bytes should be at least 1: " + chunkSizeBytes);
+        }
         this.filterPatternIncludes = filterPatternIncludes;
         this.filterPatternExcludes = filterPatternExcludes;
+        this.filterLiteralsIncludes = RegExpLiteralFilter.of(filterPatternIncludes);
+        this.filterLiteralsExcludes = RegExpLiteralFilter.of(filterPatternExcludes);
         this.skipLines = skipLines;
         this.files = Collections.unmodifiableList(new ArrayList<>(files));
+        this.threads = threads;
+        this.chunkSizeBytes = chunkSizeBytes;
     }
 
     public FileFeeder(List<File> files, final String filterRegexpIncludes, final String filterRegexpExcludes) {
@@ -68,6 +140,64 @@ public class FileFeeder implements FeedProcessor {
         this(files, createPattern(filterRegexpIncludes), createPattern(filterRegexpExcludes), skipLines);
 	}
 
+    public FileFeeder(List<File> files, final String filterRegexpIncludes, final String filterRegexpExcludes, final int skipLines, final int threads) {
+        this(files, createPattern(filterRegexpIncludes), createPattern(filterRegexpExcludes), skipLines, threads);
+	}
+
+    /**
+     * Use a sidecar index for gzip files to skip the parts of the file outside the filter period
+     * of a TimeFilteredFeeder. The index is created on the first full read of a gzip file.
+     * @param indexDir directory to store the index files, or null to store the index files next to the gzip files
+     */
+    public void useGzipIndex(File indexDir) {
+        this.isGzipIndexEnabled = true;
+        this.gzipIndexDir = indexDir;
+    }
+
+    /**
+     * Resume processing of each file at the offset stored in the checkpoint file by a previous run.
+     * Only the lines after the checkpoints are fed, so a report contains only these new lines.
+     * Files are processed up to the last complete line, compressed files are processed once.
+     * Lines appended to a file after the checkpoint and before it was rotated away are also fed.
+     * The offsets up to which the files are fed are stored in the checkpoint file by {@link #saveCheckpoints()}.
+     */
+    public void useCheckpointFile(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Keep reading lines that are appended to the files, until the follow time has passed.
+     * A file that is rotated or truncated is read from the start, the rest of a file that is
+     * rotated away is still read. A next feed continues after the lines of the previous feed.
+     * @param followMillis time to keep following the files after the first read of the files
+     * @param pollMillis time to wait before reading appended lines
+     */
+    public void follow(long followMillis, long pollMillis) {
+        if (followMillis < 0 || pollMillis < 1) {
+            throw new LogRaterException("Follow time should be positive and poll time at least 1 millisecond: " + followMillis + " " + pollMillis);
+        }
+        this.followMillis = followMillis;
+        this.followPollMillis = pollMillis;
+    }
+
+    /**
+     * Store the offsets up to which the files are fed in the checkpoint file. Call this after the fed lines
+     * are processed and reported successfully, so the lines are fed again in a next run when that failed.
+     */
+    public void saveCheckpoints() {
+        if (checkpoints != null) {
+            checkpoints.save();
+        }
+    }
+
+    private boolean isIncremental() {
+        return checkpointFile != null || followMillis > 0;
+    }
+
+    void setGzipIndexCheckpointInterval(long checkpointInterval) {
+        this.gzipIndexCheckpointInterval = checkpointInterval;
+    }
+
     private static Pattern createPattern(final String regularExpression) {
         if (regularExpression == null) {
 			return null;
@@ -89,42 +219,250 @@ public class FileFeeder implements FeedProcessor {
 		}
 		log.info("Start processing file: {}", file);
 
-        try (BufferedReader br = FileUtils.createBufferedReader(file)) {
+        if (LogArchive.isArchive(file)) {
+            // each entry is a separate input, with its own end of input
+            LogArchive.forEachEntry(file, (entryName, entryReader) -> feedArchiveEntry(feeder, file, entryName, LineReader.of(entryReader)));
+            return;
+        }
 
-            String logline;
-            long linenr = 0;
+        if (isByteSliceInput(file, feeder)) {
+            feedMappedLines((ByteSliceFeeder) feeder, file, 0, file.length(), true);
+        }
+        else if (isGzipIndexInput(file, feeder)) {
+            feedGzipWithIndex((TimeFilteredFeeder) feeder, file);
+        }
+        else if (FileUtils.isCompressed(file)) {
+            // decompress on a separate thread, in parallel with parsing
+            try (PipelinedLineReader reader = new PipelinedLineReader(FileUtils.createBufferedReader(file), file.getName())) {
+                feedLines(feeder, file, reader, true);
+            }
+        }
+        else {
+            try (BufferedReader br = FileUtils.createBufferedReader(file)) {
+                feedLines(feeder, file, LineReader.of(br), true);
+            }
+        }
+        feeder.endOfInput();
+	}
 
-            while ((logline = br.readLine()) != null) {
-                linenr++;
-                if (linenr <= skipLines) {
-                    logHeaderLine(logline, linenr);
+    /**
+     * Each entry of an archive is fed as a separate log file, including skipping of the header lines.
+     */
+    private void feedArchiveEntry(Feeder feeder, File archive, String entryName, LineReader entryReader) throws IOException {
+        File entryFile = LogArchive.entryFile(archive, entryName);
+        log.info("Start processing archive entry: {}", entryFile);
+        feedLines(feeder, entryFile, entryReader, true);
+        feeder.endOfInput();
+    }
+
+    private void processArchiveEntry(FileChunk chunk, Feeder feeder) throws IOException {
+        // decompress on a separate thread, in parallel with parsing
+        try (PipelinedLineReader reader = new PipelinedLineReader(LogArchive.openEntry(chunk.file, chunk.archiveEntryName), chunk.archiveEntryName)) {
+            feedArchiveEntry(feeder, chunk.file, chunk.archiveEntryName, reader);
+        }
+    }
+
+    /**
+     * Feed the log entries that start in the byte range of the chunk. Leading lines that
+     * are not the start of a log entry belong to the last entry of the previous chunk. After the end
+     * of the chunk, lines are fed until the start of the next log entry.
+     * Line numbers in error messages are relative to the start of the chunk.
+     */
+    private void processLogFileChunk(FileChunk chunk, Feeder feeder) throws IOException {
+
+        File file = chunk.file;
+
+        log.info("Start processing chunk {} of file: {} bytes [{}-{}]", chunk.chunkNr, file, chunk.startOffset, chunk.endOffset);
+
+        long linenr;
+        if (isByteSliceInput(file, feeder)) {
+            linenr = feedMappedLines((ByteSliceFeeder) feeder, file, chunk.startOffset, chunk.endOffset, chunk.isFirstChunk());
+        }
+        else {
+            try (BufferedReader br = FileUtils.createBufferedReader(file, chunk.startOffset, chunk.endOffset)) {
+                linenr = feedLines(feeder, file, LineReader.of(br), chunk.isFirstChunk());
+            }
+        }
+
+        if (!chunk.isLastChunk()) {
+            try (BufferedReader br = FileUtils.createBufferedReader(file, chunk.endOffset, file.length())) {
+                String logline;
+                while ((logline = br.readLine()) != null && !feeder.isStartOfEntry(logline)) {
+                    linenr++;
+                    feedLine(feeder, file, logline, linenr);
+                }
+            }
+        }
+        feeder.endOfInput();
+    }
+
+    /**
+     * Lines of uncompressed files are fed as byte slices of the memory mapped file when there are no line filters.
+     */
+    private boolean isByteSliceInput(File file, Feeder feeder) {
+        return feeder instanceof ByteSliceFeeder
+            && filterPatternIncludes == null
+            && filterPatternExcludes == null
+            && !FileUtils.isCompressed(file);
+    }
+
+    private boolean isGzipIndexInput(File file, Feeder feeder) {
+        return isGzipIndexEnabled
+            && feeder instanceof TimeFilteredFeeder
+            && file.getName().toLowerCase().endsWith(".gz");
+    }
+
+    /**
+     * With a valid index and a filter period, only read the part of the file around the filter period.
+     * Otherwise read the whole file and create the index when there is none.
+     * When the index points to a bad gzip member, the whole file is read and the index is recreated.
+     */
+    private void feedGzipWithIndex(TimeFilteredFeeder feeder, File file) throws IOException {
+        File indexFile = GzipIndex.indexFileFor(file, gzipIndexDir);
+        GzipIndex index = GzipIndex.readIfValid(indexFile, file);
+        TimePeriod filterPeriod = feeder.getFilterPeriod();
+
+        if (index != null && filterPeriod != null && filterPeriod.hasBothTimestampsSet()) {
+            GzipIndex.Checkpoint start = index.findStart(filterPeriod);
+            long endOffset = index.findEndOffset(filterPeriod);
+            GzipIndexedLineReader indexedReader = createSeekingReader(file, start, endOffset);
+            if (indexedReader != null) {
+                log.info("Using gzip index {} to read file {} from {} to uncompressed offset {}", indexFile, file, start, endOffset);
+                try (PipelinedLineReader reader = new PipelinedLineReader(indexedReader, file.getName())) {
+                    feedLines(feeder, file, reader, start == null);
+                }
+                return;
+            }
+            log.warn("Ignoring gzip index {} that does not match file {}, reading the whole file", indexFile, file);
+            index = null;
+        }
+
+        GzipIndexedLineReader indexedReader = GzipIndexedLineReader.createIndexingReader(file, gzipIndexCheckpointInterval);
+        try (PipelinedLineReader reader = new PipelinedLineReader(indexedReader, file.getName())) {
+            feedLines(feeder, file, reader, true);
+        }
+        if (index == null) {
+            writeGzipIndex(indexedReader.createIndex(feeder::parseTimestamp), indexFile);
+        }
+    }
+
+    /**
+     * @return the reader, or null when the file cannot be read from the checkpoint
+     */
+    private static GzipIndexedLineReader createSeekingReader(File file, GzipIndex.Checkpoint start, long endOffset) {
+        try {
+            return GzipIndexedLineReader.createSeekingReader(file, start, endOffset);
+        } catch (IOException e) {
+            log.warn("Cannot seek in gzip file {} to {}: {}", file, start, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeGzipIndex(GzipIndex index, File indexFile) {
+        if (index == null) {
+            return;
+        }
+        try {
+            index.write(indexFile);
+            log.info("Created gzip index {} with {} checkpoints", indexFile, index.getCheckpoints().size());
+        } catch (IOException e) {
+            log.warn("Unable to write gzip index [{}]: {}", indexFile, e.getMessage());
+        }
+    }
+
+    /**
+     * @param isStartOfFile true to skip the header lines, otherwise lines before the first start of a log entry are skipped
+     * @return the number of lines read
+     */
+    private long feedLines(Feeder feeder, File file, LineReader lineReader, boolean isStartOfFile) throws IOException {
+        String logline;
+        long linenr = 0;
+        boolean isEntryStarted = isStartOfFile;
+        while ((logline = lineReader.readLine()) != null) {
+            linenr++;
+            if (isStartOfFile && linenr <= skipLines) {
+                logHeaderLine(logline, linenr);
+                continue;
+            }
+            if (!isEntryStarted) {
+                if (!feeder.isStartOfEntry(logline)) {
                     continue;
                 }
-                if (logline.trim().length() == 0) {
+                isEntryStarted = true;
+            }
+            feedLine(feeder, file, logline, linenr);
+        }
+        return linenr;
+    }
+
+    /**
+     * @param isStartOfFile true to skip the header lines, otherwise lines before the first start of a log entry are skipped
+     * @return the number of lines read
+     */
+    private long feedMappedLines(ByteSliceFeeder feeder, File file, long startOffset, long endOffset, boolean isStartOfFile) throws IOException {
+        try (MappedLineReader reader = new MappedLineReader(file, startOffset, endOffset)) {
+            ByteBuffer logline;
+            long linenr = 0;
+            boolean isEntryStarted = isStartOfFile;
+            while ((logline = reader.readLine()) != null) {
+                linenr++;
+                if (isStartOfFile && linenr <= skipLines) {
+                    logHeaderLine(ByteSliceUtils.toString(logline), linenr);
                     continue;
                 }
-                try {
-                    final boolean includeLine = filterPatternIncludes == null || filterPatternIncludes.matcher(logline).find();
-                    final boolean excludeLine = filterPatternExcludes != null && filterPatternExcludes.matcher(logline).find();
-                    if (log.isDebugEnabled()) {
-                        if (filterPatternIncludes != null) log.debug("Log line {} included by filter pattern include '{}': {}", linenr, filterPatternIncludes, includeLine);
-                        if (filterPatternExcludes != null) log.debug("Log line {} excluded by filter pattern exclude '{}': {}", linenr, filterPatternExcludes, excludeLine);
+                if (!isEntryStarted) {
+                    if (!feeder.isStartOfEntry(ByteSliceUtils.toString(logline))) {
+                        continue;
                     }
-                    if (includeLine && !excludeLine) {
-                        feeder.addLogLine(file.getName(), logline);
-                    }
-                } catch (Exception e) {
-                    handleError(e, linenr, file, logline);
+                    isEntryStarted = true;
                 }
+                feedLine(feeder, file, logline, linenr);
+            }
+            return linenr;
+        }
+    }
 
+    private void feedLine(ByteSliceFeeder feeder, File file, ByteBuffer logline, long linenr) {
+        if (ByteSliceUtils.isBlank(logline)) {
+            return;
+        }
+        int start = logline.position();
+        int end = logline.limit();
+        try {
+            ParseResult<?> result = feeder.tryAddLogLine(file.getName(), logline);
+            if (!result.isParsed()) {
+                logline.limit(end).position(start);
+                handleParseFailure(result, linenr, file, ByteSliceUtils.toString(logline));
             }
-            // the application log feeder processes one minus current entry
-            // to add non-loglines to correct entry
-            if (feeder instanceof ApplicationLogParser) {
-                ((ApplicationLogParser) feeder).processLastEntry();
+        } catch (Exception e) {
+            logline.limit(end).position(start);
+            handleError(e, linenr, file, ByteSliceUtils.toString(logline));
+        }
+    }
+
+    private void feedLine(Feeder feeder, File file, String logline, long linenr) {
+        if (logline.trim().length() == 0) {
+            return;
+        }
+        try {
+            final boolean includeLine = filterPatternIncludes == null
+                || (filterLiteralsIncludes.mightMatch(logline) && filterPatternIncludes.matcher(logline).find());
+            final boolean excludeLine = filterPatternExcludes != null
+                && filterLiteralsExcludes.mightMatch(logline) && filterPatternExcludes.matcher(logline).find();
+            if (log.isDebugEnabled()) {
+                if (filterPatternIncludes != null) log.debug("Log line {} included by filter pattern include '{}': {}", linenr, filterPatternIncludes, includeLine);
+                if (filterPatternExcludes != null) log.debug("Log line {} excluded by filter pattern exclude '{}': {}", linenr, filterPatternExcludes, excludeLine);
+            }
+            if (includeLine && !excludeLine) {
+                ParseResult<?> result = feeder.tryAddLogLine(file.getName(), logline);
+                if (!result.isParsed()) {
+                    handleParseFailure(result, linenr, file, logline);
+                }
             }
+        } catch (Exception e) {
+            handleError(e, linenr, file, logline);
         }
-	}
+    }
 
     private void logHeaderLine(final String logline, final long linenr) {
         // log up to 5 header lines on info, otherwise use debug to see all
@@ -141,26 +479,35 @@ public class FileFeeder implements FeedProcessor {
 	 * Only report first few occurrences, next, aggregate similar exceptions.
 	 */
 	private void handleError(Exception e, long linenr, File file, String logline) {
-		String exceptionClassname = e.getClass().getName();
+		handleError(e.getClass().getName(), e, e, linenr, file, logline);
+	}
+
+	/**
+	 * Same as for exceptions, the parse failures are aggregated per status.
+	 */
+	private void handleParseFailure(ParseResult<?> result, long linenr, File file, String logline) {
+		handleError(result.getStatus().name(), result.getReason(), null, linenr, file, logline);
+	}
 
-		if (exceptionsCounter.containsKey(exceptionClassname)) {
-			exceptionsCounter.get(exceptionClassname).inc();
+	private synchronized void handleError(String errorType, Object error, Exception e, long linenr, File file, String logline) {
+		if (exceptionsCounter.containsKey(errorType)) {
+			exceptionsCounter.get(errorType).inc();
 		}
 		else {
-			exceptionsCounter.put(exceptionClassname, new SimpleCounter(1));
+			exceptionsCounter.put(errorType, new SimpleCounter(1));
 		}
 
-		long currentCount = exceptionsCounter.get(exceptionClassname).getCount();
+		long currentCount = exceptionsCounter.get(errorType).getCount();
 		if (currentCount <= 20) {
-			log.error("Error in line {} in file [{}] error: [{}] logline: {}", linenr, file, e, logline);
-			if (log.isDebugEnabled()) {
+			log.error("Error in line {} in file [{}] error: [{}] logline: {}", linenr, file, error, logline);
+			if (e != null && log.isDebugEnabled()) {
                 e.printStackTrace();
             }
 		}
 		else {
 			boolean isMod10Count = LogRaterUtils.isMod10Count(currentCount);
 			if (isMod10Count) {
-				log.error("Encountered exception [{}] in file [{}] in [{}] lines, now at line [{}].", exceptionClassname, file, currentCount, linenr);
+				log.error("Encountered error [{}] in file [{}] in [{}] lines, now at line [{}].", errorType, file, currentCount, linenr);
 			}
 		}
 	}
@@ -171,28 +518,368 @@ public class FileFeeder implements FeedProcessor {
 
 	public void feed(Feeder feeder) {
 
-		if (files == null || files.size() == 0) {
-			throw new LogRaterException("No files given to feeder.");
-		}
+		checkFilesPresent();
 
 		log.info("Using log files: {}", files);
 
 		long startTime = System.currentTimeMillis();
 
-		for (File logFile : files) {
-			try {
-				processLogFile(logFile, feeder);
-			} catch (IOException e) {
-                log.error("Cannot feed file: [" + logFile.getName() + "], skipping this file!", e);
+		if (isIncremental()) {
+			feedIncremental(feeder);
+		}
+		else {
+			for (File logFile : filesInFilterPeriod(feeder)) {
+				try {
+					processLogFile(logFile, feeder);
+				} catch (IOException e) {
+					log.error("Cannot feed file: [" + logFile.getName() + "], skipping this file!", e);
+				}
 			}
 		}
-		
+
 		long endTime = System.currentTimeMillis();
 		long durationInMillis = endTime - startTime;
 		log.info("Processing time feeder: " + durationInMillis / 1000 + " seconds");
 		
 	}
 
+	private void checkFilesPresent() {
+		if (files == null || files.size() == 0) {
+			throw new LogRaterException("No files given to feeder.");
+		}
+	}
+
+	private void feedIncremental(Feeder feeder) {
+		if (checkpoints == null) {
+			checkpoints = checkpointFile == null
+				? FileOffsetCheckpoints.inMemory()
+				: FileOffsetCheckpoints.load(checkpointFile);
+		}
+
+		long followUntil = System.currentTimeMillis() + followMillis;
+		feedAppendedLines(feeder, checkpoints);
+		long remainingMillis;
+		while ((remainingMillis = followUntil - System.currentTimeMillis()) > 0) {
+			try {
+				Thread.sleep(Math.min(followPollMillis, remainingMillis));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.info("Interrupted while following files, stop following.");
+				break;
+			}
+			feedAppendedLines(feeder, checkpoints);
+		}
+	}
+
+	/**
+	 * Feed the lines that were appended since the offsets of the checkpoints and update the checkpoints.
+	 */
+	private void feedAppendedLines(Feeder feeder, FileOffsetCheckpoints checkpoints) {
+		// determine all resume offsets first: a rotated file can be found via the checkpoint of another file name
+		Map<File, String> fileKeys = new LinkedHashMap<>();
+		Map<File, Long> resumeOffsets = new HashMap<>();
+		rotatedFiles.removeIf(file -> !file.isFile());
+		List<File> filesToFeed = new ArrayList<>(files);
+		filesToFeed.addAll(rotatedFiles);
+		for (File file : filesToFeed) {
+			addResumeOffset(file, checkpoints, fileKeys, resumeOffsets);
+		}
+		for (File rotatedFile : checkpoints.findRotatedFiles(fileKeys.values())) {
+			rotatedFiles.add(rotatedFile);
+			addResumeOffset(rotatedFile, checkpoints, fileKeys, resumeOffsets);
+		}
+		for (Map.Entry<File, String> entry : fileKeys.entrySet()) {
+			File file = entry.getKey();
+			try {
+				long offset = feedAppendedLines(file, resumeOffsets.get(file), feeder);
+				checkpoints.updateOffset(file, entry.getValue(), offset);
+			} catch (IOException e) {
+				log.error("Cannot feed file: [" + file.getName() + "], skipping this file!", e);
+			}
+		}
+	}
+
+	private static void addResumeOffset(File file, FileOffsetCheckpoints checkpoints, Map<File, String> fileKeys, Map<File, Long> resumeOffsets) {
+		if (!file.isFile()) {
+			log.error("File does not exist or is not a file: {}", file);
+			return;
+		}
+		try {
+			String fileKey = FileUtils.fileKey(file);
+			fileKeys.put(file, fileKey);
+			resumeOffsets.put(file, checkpoints.findResumeOffset(file, fileKey, file.length()));
+		} catch (IOException e) {
+			log.error("Cannot read attributes of file: [" + file.getName() + "], skipping this file!", e);
+		}
+	}
+
+	/**
+	 * @return offset after the last complete line that is fed
+	 */
+	private long feedAppendedLines(File file, long startOffset, Feeder feeder) throws IOException {
+		long length = file.length();
+		if (LogArchive.isArchive(file) || FileUtils.isCompressed(file)) {
+			// compressed files are not appended to, process once
+			if (startOffset == 0 || startOffset < length) {
+				processLogFile(file, feeder);
+			}
+			return length;
+		}
+		long endOffset;
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			endOffset = FileUtils.findEndOfLastLine(randomAccessFile, startOffset, length);
+		}
+		if (endOffset > startOffset) {
+			log.info("Start processing file: {} bytes [{}-{}]", file, startOffset, endOffset);
+			boolean isStartOfFile = startOffset == 0;
+			if (isByteSliceInput(file, feeder)) {
+				feedMappedLines((ByteSliceFeeder) feeder, file, startOffset, endOffset, isStartOfFile);
+			}
+			else {
+				try (BufferedReader br = FileUtils.createBufferedReader(file, startOffset, endOffset)) {
+					feedLines(feeder, file, LineReader.of(br), isStartOfFile);
+				}
+			}
+			feeder.endOfInput();
+		}
+		return endOffset;
+	}
+
+	/**
+	 * Skip the files that have no lines in the filter period of a TimeFilteredFeeder, based on the
+	 * timestamps of the first and last lines of the files. Files of which the time range cannot be
+	 * determined, such as compressed files without gzip index, are not skipped.
+	 */
+	private List<File> filesInFilterPeriod(Feeder feeder) {
+		if (!(feeder instanceof TimeFilteredFeeder)) {
+			return files;
+		}
+		TimeFilteredFeeder timeFilteredFeeder = (TimeFilteredFeeder) feeder;
+		TimePeriod filterPeriod = timeFilteredFeeder.getFilterPeriod();
+		if (filterPeriod == null || !filterPeriod.hasBothTimestampsSet()) {
+			return files;
+		}
+		List<File> filesToFeed = new ArrayList<>();
+		long skippedBytes = 0;
+		for (File file : files) {
+			if (file.isFile() && isOutsideFilterPeriod(file, timeFilteredFeeder, filterPeriod)) {
+				skippedBytes = skippedBytes + file.length();
+			}
+			else {
+				filesToFeed.add(file);
+			}
+		}
+		int skippedFiles = files.size() - filesToFeed.size();
+		if (skippedFiles > 0) {
+			log.info("Skipped [{}] of [{}] files with [{}] bytes that have no lines in filter period {}", skippedFiles, files.size(), skippedBytes, filterPeriod);
+		}
+		return filesToFeed;
+	}
+
+	private boolean isOutsideFilterPeriod(File file, TimeFilteredFeeder timestampParser, TimePeriod filterPeriod) {
+		File gzipIndexFile = isGzipIndexEnabled ? GzipIndex.indexFileFor(file, gzipIndexDir) : null;
+		TimePeriod fileTimeRange;
+		try {
+			fileTimeRange = FileTimeRange.scan(file, timestampParser, gzipIndexFile);
+		} catch (IOException e) {
+			log.warn("Cannot determine time range of file [{}]: {}", file, e.getMessage());
+			return false;
+		}
+		if (fileTimeRange == null) {
+			return false;
+		}
+		boolean isOutside = fileTimeRange.getEndTime() + TIME_RANGE_MARGIN_MILLIS < filterPeriod.getStartTime()
+			|| fileTimeRange.getStartTime() - TIME_RANGE_MARGIN_MILLIS >= filterPeriod.getEndTime();
+		if (isOutside) {
+			log.info("Skipping file [{}] with time range {} outside filter period.", file, fileTimeRange);
+		}
+		return isOutside;
+	}
+
+	/**
+	 * Following files and resuming from checkpoints is done with one Feeder.
+	 */
+	@Override
+	public boolean isParallel() {
+		return threads > 1 && !isIncremental();
+	}
+
+	/**
+	 * Feed each file to its own new Feeder on one of the feeder threads. Uncompressed files larger than the
+	 * chunk size are split in chunks at line boundaries, each chunk is fed to its own new Feeder.
+	 * Each entry of a .zip or .tar archive is fed to its own new Feeder, the entries of a .tar.gz archive
+	 * are fed to one Feeder because they can only be read in one pass.
+	 * At most twice the number of threads of fed Feeders wait to be consumed, to limit memory use
+	 * when the first files take longer to process than the next files.
+	 */
+	@Override
+	public <T extends Feeder> void feedParallel(Supplier<T> feederFactory, Consumer<T> fedFeederConsumer) {
+		feedParallel(feederFactory, fedFeederConsumer, null, null);
+	}
+
+	/**
+	 * Feed as feedParallel, the results of files, chunks and archive entries are cached. The input key
+	 * of the cache contains path, size, modification time and a fingerprint of the content of the file.
+	 * Also works with one thread.
+	 * When resuming from checkpoints or following files, all files are fed to one Feeder as for feed,
+	 * without result cache: the cached results of a file would include the lines before the checkpoint.
+	 * @param resultCache cache of the results, or null for no cache
+	 * @param timeFilter to skip the files outside the filter period, or null to feed all files
+	 */
+	@Override
+	public <T extends Feeder> void feedParallel(Supplier<T> feederFactory, Consumer<T> fedFeederConsumer, FeedResultCache<T> resultCache, TimeFilteredFeeder timeFilter) {
+
+		checkFilesPresent();
+
+		if (isIncremental()) {
+			if (resultCache != null) {
+				log.warn("The result cache is not used when resuming from a checkpoint file or following files.");
+			}
+			T feeder = feederFactory.get();
+			feed(feeder);
+			fedFeederConsumer.accept(feeder);
+			return;
+		}
+
+		log.info("Using log files with [{}] feeder threads: {}", threads, files);
+
+		long startTime = System.currentTimeMillis();
+
+		List<FileChunk> chunks = createFileChunks(timeFilter == null ? files : filesInFilterPeriod(timeFilter));
+
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "lograter-feeder-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			int maxWaiting = threads * 2;
+			Deque<Future<T>> waiting = new ArrayDeque<>();
+			Iterator<FileChunk> chunkIterator = chunks.iterator();
+			while (chunkIterator.hasNext() || !waiting.isEmpty()) {
+				while (chunkIterator.hasNext() && waiting.size() < maxWaiting) {
+					FileChunk chunk = chunkIterator.next();
+					waiting.add(executor.submit(() -> feedChunk(chunk, feederFactory, resultCache)));
+				}
+				fedFeederConsumer.accept(waitForFeeder(waiting.poll()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		long durationInMillis = System.currentTimeMillis() - startTime;
+		log.info("Processing time parallel feeder: " + durationInMillis / 1000 + " seconds");
+	}
+
+	private List<FileChunk> createFileChunks(List<File> filesToFeed) {
+		List<FileChunk> chunks = new ArrayList<>();
+		for (File file : filesToFeed) {
+			if (file.isFile() && LogArchive.isRandomAccessArchive(file)) {
+				try {
+					for (String entryName : LogArchive.listEntries(file)) {
+						chunks.add(new FileChunk(file, entryName));
+					}
+				} catch (IOException e) {
+					log.warn("Cannot list entries of archive [{}], feeding as one file. Reason: {}", file, e.getMessage());
+					chunks.add(new FileChunk(file));
+				}
+				continue;
+			}
+			if (threads > 1 && file.isFile() && !LogArchive.isArchive(file) && !FileUtils.isCompressed(file) && file.length() > chunkSizeBytes) {
+				try {
+					chunks.addAll(splitInChunks(file));
+					continue;
+				} catch (IOException e) {
+					log.warn("Cannot split file [{}] in chunks, feeding as one file. Reason: {}", file, e.getMessage());
+				}
+			}
+			chunks.add(new FileChunk(file));
+		}
+		return chunks;
+	}
+
+	private List<FileChunk> splitInChunks(File file) throws IOException {
+		List<FileChunk> chunks = new ArrayList<>();
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			long fileLength = randomAccessFile.length();
+			long startOffset = 0;
+			while (startOffset < fileLength) {
+				long endOffset = FileUtils.findStartOfNextLine(randomAccessFile, startOffset + chunkSizeBytes);
+				chunks.add(new FileChunk(file, chunks.size() + 1, startOffset, endOffset, endOffset >= fileLength));
+				startOffset = endOffset;
+			}
+		}
+		log.info("Split file [{}] in [{}] chunks of about [{}] bytes.", file, chunks.size(), chunkSizeBytes);
+		return chunks;
+	}
+
+	private <T extends Feeder> T feedChunk(FileChunk chunk, Supplier<T> feederFactory, FeedResultCache<T> resultCache) {
+		String inputKey = null;
+		if (resultCache != null) {
+			try {
+				inputKey = createInputKey(chunk);
+				if (resultCache.contains(inputKey)) {
+					T cachedFeeder = feederFactory.get();
+					if (resultCache.load(inputKey, cachedFeeder)) {
+						return cachedFeeder;
+					}
+				}
+			} catch (IOException e) {
+				log.warn("Cannot use result cache for file [{}]: {}", chunk.file, e.getMessage());
+			}
+		}
+		T feeder = feederFactory.get();
+		try {
+			if (chunk.isArchiveEntry()) {
+				processArchiveEntry(chunk, feeder);
+			}
+			else if (chunk.isWholeFile()) {
+				processLogFile(chunk.file, feeder);
+			}
+			else {
+				processLogFileChunk(chunk, feeder);
+			}
+			if (inputKey != null) {
+				resultCache.store(inputKey, feeder);
+			}
+		} catch (IOException e) {
+			log.error("Cannot feed file: [" + chunk.file.getName() + "], skipping this file!", e);
+		}
+		return feeder;
+	}
+
+	/**
+	 * @return key that changes when the file or the part of the file of the chunk changes
+	 */
+	private static String createInputKey(FileChunk chunk) throws IOException {
+		File file = chunk.file;
+		StringBuilder inputKey = new StringBuilder()
+			.append(file.getAbsolutePath())
+			.append('|').append(file.length())
+			.append('|').append(file.lastModified())
+			.append('|').append(FileUtils.fingerprint(file));
+		if (chunk.isArchiveEntry()) {
+			inputKey.append("|entry:").append(chunk.archiveEntryName);
+		}
+		else if (!chunk.isWholeFile()) {
+			inputKey.append("|chunk:").append(chunk.startOffset).append('-').append(chunk.endOffset);
+		}
+		return inputKey.toString();
+	}
+
+	private static <T> T waitForFeeder(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new LogRaterException("Interrupted while waiting for feeder thread.", e);
+		} catch (ExecutionException e) {
+			throw new LogRaterException("Feeder thread failed.", e.getCause());
+		}
+	}
+
 	private void processDirectoryWithSubdirs(File dir, Feeder feeder) {
 
 		if (!dir.isDirectory()) {
@@ -237,7 +924,58 @@ public class FileFeeder implements FeedProcessor {
 		return "FileFeeder{" + "filterPatternIncludes=" + filterPatternIncludes +
 			", filterPatternExcludes=" + filterPatternExcludes +
 			", skipLines=" + skipLines +
+			", threads=" + threads +
+			", chunkSizeBytes=" + chunkSizeBytes +
 			'}';
     }
+
+	/**
+	 * A whole file, or a byte range of a file that starts at the start of a line.
+	 */
+	private static final class FileChunk {
+		private final File file;
+		private final int chunkNr;
+		private final long startOffset;
+		private final long endOffset;
+		private final boolean isLastChunk;
+		private final String archiveEntryName;
+
+		private FileChunk(File file) {
+			this(file, 0, 0, -1, true, null);
+		}
+
+		private FileChunk(File archive, String archiveEntryName) {
+			this(archive, 0, 0, -1, true, archiveEntryName);
+		}
+
+		private FileChunk(File file, int chunkNr, long startOffset, long endOffset, boolean isLastChunk) {
+			this(file, chunkNr, startOffset, endOffset, isLastChunk, null);
+		}
+
+		private FileChunk(File file, int chunkNr, long startOffset, long endOffset, boolean isLastChunk, String archiveEntryName) {
+			this.file = file;
+			this.chunkNr = chunkNr;
+			this.startOffset = startOffset;
+			this.endOffset = endOffset;
+			this.isLastChunk = isLastChunk;
+			this.archiveEntryName = archiveEntryName;
+		}
+
+		private boolean isArchiveEntry() {
+			return archiveEntryName != null;
+		}
+
+		private boolean isWholeFile() {
+			return chunkNr == 0;
+		}
+
+		private boolean isFirstChunk() {
+			return startOffset == 0;
+		}
+
+		private boolean isLastChunk() {
+			return isLastChunk;
+		}
+	}
 }
 
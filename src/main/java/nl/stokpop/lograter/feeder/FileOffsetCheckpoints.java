@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import net.jcip.annotations.NotThreadSafe;
+import nl.stokpop.lograter.LogRaterException;
+import nl.stokpop.lograter.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Byte offsets up to which log files have been processed, persisted in a checkpoint file
+ * to resume processing where a previous run stopped.
+ *
+ * Each offset is stored with the file key (e.g. the inode) of the file. When a log file is rotated by renaming,
+ * the offset is found via the file key for the new name. When a file with the same name has a different
+ * file key, or is smaller than the offset, the file is new or truncated and is processed from the start.
+ * A rotated file that is no longer one of the processed files is found in the directory of its old name,
+ * to process the lines that were appended to it after the checkpoint.
+ *
+ * The checkpoint file has one line per log file: offset, file key and absolute path, separated by tabs.
+ */
+@NotThreadSafe
+class FileOffsetCheckpoints {
+
+    private static final Logger log = LoggerFactory.getLogger(FileOffsetCheckpoints.class);
+
+    private static final String SEPARATOR = "\t";
+    private static final String NO_FILE_KEY = "-";
+
+    private final File checkpointFile;
+    private final Map<String, FileOffset> offsetsByPath = new LinkedHashMap<>();
+
+    private FileOffsetCheckpoints(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * @return checkpoints that are not persisted, e.g. to follow files without a checkpoint file
+     */
+    static FileOffsetCheckpoints inMemory() {
+        return new FileOffsetCheckpoints(null);
+    }
+
+    static FileOffsetCheckpoints load(File checkpointFile) {
+        FileOffsetCheckpoints checkpoints = new FileOffsetCheckpoints(checkpointFile);
+        if (!checkpointFile.exists()) {
+            log.info("No checkpoint file found, all log files are processed from the start: {}", checkpointFile);
+            return checkpoints;
+        }
+        try {
+            for (String line : Files.readAllLines(checkpointFile.toPath(), StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(SEPARATOR, 3);
+                if (fields.length != 3) {
+                    throw new LogRaterException("Invalid line in checkpoint file " + checkpointFile + ": " + line);
+                }
+                String fileKey = NO_FILE_KEY.equals(fields[1]) ? null : fields[1];
+                checkpoints.offsetsByPath.put(fields[2], new FileOffset(fileKey, Long.parseLong(fields[0])));
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new LogRaterException("Cannot read checkpoint file " + checkpointFile, e);
+        }
+        log.info("Loaded offsets of {} log files from checkpoint file: {}", checkpoints.offsetsByPath.size(), checkpointFile);
+        return checkpoints;
+    }
+
+    /**
+     * @param fileKey current file key of the file, null if the file system has no file keys
+     * @return the offset to resume processing the file, 0 to process from the start
+     */
+    long findResumeOffset(File file, String fileKey, long fileLength) {
+        FileOffset fileOffset = findFileOffset(file, fileKey);
+        if (fileOffset == null) {
+            return 0;
+        }
+        if (fileOffset.offset > fileLength) {
+            log.info("File is smaller than checkpoint offset {}, processing from the start: {}", fileOffset.offset, file);
+            return 0;
+        }
+        return fileOffset.offset;
+    }
+
+    private FileOffset findFileOffset(File file, String fileKey) {
+        String path = file.getAbsolutePath();
+        if (fileKey == null) {
+            return offsetsByPath.get(path);
+        }
+        FileOffset samePath = offsetsByPath.get(path);
+        if (samePath != null && fileKey.equals(samePath.fileKey)) {
+            return samePath;
+        }
+        // the file can have been renamed by log rotation
+        for (Map.Entry<String, FileOffset> entry : offsetsByPath.entrySet()) {
+            if (fileKey.equals(entry.getValue().fileKey)) {
+                log.info("File {} was rotated from {}, resuming at offset {}", file, entry.getKey(), entry.getValue().offset);
+                return entry.getValue();
+            }
+        }
+        if (samePath != null) {
+            log.info("File was replaced by a new file, processing from the start: {}", file);
+        }
+        return null;
+    }
+
+    /**
+     * Find the files that were rotated away from the processed files: the file key of the checkpoint
+     * is not one of the given file keys and the file with the checkpoint path has another file key.
+     * The rotated file is searched by file key in the directory of the checkpoint path. The checkpoint
+     * of a rotated file that is not found, e.g. because it is compressed or removed, is dropped.
+     * @param fileKeys the file keys of the processed files
+     * @return the rotated files, to process from their checkpoint offsets
+     */
+    List<File> findRotatedFiles(Collection<String> fileKeys) {
+        List<File> rotatedFiles = new ArrayList<>();
+        Iterator<Map.Entry<String, FileOffset>> iterator = offsetsByPath.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, FileOffset> entry = iterator.next();
+            String fileKey = entry.getValue().fileKey;
+            File file = new File(entry.getKey());
+            if (fileKey == null || fileKeys.contains(fileKey) || fileKey.equals(findFileKey(file))) {
+                continue;
+            }
+            File rotatedFile = findFileWithKey(file.getParentFile(), fileKey);
+            if (rotatedFile == null) {
+                log.info("Rotated file of {} not found, lines appended after offset {} are not processed", file, entry.getValue().offset);
+                iterator.remove();
+            }
+            else {
+                log.info("File {} was rotated to {}, processing lines appended after offset {}", file, rotatedFile, entry.getValue().offset);
+                rotatedFiles.add(rotatedFile);
+            }
+        }
+        return rotatedFiles;
+    }
+
+    private static File findFileWithKey(File dir, String fileKey) {
+        File[] files = dir == null ? null : dir.listFiles(File::isFile);
+        if (files == null) {
+            return null;
+        }
+        for (File file : files) {
+            if (fileKey.equals(findFileKey(file))) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private static String findFileKey(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return FileUtils.fileKey(file);
+        } catch (IOException e) {
+            log.warn("Cannot read file key of {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    void updateOffset(File file, String fileKey, long offset) {
+        String path = file.getAbsolutePath();
+        // a file key moves with a renamed file, remove the entry of the old name
+        if (fileKey != null) {
+            offsetsByPath.entrySet().removeIf(entry -> fileKey.equals(entry.getValue().fileKey) && !entry.getKey().equals(path));
+        }
+        offsetsByPath.put(path, new FileOffset(fileKey, offset));
+    }
+
+    void save() {
+        if (checkpointFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(offsetsByPath.size());
+        for (Map.Entry<String, FileOffset> entry : offsetsByPath.entrySet()) {
+            FileOffset fileOffset = entry.getValue();
+            String fileKey = fileOffset.fileKey == null ? NO_FILE_KEY : fileOffset.fileKey;
+            lines.add(fileOffset.offset + SEPARATOR + fileKey + SEPARATOR + entry.getKey());
+        }
+        File tempFile = new File(checkpointFile.getPath() + ".tmp");
+        try {
+            Files.write(tempFile.toPath(), lines, StandardCharsets.UTF_8);
+            Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new LogRaterException("Cannot write checkpoint file " + checkpointFile, e);
+        }
+    }
+
+    private static final class FileOffset {
+        private final String fileKey;
+        private final long offset;
+
+        private FileOffset(String fileKey, long offset) {
+            this.fileKey = fileKey;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import nl.stokpop.lograter.util.FileUtils;
+import nl.stokpop.lograter.util.time.TimePeriod;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Determines the time range of a log file from the timestamps of the first and last few lines,
+ * without reading the whole file. The end of uncompressed files is read by seeking backwards,
+ * for gzip files the first and last timestamp of a gzip index are used.
+ */
+final class FileTimeRange {
+
+    private static final int LINES_TO_FIND_TIMESTAMP = 10;
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private FileTimeRange() {}
+
+    /**
+     * @param gzipIndexFile the index file of a gzip file, or null when no gzip index is used
+     * @return the time range of the file, or null if the time range cannot be determined
+     */
+    static TimePeriod scan(File file, TimeFilteredFeeder timestampParser, File gzipIndexFile) throws IOException {
+        long firstTimestamp;
+        long lastTimestamp;
+        if (LogArchive.isArchive(file)) {
+            return null;
+        }
+        else if (FileUtils.isCompressed(file)) {
+            GzipIndex index = gzipIndexFile == null ? null : GzipIndex.readIfValid(gzipIndexFile, file);
+            if (index == null) {
+                return null;
+            }
+            firstTimestamp = index.getFirstTimestamp();
+            lastTimestamp = index.getLastTimestamp();
+        }
+        else {
+            firstTimestamp = findFirstTimestamp(file, timestampParser);
+            lastTimestamp = findLastTimestamp(file, timestampParser);
+        }
+        if (firstTimestamp == TimePeriod.NOT_SET || lastTimestamp == TimePeriod.NOT_SET || firstTimestamp > lastTimestamp) {
+            return null;
+        }
+        return TimePeriod.createIncludingEndTime(firstTimestamp, lastTimestamp);
+    }
+
+    private static long findFirstTimestamp(File file, TimeFilteredFeeder timestampParser) throws IOException {
+        try (BufferedReader reader = FileUtils.createBufferedReader(file, 0, Math.min(BLOCK_SIZE, file.length()))) {
+            String line;
+            int lines = 0;
+            while ((line = reader.readLine()) != null && lines < LINES_TO_FIND_TIMESTAMP) {
+                lines++;
+                long timestamp = timestampParser.parseTimestamp(line);
+                if (timestamp != TimePeriod.NOT_SET) {
+                    return timestamp;
+                }
+            }
+        }
+        return TimePeriod.NOT_SET;
+    }
+
+    /**
+     * Read the last block of the file and parse the last complete lines, last line first.
+     */
+    private static long findLastTimestamp(File file, TimeFilteredFeeder timestampParser) throws IOException {
+        byte[] block;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            long blockStart = Math.max(0, length - BLOCK_SIZE);
+            block = new byte[(int) (length - blockStart)];
+            randomAccessFile.seek(blockStart);
+            randomAccessFile.readFully(block);
+        }
+        String[] lines = new String(block, StandardCharsets.UTF_8).split("\r?\n");
+        // the first line of the block can be partial
+        int firstCompleteLine = block.length == file.length() ? 0 : 1;
+        int parsedLines = 0;
+        for (int i = lines.length - 1; i >= firstCompleteLine && parsedLines < LINES_TO_FIND_TIMESTAMP; i--) {
+            if (lines[i].isEmpty()) {
+                continue;
+            }
+            parsedLines++;
+            long timestamp = timestampParser.parseTimestamp(lines[i]);
+            if (timestamp != TimePeriod.NOT_SET) {
+                return timestamp;
+            }
+        }
+        return TimePeriod.NOT_SET;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import net.jcip.annotations.Immutable;
+import nl.stokpop.lograter.util.time.TimePeriod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sidecar index of a gzip log file with a checkpoint about every 16 MB of uncompressed data.
+ * A checkpoint is the start of a line with its first timestamp, the uncompressed offset of the line and
+ * the compressed and uncompressed offset of the gzip member that contains the line.
+ *
+ * With the index, reading for a filter period starts at the member of the checkpoint before the filter start
+ * and skips the uncompressed bytes up to the checkpoint line without decoding and parsing, and reading stops
+ * after the checkpoint after the filter end. For multi-member gzip files (e.g. bgzip) reading starts close
+ * to the checkpoint, for single member gzip files the bytes before the checkpoint are still inflated.
+ *
+ * One extra checkpoint before the start and after the end is included, because log lines are often not
+ * strictly ordered by timestamp.
+ */
+@Immutable
+class GzipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GzipIndex.class);
+
+    static final long DEFAULT_CHECKPOINT_INTERVAL = 16L * 1024 * 1024;
+
+    static final String INDEX_FILE_EXTENSION = ".lograter-gzindex";
+
+    private static final int MAGIC = 0x4c524749;
+    private static final int VERSION = 2;
+
+    private final long fileLength;
+    private final long fileLastModified;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final List<Checkpoint> checkpoints;
+
+    /**
+     * @param firstTimestamp timestamp of the first line with a timestamp, or TimePeriod.NOT_SET
+     * @param lastTimestamp timestamp of the last line with a timestamp, or TimePeriod.NOT_SET
+     */
+    GzipIndex(long fileLength, long fileLastModified, long firstTimestamp, long lastTimestamp, List<Checkpoint> checkpoints) {
+        this.fileLength = fileLength;
+        this.fileLastModified = fileLastModified;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.checkpoints = Collections.unmodifiableList(new ArrayList<>(checkpoints));
+    }
+
+    /**
+     * @param indexDir directory to store the index in, or null to store the index next to the gzip file
+     */
+    static File indexFileFor(File gzipFile, File indexDir) {
+        if (indexDir == null) {
+            return new File(gzipFile.getAbsoluteFile().getParentFile(), gzipFile.getName() + INDEX_FILE_EXTENSION);
+        }
+        // different files with the same name can be indexed in the same dir
+        String pathHash = Integer.toHexString(gzipFile.getAbsolutePath().hashCode());
+        return new File(indexDir, gzipFile.getName() + "." + pathHash + INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * @return the index, or null if there is no index or the index is not valid for the current gzip file
+     */
+    static GzipIndex readIfValid(File indexFile, File gzipFile) {
+        if (!indexFile.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.info("Ignoring gzip index of other version: {}", indexFile);
+                return null;
+            }
+            long fileLength = in.readLong();
+            long fileLastModified = in.readLong();
+            if (fileLength != gzipFile.length() || fileLastModified != gzipFile.lastModified()) {
+                log.info("Ignoring gzip index for changed file: {}", indexFile);
+                return null;
+            }
+            long firstTimestamp = in.readLong();
+            long lastTimestamp = in.readLong();
+            int size = in.readInt();
+            List<Checkpoint> checkpoints = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                checkpoints.add(new Checkpoint(in.readLong(), in.readLong(), in.readLong(), in.readLong()));
+            }
+            return new GzipIndex(fileLength, fileLastModified, firstTimestamp, lastTimestamp, checkpoints);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable gzip index [{}]: {}", indexFile, e.getMessage());
+            return null;
+        }
+    }
+
+    void write(File indexFile) throws IOException {
+        File tempFile = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileLength);
+            out.writeLong(fileLastModified);
+            out.writeLong(firstTimestamp);
+            out.writeLong(lastTimestamp);
+            out.writeInt(checkpoints.size());
+            for (Checkpoint checkpoint : checkpoints) {
+                out.writeLong(checkpoint.memberOffset);
+                out.writeLong(checkpoint.memberUncompressedOffset);
+                out.writeLong(checkpoint.lineOffset);
+                out.writeLong(checkpoint.firstTimestamp);
+            }
+        }
+        Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return the checkpoint to start reading for the filter period, the start of the file if null
+     */
+    Checkpoint findStart(TimePeriod filterPeriod) {
+        int last = -1;
+        for (int i = 0; i < checkpoints.size(); i++) {
+            if (checkpoints.get(i).firstTimestamp < filterPeriod.getStartTime()) {
+                last = i;
+            }
+            else {
+                break;
+            }
+        }
+        int start = last - 1;
+        return start < 0 ? null : checkpoints.get(start);
+    }
+
+    /**
+     * @return the uncompressed offset to stop reading for the filter period, Long.MAX_VALUE to read to the end
+     */
+    long findEndOffset(TimePeriod filterPeriod) {
+        for (int i = 0; i < checkpoints.size(); i++) {
+            if (checkpoints.get(i).firstTimestamp >= filterPeriod.getEndTime()) {
+                int end = i + 1;
+                return end < checkpoints.size() ? checkpoints.get(end).lineOffset : Long.MAX_VALUE;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    List<Checkpoint> getCheckpoints() {
+        return checkpoints;
+    }
+
+    @Immutable
+    static final class Checkpoint {
+        private final long memberOffset;
+        private final long memberUncompressedOffset;
+        private final long lineOffset;
+        private final long firstTimestamp;
+
+        Checkpoint(long memberOffset, long memberUncompressedOffset, long lineOffset, long firstTimestamp) {
+            this.memberOffset = memberOffset;
+            this.memberUncompressedOffset = memberUncompressedOffset;
+            this.lineOffset = lineOffset;
+            this.firstTimestamp = firstTimestamp;
+        }
+
+        long getMemberOffset() {
+            return memberOffset;
+        }
+
+        long getMemberUncompressedOffset() {
+            return memberUncompressedOffset;
+        }
+
+        long getLineOffset() {
+            return lineOffset;
+        }
+
+        long getFirstTimestamp() {
+            return firstTimestamp;
+        }
+
+        @Override
+        public String toString() {
+            return "Checkpoint{" +
+                "memberOffset=" + memberOffset +
+                ", memberUncompressedOffset=" + memberUncompressedOffset +
+                ", lineOffset=" + lineOffset +
+                ", firstTimestamp=" + firstTimestamp +
+                '}';
+        }
+    }
+}
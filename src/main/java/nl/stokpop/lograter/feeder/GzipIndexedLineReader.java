@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import net.jcip.annotations.NotThreadSafe;
+import nl.stokpop.lograter.util.time.TimePeriod;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reads the lines of a gzip file and keeps track of the uncompressed offset of each line
+ * and of the gzip member that contains the line.
+ *
+ * When reading from the start of the file, a checkpoint candidate line is recorded about every
+ * checkpoint interval, from which a GzipIndex can be created when all lines are read.
+ * When reading from a checkpoint, the bytes of the member before the checkpoint line are skipped
+ * without decoding and reading stops at the end offset.
+ */
+@NotThreadSafe
+class GzipIndexedLineReader implements LineReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LINES_TO_FIND_TIMESTAMP = 10;
+
+    private final File file;
+    private final GzipMemberInputStream in;
+    private final long endOffset;
+    private final long checkpointInterval;
+    private final List<CheckpointCandidate> candidates = new ArrayList<>();
+    // to find the first and last timestamp of the file
+    private final List<String> firstLines = new ArrayList<>();
+    private final String[] lastLines = new String[LINES_TO_FIND_TIMESTAMP];
+    private long lineCount;
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int length;
+    private int position;
+    private long bufferUncompressedOffset;
+
+    // bytes before fillStart are from the previous read, which can be from another member
+    private int fillStart;
+    private long memberOffset;
+    private long memberUncompressedOffset;
+    private long previousMemberOffset;
+    private long previousMemberUncompressedOffset;
+
+    private long nextCheckpointOffset;
+    private boolean isEndOfInput;
+
+    private GzipIndexedLineReader(File file, GzipIndex.Checkpoint start, long endOffset, long checkpointInterval) throws IOException {
+        this.file = file;
+        this.endOffset = endOffset;
+        this.checkpointInterval = checkpointInterval;
+        long startMemberOffset = start == null ? 0 : start.getMemberOffset();
+        long startMemberUncompressedOffset = start == null ? 0 : start.getMemberUncompressedOffset();
+        long startLineOffset = start == null ? 0 : start.getLineOffset();
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            this.in = new GzipMemberInputStream(randomAccessFile, startMemberOffset, startMemberUncompressedOffset);
+            skipFully(startLineOffset - startMemberUncompressedOffset);
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+        this.bufferUncompressedOffset = startLineOffset;
+        this.memberOffset = startMemberOffset;
+        this.memberUncompressedOffset = startMemberUncompressedOffset;
+        this.previousMemberOffset = startMemberOffset;
+        this.previousMemberUncompressedOffset = startMemberUncompressedOffset;
+        // no checkpoints when not reading from the start, the index is not complete
+        this.nextCheckpointOffset = start == null ? 0 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Read all lines and record checkpoint candidates to create an index.
+     */
+    static GzipIndexedLineReader createIndexingReader(File file, long checkpointInterval) throws IOException {
+        return new GzipIndexedLineReader(file, null, Long.MAX_VALUE, checkpointInterval);
+    }
+
+    /**
+     * Read the lines from the start checkpoint (start of file when null) up to the end offset.
+     */
+    static GzipIndexedLineReader createSeekingReader(File file, GzipIndex.Checkpoint start, long endOffset) throws IOException {
+        return new GzipIndexedLineReader(file, start, endOffset, Long.MAX_VALUE);
+    }
+
+    private void skipFully(long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                throw new IOException("Unexpected end of gzip file " + file + " while skipping to checkpoint.");
+            }
+            remaining -= skipped;
+        }
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        while (true) {
+            if (bufferUncompressedOffset + position >= endOffset) {
+                return null;
+            }
+            int newline = indexOf((byte) '\n', position, length);
+            if (newline >= 0) {
+                return nextLine(newline, newline + 1);
+            }
+            if (isEndOfInput) {
+                return position < length ? nextLine(length, length) : null;
+            }
+            fill();
+        }
+    }
+
+    private String nextLine(int end, int next) {
+        int lineEnd = end > position && buffer[end - 1] == '\r' ? end - 1 : end;
+        String line = new String(buffer, position, lineEnd - position, StandardCharsets.UTF_8);
+        long lineOffset = bufferUncompressedOffset + position;
+        if (lineOffset >= nextCheckpointOffset) {
+            boolean isCurrentRead = position >= fillStart;
+            candidates.add(new CheckpointCandidate(
+                isCurrentRead ? memberOffset : previousMemberOffset,
+                isCurrentRead ? memberUncompressedOffset : previousMemberUncompressedOffset,
+                lineOffset, line));
+            nextCheckpointOffset = lineOffset + checkpointInterval;
+        }
+        if (checkpointInterval != Long.MAX_VALUE) {
+            if (firstLines.size() < LINES_TO_FIND_TIMESTAMP) {
+                firstLines.add(line);
+            }
+            lastLines[(int) (lineCount % LINES_TO_FIND_TIMESTAMP)] = line;
+            lineCount++;
+        }
+        position = next;
+        return line;
+    }
+
+    private void fill() throws IOException {
+        int remaining = length - position;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+            bufferUncompressedOffset += position;
+            position = 0;
+        }
+        if (remaining == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        length = remaining;
+        fillStart = remaining;
+        previousMemberOffset = memberOffset;
+        previousMemberUncompressedOffset = memberUncompressedOffset;
+        // one read only returns bytes of one member
+        int read = in.read(buffer, length, buffer.length - length);
+        if (read == -1) {
+            isEndOfInput = true;
+        }
+        else {
+            length += read;
+            memberOffset = in.getMemberOffset();
+            memberUncompressedOffset = in.getMemberUncompressedOffset();
+        }
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Create the index of the lines read, call only after all lines have been read.
+     *
+     * @param timestampParser parses the timestamp of a line, TimePeriod.NOT_SET if the line has none
+     * @return the index, null when not all lines have been read from the start of the file
+     */
+    GzipIndex createIndex(ToLongFunction<String> timestampParser) {
+        if (!isEndOfInput || endOffset != Long.MAX_VALUE || checkpointInterval == Long.MAX_VALUE) {
+            return null;
+        }
+        List<GzipIndex.Checkpoint> checkpoints = new ArrayList<>(candidates.size());
+        for (CheckpointCandidate candidate : candidates) {
+            long timestamp = timestampParser.applyAsLong(candidate.line);
+            if (timestamp != TimePeriod.NOT_SET) {
+                checkpoints.add(new GzipIndex.Checkpoint(candidate.memberOffset, candidate.memberUncompressedOffset, candidate.lineOffset, timestamp));
+            }
+        }
+        long firstTimestamp = TimePeriod.NOT_SET;
+        for (int i = 0; i < firstLines.size() && firstTimestamp == TimePeriod.NOT_SET; i++) {
+            firstTimestamp = timestampParser.applyAsLong(firstLines.get(i));
+        }
+        long lastTimestamp = TimePeriod.NOT_SET;
+        for (long i = lineCount - 1; i >= 0 && i >= lineCount - LINES_TO_FIND_TIMESTAMP && lastTimestamp == TimePeriod.NOT_SET; i--) {
+            lastTimestamp = timestampParser.applyAsLong(lastLines[(int) (i % LINES_TO_FIND_TIMESTAMP)]);
+        }
+        return new GzipIndex(file.length(), file.lastModified(), firstTimestamp, lastTimestamp, checkpoints);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static final class CheckpointCandidate {
+        private final long memberOffset;
+        private final long memberUncompressedOffset;
+        private final long lineOffset;
+        private final String line;
+
+        private CheckpointCandidate(long memberOffset, long memberUncompressedOffset, long lineOffset, String line) {
+            this.memberOffset = memberOffset;
+            this.memberUncompressedOffset = memberUncompressedOffset;
+            this.lineOffset = lineOffset;
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates a gzip file that can contain multiple gzip members, like rotated logs that are concatenated
+ * or files compressed with bgzip. Keeps track of the compressed offset and the uncompressed offset at the
+ * start of the current member: a member can be inflated on its own, so reading can start at a member.
+ *
+ * Note that the deflate blocks within a member cannot be used as start point, because
+ * java.util.zip.Inflater cannot be primed with the bits and window of a block boundary.
+ */
+@NotThreadSafe
+class GzipMemberInputStream extends InputStream {
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final RandomAccessFile file;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[64 * 1024];
+
+    private long bufferOffset;
+    private int bufferLength;
+    private int bufferPosition;
+
+    private long memberOffset;
+    private long memberUncompressedOffset;
+    private long uncompressedOffset;
+    private boolean isInMember;
+    private boolean isEndOfInput;
+
+    /**
+     * @param file gzip file to read from the start of a member at the given compressed offset
+     * @param uncompressedOffset the uncompressed offset of that member in the whole file
+     * @throws ZipException when there is no gzip member at the compressed offset
+     */
+    GzipMemberInputStream(RandomAccessFile file, long compressedOffset, long uncompressedOffset) throws IOException {
+        this.file = file;
+        this.file.seek(compressedOffset);
+        this.bufferOffset = compressedOffset;
+        this.memberOffset = compressedOffset;
+        this.memberUncompressedOffset = uncompressedOffset;
+        this.uncompressedOffset = uncompressedOffset;
+        // otherwise a wrong offset looks like trailing garbage and the rest of the file reads as empty
+        if (compressedOffset > 0 && !startMember()) {
+            throw new ZipException("No gzip member at offset " + compressedOffset);
+        }
+    }
+
+    /**
+     * @return compressed offset of the start of the current member
+     */
+    long getMemberOffset() {
+        return memberOffset;
+    }
+
+    /**
+     * @return uncompressed offset of the start of the current member
+     */
+    long getMemberUncompressedOffset() {
+        return memberUncompressedOffset;
+    }
+
+    /**
+     * @return uncompressed offset of the next byte to read
+     */
+    long getUncompressedOffset() {
+        return uncompressedOffset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xff;
+    }
+
+    /**
+     * Reads bytes of one member only, so all bytes of one read call belong to the current member.
+     */
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            if (!isInMember && !startMember()) {
+                return -1;
+            }
+            int inflated;
+            try {
+                inflated = inflater.inflate(bytes, offset, length);
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid gzip data at member offset " + memberOffset + ": " + e.getMessage());
+            }
+            bufferPosition = bufferLength - inflater.getRemaining();
+            if (inflated > 0) {
+                crc.update(bytes, offset, inflated);
+                uncompressedOffset += inflated;
+                return inflated;
+            }
+            if (inflater.finished()) {
+                endMember();
+            }
+            else if (inflater.needsDictionary()) {
+                throw new ZipException("Unexpected preset dictionary in gzip member at offset " + memberOffset);
+            }
+            else if (inflater.needsInput()) {
+                if (!fillBuffer()) {
+                    throw new EOFException("Unexpected end of gzip file in member at offset " + memberOffset);
+                }
+                inflater.setInput(buffer, bufferPosition, bufferLength - bufferPosition);
+            }
+        }
+    }
+
+    private boolean startMember() throws IOException {
+        if (isEndOfInput) {
+            return false;
+        }
+        memberOffset = bufferOffset + bufferPosition;
+        memberUncompressedOffset = uncompressedOffset;
+        int id1 = readByte();
+        if (id1 == -1) {
+            isEndOfInput = true;
+            return false;
+        }
+        int id2 = readByte();
+        if (id1 != 0x1f || id2 != 0x8b) {
+            if (memberOffset == 0) {
+                throw new ZipException("Not in gzip format");
+            }
+            // trailing garbage, such as zero padding, is ignored like GZIPInputStream does
+            isEndOfInput = true;
+            return false;
+        }
+        if (readByte() != 8) {
+            throw new ZipException("Unsupported compression method in gzip member at offset " + memberOffset);
+        }
+        int flags = readByte();
+        skipBytes(6);
+        if ((flags & FEXTRA) == FEXTRA) {
+            skipBytes(readByte() | (readByte() << 8));
+        }
+        if ((flags & FNAME) == FNAME) {
+            skipZeroTerminated();
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            skipZeroTerminated();
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            skipBytes(2);
+        }
+        inflater.reset();
+        crc.reset();
+        inflater.setInput(buffer, bufferPosition, bufferLength - bufferPosition);
+        isInMember = true;
+        return true;
+    }
+
+    private void endMember() throws IOException {
+        long expectedCrc = readInt() & 0xffffffffL;
+        long expectedSize = readInt() & 0xffffffffL;
+        if (expectedCrc != crc.getValue()) {
+            throw new ZipException("Corrupt gzip member at offset " + memberOffset + ": crc mismatch");
+        }
+        if (expectedSize != ((uncompressedOffset - memberUncompressedOffset) & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip member at offset " + memberOffset + ": size mismatch");
+        }
+        isInMember = false;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        bufferOffset = bufferOffset + bufferLength;
+        bufferPosition = 0;
+        bufferLength = Math.max(0, file.read(buffer));
+        return bufferLength > 0;
+    }
+
+    private int readByte() throws IOException {
+        if (bufferPosition >= bufferLength && !fillBuffer()) {
+            return -1;
+        }
+        return buffer[bufferPosition++] & 0xff;
+    }
+
+    private int readInt() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = readByte();
+            if (b == -1) {
+                throw new EOFException("Unexpected end of gzip file in trailer of member at offset " + memberOffset);
+            }
+            value |= b << (8 * i);
+        }
+        return value;
+    }
+
+    private void skipBytes(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (readByte() == -1) {
+                throw new EOFException("Unexpected end of gzip file in header of member at offset " + memberOffset);
+            }
+        }
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        int b;
+        do {
+            b = readByte();
+            if (b == -1) {
+                throw new EOFException("Unexpected end of gzip file in header of member at offset " + memberOffset);
+            }
+        } while (b != 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        file.close();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import nl.stokpop.lograter.util.FileUtils;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the entries of .zip, .tar, .tar.gz and .tgz log archives, each entry is a separate log.
+ *
+ * Entries of .zip and .tar archives can be opened independently, so they can be read in parallel.
+ * Entries of .tar.gz archives can only be read in one pass over the whole archive.
+ */
+final class LogArchive {
+
+    private LogArchive() {}
+
+    static boolean isArchive(File file) {
+        return isRandomAccessArchive(file) || isCompressedTar(file);
+    }
+
+    /**
+     * @return true if the entries of the archive can be opened independently
+     */
+    static boolean isRandomAccessArchive(File file) {
+        final String lowerCaseFilename = file.getName().toLowerCase();
+        return lowerCaseFilename.endsWith(".zip") || lowerCaseFilename.endsWith(".tar");
+    }
+
+    private static boolean isCompressedTar(File file) {
+        final String lowerCaseFilename = file.getName().toLowerCase();
+        return lowerCaseFilename.endsWith(".tar.gz") || lowerCaseFilename.endsWith(".tgz");
+    }
+
+    /**
+     * @return the entry as a file in the archive, to use in log and error messages
+     */
+    static File entryFile(File archive, String entryName) {
+        return new File(archive, entryName);
+    }
+
+    /**
+     * @return names of the file entries in archive order, directories are skipped
+     */
+    static List<String> listEntries(File archive) throws IOException {
+        List<String> entryNames = new ArrayList<>();
+        if (isZip(archive)) {
+            try (ZipFile zipFile = new ZipFile(archive)) {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (!entry.isDirectory()) {
+                        entryNames.add(entry.getName());
+                    }
+                }
+            }
+        }
+        else if (isRandomAccessArchive(archive)) {
+            try (TarFile tarFile = new TarFile(archive)) {
+                for (TarArchiveEntry entry : tarFile.getEntries()) {
+                    if (entry.isFile()) {
+                        entryNames.add(entry.getName());
+                    }
+                }
+            }
+        }
+        else {
+            try (TarArchiveInputStream tarInput = openCompressedTar(archive)) {
+                TarArchiveEntry entry;
+                while ((entry = tarInput.getNextEntry()) != null) {
+                    if (entry.isFile()) {
+                        entryNames.add(entry.getName());
+                    }
+                }
+            }
+        }
+        return entryNames;
+    }
+
+    /**
+     * Open one entry of a .zip or .tar archive, closing the reader closes the archive.
+     */
+    static BufferedReader openEntry(File archive, String entryName) throws IOException {
+        if (isZip(archive)) {
+            ZipFile zipFile = new ZipFile(archive);
+            try {
+                ZipEntry entry = zipFile.getEntry(entryName);
+                if (entry == null) {
+                    throw new IOException("Entry [" + entryName + "] not found in archive " + archive);
+                }
+                return createBufferedReader(new ArchiveEntryInputStream(zipFile.getInputStream(entry), zipFile));
+            } catch (IOException | RuntimeException e) {
+                zipFile.close();
+                throw e;
+            }
+        }
+        else if (isRandomAccessArchive(archive)) {
+            TarFile tarFile = new TarFile(archive);
+            try {
+                for (TarArchiveEntry entry : tarFile.getEntries()) {
+                    if (entry.getName().equals(entryName)) {
+                        return createBufferedReader(new ArchiveEntryInputStream(tarFile.getInputStream(entry), tarFile));
+                    }
+                }
+                throw new IOException("Entry [" + entryName + "] not found in archive " + archive);
+            } catch (IOException | RuntimeException e) {
+                tarFile.close();
+                throw e;
+            }
+        }
+        throw new IOException("Entries of archive cannot be opened independently: " + archive);
+    }
+
+    /**
+     * Read all file entries of the archive in archive order, in one pass over the archive.
+     */
+    static void forEachEntry(File archive, EntryConsumer entryConsumer) throws IOException {
+        if (isZip(archive)) {
+            try (ZipFile zipFile = new ZipFile(archive)) {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (!entry.isDirectory()) {
+                        try (BufferedReader reader = createBufferedReader(zipFile.getInputStream(entry))) {
+                            entryConsumer.accept(entry.getName(), reader);
+                        }
+                    }
+                }
+            }
+        }
+        else {
+            try (TarArchiveInputStream tarInput = isCompressedTar(archive) ? openCompressedTar(archive) : openTar(archive)) {
+                TarArchiveEntry entry;
+                while ((entry = tarInput.getNextEntry()) != null) {
+                    if (entry.isFile()) {
+                        // do not close: the reader reads the current entry of the archive stream
+                        entryConsumer.accept(entry.getName(), createBufferedReader(tarInput));
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isZip(File archive) {
+        return archive.getName().toLowerCase().endsWith(".zip");
+    }
+
+    private static TarArchiveInputStream openTar(File archive) throws IOException {
+        return new TarArchiveInputStream(new BufferedInputStream(new FileInputStream(archive), FileUtils.FOUR_MB));
+    }
+
+    private static TarArchiveInputStream openCompressedTar(File archive) throws IOException {
+        return new TarArchiveInputStream(new GZIPInputStream(new FileInputStream(archive), FileUtils.FOUR_MB));
+    }
+
+    private static BufferedReader createBufferedReader(InputStream inputStream) {
+        return FileUtils.createBufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(String entryName, BufferedReader entryReader) throws IOException;
+    }
+
+    /**
+     * Closes the archive when the entry stream is closed.
+     */
+    private static final class ArchiveEntryInputStream extends FilterInputStream {
+        private final Closeable archive;
+
+        private ArchiveEntryInputStream(InputStream entryInputStream, Closeable archive) {
+            super(entryInputStream);
+            this.archive = archive;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                archive.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import net.jcip.annotations.NotThreadSafe;
+import nl.stokpop.lograter.util.ByteSliceUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads lines of an uncompressed file as byte slices of a memory mapped window of the file.
+ * No bytes are decoded or copied: each line is a read only view on the mapped window.
+ *
+ * The file is mapped in windows of at most 256 MB, a line that crosses the end of a window
+ * is read from a new window that starts at the start of that line.
+ * Lines end with \n, \r or \r\n like for BufferedReader, the line terminator is not part of the line.
+ */
+@NotThreadSafe
+public class MappedLineReader implements Closeable {
+
+    static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+    private final FileChannel channel;
+    private final long endOffset;
+    private int windowSize;
+
+    private long windowOffset;
+    private MappedByteBuffer window;
+    private ByteBuffer line;
+    private int position;
+
+    public MappedLineReader(File file) throws IOException {
+        this(file, 0, file.length());
+    }
+
+    /**
+     * Read the lines from startOffset (inclusive) to endOffset (exclusive).
+     * Make sure the offsets are at the start of a line, otherwise the first line is partial.
+     */
+    public MappedLineReader(File file, long startOffset, long endOffset) throws IOException {
+        this(file, startOffset, endOffset, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedLineReader(File file, long startOffset, long endOffset, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.endOffset = Math.min(endOffset, channel.size());
+        this.windowSize = windowSize;
+        this.windowOffset = startOffset;
+    }
+
+    /**
+     * @return the next line as read only view that is valid until the next call, or null at the end
+     */
+    public ByteBuffer readLine() throws IOException {
+        if (window == null || position >= window.limit()) {
+            if (!mapWindow(windowOffset + (window == null ? 0 : position))) {
+                return null;
+            }
+        }
+
+        int lineEnd = ByteSliceUtils.indexOfLineEnd(window, position, window.limit());
+        while (lineEnd == -1 || isCarriageReturnAtEndOfWindow(lineEnd)) {
+            boolean isEndOfInput = windowOffset + window.limit() >= endOffset;
+            if (isEndOfInput) {
+                if (lineEnd != -1) {
+                    // last line ends with \r
+                    break;
+                }
+                // last line without line terminator
+                return createLine(window.limit(), window.limit());
+            }
+            if (position == 0) {
+                // line does not fit in window
+                if (windowSize == MAX_WINDOW_SIZE) {
+                    throw new IOException("Line at offset " + windowOffset + " is longer than " + MAX_WINDOW_SIZE + " bytes.");
+                }
+                windowSize = (int) Math.min(MAX_WINDOW_SIZE, windowSize * 2L);
+            }
+            mapWindow(windowOffset + position);
+            lineEnd = ByteSliceUtils.indexOfLineEnd(window, position, window.limit());
+        }
+        boolean isCarriageReturnNewline = window.get(lineEnd) == '\r' && lineEnd + 1 < window.limit() && window.get(lineEnd + 1) == '\n';
+        return createLine(lineEnd, isCarriageReturnNewline ? lineEnd + 2 : lineEnd + 1);
+    }
+
+    /**
+     * A \r at the end of the window can be followed by a \n in the next window.
+     */
+    private boolean isCarriageReturnAtEndOfWindow(int lineEnd) {
+        return lineEnd == window.limit() - 1 && window.get(lineEnd) == '\r';
+    }
+
+    private ByteBuffer createLine(int endOfLine, int startOfNextLine) {
+        line.limit(endOfLine).position(position);
+        position = startOfNextLine;
+        return line;
+    }
+
+    private boolean mapWindow(long offset) throws IOException {
+        long size = Math.min(windowSize, endOffset - offset);
+        if (size <= 0) {
+            return false;
+        }
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        line = window.asReadOnlyBuffer();
+        windowOffset = offset;
+        position = 0;
+        return true;
+    }
+
+    /**
+     * Closes the file. Note that a mapped window is only unmapped when it is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        line = null;
+        channel.close();
+    }
+}
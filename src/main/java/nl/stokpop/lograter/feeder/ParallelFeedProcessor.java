@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A FeedProcessor that can feed its inputs in parallel.
+ *
+ * Each input is fed to its own new Feeder, so Feeders do not need to be thread safe.
+ * The fed Feeders are handed back on the calling thread in the order of the inputs,
+ * so partial results can be merged in a deterministic way.
+ */
+public interface ParallelFeedProcessor extends FeedProcessor {
+
+    /**
+     * @return true when more than one thread is available to feed the inputs
+     */
+    boolean isParallel();
+
+    /**
+     * Feed each input to a new Feeder from the feederFactory and call fedFeederConsumer for each fed Feeder.
+     * @param feederFactory creates a new independent Feeder, called from the feeder threads
+     * @param fedFeederConsumer called on the calling thread with each fed Feeder, in input order
+     */
+    <T extends Feeder> void feedParallel(Supplier<T> feederFactory, Consumer<T> fedFeederConsumer);
+
+    /**
+     * Feed each input as feedParallel, but only inputs without results in the cache are fed.
+     * For cached inputs, a new Feeder with the cached results is handed to the fedFeederConsumer.
+     * @param resultCache cache to load and store the results of each input, or null for no cache
+     * @param timeFilter filter period and timestamp parser to skip inputs outside the filter period, or null to feed all inputs
+     */
+    <T extends Feeder> void feedParallel(Supplier<T> feederFactory, Consumer<T> fedFeederConsumer, FeedResultCache<T> resultCache, TimeFilteredFeeder timeFilter);
+}
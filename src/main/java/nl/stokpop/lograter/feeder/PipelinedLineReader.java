@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads the lines of a reader on a separate thread, so for instance decompression of a
+ * gzip or bzip2 file runs in parallel with parsing of the lines.
+ *
+ * The reader thread hands over the lines in batches via a bounded queue: when the queue is
+ * full the reader thread waits until the lines are consumed, to limit memory use.
+ * Read errors of the reader thread are thrown by readLine after the lines read before the error,
+ * also errors such as an OutOfMemoryError, so readLine never waits for lines that will not come.
+ *
+ * The readLine method should be called from one thread only.
+ */
+@NotThreadSafe
+public class PipelinedLineReader implements LineReader {
+
+    static final int DEFAULT_BATCH_SIZE = 8192;
+    static final int DEFAULT_QUEUE_SIZE = 8;
+
+    private static final List<String> END_OF_INPUT = new ArrayList<>(0);
+
+    private final BlockingQueue<List<String>> queue;
+    private final Thread readerThread;
+    private final String name;
+
+    private volatile Throwable readError;
+
+    private List<String> batch = Collections.emptyList();
+    private int index = 0;
+    private boolean isEndOfInput = false;
+
+    /**
+     * Starts a reader thread that reads all lines from the reader and closes the reader at the end.
+     * @param name used in the name of the reader thread and in error messages
+     */
+    public PipelinedLineReader(BufferedReader reader, String name) {
+        this(LineReader.of(reader), name);
+    }
+
+    /**
+     * Starts a reader thread that reads all lines from the line reader and closes the line reader at the end.
+     * @param name used in the name of the reader thread and in error messages
+     */
+    public PipelinedLineReader(LineReader reader, String name) {
+        this(reader, name, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_SIZE);
+    }
+
+    PipelinedLineReader(BufferedReader reader, String name, int batchSize, int queueSize) {
+        this(LineReader.of(reader), name, batchSize, queueSize);
+    }
+
+    PipelinedLineReader(LineReader reader, String name, int batchSize, int queueSize) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.readerThread = new Thread(() -> readLines(reader, batchSize), "lograter-reader-" + name);
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    private void readLines(LineReader reader, int batchSize) {
+        boolean isInterrupted = false;
+        try (LineReader lineReader = reader) {
+            List<String> lines = new ArrayList<>(batchSize);
+            String line;
+            while ((line = lineReader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == batchSize) {
+                    queue.put(lines);
+                    lines = new ArrayList<>(batchSize);
+                }
+            }
+            if (!lines.isEmpty()) {
+                queue.put(lines);
+            }
+        } catch (InterruptedException e) {
+            // closed before all lines are consumed
+            isInterrupted = true;
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            readError = e;
+        } finally {
+            if (!isInterrupted) {
+                putEndOfInput();
+            }
+        }
+    }
+
+    private void putEndOfInput() {
+        try {
+            queue.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the next line, or null at the end
+     */
+    public String readLine() throws IOException {
+        while (index >= batch.size()) {
+            if (isEndOfInput) {
+                return null;
+            }
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for lines of " + name);
+            }
+            index = 0;
+            if (batch == END_OF_INPUT) {
+                isEndOfInput = true;
+                if (readError != null) {
+                    throwReadError();
+                }
+            }
+        }
+        return batch.get(index++);
+    }
+
+    private void throwReadError() throws IOException {
+        if (readError instanceof IOException) {
+            throw (IOException) readError;
+        }
+        if (readError instanceof Error) {
+            throw (Error) readError;
+        }
+        throw new IOException("Failed to read lines of " + name, readError);
+    }
+
+    /**
+     * Stops the reader thread, if it is still running.
+     */
+    @Override
+    public void close() {
+        readerThread.interrupt();
+        queue.clear();
+    }
+}
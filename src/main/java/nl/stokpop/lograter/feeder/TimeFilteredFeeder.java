@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import nl.stokpop.lograter.util.time.TimePeriod;
+
+/**
+ * A Feeder that skips log lines outside a filter period. The FileFeeder can use an index
+ * of the log file to skip parts of the file outside the filter period.
+ */
+public interface TimeFilteredFeeder extends Feeder {
+
+    /**
+     * @return the timestamp of the log line, or TimePeriod.NOT_SET if the line has no (valid) timestamp
+     */
+    long parseTimestamp(String logLine);
+
+    /**
+     * @return the filter period, lines outside this period are skipped when both start and end time are set
+     */
+    TimePeriod getFilterPeriod();
+
+}
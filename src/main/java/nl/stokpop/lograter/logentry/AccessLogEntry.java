@@ -20,6 +20,10 @@ import nl.stokpop.lograter.util.HttpUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public class AccessLogEntry extends LogEntry {
 
 	private static final Logger log = LoggerFactory.getLogger(AccessLogEntry.class);
@@ -50,6 +54,7 @@ public class AccessLogEntry extends LogEntry {
 
     private String url;
 	private int httpStatus;
+	private boolean isHttpStatusSet = false;
 	private HttpMethod httpMethod;
 	private int durationInMillis;
 	private String referrer;
@@ -153,12 +158,37 @@ public class AccessLogEntry extends LogEntry {
 
 	public final void setHttpStatus(int httpStatus) {
 		this.httpStatus = httpStatus;
-		this.addField(HTTP_STATUS, String.valueOf(httpStatus));
+		this.isHttpStatusSet = true;
 	}
 
 	public final void setHttpMethod(HttpMethod httpMethod) {
 		this.httpMethod = httpMethod;
-		this.addField(HTTP_METHOD, httpMethod.name());
+	}
+
+	/**
+	 * The http status and http method are also available as fields, the field values are only created when asked for.
+	 */
+	@Override
+	protected String getDerivedField(String name) {
+		if (HTTP_STATUS.equals(name)) {
+			return isHttpStatusSet ? String.valueOf(httpStatus) : null;
+		}
+		if (HTTP_METHOD.equals(name)) {
+			return httpMethod == null ? null : httpMethod.name();
+		}
+		return null;
+	}
+
+	@Override
+	protected Collection<String> getDerivedFieldNames() {
+		List<String> names = new ArrayList<>(2);
+		if (isHttpStatusSet) {
+			names.add(HTTP_STATUS);
+		}
+		if (httpMethod != null) {
+			names.add(HTTP_METHOD);
+		}
+		return names;
 	}
 
 	public final void setDurationInMillis(int durationInMillis) {
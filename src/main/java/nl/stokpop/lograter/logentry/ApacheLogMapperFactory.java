@@ -18,6 +18,8 @@ package nl.stokpop.lograter.logentry;
 import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.command.BaseUnit;
 import nl.stokpop.lograter.parser.line.DateLogEntryMapper;
+import nl.stokpop.lograter.parser.line.FieldView;
+import nl.stokpop.lograter.parser.line.FieldViewEntryMapper;
 import nl.stokpop.lograter.parser.line.LogEntryMapper;
 import nl.stokpop.lograter.parser.line.LogbackElement;
 import nl.stokpop.lograter.parser.line.StringEntryMapper;
@@ -77,15 +79,30 @@ public class ApacheLogMapperFactory {
 		mappers.put("msec_frac",
 			new DateLogEntryMapper<AccessLogEntry>(dateTimePattern) {
 				public void writeToLogEntry(String value, String variable, AccessLogEntry e) {
-					e.setTimestamp(e.getTimestamp() + Long.parseLong(value));
+					e.setTimestamp(e.getTimestamp() + parseTimestamp(value));
+				}
+				@Override
+				public long parseTimestamp(String value) {
+					return Long.parseLong(value);
+				}
+				@Override
+				public void writeToLogEntry(FieldView value, String variable, AccessLogEntry e) {
+					e.setTimestamp(e.getTimestamp() + value.parseLong());
 				}
 			}
 		);
 		mappers.put("usec_frac",
 			new DateLogEntryMapper<AccessLogEntry>(dateTimePattern) {
 				public void writeToLogEntry(String value, String variable, AccessLogEntry e) {
-                    long millis = Long.parseLong(value) / 1000;
-					e.setTimestamp(e.getTimestamp() + millis);
+					e.setTimestamp(e.getTimestamp() + parseTimestamp(value));
+				}
+				@Override
+				public long parseTimestamp(String value) {
+					return Long.parseLong(value) / 1000;
+				}
+				@Override
+				public void writeToLogEntry(FieldView value, String variable, AccessLogEntry e) {
+					e.setTimestamp(e.getTimestamp() + value.parseLong() / 1000);
 				}
 			}
 		);
@@ -94,17 +111,17 @@ public class ApacheLogMapperFactory {
                 (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> parseRequest(value, e, urlSplitter));
 
 		mappers.put("s",
-                (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> e.setHttpStatus(Integer.parseInt(value)));
+                (FieldViewEntryMapper<AccessLogEntry>) (value, variable, e) -> e.setHttpStatus(value.parseInt()));
 
 		mappers.put("b",
-                (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> {
-                    int bytes = "-".equals(value) ? 0 : Integer.parseInt(value);
+                (FieldViewEntryMapper<AccessLogEntry>) (value, variable, e) -> {
+                    int bytes = value.contentEquals("-") ? 0 : value.parseInt();
                     e.setBytes(bytes);
                 });
 
 		mappers.put("D",
-                (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> {
-                    long durationInMicros = Long.parseLong(value);
+                (FieldViewEntryMapper<AccessLogEntry>) (value, variable, e) -> {
+                    long durationInMicros = value.parseLong();
                     insertDurationIntoLogEntry(e, durationInMicros, baseUnit);
                 });
 
@@ -117,21 +134,21 @@ public class ApacheLogMapperFactory {
                 });
 
         mappers.put("x",
-                (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> {
+                (FieldViewEntryMapper<AccessLogEntry>) (value, variable, e) -> {
                     if ("duration-nanoseconds".equals(variable)) {
-                        long durationInNanos = Long.parseLong(value);
+                        long durationInNanos = value.parseLong();
                         long durationInMicros = Math.round(durationInNanos / 1_000.0);
                         insertDurationIntoLogEntry(e, durationInMicros, baseUnit);
                     }
 		        });
 
 		mappers.put("i",
-                (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> {
+                (FieldViewEntryMapper<AccessLogEntry>) (value, variable, e) -> {
                     if ("Referer".equals(variable)) {
-                        e.setReferrer(value);
+                        e.setReferrer(value.toString());
                     }
                     else if ("User-Agent".equals(variable)) {
-                        e.setUserAgent(value);
+                        e.setUserAgent(value.toString());
                     }
                     else {
                         log.debug("No special setter for i directive variable: {} with value: {}", variable, value);
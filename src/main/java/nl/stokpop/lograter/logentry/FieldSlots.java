@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.logentry;
+
+import net.jcip.annotations.Immutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field names of a log format resolved to slots, shared by all log entries parsed with that log format.
+ * The log entries store the field values in arrays instead of a map per log entry.
+ */
+@Immutable
+public final class FieldSlots {
+
+    public static final int NO_SLOT = -1;
+
+    private final List<String> names;
+    private final Map<String, Integer> slots;
+
+    private FieldSlots(List<String> names) {
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+        Map<String, Integer> slotsPerName = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            slotsPerName.put(names.get(i), i);
+        }
+        this.slots = Collections.unmodifiableMap(slotsPerName);
+    }
+
+    /**
+     * @param names the unique field names, in slot order
+     */
+    public static FieldSlots of(List<String> names) {
+        return new FieldSlots(names);
+    }
+
+    /**
+     * @return the slot of the field, or NO_SLOT if the field has no slot
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? NO_SLOT : slot;
+    }
+
+    public String nameOf(int slot) {
+        return names.get(slot);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    @Override
+    public String toString() {
+        return "FieldSlots{" + "names=" + names + '}';
+    }
+}
@@ -16,6 +16,7 @@
 package nl.stokpop.lograter.logentry;
 
 import nl.stokpop.lograter.counter.HttpMethod;
+import nl.stokpop.lograter.parser.line.FieldViewEntryMapper;
 import nl.stokpop.lograter.parser.line.LogEntryMapper;
 import nl.stokpop.lograter.parser.line.LogbackElement;
 import org.joda.time.format.DateTimeFormat;
@@ -73,19 +74,19 @@ public class IisLogEntry extends AccessLogEntry {
 
         mappers.put("s-ip", (value, variable, e) -> e.s_ip = value);
 
-        mappers.put("s-port", (value, variable, e) -> e.s_port = Integer.parseInt(value));
+        mappers.put("s-port", (FieldViewEntryMapper<IisLogEntry>) (value, variable, e) -> e.s_port = value.parseInt());
 
         mappers.put("cs-method", (value, variable, e) -> e.setHttpMethod(HttpMethod.valueOf(value)));
 
         mappers.put("cs-uri-stem", (value, variable, e) -> e.setUrl(value));
 
-        mappers.put("sc-status", (value, variable, e) -> e.setHttpStatus(Integer.parseInt(value)));
+        mappers.put("sc-status", (FieldViewEntryMapper<IisLogEntry>) (value, variable, e) -> e.setHttpStatus(value.parseInt()));
 
-        mappers.put("sc-bytes", (value, variable, e) -> e.sc_bytes = Integer.parseInt(value));
+        mappers.put("sc-bytes", (FieldViewEntryMapper<IisLogEntry>) (value, variable, e) -> e.sc_bytes = value.parseInt());
 
-        mappers.put("cs-bytes", (value, variable, e) -> e.cs_bytes = Integer.parseInt(value));
+        mappers.put("cs-bytes", (FieldViewEntryMapper<IisLogEntry>) (value, variable, e) -> e.cs_bytes = value.parseInt());
 
-        mappers.put("time-taken", (value, variable, e) -> e.setDurationInMillis(Integer.parseInt(value)));
+        mappers.put("time-taken", (FieldViewEntryMapper<IisLogEntry>) (value, variable, e) -> e.setDurationInMillis(value.parseInt()));
 
         mappers.put("cs-version", (value, variable, e) -> e.cs_version = value);
 
@@ -15,8 +15,14 @@
  */
 package nl.stokpop.lograter.logentry;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class LogEntry {
 
@@ -27,7 +33,12 @@ public class LogEntry {
 	private long timestamp = 0L;
 	private String logline;
 	private String logFilename;
-	private final Map<String, String> fieldsWithValue = new HashMap<>();
+	// the fields of a log format with slots are stored as start and end index in the logline,
+	// the values are only created when asked for
+	private FieldSlots fieldSlots;
+	private int[] fieldBounds;
+	// other fields, created on first use
+	private Map<String, String> fieldsWithValue;
 	
 	public String getLogFilename() {
 		return logFilename;
@@ -53,18 +64,79 @@ public class LogEntry {
 		this.timestamp = timestamp;
 	}
 
+	/**
+	 * Store the fields of the log format of these slots in this entry as bounds in the logline.
+	 * Call before the fields are added, after the logline is set.
+	 */
+	public final void useFieldSlots(FieldSlots fieldSlots) {
+		this.fieldSlots = fieldSlots;
+		this.fieldBounds = new int[fieldSlots.size() * 2];
+		Arrays.fill(fieldBounds, -1);
+	}
+
+	/**
+	 * Set the value of the field in the slot to the part of the logline from start (inclusive) to end (exclusive).
+	 */
+	public final void setFieldBounds(int slot, int start, int end) {
+		fieldBounds[slot * 2] = start;
+		fieldBounds[slot * 2 + 1] = end;
+	}
+
 	public final void addField(String name, String value) {
+		int slot = slotOf(name);
+		if (slot != FieldSlots.NO_SLOT) {
+			// last value wins, as with the map
+			setFieldBounds(slot, -1, -1);
+		}
+		if (fieldsWithValue == null) {
+			fieldsWithValue = new HashMap<>();
+		}
 		fieldsWithValue.put(name, value);
 	}
 
 	public final String getField(String name) {
-		return fieldsWithValue.get(name);
+		int slot = slotOf(name);
+		if (slot != FieldSlots.NO_SLOT && fieldBounds[slot * 2] != -1) {
+			return logline.substring(fieldBounds[slot * 2], fieldBounds[slot * 2 + 1]);
+		}
+		if (fieldsWithValue != null && fieldsWithValue.containsKey(name)) {
+			return fieldsWithValue.get(name);
+		}
+		return getDerivedField(name);
 	}
 
     public final String[] getFields() {
-        return fieldsWithValue.keySet().toArray(new String[0]);
+		Set<String> names = new LinkedHashSet<>();
+		if (fieldSlots != null) {
+			for (int slot = 0; slot < fieldSlots.size(); slot++) {
+				if (fieldBounds[slot * 2] != -1) {
+					names.add(fieldSlots.nameOf(slot));
+				}
+			}
+		}
+		if (fieldsWithValue != null) {
+			names.addAll(fieldsWithValue.keySet());
+		}
+		names.addAll(getDerivedFieldNames());
+        return names.toArray(new String[0]);
     }
 
+	/**
+	 * Fields with values that are derived from other properties of the log entry, such as the http status.
+	 * @return the value of the derived field, or null if there is no such field
+	 */
+	protected String getDerivedField(String name) {
+		return null;
+	}
+
+	protected Collection<String> getDerivedFieldNames() {
+		return Collections.emptyList();
+	}
+
+	private int slotOf(String name) {
+		return fieldSlots == null ? FieldSlots.NO_SLOT : fieldSlots.slotOf(name);
+	}
+
 	@Override
 	public int hashCode() {
 		throw new UnsupportedOperationException();
@@ -77,8 +149,12 @@ public class LogEntry {
 
     @Override
     public String toString() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String name : getFields()) {
+            fields.put(name, getField(name));
+        }
         return "LogEntry{" +
-                "fieldsWithValue=" + fieldsWithValue +
+                "fieldsWithValue=" + fields +
                 ", logFilename='" + logFilename + '\'' +
                 ", logline='" + logline + '\'' +
                 ", timestamp=" + timestamp +
@@ -16,6 +16,7 @@
 package nl.stokpop.lograter.logentry;
 
 import nl.stokpop.lograter.parser.line.DateLogEntryMapper;
+import nl.stokpop.lograter.parser.line.FieldViewEntryMapper;
 import nl.stokpop.lograter.parser.line.LogEntryMapper;
 import nl.stokpop.lograter.parser.line.LogbackElement;
 import nl.stokpop.lograter.parser.line.StringEntryMapper;
@@ -54,11 +55,11 @@ public class NginxLogMapperFactory {
                 (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> parseRequest(value, e, urlSplitter));
 
 		mappers.put("status",
-                (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> e.setHttpStatus(Integer.parseInt(value)));
+                (FieldViewEntryMapper<AccessLogEntry>) (value, variable, e) -> e.setHttpStatus(value.parseInt()));
 
 		mappers.put("body_bytes_sent",
-                (StringEntryMapper<AccessLogEntry>) (value, variable, e) -> {
-                    int bytes = "-".equals(value) ? 0 : Integer.parseInt(value);
+                (FieldViewEntryMapper<AccessLogEntry>) (value, variable, e) -> {
+                    int bytes = value.contentEquals("-") ? 0 : value.parseInt();
                     e.setBytes(bytes);
                 });
 
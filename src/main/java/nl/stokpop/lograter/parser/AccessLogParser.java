@@ -16,19 +16,24 @@
 package nl.stokpop.lograter.parser;
 
 import nl.stokpop.lograter.LogRaterException;
+import nl.stokpop.lograter.feeder.ByteSliceFeeder;
+import nl.stokpop.lograter.feeder.TimeFilteredFeeder;
 import nl.stokpop.lograter.logentry.AccessLogEntry;
 import nl.stokpop.lograter.parser.line.LogFormatParser;
+import nl.stokpop.lograter.parser.line.ParseResult;
 import nl.stokpop.lograter.processor.Processor;
+import nl.stokpop.lograter.util.ByteSliceUtils;
 import nl.stokpop.lograter.util.LogRaterUtils;
 import nl.stokpop.lograter.util.SessionIdParser;
 import nl.stokpop.lograter.util.time.TimePeriod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
-public class AccessLogParser implements LogFileParser<AccessLogEntry> {
+public class AccessLogParser implements LogFileParser<AccessLogEntry>, ByteSliceFeeder, TimeFilteredFeeder {
 	
 	private static final Logger log = LoggerFactory.getLogger(AccessLogParser.class);
 
@@ -37,6 +42,8 @@ public class AccessLogParser implements LogFileParser<AccessLogEntry> {
 	private final TimePeriod filterTimePeriod;
 	private final SessionIdParser sessionIdParser;
 
+	private long filteredLines = 0;
+
 	public AccessLogParser(LogFormatParser<AccessLogEntry> lineParser, TimePeriod filterPeriod, SessionIdParser sessionIdParser) {
 		super();
 		this.lineParser = lineParser;
@@ -50,13 +57,34 @@ public class AccessLogParser implements LogFileParser<AccessLogEntry> {
 
 	@Override
 	public void addLogLine(final String filename, final String logLine)  {
-		
+		ParseResult<?> result = tryAddLogLine(filename, logLine);
+		if (!result.isParsed()) {
+			throw new LogRaterException(result.getReason());
+		}
+	}
+
+	@Override
+	public ParseResult<?> tryAddLogLine(final String filename, final String logLine) {
+
 		if (logLine.isEmpty()) {
 //			this.nonlogline++;
-			return;
+			return ParseResult.parsedWithoutEntry();
 		}
 
-		AccessLogEntry entry = this.lineParser.parseLogLine(logLine);
+		if (isOutsideFilterPeriod(logLine)) {
+			filteredLines++;
+			return ParseResult.parsedWithoutEntry();
+		}
+
+		return parseAndProcess(logLine);
+	}
+
+	private ParseResult<?> parseAndProcess(final String logLine) {
+		ParseResult<AccessLogEntry> result = this.lineParser.tryParseLogLine(logLine);
+		if (!result.isParsed()) {
+			return result;
+		}
+		AccessLogEntry entry = result.getEntry();
 
 		String sessionId = sessionIdParser.parseSessionId(entry);
 
@@ -69,21 +97,92 @@ public class AccessLogParser implements LogFileParser<AccessLogEntry> {
 
         // sanity check: is at least the url present?
         if (entry.getUrl() == null) {
-            throw new LogRaterException("Expected at least a url to be parsed for this line, check the logpattern for \"%r\" (mind % escaping in dos cmd!): [" + entry.getLogline() + "]");
+            return ParseResult.malformed("Expected at least a url to be parsed for this line, check the logpattern for \"%r\" (mind % escaping in dos cmd!): [" + entry.getLogline() + "]");
         }
 		
 		log.debug("parsed line: {}", entry);
 		long timestamp = entry.getTimestamp();
 		
 		if (!filterTimePeriod.isWithinTimePeriod(timestamp)) {
-//			data.incFilteredLines();
-			return;
+			filteredLines++;
+			return result;
 		}
 		
 		for (Processor<AccessLogEntry> processor : processors) {
 			processor.processEntry(entry);
 		}		
 
+		return result;
+	}
+
+	/**
+	 * Parse only the timestamp to skip lines outside the filter period without parsing all fields.
+	 * Lines of which only the timestamp cannot be parsed are parsed completely, also to report errors.
+	 */
+	private boolean isOutsideFilterPeriod(CharSequence logLine) {
+		if (!filterTimePeriod.hasBothTimestampsSet()) {
+			return false;
+		}
+		long timestamp;
+		try {
+			timestamp = lineParser.parseTimestamp(logLine);
+		} catch (RuntimeException e) {
+			return false;
+		}
+		return timestamp != TimePeriod.NOT_SET && !filterTimePeriod.isWithinTimePeriod(timestamp);
+	}
+
+	/**
+	 * @return number of lines skipped because the timestamp is outside the filter period
+	 */
+	public long getFilteredLines() {
+		return filteredLines;
+	}
+
+	@Override
+	public void addLogLine(final String filename, final ByteBuffer logLine) {
+		ParseResult<?> result = tryAddLogLine(filename, logLine);
+		if (!result.isParsed()) {
+			throw new LogRaterException(result.getReason());
+		}
+	}
+
+	/**
+	 * The timestamp is parsed from the bytes of the log line, so log lines outside the filter period
+	 * are skipped without decoding. The other log lines are decoded to a String to parse all fields.
+	 */
+	@Override
+	public ParseResult<?> tryAddLogLine(final String filename, final ByteBuffer logLine) {
+
+		if (!logLine.hasRemaining()) {
+			return ParseResult.parsedWithoutEntry();
+		}
+
+		if (isOutsideFilterPeriod(ByteSliceUtils.asciiView(logLine))) {
+			filteredLines++;
+			return ParseResult.parsedWithoutEntry();
+		}
+
+		return parseAndProcess(ByteSliceUtils.toString(logLine));
+	}
+
+	@Override
+	public long parseTimestamp(final String logLine) {
+		if (logLine.isEmpty()) {
+			return TimePeriod.NOT_SET;
+		}
+		try {
+			long timestamp = lineParser.parseTimestamp(logLine);
+			return timestamp != TimePeriod.NOT_SET ? timestamp : lineParser.parseLogLine(logLine).getTimestamp();
+		} catch (RuntimeException e) {
+			log.debug("No timestamp found in line [{}]: {}", logLine, e.getMessage());
+			return TimePeriod.NOT_SET;
+		}
+	}
+
+	@Override
+	public TimePeriod getFilterPeriod() {
+		return filterTimePeriod;
 	}
 
 	public void addProcessor(Processor<AccessLogEntry> processor) {
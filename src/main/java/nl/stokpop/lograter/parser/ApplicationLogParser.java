@@ -18,6 +18,7 @@ package nl.stokpop.lograter.parser;
 import net.jcip.annotations.NotThreadSafe;
 import nl.stokpop.lograter.logentry.LogbackLogEntry;
 import nl.stokpop.lograter.parser.line.LogbackParser;
+import nl.stokpop.lograter.parser.line.ParseResult;
 import nl.stokpop.lograter.processor.Processor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,12 +50,9 @@ public class ApplicationLogParser implements LogFileParser<LogbackLogEntry> {
 
 	public void addLogLine(final String logFilename, final String logLine) {
 
-		LogbackLogEntry entry;
-		try {
-			 entry = logbackParser.parseLogLine(logLine);
-		} catch (RuntimeException exception) {
-			log.debug("NON-LOGLINE: '{}' reason: [{}]", logLine, exception.getMessage());
-			log.trace("STACKTRACE: ", exception);
+		ParseResult<LogbackLogEntry> result = logbackParser.tryParseLogLine(logLine);
+		if (!result.isParsed()) {
+			log.debug("NON-LOGLINE: '{}' reason: [{}] {}", logLine, result.getStatus(), result.getReason());
             if (nonLogLines.size() < MAX_NON_LOGLINES) {
 			    nonLogLines.add(logLine);
             }
@@ -64,17 +62,23 @@ public class ApplicationLogParser implements LogFileParser<LogbackLogEntry> {
                         "Clearing non-loglines collected so far. " +
                         "Total non-loglines counter will be missing 500 entries.",
                         MAX_NON_LOGLINES, logFilename));
-                log.error("NON-LOGLINE: {} reason: {}", logLine, exception);
+                log.error("NON-LOGLINE: {} reason: [{}] {}", logLine, result.getStatus(), result.getReason());
                 nonLogLines.clear();
             }
 			return;
 		}
-		
+
+		LogbackLogEntry entry = result.getEntry();
 		entry.setLogline(logLine);
 		entry.setLogFilename(logFilename);
 		
 		if (nonLogLines.size() > 0) {
-			previousEntry.addNonLogLinesCopy(nonLogLines);
+			if (previousEntry != null) {
+				previousEntry.addNonLogLinesCopy(nonLogLines);
+			}
+			else {
+				log.debug("Skipping [{}] non-loglines without a preceding log entry in [{}].", nonLogLines.size(), logFilename);
+			}
 			nonLogLines.clear();
 		}
 
@@ -88,12 +92,35 @@ public class ApplicationLogParser implements LogFileParser<LogbackLogEntry> {
 		previousEntry = entry;
 	}
 
+	/**
+	 * Lines that cannot be parsed are non-loglines that belong to the previous log entry, e.g. a stack trace.
+	 */
+	@Override
+	public boolean isStartOfEntry(final String logLine) {
+		return logbackParser.isStartOfLogLine(logLine);
+	}
+
+	/**
+	 * Call at the end of each file or chunk of a file: the last entry is only processed
+	 * when the next entry is found, to collect the non-loglines that belong to it.
+	 */
 	public void processLastEntry() {
 		if (previousEntry != null) {
+			if (nonLogLines.size() > 0) {
+				previousEntry.addNonLogLinesCopy(nonLogLines);
+				nonLogLines.clear();
+			}
 			log.debug("new entry: {}", previousEntry);
 			for (Processor<LogbackLogEntry> processor : processors) {
 				processor.processEntry(previousEntry);
 			}
+			// avoid processing the same entry again when the next file starts
+			previousEntry = null;
 		}
 	}
+
+	@Override
+	public void endOfInput() {
+		processLastEntry();
+	}
 }
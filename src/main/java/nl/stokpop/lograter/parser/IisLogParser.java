@@ -15,9 +15,11 @@
  */
 package nl.stokpop.lograter.parser;
 
+import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.logentry.AccessLogEntry;
 import nl.stokpop.lograter.logentry.IisLogEntry;
 import nl.stokpop.lograter.parser.line.IisLogFormatParser;
+import nl.stokpop.lograter.parser.line.ParseResult;
 import nl.stokpop.lograter.processor.Processor;
 import nl.stokpop.lograter.util.LogRaterUtils;
 import nl.stokpop.lograter.util.SessionIdParser;
@@ -47,13 +49,25 @@ public class IisLogParser implements LogFileParser<AccessLogEntry> {
 
     @Override
 	public void addLogLine(final String filename, final String logLine) {
+		ParseResult<?> result = tryAddLogLine(filename, logLine);
+		if (!result.isParsed()) {
+			throw new LogRaterException(result.getReason());
+		}
+	}
+
+	@Override
+	public ParseResult<?> tryAddLogLine(final String filename, final String logLine) {
 
 		if (logLine.isEmpty() || logLine.startsWith("#")) {
 			log.debug("Non log line: {}", logLine);
-			return;
+			return ParseResult.parsedWithoutEntry();
 		}
 
-		IisLogEntry entry = this.lineParser.parseLogLine(logLine);
+		ParseResult<IisLogEntry> result = this.lineParser.tryParseLogLine(logLine);
+		if (!result.isParsed()) {
+			return result;
+		}
+		IisLogEntry entry = result.getEntry();
 
 		String sessionId = sessionIdParser.parseSessionId(entry);
 
@@ -68,6 +82,7 @@ public class IisLogParser implements LogFileParser<AccessLogEntry> {
 			processor.processEntry(entry);
 		}
 
+		return result;
 	}
 
 	public void addProcessor(Processor<AccessLogEntry> processor) {
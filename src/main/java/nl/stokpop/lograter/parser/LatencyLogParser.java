@@ -17,6 +17,7 @@ package nl.stokpop.lograter.parser;
 
 import nl.stokpop.lograter.logentry.LatencyLogEntry;
 import nl.stokpop.lograter.parser.line.LogbackParser;
+import nl.stokpop.lograter.parser.line.ParseResult;
 import nl.stokpop.lograter.processor.Processor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,7 +49,26 @@ public class LatencyLogParser implements LogFileParser<LatencyLogEntry> {
 		}
 
 		LatencyLogEntry entry = logbackParser.parseLogLine(logLine);
-		
+
+		process(entry);
+	}
+
+	@Override
+	public ParseResult<?> tryAddLogLine(final String logfileName, final String logLine) {
+
+		if (logLine.isEmpty()) {
+			log.debug("nonlog: {}", logLine);
+			return ParseResult.parsedWithoutEntry();
+		}
+
+		ParseResult<LatencyLogEntry> result = logbackParser.tryParseLogLine(logLine);
+		if (result.isParsed()) {
+			process(result.getEntry());
+		}
+		return result;
+	}
+
+	private void process(LatencyLogEntry entry) {
 		for (Processor<LatencyLogEntry> processor : processors) {
 			processor.processEntry(entry);
 		}
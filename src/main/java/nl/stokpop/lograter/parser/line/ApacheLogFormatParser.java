@@ -27,14 +27,15 @@ public class ApacheLogFormatParser<T extends LogEntry> implements LogFormatParse
 
 	private static final Logger log = LoggerFactory.getLogger(ApacheLogFormatParser.class.getName());
 
-	private final List<LogbackElement> elements;
-	private final Map<String, LogEntryMapper<T>> mappers;
+	private static final Set<String> FIELD_NAME_IS_VARIABLE_DIRECTIVES =
+		Collections.unmodifiableSet(new HashSet<>(Arrays.asList("i", "x", "X", "C", "o", "n", "e")));
+
+	private final LogFormatPlan<T> plan;
 
 	private final LogEntryFactory<T> logEntryFactory;
 
 	public ApacheLogFormatParser(List<LogbackElement> elements, Map<String, LogEntryMapper<T>> mappers, LogEntryFactory<T> logEntryFactory) {
-		this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
-		this.mappers = Collections.unmodifiableMap(new HashMap<>(mappers));
+		this.plan = compile(elements, mappers);
 		this.logEntryFactory = logEntryFactory;
 	}
 
@@ -45,7 +46,34 @@ public class ApacheLogFormatParser<T extends LogEntry> implements LogFormatParse
 
         entry.setLogline(logline);
 
-		int locationInLine = 0;
+		plan.parse(logline, entry);
+
+		return entry;
+	}
+
+	@Override
+	public ParseResult<T> tryParseLogLine(String logline) {
+
+		T entry = logEntryFactory.newInstance();
+
+		entry.setLogline(logline);
+
+		return plan.tryParse(logline, entry);
+	}
+
+	/**
+	 * Only locates the fields up to the last timestamp field and only decodes the timestamp fields.
+	 */
+	@Override
+	public long parseTimestamp(CharSequence logline) {
+		return plan.parseTimestamp(logline);
+	}
+
+	/**
+	 * Compile the elements once into steps with the field names and mappers of the fields.
+	 */
+	private static <T extends LogEntry> LogFormatPlan<T> compile(List<LogbackElement> elements, Map<String, LogEntryMapper<T>> mappers) {
+		List<LogFormatPlan.Step<T>> steps = new ArrayList<>();
 		LogbackDirective var = null;
 
 		for (LogbackElement element : elements) {
@@ -53,36 +81,20 @@ public class ApacheLogFormatParser<T extends LogEntry> implements LogFormatParse
 				String search = ((LogbackLiteral) element).getLiteral();
 				// if search length is zero, and it is not the first element (var == null), there are two variables without separator, take all
 				boolean isLastParsableEntry = search.length() == 0 && var != null;
-				int indexOfSearch =  isLastParsableEntry ? logline.length() : logline.indexOf(search, locationInLine);
-				if (var != null) {
-					log.trace("directive var: {}", var);
+				if (var == null) {
+					steps.add(new LogFormatPlan.Step<>(search, false, null, null, null, false));
+				}
+				else {
 					String directive = var.getDirective();
-                    if (directive.equals("t") && var.getVariable() == null) {
-                        // default it is a timestamp, which is surrounded by [ and ] and may contain spaces.
-                        // NOTE: is not surrounded by [] with custom formats
-                        indexOfSearch = logline.indexOf("]" + search, locationInLine) + 1;
-                    }
-					String value;
-					try {
-						value = logline.substring(locationInLine, indexOfSearch);
-					} catch (StringIndexOutOfBoundsException e) {
-						throw new LogRaterException("Problem parsing log line searching '" + search + "' for " + var + " in logline " + logline, e);
-					}
-                    // use variable name for i, x, C, o, n, e directives (theoretically can result in name clash)
-                    String fieldName = directive;
-					// is x in use? cannot find it on the internet?
-                    if ("i".equals(directive) || "x".equals(directive) || "X".equals(directive) || "C".equals(directive) || "o".equals(directive) || "n".equals(directive) || "e".equals(directive) ) {
-                        fieldName = var.getVariable();
-                    }
-                    entry.addField(fieldName, value);
-					LogEntryMapper<T> mapper = mappers.get(directive);
-					if (mapper != null) {
-						mapper.writeToLogEntry(value, var.getVariable(), entry);
-					}
+					// default it is a timestamp, which is surrounded by [ and ] and may contain spaces.
+					// NOTE: is not surrounded by [] with custom formats
+					boolean isBracketedTimestamp = directive.equals("t") && var.getVariable() == null;
+					// use variable name for i, x, C, o, n, e directives (theoretically can result in name clash)
+					String fieldName = FIELD_NAME_IS_VARIABLE_DIRECTIVES.contains(directive) ? var.getVariable() : directive;
+					steps.add(new LogFormatPlan.Step<>(search, isLastParsableEntry, var, fieldName, mappers.get(directive), isBracketedTimestamp));
 					// done processing var
 					var = null;
 				}
-				locationInLine = indexOfSearch + search.length();
 				if (isLastParsableEntry) {
 					break;
 				}
@@ -94,10 +106,9 @@ public class ApacheLogFormatParser<T extends LogEntry> implements LogFormatParse
 				throw new LogRaterException("Unknown element type in log back elements: " + element);
 			}
 		}
-		return entry;
+		return new LogFormatPlan<>(steps);
 	}
 
-
 	public static List<LogbackElement> parse(String pattern) {
 		List<LogbackElement> elements = new ArrayList<>();
 
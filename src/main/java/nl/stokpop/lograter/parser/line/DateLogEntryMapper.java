@@ -30,6 +30,9 @@ public abstract class DateLogEntryMapper<T extends LogEntry> implements LogEntry
 	
 	private final DateTimeFormatter dateFormatter;
 	private final EpochFormat epochFormat;
+	// decodes common date formats without the date formatter, null for other formats
+	private final TimestampDecoder timestampDecoder;
+	private final boolean isNumericStart;
 
 	private enum EpochFormat {
 		NONE,
@@ -41,6 +44,8 @@ public abstract class DateLogEntryMapper<T extends LogEntry> implements LogEntry
 		epochFormat = determineEpochFormat(dateFormat);
 		if (epochFormat != EpochFormat.NONE) {
 			dateFormatter = null;
+			timestampDecoder = null;
+			isNumericStart = true;
 			return;
 		}
 
@@ -61,6 +66,20 @@ public abstract class DateLogEntryMapper<T extends LogEntry> implements LogEntry
 			tempDateTimeFormatter = DateTimeFormat.forPattern(dateFormat).withLocale(LogRater.DEFAULT_LOCALE);
 		}
 		dateFormatter = tempDateTimeFormatter;
+		timestampDecoder = TimestampDecoder.forDateFormat(dateFormat, dateFormatter);
+		isNumericStart = "ISO8601".equalsIgnoreCase(dateFormat) || isNumericFieldFirst(dateFormat);
+	}
+
+	private static boolean isNumericFieldFirst(String dateFormat) {
+		if (dateFormat.isEmpty()) {
+			return false;
+		}
+		char first = dateFormat.charAt(0);
+		if (first == 'M') {
+			// MMM and longer are month names
+			return !dateFormat.startsWith("MMM");
+		}
+		return "yYxCdDHhKkmsSwe".indexOf(first) != -1;
 	}
 
 	private static EpochFormat determineEpochFormat(String dateFormat) {
@@ -77,6 +96,23 @@ public abstract class DateLogEntryMapper<T extends LogEntry> implements LogEntry
 		return EpochFormat.NONE;
 	}
 
+	/**
+	 * @return true if valid values always start with a digit or a sign, so values that do not can be rejected without parsing
+	 */
+	public boolean isNumericStart() {
+		return isNumericStart;
+	}
+
+	/**
+	 * Parse the timestamp in the value without writing it to a log entry, for instance to check
+	 * a filter period before the complete log line is parsed. Override for mappers that
+	 * only provide a part of the timestamp, such as the milliseconds.
+	 * @return the (part of the) timestamp in epoch millis
+	 */
+	public long parseTimestamp(String value) {
+		return dateParser(value);
+	}
+
 	protected long dateParser(String value) {
         try {
 			if (epochFormat == EpochFormat.MILLIS) {
@@ -85,6 +121,12 @@ public abstract class DateLogEntryMapper<T extends LogEntry> implements LogEntry
 			if (epochFormat == EpochFormat.SECONDS) {
 				return Math.multiplyExact(Long.parseLong(value), 1000L);
 			}
+			if (timestampDecoder != null) {
+				long timestamp = timestampDecoder.decode(value);
+				if (timestamp != TimestampDecoder.NOT_DECODED) {
+					return timestamp;
+				}
+			}
 			return dateFormatter.parseMillis(value);
 		} catch (NumberFormatException e) {
 			throw new LogRaterException("Could not parse epoch date.", e);
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * The value of a field as a view on the part of the log line from start to end, without copying the characters.
+ * Numeric values are parsed directly from the log line. Use toString to keep the value.
+ *
+ * A parser reuses one view for all fields of a log line: do not keep a reference to the view in a mapper.
+ */
+@NotThreadSafe
+public final class FieldView implements CharSequence {
+
+    private String line;
+    private int start;
+    private int end;
+
+    FieldView() {
+        this("", 0, 0);
+    }
+
+    private FieldView(String line, int start, int end) {
+        this.line = line;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static FieldView of(String value) {
+        return new FieldView(value, 0, value.length());
+    }
+
+    FieldView set(String line, int start, int end) {
+        this.line = line;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    /**
+     * @throws NumberFormatException as Integer.parseInt
+     */
+    public int parseInt() {
+        return Integer.parseInt(line, start, end, 10);
+    }
+
+    /**
+     * @throws NumberFormatException as Long.parseLong
+     */
+    public long parseLong() {
+        return Long.parseLong(line, start, end, 10);
+    }
+
+    public boolean contentEquals(String value) {
+        return value.length() == length() && line.regionMatches(start, value, 0, value.length());
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return line.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int subStart, int subEnd) {
+        if (subStart < 0 || subEnd > length() || subStart > subEnd) {
+            throw new StringIndexOutOfBoundsException("begin " + subStart + ", end " + subEnd + ", length " + length());
+        }
+        return new FieldView(line, start + subStart, start + subEnd);
+    }
+
+    @Override
+    public String toString() {
+        return line.substring(start, end);
+    }
+}
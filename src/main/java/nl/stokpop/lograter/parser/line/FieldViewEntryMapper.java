@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+import nl.stokpop.lograter.logentry.LogEntry;
+
+/**
+ * Mapper for values that do not need to be kept as String, such as numbers.
+ */
+@FunctionalInterface
+public interface FieldViewEntryMapper<T extends LogEntry> extends LogEntryMapper<T> {
+
+    @Override
+    void writeToLogEntry(FieldView value, String variable, T entry);
+
+    @Override
+    default void writeToLogEntry(String value, String variable, T entry) {
+        writeToLogEntry(FieldView.of(value), variable, entry);
+    }
+}
@@ -16,7 +16,6 @@
 package nl.stokpop.lograter.parser.line;
 
 
-import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.logentry.IisLogEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,12 +28,10 @@ public class IisLogFormatParser {
 
 	private static final Logger log = LoggerFactory.getLogger(IisLogFormatParser.class.getName());
 	
-	private final List<LogbackElement> elements;
-	private final Map<String, LogEntryMapper<IisLogEntry>> mappers;
+	private final LogFormatPlan<IisLogEntry> plan;
 	
 	public IisLogFormatParser(List<LogbackElement> elements, Map<String, LogEntryMapper<IisLogEntry>> mappers) {
-		this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
-		this.mappers = Collections.unmodifiableMap(new HashMap<>(mappers));
+		this.plan = LogFormatPlan.compile(elements, mappers);
 	}
 
     public static IisLogFormatParser createIisLogFormatParser(String pattern) {
@@ -49,52 +46,20 @@ public class IisLogFormatParser {
 
         entry.setLogline(logline);
 
-		int locationInLine = 0;
-		LogbackDirective var = null;
-
-		for (LogbackElement element : elements) {
-			if (element instanceof LogbackLiteral) {
-				String search = ((LogbackLiteral) element).getLiteral();
-				// if search length is zero, and it is not the first element (var == null), there are two variables without separator, take all
-				boolean isLastParsableEntry = search.length() == 0 && var != null;
-				int idx =  isLastParsableEntry ? logline.length() : logline.indexOf(search, locationInLine);
-				if (var != null) {
-					String directive = var.getDirective();
-					log.trace("lookup: {} var: {}", directive, var);
-					String value;
-					try {
-						value = logline.substring(locationInLine, idx);
-					} catch (StringIndexOutOfBoundsException e) {
-						throw new LogRaterException("Problem parsing log line searching '" + search + "' for " + var + " in logline " + logline, e);
-					}
-
-                    entry.addField(directive, value);
-
-                    LogEntryMapper<IisLogEntry> mapper = mappers.get(directive);
-                    if (mapper != null) {
-                        mapper.writeToLogEntry(value, var.getVariable(), entry);
-                    }
-				}
-				locationInLine = idx + search.length();
-				if (isLastParsableEntry) {
-					break;
-				}
-            }
-			else if (element instanceof LogbackDirective) {
-				var = (LogbackDirective) element;
-				// if newline is found, stop the loop
-				boolean isLastParsableEntry = "n".equals(var.getDirective());
-				if (isLastParsableEntry) {
-					break;
-				}
-			}
-			else {
-				throw new LogRaterException("Unknown element type in log back elements: " + element);
-			}
-		}
+		plan.parse(logline, entry);
+
 		return entry;
 	}
 
+	public ParseResult<IisLogEntry> tryParseLogLine(String logline) {
+
+		IisLogEntry entry = new IisLogEntry();
+
+		entry.setLogline(logline);
+
+		return plan.tryParse(logline, entry);
+	}
+
 	public static List<LogbackElement> parse(String pattern) {
 		List<LogbackElement> elements = new ArrayList<>();
 		
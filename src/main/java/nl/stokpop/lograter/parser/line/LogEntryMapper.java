@@ -19,4 +19,12 @@ import nl.stokpop.lograter.logentry.LogEntry;
 
  public interface LogEntryMapper<T extends LogEntry> {
 	void writeToLogEntry(String value, String variable, T entry);
+
+	/**
+	 * Write a value that is a view on the log line. Override to avoid creating a String for values
+	 * that are not kept, such as numbers. By default the String value is created.
+	 */
+	default void writeToLogEntry(FieldView value, String variable, T entry) {
+		writeToLogEntry(value.toString(), variable, entry);
+	}
 }
@@ -16,7 +16,31 @@
 package nl.stokpop.lograter.parser.line;
 
 import nl.stokpop.lograter.logentry.LogEntry;
+import nl.stokpop.lograter.util.time.TimePeriod;
 
 public interface LogFormatParser<T extends LogEntry> {
     T parseLogLine(String logline);
+
+    /**
+     * Parse the logline without exceptions for loglines that cannot be parsed,
+     * to avoid the cost of an exception per line for log files with many of those lines.
+     * Override to also avoid the exception internally.
+     */
+    default ParseResult<T> tryParseLogLine(String logline) {
+        try {
+            return ParseResult.parsed(parseLogLine(logline));
+        } catch (RuntimeException e) {
+            return ParseResult.malformed(e.getMessage());
+        }
+    }
+
+    /**
+     * Parse only the timestamp of the logline, to reject loglines outside a filter period
+     * without parsing all fields of the logline. The logline can be a view on the bytes of the logline,
+     * such as ByteSliceUtils.asciiView, so the logline does not have to be decoded for this check.
+     * @return the timestamp of the logline, or TimePeriod.NOT_SET if this parser cannot parse only the timestamp
+     */
+    default long parseTimestamp(CharSequence logline) {
+        return TimePeriod.NOT_SET;
+    }
 }
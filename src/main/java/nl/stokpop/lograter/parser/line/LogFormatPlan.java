@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+import net.jcip.annotations.Immutable;
+import nl.stokpop.lograter.LogRaterException;
+import nl.stokpop.lograter.logentry.FieldSlots;
+import nl.stokpop.lograter.logentry.LogEntry;
+import nl.stokpop.lograter.util.time.TimePeriod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Log format elements compiled into a flat array of steps, so parsing a log line needs
+ * no instanceof checks, directive comparisons or mapper lookups per field.
+ *
+ * Each step locates the end of one field (or skips the leading literal) and holds the
+ * field slot and mapper of that field.
+ */
+@Immutable
+final class LogFormatPlan<T extends LogEntry> {
+
+    @Immutable
+    static final class Step<T extends LogEntry> {
+        private final String literal;
+        private final String endSearch;
+        private final int endSearchOffset;
+        private final boolean isLast;
+        private final LogbackDirective var;
+        private final String fieldName;
+        private final LogEntryMapper<T> mapper;
+        private final DateLogEntryMapper<T> timestampMapper;
+
+        /**
+         * @param literal the literal after the field
+         * @param isLast true when the literal is empty and the field is the rest of the log line
+         * @param var the directive of the field, null for the literal before the first field
+         * @param fieldName the name to store the field value under
+         * @param mapper the mapper of the field value, can be null
+         * @param isBracketedTimestamp the field is a timestamp surrounded by [ and ] that can contain the literal
+         */
+        Step(String literal, boolean isLast, LogbackDirective var, String fieldName, LogEntryMapper<T> mapper, boolean isBracketedTimestamp) {
+            this.literal = literal;
+            this.endSearch = isBracketedTimestamp ? "]" + literal : literal;
+            this.endSearchOffset = isBracketedTimestamp ? 1 : 0;
+            this.isLast = isLast;
+            this.var = var;
+            this.fieldName = fieldName;
+            this.mapper = mapper;
+            this.timestampMapper = mapper instanceof DateLogEntryMapper ? (DateLogEntryMapper<T>) mapper : null;
+        }
+
+        private int findEnd(CharSequence logline, int locationInLine) {
+            if (endSearchOffset == 0 && isLast) {
+                return logline.length();
+            }
+            return indexOf(logline, endSearch, locationInLine) + endSearchOffset;
+        }
+
+        private String value(CharSequence logline, int locationInLine, int end) {
+            checkBounds(logline, locationInLine, end);
+            return logline.subSequence(locationInLine, end).toString();
+        }
+
+        private void checkBounds(CharSequence logline, int locationInLine, int end) {
+            if (isOutOfBounds(logline, locationInLine, end)) {
+                throw new LogRaterException(describeOutOfBounds(logline, locationInLine, end));
+            }
+        }
+
+        private static boolean isOutOfBounds(CharSequence logline, int locationInLine, int end) {
+            return locationInLine < 0 || end < locationInLine || end > logline.length();
+        }
+
+        private String describeOutOfBounds(CharSequence logline, int locationInLine, int end) {
+            return "Problem parsing log line searching '" + literal + "' for " + var + " in logline " + logline
+                + ": field from " + locationInLine + " to " + end;
+        }
+    }
+
+    private final Step<T>[] steps;
+    private final int[] slots;
+    private final FieldSlots fieldSlots;
+    private final int lastTimestampStep;
+
+    @SuppressWarnings("unchecked")
+    LogFormatPlan(List<Step<T>> steps) {
+        this.steps = (Step<T>[]) steps.toArray(new Step<?>[0]);
+        this.slots = new int[this.steps.length];
+        List<String> names = new ArrayList<>();
+        int last = -1;
+        for (int i = 0; i < this.steps.length; i++) {
+            Step<T> step = this.steps[i];
+            if (step.var != null) {
+                // fields with the same name share a slot, the last value wins
+                int slot = names.indexOf(step.fieldName);
+                if (slot == -1) {
+                    slot = names.size();
+                    names.add(step.fieldName);
+                }
+                slots[i] = slot;
+            }
+            if (step.timestampMapper != null) {
+                last = i;
+            }
+        }
+        this.fieldSlots = FieldSlots.of(names);
+        this.lastTimestampStep = last;
+    }
+
+    /**
+     * Compile the elements of a log format with fields separated by literals, such as the nginx and iis log formats.
+     * Parsing stops at a newline directive.
+     */
+    static <T extends LogEntry> LogFormatPlan<T> compile(List<LogbackElement> elements, Map<String, LogEntryMapper<T>> mappers) {
+        List<Step<T>> steps = new ArrayList<>();
+        LogbackDirective var = null;
+
+        for (LogbackElement element : elements) {
+            if (element instanceof LogbackLiteral) {
+                String search = ((LogbackLiteral) element).getLiteral();
+                // if search length is zero, and it is not the first element (var == null), there are two variables without separator, take all
+                boolean isLastParsableEntry = search.length() == 0 && var != null;
+                if (var == null) {
+                    steps.add(new Step<>(search, false, null, null, null, false));
+                }
+                else {
+                    String directive = var.getDirective();
+                    steps.add(new Step<>(search, isLastParsableEntry, var, directive, mappers.get(directive), false));
+                }
+                if (isLastParsableEntry) {
+                    break;
+                }
+            }
+            else if (element instanceof LogbackDirective) {
+                var = (LogbackDirective) element;
+                // if newline is found, stop the loop
+                boolean isLastParsableEntry = "n".equals(var.getDirective());
+                if (isLastParsableEntry) {
+                    break;
+                }
+            }
+            else {
+                throw new LogRaterException("Unknown element type in log back elements: " + element);
+            }
+        }
+        return new LogFormatPlan<>(steps);
+    }
+
+    /**
+     * The fields are stored as bounds in the logline, the mappers get a view on the logline.
+     * @throws LogRaterException when a field cannot be found, mappers can throw other exceptions
+     */
+    void parse(String logline, T entry) {
+        String problem = parseFields(logline, entry);
+        if (problem != null) {
+            throw new LogRaterException(problem);
+        }
+    }
+
+    /**
+     * Same as parse, but returns why the logline cannot be parsed instead of throwing an exception.
+     */
+    ParseResult<T> tryParse(String logline, T entry) {
+        try {
+            String problem = parseFields(logline, entry);
+            return problem == null ? ParseResult.parsed(entry) : ParseResult.malformed(problem);
+        } catch (RuntimeException e) {
+            // a mapper cannot parse a field value
+            return ParseResult.malformed(e.getMessage());
+        }
+    }
+
+    /**
+     * @return null when all fields are found, otherwise the problem
+     */
+    private String parseFields(String logline, T entry) {
+        entry.useFieldSlots(fieldSlots);
+        final FieldView value = new FieldView();
+        int locationInLine = 0;
+        for (int i = 0; i < steps.length; i++) {
+            Step<T> step = steps[i];
+            if (step.var == null) {
+                locationInLine = logline.indexOf(step.literal, locationInLine) + step.literal.length();
+                continue;
+            }
+            int end = step.findEnd(logline, locationInLine);
+            if (Step.isOutOfBounds(logline, locationInLine, end)) {
+                return step.describeOutOfBounds(logline, locationInLine, end);
+            }
+            entry.setFieldBounds(slots[i], locationInLine, end);
+            if (step.mapper != null) {
+                step.mapper.writeToLogEntry(value.set(logline, locationInLine, end), step.var.getVariable(), entry);
+            }
+            locationInLine = end + step.literal.length();
+        }
+        return null;
+    }
+
+    /**
+     * Only locates the fields up to the last timestamp field and only decodes the timestamp fields.
+     * @return the timestamp, or TimePeriod.NOT_SET if there are no timestamp fields
+     */
+    long parseTimestamp(CharSequence logline) {
+        if (lastTimestampStep == -1) {
+            return TimePeriod.NOT_SET;
+        }
+        long timestamp = 0;
+        int locationInLine = 0;
+        for (int i = 0; i <= lastTimestampStep; i++) {
+            Step<T> step = steps[i];
+            if (step.var == null) {
+                locationInLine = indexOf(logline, step.literal, locationInLine) + step.literal.length();
+                continue;
+            }
+            int end = step.findEnd(logline, locationInLine);
+            if (step.timestampMapper != null) {
+                timestamp += step.timestampMapper.parseTimestamp(step.value(logline, locationInLine, end));
+            }
+            locationInLine = end + step.literal.length();
+        }
+        return timestamp;
+    }
+
+    private static int indexOf(CharSequence logline, String search, int fromIndex) {
+        if (logline instanceof String) {
+            return ((String) logline).indexOf(search, fromIndex);
+        }
+        if (search.isEmpty()) {
+            return Math.min(Math.max(0, fromIndex), logline.length());
+        }
+        int last = logline.length() - search.length();
+        for (int i = Math.max(0, fromIndex); i <= last; i++) {
+            int j = 0;
+            while (j < search.length() && logline.charAt(i + j) == search.charAt(j)) {
+                j++;
+            }
+            if (j == search.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
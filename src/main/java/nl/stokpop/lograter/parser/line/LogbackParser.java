@@ -32,10 +32,25 @@ public class LogbackParser<T extends LogbackLogEntry> {
 
 	private final LogEntryFactory<T> logEntryFactory;
 
+	// log lines start with a timestamp that starts with a number, so other lines can be rejected on the first character
+	private final boolean isNumericTimestampFirst;
+
 	public LogbackParser(List<LogbackElement> elements, Map<String, LogEntryMapper<T>> mappers, LogEntryFactory<T> logEntryFactory) {
 		this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
 		this.mappers = Collections.unmodifiableMap(new HashMap<>(mappers));
 		this.logEntryFactory = logEntryFactory;
+		this.isNumericTimestampFirst = isNumericTimestampFirst(this.elements, this.mappers);
+	}
+
+	private static <T extends LogbackLogEntry> boolean isNumericTimestampFirst(List<LogbackElement> elements, Map<String, LogEntryMapper<T>> mappers) {
+		if (elements.size() < 2
+				|| !(elements.get(0) instanceof LogbackLiteral)
+				|| !((LogbackLiteral) elements.get(0)).getLiteral().isEmpty()
+				|| !(elements.get(1) instanceof LogbackDirective)) {
+			return false;
+		}
+		LogEntryMapper<T> mapper = mappers.get(((LogbackDirective) elements.get(1)).getDirective());
+		return mapper instanceof DateLogEntryMapper && ((DateLogEntryMapper<T>) mapper).isNumericStart();
 	}
 
     public static LogbackParser<LogbackLogEntry> createLogbackParser(String logbackpattern) {
@@ -44,10 +59,53 @@ public class LogbackParser<T extends LogbackLogEntry> {
         return new LogbackParser<>(elements, mappers, LogbackLogEntry::new);
     }
 
+    /**
+     * @throws LogRaterException when the log line cannot be parsed, use tryParseLogLine to avoid exceptions
+     */
     public T parseLogLine(String logline) {
-		
+		ParseResult<T> result = parseLine(logline);
+		if (!result.isParsed()) {
+			throw new LogRaterException(result.getReason());
+		}
+		return result.getEntry();
+	}
+
+	/**
+	 * Parse the log line without exceptions for lines that are no log lines, such as the lines of a stack trace.
+	 * A line that does not start like a log line is rejected without parsing the fields.
+	 */
+	public ParseResult<T> tryParseLogLine(String logline) {
+		try {
+			return parseLine(logline);
+		} catch (RuntimeException e) {
+			// a mapper cannot parse a field value
+			return ParseResult.malformed(e.getMessage());
+		}
+	}
+
+	/**
+	 * Cheap check if the line can be the first line of a log entry, for instance to find the start of a chunk.
+	 * When log lines start with a numeric timestamp only the first character is checked, otherwise the line is parsed.
+	 */
+	public boolean isStartOfLogLine(String logline) {
+		if (!isNumericTimestampFirst) {
+			return tryParseLogLine(logline).isParsed();
+		}
+		int start = 0;
+		while (start < logline.length() && logline.charAt(start) <= ' ') {
+			start++;
+		}
+		return isNumericStart(logline, start);
+	}
+
+	private ParseResult<T> parseLine(String logline) {
+
 		logline = logline.trim();
-		
+
+		if (isNumericTimestampFirst && !isNumericStart(logline, 0)) {
+			return ParseResult.notALogLine("Log line does not start with a timestamp");
+		}
+
 		T entry = logEntryFactory.newInstance();
 
 		entry.setLogline(logline);
@@ -67,20 +125,18 @@ public class LogbackParser<T extends LogbackLogEntry> {
 						directive = var.getVariable();
 					}
 					log.trace("lookup: {} var: {}", directive, var);
-					String value;
-					try {
-						value = logline.substring(locationInLine, idx);
-					} catch (StringIndexOutOfBoundsException e) {
+					int valueEnd = idx;
+					if (locationInLine > logline.length() || valueEnd < locationInLine) {
 						if ("m".equals(directive) || "msg".equals(directive)) {
 							// assume a new line in a message(!)
-							value = logline.substring(locationInLine);
+							valueEnd = logline.length();
 						}
 						else {
-							throw new LogRaterException("Cannot find search term: '" + search + "' for '" + var + "' on location " + locationInLine + " in logline " + logline, e);
+							return ParseResult.malformed("Cannot find search term: '" + search + "' for '" + var + "' on location " + locationInLine + " in logline " + logline);
 						}
 					}
-					// make sure spaces before and after value are removed
-					value = value.trim();
+					// make sure spaces before and after value are removed, without copying the value twice
+					String value = trimmedSubstring(logline, locationInLine, valueEnd);
 					if (directive == null) {
 						// this is a %X or %mdc without parameter, so a complete dump of all mdc values is expected
 						// in comma separated style.
@@ -90,7 +146,7 @@ public class LogbackParser<T extends LogbackLogEntry> {
 								// get the part before and after the first = sign, all other = are in second part
 								String[] nameValueTuple = nameValuePair.split("=", 2);
 								if (nameValueTuple.length != 2) {
-									throw new LogRaterException("Parsing MDC dump failed, comma separated \"name=value\" pair expected, but got: [" + nameValuePair + "] for [" + var + "] on location [" + locationInLine + "] in logline [" + logline + "]");
+									return ParseResult.malformed("Parsing MDC dump failed, comma separated \"name=value\" pair expected, but got: [" + nameValuePair + "] for [" + var + "] on location [" + locationInLine + "] in logline [" + logline + "]");
 								}
 								entry.addCustomField(nameValueTuple[0].trim(), nameValueTuple[1].trim());
 							}
@@ -131,7 +187,25 @@ public class LogbackParser<T extends LogbackLogEntry> {
 				throw new LogRaterException("Unknown element type in log back elements: " + element);
 			}
 		}
-		return entry;
+		return ParseResult.parsed(entry);
+	}
+
+	private static boolean isNumericStart(String logline, int index) {
+		if (index >= logline.length()) {
+			return false;
+		}
+		char first = logline.charAt(index);
+		return (first >= '0' && first <= '9') || first == '-' || first == '+';
+	}
+
+	private static String trimmedSubstring(String logline, int start, int end) {
+		while (start < end && logline.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && logline.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return logline.substring(start, end);
 	}
 
     public boolean isXorMdcField(LogbackDirective logbackDirective) {
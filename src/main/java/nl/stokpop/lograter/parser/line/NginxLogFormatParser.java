@@ -15,7 +15,6 @@
  */
 package nl.stokpop.lograter.parser.line;
 
-import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.logentry.LogEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,68 +25,45 @@ public class NginxLogFormatParser<T extends LogEntry> implements LogFormatParser
 
 	private static final Logger log = LoggerFactory.getLogger(NginxLogFormatParser.class.getName());
 
-	private final List<LogbackElement> elements;
-	private final Map<String, LogEntryMapper<T>> mappers;
+	private final LogFormatPlan<T> plan;
 
 	private final LogEntryFactory<T> logEntryFactory;
 
 	public NginxLogFormatParser(List<LogbackElement> elements, Map<String, LogEntryMapper<T>> mappers, LogEntryFactory<T> logEntryFactory) {
-		this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
-		this.mappers = Collections.unmodifiableMap(new HashMap<>(mappers));
+		this.plan = LogFormatPlan.compile(elements, mappers);
 		this.logEntryFactory = logEntryFactory;
 	}
 
 	@Override
 	public T parseLogLine(String logline) {
-		
+
 		T entry = logEntryFactory.newInstance();
 
         entry.setLogline(logline);
 
-		int locationInLine = 0;
-		LogbackDirective var = null;
-
-		for (LogbackElement element : elements) {
-			if (element instanceof LogbackLiteral) {
-				String search = ((LogbackLiteral) element).getLiteral();
-				// if search length is zero, and it is not the first element (var == null), there are two variables without separator, take all
-				boolean isLastParsableEntry = search.length() == 0 && var != null;
-				int indexOfSearch =  isLastParsableEntry ? logline.length() : logline.indexOf(search, locationInLine);
-				if (var != null) {
-					log.trace("directive var: {}", var);
-					String directive = var.getDirective();
-					String value;
-					try {
-						value = logline.substring(locationInLine, indexOfSearch);
-					} catch (StringIndexOutOfBoundsException e) {
-						throw new LogRaterException("Problem parsing log line searching '" + search + "' for " + var + " in logline " + logline, e);
-					}
-                    entry.addField(directive, value);
-					LogEntryMapper<T> mapper = mappers.get(directive);
-					if (mapper != null) {
-						mapper.writeToLogEntry(value, var.getVariable(), entry);
-					}
-				}
-				locationInLine = indexOfSearch + search.length();
-				if (isLastParsableEntry) {
-					break;
-				}
-            }
-			else if (element instanceof LogbackDirective) {
-				var = (LogbackDirective) element;
-				// if newline is found, stop the loop
-				boolean isLastParsableEntry = "n".equals(var.getDirective());
-				if (isLastParsableEntry) {
-					break;
-				}
-			}
-			else {
-				throw new LogRaterException("Unknown element type in log back elements: " + element);
-			}
-		}
+		plan.parse(logline, entry);
+
 		return entry;
 	}
 
+	@Override
+	public ParseResult<T> tryParseLogLine(String logline) {
+
+		T entry = logEntryFactory.newInstance();
+
+		entry.setLogline(logline);
+
+		return plan.tryParse(logline, entry);
+	}
+
+	/**
+	 * Only locates the fields up to the last timestamp field and only decodes the timestamp fields.
+	 */
+	@Override
+	public long parseTimestamp(CharSequence logline) {
+		return plan.parseTimestamp(logline);
+	}
+
 	public static List<LogbackElement> parse(String pattern) {
 		List<LogbackElement> elements = new ArrayList<>();
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+/**
+ * The result of parsing a log line without exceptions: creating an exception for each line
+ * that cannot be parsed, such as each line of a stack trace in an application log, is expensive.
+ */
+public final class ParseResult<T> {
+
+    public enum Status {
+        PARSED,
+        // the line does not have the structure of a log line, for instance a line of a stack trace
+        NOT_A_LOG_LINE,
+        // the line looks like a log line, but a field cannot be found or parsed
+        MALFORMED
+    }
+
+    private static final ParseResult<?> PARSED_WITHOUT_ENTRY = new ParseResult<>(Status.PARSED, null, null);
+
+    private final Status status;
+    private final T entry;
+    private final String reason;
+
+    private ParseResult(Status status, T entry, String reason) {
+        this.status = status;
+        this.entry = entry;
+        this.reason = reason;
+    }
+
+    public static <T> ParseResult<T> parsed(T entry) {
+        return new ParseResult<>(Status.PARSED, entry, null);
+    }
+
+    /**
+     * @return a parsed result for callers that process the entry themselves
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParseResult<T> parsedWithoutEntry() {
+        return (ParseResult<T>) PARSED_WITHOUT_ENTRY;
+    }
+
+    public static <T> ParseResult<T> notALogLine(String reason) {
+        return new ParseResult<>(Status.NOT_A_LOG_LINE, null, reason);
+    }
+
+    public static <T> ParseResult<T> malformed(String reason) {
+        return new ParseResult<>(Status.MALFORMED, null, reason);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isParsed() {
+        return status == Status.PARSED;
+    }
+
+    /**
+     * @return the parsed entry, null if not parsed
+     */
+    public T getEntry() {
+        return entry;
+    }
+
+    /**
+     * @return why the line is not parsed, null if parsed
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "ParseResult{" +
+            "status=" + status +
+            ", reason='" + reason + '\'' +
+            '}';
+    }
+}
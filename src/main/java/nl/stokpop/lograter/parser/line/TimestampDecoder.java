@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+import net.jcip.annotations.ThreadSafe;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Decodes timestamps of common date formats without a general date parser:
+ * <ul>
+ *     <li>apache and nginx: [dd/MMM/yyyy:HH:mm:ss Z] and dd/MMM/yyyy:HH:mm:ss Z</li>
+ *     <li>ISO8601: yyyy-MM-dd'T'HH:mm:ss.SSS with Z or +HH:MM offset</li>
+ *     <li>logback: yyyy-MM-dd HH:mm:ss,SSS and yyyy-MM-dd HH:mm:ss.SSS, in the default time zone</li>
+ * </ul>
+ * Consecutive log lines mostly share the same second, so the epoch millis of each second
+ * (including the time zone offset) are cached and on a cache hit only the milliseconds are parsed.
+ *
+ * Values that do not have exactly the expected layout are not decoded, use the date parser for those.
+ */
+@ThreadSafe
+final class TimestampDecoder {
+
+    static final long NOT_DECODED = Long.MIN_VALUE;
+
+    private static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+    private static final int CACHE_SIZE = 16;
+
+    private enum Layout {
+        // dd/MMM/yyyy:HH:mm:ss +HHMM
+        APACHE,
+        // yyyy-MM-ddTHH:mm:ss.SSS+HH:MM
+        ISO8601,
+        // yyyy-MM-dd HH:mm:ss,SSS
+        LOCAL_DATE_TIME_MILLIS
+    }
+
+    /**
+     * Immutable, so entries can be read and replaced by multiple threads without locks.
+     */
+    private static final class Second {
+        private final String key;
+        private final long epochMillis;
+
+        private Second(String key, long epochMillis) {
+            this.key = key;
+            this.epochMillis = epochMillis;
+        }
+    }
+
+    private final Layout layout;
+    private final boolean isBracketed;
+    private final char millisSeparator;
+    // only used for the layout without time zone, to determine the epoch millis of a second in the default time zone
+    private final DateTimeFormatter localDateTimeFormatter;
+    private final Second[] cache = new Second[CACHE_SIZE];
+
+    private TimestampDecoder(Layout layout, boolean isBracketed, char millisSeparator, DateTimeFormatter localDateTimeFormatter) {
+        this.layout = layout;
+        this.isBracketed = isBracketed;
+        this.millisSeparator = millisSeparator;
+        this.localDateTimeFormatter = localDateTimeFormatter;
+    }
+
+    /**
+     * @param dateFormat the date format, as used for the date parser
+     * @param dateFormatter the date parser for the date format
+     * @return a decoder, or null if the date format is not supported
+     */
+    static TimestampDecoder forDateFormat(String dateFormat, DateTimeFormatter dateFormatter) {
+        if (dateFormat == null) {
+            return null;
+        }
+        switch (dateFormat) {
+            case "[dd/MMM/yyyy:HH:mm:ss Z]":
+                return new TimestampDecoder(Layout.APACHE, true, ' ', null);
+            case "dd/MMM/yyyy:HH:mm:ss Z":
+                return new TimestampDecoder(Layout.APACHE, false, ' ', null);
+            case "yyyy-MM-dd HH:mm:ss,SSS":
+                return new TimestampDecoder(Layout.LOCAL_DATE_TIME_MILLIS, false, ',', dateFormatter);
+            case "yyyy-MM-dd HH:mm:ss.SSS":
+                return new TimestampDecoder(Layout.LOCAL_DATE_TIME_MILLIS, false, '.', dateFormatter);
+            default:
+                return "ISO8601".equalsIgnoreCase(dateFormat) ? new TimestampDecoder(Layout.ISO8601, false, '.', null) : null;
+        }
+    }
+
+    /**
+     * @return the epoch millis of the value, or NOT_DECODED if the value does not have the expected layout
+     */
+    long decode(String value) {
+        final int millisStart;
+        final int millisEnd;
+        final int expectedLength;
+        switch (layout) {
+            case APACHE:
+                millisStart = millisEnd = value.length();
+                expectedLength = isBracketed ? 28 : 26;
+                break;
+            case ISO8601:
+                millisStart = 19;
+                millisEnd = 23;
+                expectedLength = value.length() == 24 ? 24 : 29;
+                break;
+            default:
+                millisStart = 19;
+                millisEnd = 23;
+                expectedLength = 23;
+        }
+        if (value.length() != expectedLength) {
+            return NOT_DECODED;
+        }
+        int millis = 0;
+        if (millisEnd > millisStart) {
+            if (value.charAt(millisStart) != millisSeparator) {
+                return NOT_DECODED;
+            }
+            millis = digits(value, millisStart + 1, 3);
+            if (millis < 0) {
+                return NOT_DECODED;
+            }
+        }
+
+        int hash = hash(value, millisStart, millisEnd);
+        int index = hash & (CACHE_SIZE - 1);
+        Second second = cache[index];
+        if (second != null && isSameSecond(second.key, value, millisStart, millisEnd)) {
+            return second.epochMillis + millis;
+        }
+
+        long epochMillisOfSecond = decodeSecond(value, millis);
+        if (epochMillisOfSecond != NOT_DECODED) {
+            cache[index] = new Second(value.substring(0, millisStart) + value.substring(millisEnd), epochMillisOfSecond);
+            return epochMillisOfSecond + millis;
+        }
+        return NOT_DECODED;
+    }
+
+    private long decodeSecond(String value, int millis) {
+        switch (layout) {
+            case APACHE:
+                return decodeApache(value);
+            case ISO8601:
+                return decodeIso8601(value);
+            default:
+                return decodeLocalDateTime(value, millis);
+        }
+    }
+
+    private long decodeApache(String value) {
+        int offset = isBracketed ? 1 : 0;
+        if (isBracketed && (value.charAt(0) != '[' || value.charAt(value.length() - 1) != ']')) {
+            return NOT_DECODED;
+        }
+        if (value.charAt(offset + 2) != '/' || value.charAt(offset + 6) != '/' || value.charAt(offset + 11) != ':'
+                || value.charAt(offset + 14) != ':' || value.charAt(offset + 17) != ':' || value.charAt(offset + 20) != ' ') {
+            return NOT_DECODED;
+        }
+        int day = digits(value, offset, 2);
+        int month = month(value, offset + 3);
+        int year = digits(value, offset + 7, 4);
+        int hour = digits(value, offset + 12, 2);
+        int minute = digits(value, offset + 15, 2);
+        int second = digits(value, offset + 18, 2);
+        int zoneSign = sign(value.charAt(offset + 21));
+        int zoneHours = digits(value, offset + 22, 2);
+        int zoneMinutes = digits(value, offset + 24, 2);
+        if (zoneSign == 0 || zoneHours < 0 || zoneMinutes < 0) {
+            return NOT_DECODED;
+        }
+        return epochMillis(year, month, day, hour, minute, second, zoneSign * (zoneHours * 60 + zoneMinutes));
+    }
+
+    private long decodeIso8601(String value) {
+        if (value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return NOT_DECODED;
+        }
+        int offsetMinutes;
+        if (value.length() == 24) {
+            if (value.charAt(23) != 'Z') {
+                return NOT_DECODED;
+            }
+            offsetMinutes = 0;
+        }
+        else {
+            int zoneSign = sign(value.charAt(23));
+            int zoneHours = digits(value, 24, 2);
+            int zoneMinutes = digits(value, 27, 2);
+            if (zoneSign == 0 || value.charAt(26) != ':' || zoneHours < 0 || zoneMinutes < 0) {
+                return NOT_DECODED;
+            }
+            offsetMinutes = zoneSign * (zoneHours * 60 + zoneMinutes);
+        }
+        return epochMillis(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2),
+            digits(value, 11, 2), digits(value, 14, 2), digits(value, 17, 2), offsetMinutes);
+    }
+
+    /**
+     * The time zone rules, such as daylight saving time, are left to the date parser.
+     */
+    private long decodeLocalDateTime(String value, int millis) {
+        if (value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != ' '
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return NOT_DECODED;
+        }
+        try {
+            return localDateTimeFormatter.parseMillis(value) - millis;
+        } catch (IllegalArgumentException e) {
+            return NOT_DECODED;
+        }
+    }
+
+    private static long epochMillis(int year, int month, int day, int hour, int minute, int second, int offsetMinutes) {
+        if (year < 0 || month < 1 || day < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NOT_DECODED;
+        }
+        long epochDay;
+        try {
+            epochDay = LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return NOT_DECODED;
+        }
+        long epochSeconds = epochDay * 86_400 + hour * 3600 + minute * 60 + second - offsetMinutes * 60L;
+        return epochSeconds * 1000;
+    }
+
+    /**
+     * @return the month number 1 to 12, or -1 if there is no english month abbreviation at start
+     */
+    private static int month(String value, int start) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (value.startsWith(MONTHS[i], start)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int sign(char c) {
+        return c == '+' ? 1 : c == '-' ? -1 : 0;
+    }
+
+    /**
+     * @return the number of the digits, or -1 if not all chars are digits
+     */
+    private static int digits(String value, int start, int count) {
+        int number = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private static int hash(String value, int millisStart, int millisEnd) {
+        int hash = 0;
+        for (int i = 0; i < millisStart; i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        for (int i = millisEnd; i < value.length(); i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isSameSecond(String key, String value, int millisStart, int millisEnd) {
+        int suffixLength = value.length() - millisEnd;
+        return key.length() == millisStart + suffixLength
+            && value.regionMatches(0, key, 0, millisStart)
+            && value.regionMatches(millisEnd, key, millisStart, suffixLength);
+    }
+}
@@ -70,6 +70,17 @@ public abstract class BasicLogData {
 		return totalLogLines + nonLogLines;
 	}
 
+	/**
+	 * Add the counts and log time period of the other log data, for instance of a parallel worker.
+	 */
+	protected void merge(BasicLogData other) {
+		dataTimePeriod.merge(other.dataTimePeriod);
+		filteredLines += other.filteredLines;
+		nonLogLines += other.nonLogLines;
+		totalCharacters += other.totalCharacters;
+		totalLogLines += other.totalLogLines;
+	}
+
 	public long getTotalMB() {
 		return this.totalCharacters / (1024 * 1024);
 	}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.processor;
+
+import net.jcip.annotations.NotThreadSafe;
+import nl.stokpop.lograter.counter.CounterKey;
+import nl.stokpop.lograter.counter.CounterKeyMetaData;
+import nl.stokpop.lograter.logentry.LogEntry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Returns the same CounterKey for the same base name and values of the group by fields,
+ * so the name and meta data of a counter key are only created for the first entry.
+ * Probing the cache does not allocate: the values are collected in a reused array.
+ *
+ * The number of cached keys is bounded, the cache is cleared when full.
+ * Use one cache per counter key creator, for one thread.
+ */
+@NotThreadSafe
+public final class CounterKeyCache {
+
+    private static final int MAX_KEYS = 4096;
+
+    private static final class Entry {
+        private final int hash;
+        private final String baseName;
+        private final String[] values;
+        private final CounterKey counterKey;
+
+        private Entry(int hash, String baseName, String[] values, CounterKey counterKey) {
+            this.hash = hash;
+            this.baseName = baseName;
+            this.values = values;
+            this.counterKey = counterKey;
+        }
+    }
+
+    private final List<String> groupByFields;
+    private final String[] fields;
+    private final String[] values;
+    // open addressing with linear probing, at most half full
+    private final Entry[] table = new Entry[MAX_KEYS * 2];
+    private int size = 0;
+
+    public CounterKeyCache(List<String> groupByFields) {
+        this.groupByFields = List.copyOf(groupByFields);
+        this.fields = this.groupByFields.toArray(new String[0]);
+        this.values = new String[fields.length];
+    }
+
+    /**
+     * @return the counter key with the base name and the values of the group by fields of the entry in the name
+     */
+    public CounterKey counterKey(LogEntry entry, String baseName) {
+        int hash = baseName.hashCode();
+        for (int i = 0; i < fields.length; i++) {
+            String value = entry.getField(fields[i]);
+            values[i] = value;
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+
+        int mask = table.length - 1;
+        int index = (hash ^ (hash >>> 16)) & mask;
+        Entry cached;
+        while ((cached = table[index]) != null) {
+            if (cached.hash == hash && cached.baseName.equals(baseName) && Arrays.equals(cached.values, values)) {
+                return cached.counterKey;
+            }
+            index = (index + 1) & mask;
+        }
+
+        String[] entryValues = values.clone();
+        CounterKey counterKey = CounterKey.createCounterKeyWithFieldsInName(baseName,
+            fields.length == 0 ? CounterKeyMetaData.EMPTY_META_DATA : new CounterKeyMetaData(groupByFields, Arrays.asList(entryValues)));
+
+        if (size == MAX_KEYS) {
+            Arrays.fill(table, null);
+            size = 0;
+            index = (hash ^ (hash >>> 16)) & mask;
+        }
+        table[index] = new Entry(hash, baseName, entryValues, counterKey);
+        size++;
+        return counterKey;
+    }
+}
@@ -20,13 +20,19 @@ import nl.stokpop.lograter.counter.CounterKeyMetaData;
 import nl.stokpop.lograter.logentry.LogEntry;
 import nl.stokpop.lograter.util.linemapper.LineMap;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public interface CounterKeyCreator<T extends LogEntry> {
 
+    /**
+     * Creates a new counter key for each call, use a CounterKeyCache to reuse counter keys.
+     */
     default CounterKey constructCounterKey(LogEntry entry, String baseName, List<String> groupByFields) {
-        List<String> fieldValues = groupByFields.stream().map(entry::getField).collect(Collectors.toList());
+        List<String> fieldValues = new ArrayList<>(groupByFields.size());
+        for (String groupByField : groupByFields) {
+            fieldValues.add(entry.getField(groupByField));
+        }
         CounterKeyMetaData metaData = new CounterKeyMetaData(groupByFields, fieldValues);
         return CounterKey.createCounterKeyWithFieldsInName(baseName, metaData);
     }
@@ -30,6 +30,7 @@ public class AccessLogConfig extends MapperAndClickPathConfig {
 	private String logPattern = null;
 	protected List<String> groupByFields = Collections.emptyList();
 	private CommandAccessLog.LogType logType = CommandAccessLog.LogType.apache;
+	private boolean cacheResultsPerFile = false;
 
 	/**
      * Sets defaults for PerformanceCenter analysis to:
@@ -111,6 +112,17 @@ public class AccessLogConfig extends MapperAndClickPathConfig {
         this.logType = logType;
     }
 
+	public boolean isCacheResultsPerFile() {
+		return cacheResultsPerFile;
+	}
+
+	/**
+	 * Cache the parsed results of each log file in the counter storage dir, to only parse new and changed files in a next run.
+	 */
+	public void setCacheResultsPerFile(boolean cacheResultsPerFile) {
+		this.cacheResultsPerFile = cacheResultsPerFile;
+	}
+
 	@Override
 	public String toString() {
 		return "AccessLogConfig{" +
@@ -121,6 +133,7 @@ public class AccessLogConfig extends MapperAndClickPathConfig {
 			", removeParametersFromUrl=" + removeParametersFromUrl +
 			", logPattern='" + logPattern + '\'' +
 			", logType=" + logType +
+			", cacheResultsPerFile=" + cacheResultsPerFile +
 			"} " + super.toString();
 	}
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ package nl.stokpop.lograter.processor.accesslog;
 
 import nl.stokpop.lograter.counter.CounterKey;
 import nl.stokpop.lograter.logentry.AccessLogEntry;
+import nl.stokpop.lograter.processor.CounterKeyCache;
 import nl.stokpop.lograter.processor.CounterKeyCreator;
 import nl.stokpop.lograter.util.linemapper.LineMap;
 
@@ -25,14 +26,14 @@ import java.util.List;
 
 public class AccessLogCounterKeyCreator implements CounterKeyCreator<AccessLogEntry> {
 
-    private final List<String> groupByFields;
+    private final CounterKeyCache counterKeyCache;
 
     public AccessLogCounterKeyCreator() {
-        this.groupByFields = Collections.emptyList();
+        this.counterKeyCache = new CounterKeyCache(Collections.emptyList());
     }
 
     public AccessLogCounterKeyCreator(final List<String> groupByFields) {
-        this.groupByFields = groupByFields;
+        this.counterKeyCache = new CounterKeyCache(groupByFields);
     }
 
     @Override
@@ -47,7 +48,7 @@ public class AccessLogCounterKeyCreator implements CounterKeyCreator<AccessLogEn
 
     @Override
     public final CounterKey createCounterKey(final AccessLogEntry entry, final String baseName) {
-        return constructCounterKey(entry, baseName, groupByFields);
+        return counterKeyCache.counterKey(entry, baseName);
     }
 
 
@@ -21,8 +21,14 @@ import nl.stokpop.lograter.clickpath.ClickPathAnalyserEngine;
 import nl.stokpop.lograter.clickpath.InMemoryClickpathCollector;
 import nl.stokpop.lograter.command.CommandAccessLog;
 import nl.stokpop.lograter.counter.CounterKey;
+import nl.stokpop.lograter.counter.CounterStorageType;
 import nl.stokpop.lograter.counter.RequestCounter;
+import nl.stokpop.lograter.feeder.ByteSliceFeeder;
 import nl.stokpop.lograter.feeder.FeedProcessor;
+import nl.stokpop.lograter.feeder.FeedResultCache;
+import nl.stokpop.lograter.feeder.FeedResultFileCache;
+import nl.stokpop.lograter.feeder.ParallelFeedProcessor;
+import nl.stokpop.lograter.feeder.TimeFilteredFeeder;
 import nl.stokpop.lograter.logentry.AccessLogEntry;
 import nl.stokpop.lograter.logentry.ApacheLogMapperFactory;
 import nl.stokpop.lograter.logentry.NginxLogMapperFactory;
@@ -37,13 +43,19 @@ import nl.stokpop.lograter.util.LogRaterUtils;
 import nl.stokpop.lograter.util.SessionIdParser;
 import nl.stokpop.lograter.util.StringUtils;
 import nl.stokpop.lograter.util.linemapper.LineMap;
+import nl.stokpop.lograter.util.linemapper.LineMapAutomaton;
+import nl.stokpop.lograter.util.linemapper.LineMapperSection;
 import nl.stokpop.lograter.util.linemapper.LineMapperUtils;
 import nl.stokpop.lograter.util.time.SessionDurationCalculator;
 import nl.stokpop.lograter.util.time.TimePeriod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -53,17 +65,16 @@ public class AccessLogReader {
 
     private static final Logger log = LoggerFactory.getLogger(AccessLogReader.class);
     public static final String COMMON_LOG_PATTERN_APACHE = "%h %l %u %t \"%r\" %>s %b";
+
     public static final String COMMON_LOG_PATTERN_NGINX = "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent \"$http_referer\" \"$http_user_agent\"";
 
+    private static final String RESULT_CACHE_DIR_NAME = "lograter-cache";
+
     public AccessLogDataBundle readAndProcessAccessLogs(AccessLogConfig config, FeedProcessor feeder) {
 
         RequestCounterStoreFactory csFactory =
 		        new RequestCounterStoreFactory(config.getCounterStorage(), config.getFilterPeriod(), new File(config.getCounterStorageDir()));
 
-        List<AccessLogUrlMapperProcessor> urlMapperProcessors = LineMapperUtils.createUrlMapperProcessors(csFactory, config);
-
-        final CommandAccessLog.LogType logType = config.getLogType();
-
         final UrlSplitter urlSplitter = config.isRemoveParametersFromUrl() ? AccessLogEntry.URL_SPLITTER_DEFAULT : null;
 
         AccessLogUserSessionProcessor userSessionProcessor = null;
@@ -92,36 +103,7 @@ public class AccessLogReader {
             clickPathCollector = null;
         }
 
-        LogFormatParser<AccessLogEntry> lineParser;
-
-        if (logType == CommandAccessLog.LogType.apache) {
-            String pattern = StringUtils.useDefaultOrGivenValue(COMMON_LOG_PATTERN_APACHE, config.getLogPattern());
-
-            List<LogbackElement> elements = ApacheLogFormatParser.parse(pattern);
-
-            Map<String, LogEntryMapper<AccessLogEntry>> mappers =
-                    ApacheLogMapperFactory.initializeMappers(elements, urlSplitter, config.getBaseUnit());
-            lineParser =
-                    new ApacheLogFormatParser<>(elements, mappers, AccessLogEntry::new);
-        }
-        else if (logType == CommandAccessLog.LogType.nginx){
-            String pattern = StringUtils.useDefaultOrGivenValue(COMMON_LOG_PATTERN_NGINX, config.getLogPattern());
-
-            List<LogbackElement> elements = NginxLogFormatParser.parse(pattern);
-            Map<String, LogEntryMapper<AccessLogEntry>> mappers =
-                    NginxLogMapperFactory.initializeMappers(elements, urlSplitter);
-            lineParser =
-                    new NginxLogFormatParser<>(elements, mappers, AccessLogEntry::new);
-        }
-        else {
-            String msg = "Unsupported log type:" + logType;
-            log.error(msg);
-            throw new LogRaterException(msg);
-        }
-
-        final AccessLogParser accessLogParser = config.isDetermineSessionDurationEnabled() || config.isDetermineClickpathsEnabled()
-            ? new AccessLogParser(lineParser, config.getFilterPeriod(), new SessionIdParser(config.getSessionField(), config.getSessionFieldRegexp()))
-            : new AccessLogParser(lineParser, config.getFilterPeriod());
+        final AccessLogParser accessLogParser = createAccessLogParser(config, urlSplitter);
 
         if (config.isDetermineClickpathsEnabled()) {
             accessLogParser.addProcessor(clickPathProcessor);
@@ -130,27 +112,46 @@ public class AccessLogReader {
             accessLogParser.addProcessor(userSessionProcessor);
         }
 
-        List<RequestCounterStorePair> requestCounterStoresPairs = new ArrayList<>();
-
-        for (AccessLogUrlMapperProcessor urlMapperProcessor : urlMapperProcessors) {
-            accessLogParser.addProcessor(urlMapperProcessor);
-	        RequestCounterStore storeSuccess = urlMapperProcessor.getMappersRequestCounterStoreSuccess();
-	        RequestCounterStore storeFailure = urlMapperProcessor.getMappersRequestCounterStoreFailure();
-	        RequestCounterStorePair storePair = new RequestCounterStorePair(storeSuccess, storeFailure);
-	        requestCounterStoresPairs.add(storePair);
-        }
+        // the automaton is immutable, compile it once for all parallel workers
+        final LineMapAutomaton mapperAutomaton = LineMapperUtils.compileMapperAutomaton(config);
 
-        int additionalColumns = 0;
-        additionalColumns = additionalColumns + config.getGroupByFields().size();
+        final AccessLogCounters counters = new AccessLogCounters(accessLogParser, config, csFactory, mapperAutomaton);
 
-        final String totalCounterName = RequestCounter.createCounterNameThatAlignsInTextReport("TOTAL", additionalColumns);
+        boolean isParallelFeeder = feeder instanceof ParallelFeedProcessor;
+        // the result cache works per file, also with one thread
+        boolean isParallel = isParallelFeeder && (((ParallelFeedProcessor) feeder).isParallel() || config.isCacheResultsPerFile());
+        if (isParallel && (clickPathProcessor != null || userSessionProcessor != null)) {
+            log.warn("Clickpaths and session durations need all log lines in one thread, feeding the log files sequentially without result cache.");
+            isParallel = false;
+        }
+        if (isParallel && config.getCounterStorage() != CounterStorageType.Memory) {
+            log.warn("Partial results of parallel parsing are kept in memory, feeding the log files sequentially without result cache for counter storage [{}].", config.getCounterStorage());
+            isParallel = false;
+        }
+        if (config.isCacheResultsPerFile() && !isParallelFeeder) {
+            log.warn("Result cache is not supported for this input, parsing all input.");
+        }
 
-        RequestCounterStorePair totalRequestCounterStorePair =
-		        addTotalRequestCounterStoreToLogFileParser(csFactory, accessLogParser, totalCounterName, config.getMaxUniqueCounters());
+        if (isParallel) {
+            // each worker has its own parser chain with unlimited in memory stores, merged in file order
+            final RequestCounterStoreFactory partialResultsFactory = RequestCounterStoreFactory.createPartialResultsFactory(config.getFilterPeriod());
+            ((ParallelFeedProcessor) feeder).feedParallel(
+                () -> new AccessLogCounters(createAccessLogParser(config, urlSplitter), config, partialResultsFactory, mapperAutomaton),
+                counters::merge,
+                config.isCacheResultsPerFile() ? createResultCache(config) : null,
+                counters);
+        }
+        else {
+            feeder.feed(accessLogParser);
+        }
 
-        requestCounterStoresPairs.addAll(createAccessLogCounterProcessors(accessLogParser, config, csFactory));
+        if (counters.getFilteredLines() > 0) {
+            log.info("Skipped [{}] access log lines outside the filter period [{}]", counters.getFilteredLines(), config.getFilterPeriod());
+        }
 
-        feeder.feed(accessLogParser);
+        List<RequestCounterStorePair> requestCounterStoresPairs = counters.getRequestCounterStorePairs();
+        RequestCounterStorePair totalRequestCounterStorePair = counters.totalRequestCounterStorePair;
+        List<AccessLogUrlMapperProcessor> urlMapperProcessors = counters.urlMapperProcessors;
 
         if (clickPathProcessor != null) {
             clickPathProcessor.getClickPathAnalyser().closeAllRemainingSessions();
@@ -176,6 +177,7 @@ public class AccessLogReader {
         for (AccessLogUrlMapperProcessor urlMapperProcessor : urlMapperProcessors) {
             Map<CounterKey, LineMap> counterKeyToLineMapMap = urlMapperProcessor.getKeyToLineMap();
             allKeysToLineMap.putAll(counterKeyToLineMapMap);
+            log.info("Url mapper cache for [{}]: {}", urlMapperProcessor.getLineMapperCache().getLineMapperSection().getName(), urlMapperProcessor.getLineMapperCache().getStatistics());
         }
 
         return clickPathCollector == null ?
@@ -183,6 +185,76 @@ public class AccessLogReader {
             new AccessLogDataBundle(config, requestCounterStoresPairs, totalRequestCounterStorePair, clickPathCollector, allKeysToLineMap);
     }
 
+    private static AccessLogParser createAccessLogParser(AccessLogConfig config, UrlSplitter urlSplitter) {
+
+        final CommandAccessLog.LogType logType = config.getLogType();
+
+        LogFormatParser<AccessLogEntry> lineParser;
+
+        if (logType == CommandAccessLog.LogType.apache) {
+            String pattern = StringUtils.useDefaultOrGivenValue(COMMON_LOG_PATTERN_APACHE, config.getLogPattern());
+
+            List<LogbackElement> elements = ApacheLogFormatParser.parse(pattern);
+
+            Map<String, LogEntryMapper<AccessLogEntry>> mappers =
+                    ApacheLogMapperFactory.initializeMappers(elements, urlSplitter, config.getBaseUnit());
+            lineParser =
+                    new ApacheLogFormatParser<>(elements, mappers, AccessLogEntry::new);
+        }
+        else if (logType == CommandAccessLog.LogType.nginx){
+            String pattern = StringUtils.useDefaultOrGivenValue(COMMON_LOG_PATTERN_NGINX, config.getLogPattern());
+
+            List<LogbackElement> elements = NginxLogFormatParser.parse(pattern);
+            Map<String, LogEntryMapper<AccessLogEntry>> mappers =
+                    NginxLogMapperFactory.initializeMappers(elements, urlSplitter);
+            lineParser =
+                    new NginxLogFormatParser<>(elements, mappers, AccessLogEntry::new);
+        }
+        else {
+            String msg = "Unsupported log type:" + logType;
+            log.error(msg);
+            throw new LogRaterException(msg);
+        }
+
+        return config.isDetermineSessionDurationEnabled() || config.isDetermineClickpathsEnabled()
+            ? new AccessLogParser(lineParser, config.getFilterPeriod(), new SessionIdParser(config.getSessionField(), config.getSessionFieldRegexp()))
+            : new AccessLogParser(lineParser, config.getFilterPeriod());
+    }
+
+    private static FeedResultCache<AccessLogCounters> createResultCache(AccessLogConfig config) {
+        File cacheDir = new File(config.getCounterStorageDir(), RESULT_CACHE_DIR_NAME);
+        log.info("Using result cache per log file in: {}", cacheDir);
+        return new FeedResultFileCache<>(cacheDir, createResultCacheFingerprint(config), AccessLogCounters::writeTo, AccessLogCounters::readFrom);
+    }
+
+    /**
+     * All configuration that determines the parsed results of a log file.
+     */
+    private static String createResultCacheFingerprint(AccessLogConfig config) {
+        StringBuilder fingerprint = new StringBuilder()
+            .append("logType=").append(config.getLogType())
+            .append("|logPattern=").append(config.getLogPattern())
+            .append("|baseUnit=").append(config.getBaseUnit())
+            .append("|fileFeederFilterIncludes=").append(config.getFileFeederFilterIncludes())
+            .append("|fileFeederFilterExcludes=").append(config.getFileFeederFilterExcludes())
+            .append("|filterPeriod=").append(config.getFilterPeriod().getStartTime()).append('-').append(config.getFilterPeriod().getEndTime())
+            .append("|removeParametersFromUrl=").append(config.isRemoveParametersFromUrl())
+            .append("|showBasicUrls=").append(config.isShowBasicUrls())
+            .append("|showUserAgents=").append(config.isShowUserAgents())
+            .append("|showReferers=").append(config.isShowReferers())
+            .append("|groupByFields=").append(config.getGroupByFields())
+            .append("|countNoMappersAsOne=").append(config.countNoMappersAsOne())
+            .append("|ignoreMultiAndNoMatches=").append(config.ignoreMultiAndNoMatches())
+            .append("|countMultipleMapperHits=").append(config.countMultipleMapperHits());
+        for (LineMapperSection section : config.getLineMappers()) {
+            fingerprint.append("|section=").append(section.getName());
+            for (LineMap lineMap : section.getLineMaps()) {
+                fingerprint.append("|map=").append(lineMap.getRegExpPattern()).append("=>").append(lineMap.getName());
+            }
+        }
+        return fingerprint.toString();
+    }
+
     public static List<RequestCounterStorePair> createAccessLogCounterProcessors(
             final LogFileParser<AccessLogEntry> accessLogParser,
             final AccessLogConfig config,
@@ -242,4 +314,113 @@ public class AccessLogReader {
         logFileParser.addProcessor(new AccessLogCounterProcessor(totalStorePair, overallKeyCreator));
         return totalStorePair;
     }
+
+    /**
+     * The url mapper, total and other counter processors of one access log parser.
+     * Used as Feeder for the parallel workers, the partial results are merged into the final counters.
+     */
+    private static final class AccessLogCounters implements ByteSliceFeeder, TimeFilteredFeeder {
+
+        private final AccessLogParser accessLogParser;
+        private final List<AccessLogUrlMapperProcessor> urlMapperProcessors;
+        private final RequestCounterStorePair totalRequestCounterStorePair;
+        private final List<RequestCounterStorePair> counterStorePairs;
+        // lines outside the filter period of merged partial results, not stored in the result cache
+        private long mergedFilteredLines = 0;
+
+        private AccessLogCounters(AccessLogParser accessLogParser, AccessLogConfig config, RequestCounterStoreFactory csFactory, LineMapAutomaton mapperAutomaton) {
+            this.accessLogParser = accessLogParser;
+            this.urlMapperProcessors = LineMapperUtils.createUrlMapperProcessors(csFactory, config, mapperAutomaton);
+            urlMapperProcessors.forEach(accessLogParser::addProcessor);
+
+            int additionalColumns = 0;
+            additionalColumns = additionalColumns + config.getGroupByFields().size();
+
+            final String totalCounterName = RequestCounter.createCounterNameThatAlignsInTextReport("TOTAL", additionalColumns);
+
+            this.totalRequestCounterStorePair =
+                    addTotalRequestCounterStoreToLogFileParser(csFactory, accessLogParser, totalCounterName, config.getMaxUniqueCounters());
+
+            this.counterStorePairs = createAccessLogCounterProcessors(accessLogParser, config, csFactory);
+        }
+
+        @Override
+        public void addLogLine(String filename, String logLine) {
+            accessLogParser.addLogLine(filename, logLine);
+        }
+
+        @Override
+        public void addLogLine(String filename, ByteBuffer logLine) {
+            accessLogParser.addLogLine(filename, logLine);
+        }
+
+        @Override
+        public ParseResult<?> tryAddLogLine(String filename, String logLine) {
+            return accessLogParser.tryAddLogLine(filename, logLine);
+        }
+
+        @Override
+        public ParseResult<?> tryAddLogLine(String filename, ByteBuffer logLine) {
+            return accessLogParser.tryAddLogLine(filename, logLine);
+        }
+
+        @Override
+        public long parseTimestamp(String logLine) {
+            return accessLogParser.parseTimestamp(logLine);
+        }
+
+        @Override
+        public TimePeriod getFilterPeriod() {
+            return accessLogParser.getFilterPeriod();
+        }
+
+        /**
+         * Write the partial results, in the order of the processors that is determined by the config.
+         */
+        private void writeTo(DataOutputStream out) throws IOException {
+            for (AccessLogUrlMapperProcessor urlMapperProcessor : urlMapperProcessors) {
+                urlMapperProcessor.writeTo(out);
+            }
+            totalRequestCounterStorePair.writeTo(out);
+            for (RequestCounterStorePair counterStorePair : counterStorePairs) {
+                counterStorePair.writeTo(out);
+            }
+        }
+
+        private void readFrom(DataInputStream in) throws IOException {
+            for (AccessLogUrlMapperProcessor urlMapperProcessor : urlMapperProcessors) {
+                urlMapperProcessor.readFrom(in);
+            }
+            totalRequestCounterStorePair.readFrom(in);
+            for (RequestCounterStorePair counterStorePair : counterStorePairs) {
+                counterStorePair.readFrom(in);
+            }
+        }
+
+        private void merge(AccessLogCounters partial) {
+            for (int i = 0; i < urlMapperProcessors.size(); i++) {
+                urlMapperProcessors.get(i).merge(partial.urlMapperProcessors.get(i));
+            }
+            totalRequestCounterStorePair.merge(partial.totalRequestCounterStorePair);
+            for (int i = 0; i < counterStorePairs.size(); i++) {
+                counterStorePairs.get(i).merge(partial.counterStorePairs.get(i));
+            }
+            mergedFilteredLines += partial.getFilteredLines();
+        }
+
+        private long getFilteredLines() {
+            return accessLogParser.getFilteredLines() + mergedFilteredLines;
+        }
+
+        private List<RequestCounterStorePair> getRequestCounterStorePairs() {
+            List<RequestCounterStorePair> requestCounterStorePairs = new ArrayList<>();
+            for (AccessLogUrlMapperProcessor urlMapperProcessor : urlMapperProcessors) {
+                RequestCounterStore storeSuccess = urlMapperProcessor.getMappersRequestCounterStoreSuccess();
+                RequestCounterStore storeFailure = urlMapperProcessor.getMappersRequestCounterStoreFailure();
+                requestCounterStorePairs.add(new RequestCounterStorePair(storeSuccess, storeFailure));
+            }
+            requestCounterStorePairs.addAll(counterStorePairs);
+            return requestCounterStorePairs;
+        }
+    }
 }
@@ -22,14 +22,20 @@ import nl.stokpop.lograter.processor.Processor;
 import nl.stokpop.lograter.store.RequestCounterStore;
 import nl.stokpop.lograter.store.RequestCounterStorePair;
 import nl.stokpop.lograter.util.linemapper.LineMap;
+import nl.stokpop.lograter.util.linemapper.LineMapAutomatonMatcher;
+import nl.stokpop.lograter.util.linemapper.LineMapperCache;
 import nl.stokpop.lograter.util.linemapper.LineMapperCallback;
 import nl.stokpop.lograter.util.linemapper.LineMapperSection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -44,6 +50,7 @@ public class AccessLogUrlMapperProcessor implements Processor<AccessLogEntry> {
     private final RequestCounterStorePair counterStorePair;
 
     private final LineMapperSection lineMapperSection;
+    private final LineMapperCache lineMapperCache;
 
 	private final Set<String> reportedNonMatchers = new HashSet<>();
 	private final AtomicLong nonMatchersCount = new AtomicLong();
@@ -65,7 +72,22 @@ public class AccessLogUrlMapperProcessor implements Processor<AccessLogEntry> {
             boolean isDoCountNoMappersAsOne,
             boolean isIgnoreMultiAndNoMatches,
             boolean isDoCountMultipleMapperHits) {
+        this(counterStorePair, lineMapperSection, keyCreator, isDoCountNoMappersAsOne, isIgnoreMultiAndNoMatches, isDoCountMultipleMapperHits, null);
+    }
+
+    /**
+     * @param automatonMatcher matcher shared by the processors of all line mapper sections, or null to match with the regular expressions per section
+     */
+    public AccessLogUrlMapperProcessor(
+            final RequestCounterStorePair counterStorePair,
+            final LineMapperSection lineMapperSection,
+            final AccessLogCounterKeyCreator keyCreator,
+            boolean isDoCountNoMappersAsOne,
+            boolean isIgnoreMultiAndNoMatches,
+            boolean isDoCountMultipleMapperHits,
+            final LineMapAutomatonMatcher automatonMatcher) {
 		this.lineMapperSection = lineMapperSection;
+		this.lineMapperCache = new LineMapperCache(lineMapperSection, isDoCountMultipleMapperHits, LineMapperCache.DEFAULT_MAX_LINES, automatonMatcher);
         this.counterStorePair = counterStorePair;
         this.counterKeyCreator = keyCreator;
         this.isDoCountNoMappersAsOne = isDoCountNoMappersAsOne;
@@ -109,13 +131,18 @@ public class AccessLogUrlMapperProcessor implements Processor<AccessLogEntry> {
 
 			@Override
 			public void matchFound(LineMap mapper) {
-                CounterKey key = counterKeyCreator.createCounterKey(logEntry, mapper);
+				matchFound(mapper, mapper.getNameWithReplacementsFromLine(logEntry.getUrl()));
+			}
+
+			@Override
+			public void matchFound(LineMap mapper, String nameWithReplacements) {
+                CounterKey key = counterKeyCreator.createCounterKey(logEntry, nameWithReplacements);
 				addToCounterStore(key, logEntry);
 				keyToLineMap.computeIfAbsent(key, k -> mapper);
 			}
 		};
 
-		lineMapperSection.updateMappers(logEntry.getUrl(), isDoCountMultipleMapperHits, callback);
+		lineMapperCache.updateMappers(logEntry.getUrl(), callback);
 	}
 
     private void logNonMatcher(String line, long nonMatchesCount) {
@@ -150,6 +177,79 @@ public class AccessLogUrlMapperProcessor implements Processor<AccessLogEntry> {
 		return counterStorePair.getRequestCounterStoreFailure();
 	}
 
+    /**
+     * Merge the partial results of a processor for the same mapper section, for instance from a parallel worker.
+     */
+    public void merge(AccessLogUrlMapperProcessor other) {
+        counterStorePair.merge(other.counterStorePair);
+        other.keyToLineMap.forEach(keyToLineMap::putIfAbsent);
+        other.reportedNonMatchers.forEach(this::addReportedNonMatcher);
+        lineMapperCache.addStatistics(other.lineMapperCache);
+    }
+
+    /**
+     * The non-matchers of partial results are already logged by the processor of the partial results,
+     * only count the non-matchers that are new for this processor.
+     */
+    private void addReportedNonMatcher(String line) {
+        if (reportedNonMatchers.add(line)) {
+            nonMatchersCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Write the partial results of this processor, to be added to a processor
+     * for the same mapper section with readFrom, with the same result as merge.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        counterStorePair.writeTo(out);
+        List<LineMap> lineMaps = lineMapperSection.getLineMaps();
+        out.writeInt(keyToLineMap.size());
+        for (Map.Entry<CounterKey, LineMap> entry : keyToLineMap.entrySet()) {
+            entry.getKey().writeTo(out);
+            out.writeInt(indexOfLineMap(lineMaps, entry.getValue()));
+        }
+        out.writeInt(reportedNonMatchers.size());
+        for (String line : reportedNonMatchers) {
+            out.writeUTF(line);
+        }
+    }
+
+    private static int indexOfLineMap(List<LineMap> lineMaps, LineMap lineMap) {
+        // LineMap does not support equals
+        for (int i = 0; i < lineMaps.size(); i++) {
+            if (lineMaps.get(i) == lineMap) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void readFrom(DataInput in) throws IOException {
+        counterStorePair.readFrom(in);
+        List<LineMap> lineMaps = lineMapperSection.getLineMaps();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            CounterKey key = CounterKey.readFrom(in);
+            int lineMapIndex = in.readInt();
+            if (lineMapIndex < 0 || lineMapIndex >= lineMaps.size()) {
+                throw new IOException("Line map index " + lineMapIndex + " not in mapper section " + lineMapperSection.getName());
+            }
+            keyToLineMap.putIfAbsent(key, lineMaps.get(lineMapIndex));
+        }
+        int nonMatchers = in.readInt();
+        for (int i = 0; i < nonMatchers; i++) {
+            addReportedNonMatcher(in.readUTF());
+        }
+    }
+
+    /**
+     * @return the cache of the mapper results per line, to report the statistics
+     */
+    public LineMapperCache getLineMapperCache() {
+        return lineMapperCache;
+    }
+
     public Map<CounterKey, LineMap> getKeyToLineMap() {
         return Collections.unmodifiableMap(new HashMap<>(keyToLineMap));
     }
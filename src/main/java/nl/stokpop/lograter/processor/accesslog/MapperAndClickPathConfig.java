@@ -25,6 +25,7 @@ public class MapperAndClickPathConfig extends BasicCounterLogConfig {
     protected int clickPathShortCodeLength;
     private boolean ignoreMultiAndNoMatches = true;
     private boolean doCountMultipleMapperHits = false;
+    private boolean useMapperAutomaton = false;
     private List<LineMapperSection> mappers = Collections.emptyList();
     private boolean countNoMappersAsOne = false;
     private boolean clickpathReportStepDurations = false;
@@ -52,6 +53,14 @@ public class MapperAndClickPathConfig extends BasicCounterLogConfig {
         this.doCountMultipleMapperHits = doCountMultipleMapperHits;
     }
 
+    public boolean useMapperAutomaton() {
+        return useMapperAutomaton;
+    }
+
+    public void setUseMapperAutomaton(boolean useMapperAutomaton) {
+        this.useMapperAutomaton = useMapperAutomaton;
+    }
+
     public boolean countNoMappersAsOne() {
         return this.countNoMappersAsOne;
     }
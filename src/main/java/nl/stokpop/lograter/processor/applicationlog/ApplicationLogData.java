@@ -20,6 +20,7 @@ import nl.stokpop.lograter.counter.CounterKey;
 import nl.stokpop.lograter.counter.RequestCounter;
 import nl.stokpop.lograter.counter.SimpleCounter;
 import nl.stokpop.lograter.processor.BasicLogData;
+import nl.stokpop.lograter.store.TimeMeasurement;
 import nl.stokpop.lograter.store.TimeMeasurementStoreInMemory;
 
 import java.util.ArrayList;
@@ -160,20 +161,52 @@ public class ApplicationLogData extends BasicLogData {
 	}
 
 	public void addDetails(ApplicationsLogDetailsKey key, String message, String[] nonLogLines) {
+		addDetails(key, new ApplicationLogDetails(message, nonLogLines), 1);
+	}
+
+	private void addDetails(ApplicationsLogDetailsKey key, ApplicationLogDetails details, long count) {
 		detailsMap.computeIfAbsent(key, k -> new ArrayList<>());
 		List<ApplicationLogDetails> detailsList = detailsMap.get(key);
 		if (detailsList.size() <= 20) {
-			ApplicationLogDetails details = new ApplicationLogDetails(message, nonLogLines);
 			if (!detailsList.contains(details)) {
 				detailsList.add(details);
-				countPerLogDetails.put(details, new SimpleCounter(1));
+				countPerLogDetails.put(details, new SimpleCounter(count));
 			}
 			else {
-				countPerLogDetails.get(details).inc();
+				countPerLogDetails.get(details).add(count);
+			}
+		}
+	}
+
+	/**
+	 * Add the partial results of the other log data, for instance of a parallel worker.
+	 * Merge partial results in the order of the input for deterministic results.
+	 */
+	public void merge(ApplicationLogData other) {
+		super.merge(other);
+		mergeCounters(fatals, other.fatals);
+		mergeCounters(errors, other.errors);
+		mergeCounters(warns, other.warns);
+		mergeCounters(infos, other.infos);
+		mergeCounters(debugs, other.debugs);
+		mergeCounters(traces, other.traces);
+		for (TimeMeasurement timeMeasurement : other.errorsOverTime) {
+			errorsOverTime.incRequests(timeMeasurement.getTimestamp(), timeMeasurement.getDurationInMillis());
+		}
+		for (TimeMeasurement timeMeasurement : other.warnsOverTime) {
+			warnsOverTime.incRequests(timeMeasurement.getTimestamp(), timeMeasurement.getDurationInMillis());
+		}
+		for (ApplicationsLogDetailsKey key : other.applicationsLogDetailsKeys()) {
+			for (ApplicationLogDetails details : other.detailsMap.get(key)) {
+				addDetails(key, details, other.countPerLogDetails.get(details).getCount());
 			}
 		}
 	}
 
+	private static void mergeCounters(Map<String, SimpleCounter> counters, Map<String, SimpleCounter> otherCounters) {
+		otherCounters.forEach((key, counter) -> counters.computeIfAbsent(key, k -> new SimpleCounter(0)).add(counter.getCount()));
+	}
+
 	public List<ApplicationLogDetails> findApplicationLogDetails(ApplicationsLogDetailsKey key) {
 		return detailsMap.get(key);
 	}
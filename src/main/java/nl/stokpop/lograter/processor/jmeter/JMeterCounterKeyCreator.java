@@ -16,6 +16,7 @@
 package nl.stokpop.lograter.processor.jmeter;
 
 import nl.stokpop.lograter.counter.CounterKey;
+import nl.stokpop.lograter.processor.CounterKeyCache;
 import nl.stokpop.lograter.processor.CounterKeyCreator;
 import nl.stokpop.lograter.util.linemapper.LineMap;
 
@@ -24,14 +25,14 @@ import java.util.List;
 
 public class JMeterCounterKeyCreator implements CounterKeyCreator<JMeterLogEntry> {
 
-    private final List<String> groupByFields;
+    private final CounterKeyCache counterKeyCache;
 
     public JMeterCounterKeyCreator() {
         this(Collections.emptyList());
     }
 
     public JMeterCounterKeyCreator(final List<String> groupByFields) {
-        this.groupByFields = groupByFields;
+        this.counterKeyCache = new CounterKeyCache(groupByFields);
     }
 
     @Override
@@ -46,7 +47,7 @@ public class JMeterCounterKeyCreator implements CounterKeyCreator<JMeterLogEntry
 
     @Override
     public final CounterKey createCounterKey(final JMeterLogEntry entry, final String baseName) {
-        return constructCounterKey(entry, baseName, groupByFields);
+        return counterKeyCache.counterKey(entry, baseName);
     }
 
     public String counterKeyBaseName(JMeterLogEntry entry) {
@@ -17,6 +17,7 @@ package nl.stokpop.lograter.processor.latency;
 
 import nl.stokpop.lograter.counter.CounterKey;
 import nl.stokpop.lograter.logentry.LatencyLogEntry;
+import nl.stokpop.lograter.processor.CounterKeyCache;
 import nl.stokpop.lograter.processor.CounterKeyCreator;
 import nl.stokpop.lograter.util.linemapper.LineMap;
 
@@ -24,10 +25,10 @@ import java.util.List;
 
 public class LatencyCounterKeyCreator implements CounterKeyCreator<LatencyLogEntry> {
 
-    private final List<String> groupByFields;
+    private final CounterKeyCache counterKeyCache;
 
     public LatencyCounterKeyCreator(final List<String> groupByFields) {
-        this.groupByFields = groupByFields;
+        this.counterKeyCache = new CounterKeyCache(groupByFields);
     }
 
     @Override
@@ -42,7 +43,7 @@ public class LatencyCounterKeyCreator implements CounterKeyCreator<LatencyLogEnt
 
     @Override
     public final CounterKey createCounterKey(final LatencyLogEntry entry, final String baseName) {
-        return constructCounterKey(entry, baseName, groupByFields);
+        return counterKeyCache.counterKey(entry, baseName);
     }
 
     public String counterKeyBaseName(LatencyLogEntry entry) {
@@ -116,6 +116,7 @@ public class LatencyLogReader {
         for (LatencyMapperProcessor urlMapperProcessor : urlMapperProcessors) {
             Map<CounterKey, LineMap> keyToLineMap = urlMapperProcessor.getKeyToLineMap();
             allKeysToLineMap.putAll(keyToLineMap);
+            log.info("Mapper cache for [{}]: {}", urlMapperProcessor.getLineMapperCache().getLineMapperSection().getName(), urlMapperProcessor.getLineMapperCache().getStatistics());
         }
 
         return new LatencyLogDataBundle(config, processor.getData(), requestCounterStoresPairs, clickpathCollector, allKeysToLineMap);
@@ -21,6 +21,7 @@ import nl.stokpop.lograter.processor.Processor;
 import nl.stokpop.lograter.store.RequestCounterStore;
 import nl.stokpop.lograter.store.RequestCounterStorePair;
 import nl.stokpop.lograter.util.linemapper.LineMap;
+import nl.stokpop.lograter.util.linemapper.LineMapperCache;
 import nl.stokpop.lograter.util.linemapper.LineMapperCallback;
 import nl.stokpop.lograter.util.linemapper.LineMapperSection;
 import org.slf4j.Logger;
@@ -37,6 +38,7 @@ public class LatencyMapperProcessor implements Processor<LatencyLogEntry> {
     private final RequestCounterStorePair counterStorePair;
 
     private final LineMapperSection lineMapperSection;
+    private final LineMapperCache lineMapperCache;
 
 	private final Set<String> reportedNonMatchers = new HashSet<>();
 	private final Set<String> reportedMultiMatchers = new HashSet<>();
@@ -58,6 +60,7 @@ public class LatencyMapperProcessor implements Processor<LatencyLogEntry> {
             boolean isIgnoreMultiAndNoMatches,
             boolean isDoCountMultipleMapperHits) {
 		this.lineMapperSection = lineMapperSection;
+		this.lineMapperCache = new LineMapperCache(lineMapperSection, isDoCountMultipleMapperHits);
         this.counterStorePair = counterStorePair;
         this.counterKeyCreator = keyCreator;
         this.isDoCountNoMappersAsOne = isDoCountNoMappersAsOne;
@@ -102,12 +105,17 @@ public class LatencyMapperProcessor implements Processor<LatencyLogEntry> {
 			
 			@Override
 			public void matchFound(LineMap mapper) {
-                CounterKey key = counterKeyCreator.createCounterKey(logEntry, mapper);
+				matchFound(mapper, mapper.getNameWithReplacementsFromLine(logEntry.getMessage()));
+			}
+
+			@Override
+			public void matchFound(LineMap mapper, String nameWithReplacements) {
+                CounterKey key = counterKeyCreator.createCounterKey(logEntry, nameWithReplacements);
 				addToCounterStore(key, logEntry);
 				keyToLineMap.computeIfAbsent(key, k -> mapper);
 			}
 		};
-		lineMapperSection.updateMappers(logEntry.getMessage(), isDoCountMultipleMapperHits, callback);
+		lineMapperCache.updateMappers(logEntry.getMessage(), callback);
 	}
 
     private void logNonMatcher(String line, int nonMatchesCount) {
@@ -138,6 +146,13 @@ public class LatencyMapperProcessor implements Processor<LatencyLogEntry> {
 		return counterStorePair.getRequestCounterStoreFailure();
 	}
 
+    /**
+     * @return the cache of the mapper results per line, to report the statistics
+     */
+    public LineMapperCache getLineMapperCache() {
+        return lineMapperCache;
+    }
+
     public Map<CounterKey, LineMap> getKeyToLineMap() {
         return Collections.unmodifiableMap(new HashMap<>(keyToLineMap));
     }
@@ -58,6 +58,7 @@ public class AccessLogReportCreator implements ReportCreatorWithCommand<Abstract
 		config.setRunId(cmdMain.runId);
 		config.setFilterPeriod(DateUtils.createFilterPeriod(cmdMain.startTimeStr, cmdMain.endTimeStr));
 		config.setDoCountMultipleMapperHits(cmdAccessLog.doCountMultipleMapperHits);
+		config.setUseMapperAutomaton(cmdAccessLog.useMapperAutomaton);
 		// insert order is important
 		Set<String> groupByFields = new LinkedHashSet<>();
 		if(cmdAccessLog.doGroupByHttpMethod) {
@@ -91,47 +92,96 @@ public class AccessLogReportCreator implements ReportCreatorWithCommand<Abstract
 		config.setSessionFieldRegexp(cmdAccessLog.sessionFieldRegexp);
 		config.setLogPattern(cmdAccessLog.logPattern);
 		config.setIncludeMapperRegexpColumn(cmdAccessLog.includeMapperRegexpColumn);
-		if (cmdAccessLog instanceof CommandAccessLog) {
-            config.setLogType(((CommandAccessLog) cmdAccessLog).logType);
+		CommandAccessLog cmdAccessLogFeeder = cmdAccessLog instanceof CommandAccessLog ? (CommandAccessLog) cmdAccessLog : null;
+		if (cmdAccessLogFeeder != null) {
+            config.setLogType(cmdAccessLogFeeder.logType);
+            config.setCacheResultsPerFile(cmdAccessLogFeeder.useResultCache);
         }
         config.setBaseUnit(cmdMain.baseUnit);
 
 		List<File> files = FileUtils.findFilesThatMatchFilenames(cmdAccessLog.files);
 
-		AccessLogReader accessLogReader = new AccessLogReader();
-		AccessLogDataBundle accessLogDataBundle = accessLogReader.readAndProcessAccessLogs(config, new FileFeeder(files));
-
-		AccessLogTextReport report = new AccessLogTextReport(accessLogDataBundle);
-
-		File reportDirectory = new File(cmdMain.reportDirectory);
-		String reportOutputFileName = cmdMain.outputFilename;
-
-		TimePeriod analysisPeriod = accessLogDataBundle.getTotalRequestCounterStorePair().totalTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
-
-		LogRater.writeReport(report, reportOutputFileName, reportDirectory, outputStream, analysisPeriod);
-
-		GraphConfig graphConfig = new GraphConfig();
-		graphConfig.setAggregateDurationInSeconds(cmdAccessLog.aggregateDurationInSeconds);
-		graphConfig.setGraphsHistoEnabled(cmdAccessLog.graphsHisto);
-		graphConfig.setGraphsHistoSimulatorEnabled(cmdAccessLog.graphsHistoSimulator);
-		graphConfig.setGraphsPercentileEnabled(cmdAccessLog.graphsPercentile);
-		graphConfig.setGraphsResponseTimesEnabled(cmdAccessLog.graphsResponseTimes);
-		graphConfig.setGraphsTpsEnabled(cmdAccessLog.graphsTps);
-		graphConfig.setGraphsHtmlEnabled(cmdAccessLog.graphsHtml);
-		graphConfig.setGraphWithTrueTPSEnabled(cmdAccessLog.graphWithTrueTPS);
-		graphConfig.setBaseUnit(cmdMain.baseUnit);
-
-		if (graphConfig.isGraphRequested()) {
-			LogGraphCreator graphCreator = new LogGraphCreator(graphConfig);
+		FileFeeder feeder = createFileFeeder(files, config, cmdAccessLogFeeder, cmdMain);
+
+		int reportIntervalSeconds = cmdAccessLogFeeder == null ? 0 : cmdAccessLogFeeder.reportIntervalSeconds;
+		if (reportIntervalSeconds > 0 && cmdAccessLogFeeder.followSeconds > 0) {
+			// each report contains the lines that are appended since the previous report
+			long followUntil = System.currentTimeMillis() + cmdAccessLogFeeder.followSeconds * 1000L;
+			long remainingMillis;
+			while ((remainingMillis = followUntil - System.currentTimeMillis()) > 0) {
+				feeder.follow(Math.min(reportIntervalSeconds * 1000L, remainingMillis), 1000);
+				readAndReport(outputStream, cmdMain, cmdAccessLog, config, feeder);
+				feeder.saveCheckpoints();
+			}
+		}
+		else {
+			readAndReport(outputStream, cmdMain, cmdAccessLog, config, feeder);
+			feeder.saveCheckpoints();
+		}
+	}
 
-			File graphFile = graphCreator.createHtmlChartFile(reportDirectory, "access-log-rater-charts.html", accessLogDataBundle.getRequestCounterStorePairs(), analysisPeriod);
-			log.info("Check out graphs: {}", graphFile);
+	private static void readAndReport(PrintWriter outputStream, CommandMain cmdMain, AbstractCommandAccessLog cmdAccessLog, AccessLogConfig config, FileFeeder feeder) throws IOException {
+		AccessLogReader accessLogReader = new AccessLogReader();
+		AccessLogDataBundle accessLogDataBundle = accessLogReader.readAndProcessAccessLogs(config, feeder);
+
+		try {
+			AccessLogTextReport report = new AccessLogTextReport(accessLogDataBundle);
+
+			File reportDirectory = new File(cmdMain.reportDirectory);
+			String reportOutputFileName = cmdMain.outputFilename;
+
+			TimePeriod analysisPeriod = accessLogDataBundle.getTotalRequestCounterStorePair().totalTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
+
+			LogRater.writeReport(report, reportOutputFileName, reportDirectory, outputStream, analysisPeriod);
+
+			GraphConfig graphConfig = new GraphConfig();
+			graphConfig.setAggregateDurationInSeconds(cmdAccessLog.aggregateDurationInSeconds);
+			graphConfig.setGraphsHistoEnabled(cmdAccessLog.graphsHisto);
+			graphConfig.setGraphsHistoSimulatorEnabled(cmdAccessLog.graphsHistoSimulator);
+			graphConfig.setGraphsPercentileEnabled(cmdAccessLog.graphsPercentile);
+			graphConfig.setGraphsResponseTimesEnabled(cmdAccessLog.graphsResponseTimes);
+			graphConfig.setGraphsTpsEnabled(cmdAccessLog.graphsTps);
+			graphConfig.setGraphsHtmlEnabled(cmdAccessLog.graphsHtml);
+			graphConfig.setGraphWithTrueTPSEnabled(cmdAccessLog.graphWithTrueTPS);
+			graphConfig.setBaseUnit(cmdMain.baseUnit);
+
+			if (graphConfig.isGraphRequested()) {
+				LogGraphCreator graphCreator = new LogGraphCreator(graphConfig);
+
+				File graphFile = graphCreator.createHtmlChartFile(reportDirectory, "access-log-rater-charts.html", accessLogDataBundle.getRequestCounterStorePairs(), analysisPeriod);
+				log.info("Check out graphs: {}", graphFile);
+			}
+
+			if (accessLogDataBundle.getClickPathCollector() != AccessLogDataBundle.NOOP_CLICK_PATH_COLLECTOR) {
+				File clickpathFile = new File(reportDirectory, "clickpath-report-" + System.currentTimeMillis() + ".csv");
+				ClickPathReport.reportClickpaths(accessLogDataBundle.getClickPathCollector(), clickpathFile, config.isClickpathReportStepDurations());
+				log.info("The clickpath report: {}", clickpathFile.getPath());
+			}
+		} finally {
+			accessLogDataBundle.close();
 		}
+	}
 
-		if (accessLogDataBundle.getClickPathCollector() != AccessLogDataBundle.NOOP_CLICK_PATH_COLLECTOR) {
-			File clickpathFile = new File(reportDirectory, "clickpath-report-" + System.currentTimeMillis() + ".csv");
-			ClickPathReport.reportClickpaths(accessLogDataBundle.getClickPathCollector(), clickpathFile, config.isClickpathReportStepDurations());
-			log.info("The clickpath report: {}", clickpathFile.getPath());
+	/**
+	 * @param cmdAccessLog the access command with the feeder options, null for other access log commands
+	 */
+	private static FileFeeder createFileFeeder(List<File> files, AccessLogConfig config, CommandAccessLog cmdAccessLog, CommandMain cmdMain) {
+		String includes = config.getFileFeederFilterIncludes();
+		String excludes = config.getFileFeederFilterExcludes();
+		if (cmdAccessLog == null) {
+			return new FileFeeder(files, includes, excludes, 0, 1);
+		}
+		FileFeeder feeder = new FileFeeder(files, includes, excludes, 0, cmdAccessLog.threads);
+		if (cmdAccessLog.useGzipIndex) {
+			// default storage dir is the working directory, then store the index next to the log files
+			feeder.useGzipIndex(".".equals(cmdMain.storageDir) ? null : new File(cmdMain.storageDir));
+		}
+		if (cmdAccessLog.checkpointFile != null) {
+			feeder.useCheckpointFile(new File(cmdAccessLog.checkpointFile));
+		}
+		if (cmdAccessLog.followSeconds > 0) {
+			feeder.follow(cmdAccessLog.followSeconds * 1000L, 1000);
 		}
+		return feeder;
 	}
 }
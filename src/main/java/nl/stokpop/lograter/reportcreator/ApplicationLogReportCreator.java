@@ -19,6 +19,7 @@ import nl.stokpop.lograter.LogRater;
 import nl.stokpop.lograter.command.CommandApplicationLog;
 import nl.stokpop.lograter.command.CommandMain;
 import nl.stokpop.lograter.counter.RequestCounter;
+import nl.stokpop.lograter.feeder.Feeder;
 import nl.stokpop.lograter.feeder.FileFeeder;
 import nl.stokpop.lograter.graphs.ChartFile;
 import nl.stokpop.lograter.graphs.HtmlErrorsAndWarnsGraphCreator;
@@ -54,22 +55,22 @@ public class ApplicationLogReportCreator implements ReportCreatorWithCommand<Com
 				"%d;%t;%p;%marker;%X{session-id};%X{alevel};%X{atype};%X{aid};%X{customer};%X{service};%X{serviceName};%X{serviceId};%c;%m%n %xEx{short}",
 				cmdApplicationLog.logPattern);
 
-		LogbackParser<LogbackLogEntry> lineParser = LogbackParser.createLogbackParser(pattern);
-
 		ApplicationLogConfig config = new ApplicationLogConfig();
 		config.setRunId(cmdMain.runId);
 		config.setFilterPeriod(DateUtils.createFilterPeriod(cmdMain.startTimeStr, cmdMain.endTimeStr));
 
-		ApplicationLogProcessor processor = new ApplicationLogProcessor(config);
-
-		ApplicationLogParser appLogParser = new ApplicationLogParser(lineParser);
-		appLogParser.addProcessor(processor);
+		ApplicationLogWorker applicationLog = new ApplicationLogWorker(pattern, config);
 
 		List<File> files = FileUtils.findFilesThatMatchFilenames(cmdApplicationLog.files);
-		FileFeeder feeder = new FileFeeder(files, cmdApplicationLog.fileFeederFilterIncludes, cmdApplicationLog.fileFeederFilterExcludes);
-		feeder.feed(appLogParser);
+		FileFeeder feeder = new FileFeeder(files, cmdApplicationLog.fileFeederFilterIncludes, cmdApplicationLog.fileFeederFilterExcludes, 0, cmdApplicationLog.threads);
+		if (feeder.isParallel()) {
+			feeder.feedParallel(() -> new ApplicationLogWorker(pattern, config), applicationLog::merge);
+		}
+		else {
+			feeder.feed(applicationLog.appLogParser);
+		}
 
-		ApplicationLogData data = processor.getData();
+		ApplicationLogData data = applicationLog.processor.getData();
 
 		TimePeriod testPeriod = config.getFilterPeriod();
 		long bucketPeriodMillis = 60 * 1000;
@@ -88,4 +89,39 @@ public class ApplicationLogReportCreator implements ReportCreatorWithCommand<Com
 		LogRater.writeReport(report, outputFilename, reportDirectory, outputStream, analysisPeriod);
 	}
 
+	/**
+	 * Parser with processor for one file or chunk of a file, the partial results are merged into the final results.
+	 */
+	private static final class ApplicationLogWorker implements Feeder {
+		private final ApplicationLogParser appLogParser;
+		private final ApplicationLogProcessor processor;
+
+		private ApplicationLogWorker(String pattern, ApplicationLogConfig config) {
+			LogbackParser<LogbackLogEntry> lineParser = LogbackParser.createLogbackParser(pattern);
+			this.processor = new ApplicationLogProcessor(config);
+			this.appLogParser = new ApplicationLogParser(lineParser);
+			appLogParser.addProcessor(processor);
+		}
+
+		@Override
+		public void addLogLine(String filename, String logLine) {
+			appLogParser.addLogLine(filename, logLine);
+		}
+
+		@Override
+		public boolean isStartOfEntry(String logLine) {
+			return appLogParser.isStartOfEntry(logLine);
+		}
+
+		@Override
+		public void endOfInput() {
+			appLogParser.endOfInput();
+		}
+
+		private void merge(ApplicationLogWorker partial) {
+			partial.appLogParser.processLastEntry();
+			processor.getData().merge(partial.processor.getData());
+		}
+	}
+
 }
@@ -74,6 +74,7 @@ public class  IisLogReportCreator implements ReportCreatorWithCommand<CommandIis
 		config.setRunId(cmdMain.runId);
 		config.setFilterPeriod(DateUtils.createFilterPeriod(cmdMain.startTimeStr, cmdMain.endTimeStr));
 		config.setDoCountMultipleMapperHits(cmdIisLog.doCountMultipleMapperHits);
+		config.setUseMapperAutomaton(cmdIisLog.useMapperAutomaton);
 		// insert order is important
 		Set<String> groupByFields = new LinkedHashSet<>();
 		if (cmdIisLog.doGroupByHttpMethod) {
@@ -191,41 +192,44 @@ public class  IisLogReportCreator implements ReportCreatorWithCommand<CommandIis
 				new AccessLogDataBundle(config, requestCounterStorePairs, totalRequestCounterStorePair) :
 				new AccessLogDataBundle(config, requestCounterStorePairs, totalRequestCounterStorePair, clickPathCollector, allKeysToLineMap);
 
-		AccessLogTextReport report = new AccessLogTextReport(dataBundle);
+		try {
+			AccessLogTextReport report = new AccessLogTextReport(dataBundle);
 
-		TimePeriod analysisPeriod = totalRequestCounterStorePair.totalTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
+			TimePeriod analysisPeriod = totalRequestCounterStorePair.totalTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
 
-		LogRater.writeReport(report, cmdMain.outputFilename, new File(cmdMain.reportDirectory), outputStream, analysisPeriod);
+			LogRater.writeReport(report, cmdMain.outputFilename, new File(cmdMain.reportDirectory), outputStream, analysisPeriod);
 
-		File reportDir = new File(cmdMain.reportDirectory);
+			File reportDir = new File(cmdMain.reportDirectory);
 
-		GraphConfig graphConfig = new GraphConfig();
-		graphConfig.setAggregateDurationInSeconds(cmdIisLog.aggregateDurationInSeconds);
-		graphConfig.setGraphsHistoEnabled(cmdIisLog.graphsHisto);
-		graphConfig.setGraphsHistoSimulatorEnabled(cmdIisLog.graphsHistoSimulator);
-		graphConfig.setGraphsPercentileEnabled(cmdIisLog.graphsPercentile);
-		graphConfig.setGraphsResponseTimesEnabled(cmdIisLog.graphsResponseTimes);
-		graphConfig.setGraphsTpsEnabled(cmdIisLog.graphsTps);
-		graphConfig.setGraphsHtmlEnabled(cmdIisLog.graphsHtml);
-		graphConfig.setGraphWithTrueTPSEnabled(cmdIisLog.graphWithTrueTPS);
-		graphConfig.setBaseUnit(cmdMain.baseUnit);
+			GraphConfig graphConfig = new GraphConfig();
+			graphConfig.setAggregateDurationInSeconds(cmdIisLog.aggregateDurationInSeconds);
+			graphConfig.setGraphsHistoEnabled(cmdIisLog.graphsHisto);
+			graphConfig.setGraphsHistoSimulatorEnabled(cmdIisLog.graphsHistoSimulator);
+			graphConfig.setGraphsPercentileEnabled(cmdIisLog.graphsPercentile);
+			graphConfig.setGraphsResponseTimesEnabled(cmdIisLog.graphsResponseTimes);
+			graphConfig.setGraphsTpsEnabled(cmdIisLog.graphsTps);
+			graphConfig.setGraphsHtmlEnabled(cmdIisLog.graphsHtml);
+			graphConfig.setGraphWithTrueTPSEnabled(cmdIisLog.graphWithTrueTPS);
+			graphConfig.setBaseUnit(cmdMain.baseUnit);
 
-		if (!reportDir.exists() && !reportDir.mkdirs()) {
-			throw new LogRaterException(String.format("Cannot create directories: %s", reportDir));
-		}
+			if (!reportDir.exists() && !reportDir.mkdirs()) {
+				throw new LogRaterException(String.format("Cannot create directories: %s", reportDir));
+			}
 
-		if (graphConfig.isGraphRequested()) {
-			LogGraphCreator graphCreator = new LogGraphCreator(graphConfig);
-			File graphFile = graphCreator.createHtmlChartFile(reportDir, "iis-log-rater-charts.html", dataBundle.getRequestCounterStorePairs(), analysisPeriod);
-			log.info("Check out graphs: {}", graphFile);
-		}
+			if (graphConfig.isGraphRequested()) {
+				LogGraphCreator graphCreator = new LogGraphCreator(graphConfig);
+				File graphFile = graphCreator.createHtmlChartFile(reportDir, "iis-log-rater-charts.html", dataBundle.getRequestCounterStorePairs(), analysisPeriod);
+				log.info("Check out graphs: {}", graphFile);
+			}
 
-		if (dataBundle.getClickPathCollector() != AccessLogDataBundle.NOOP_CLICK_PATH_COLLECTOR) {
-			File clickpathFile = new File(reportDir, "clickpath-report-" + System.currentTimeMillis() + ".csv");
-			ClickPathReport.reportClickpaths(dataBundle.getClickPathCollector(), clickpathFile, config.isClickpathReportStepDurations());
-			log.info("The clickpath report: {}", clickpathFile.getPath());
+			if (dataBundle.getClickPathCollector() != AccessLogDataBundle.NOOP_CLICK_PATH_COLLECTOR) {
+				File clickpathFile = new File(reportDir, "clickpath-report-" + System.currentTimeMillis() + ".csv");
+				ClickPathReport.reportClickpaths(dataBundle.getClickPathCollector(), clickpathFile, config.isClickpathReportStepDurations());
+				log.info("The clickpath report: {}", clickpathFile.getPath());
+			}
+		} finally {
+			dataBundle.close();
 		}
-
 	}
 
 }
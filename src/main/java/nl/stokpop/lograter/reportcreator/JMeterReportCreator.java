@@ -75,29 +75,33 @@ public class JMeterReportCreator implements ReportCreatorWithCommand<CommandJMet
         JMeterLogReader jMeterLogReader = new JMeterLogReader();
         JMeterDataBundle dataBundle = jMeterLogReader.readAndProcessJMeterLogs(config, files);
 
-        JMeterTextReport report = new JMeterTextReport(dataBundle);
-
-        TimePeriod analysisPeriod = dataBundle.getTotalRequestCounterStorePair().totalTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
-
-        LogRater.writeReport(report, cmdMain.outputFilename, new File(cmdMain.reportDirectory), outputStream, analysisPeriod);
-
-        File reportDir = new File(cmdMain.reportDirectory);
-
-        GraphConfig graphConfig = new GraphConfig();
-        graphConfig.setAggregateDurationInSeconds(cmdJMeter.aggregateDurationInSeconds);
-        graphConfig.setGraphsHistoEnabled(cmdJMeter.graphsHisto);
-        graphConfig.setGraphsHistoSimulatorEnabled(cmdJMeter.graphsHistoSimulator);
-        graphConfig.setGraphsPercentileEnabled(cmdJMeter.graphsPercentile);
-        graphConfig.setGraphsResponseTimesEnabled(cmdJMeter.graphsResponseTimes);
-        graphConfig.setGraphsTpsEnabled(cmdJMeter.graphsTps);
-        graphConfig.setGraphsHtmlEnabled(cmdJMeter.graphsHtml);
-        graphConfig.setGraphWithTrueTPSEnabled(cmdJMeter.graphWithTrueTPS);
-        graphConfig.setBaseUnit(cmdMain.baseUnit);
-
-        if (graphConfig.isGraphRequested()) {
-            LogGraphCreator graphCreator = new LogGraphCreator(graphConfig);
-            File graphFile = graphCreator.createHtmlChartFile(reportDir, "jmeter-log-rater-charts.html", dataBundle.getRequestCounterStorePairs(), analysisPeriod);
-            log.info("Check out graphs: {}", graphFile);
+        try {
+            JMeterTextReport report = new JMeterTextReport(dataBundle);
+
+            TimePeriod analysisPeriod = dataBundle.getTotalRequestCounterStorePair().totalTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
+
+            LogRater.writeReport(report, cmdMain.outputFilename, new File(cmdMain.reportDirectory), outputStream, analysisPeriod);
+
+            File reportDir = new File(cmdMain.reportDirectory);
+
+            GraphConfig graphConfig = new GraphConfig();
+            graphConfig.setAggregateDurationInSeconds(cmdJMeter.aggregateDurationInSeconds);
+            graphConfig.setGraphsHistoEnabled(cmdJMeter.graphsHisto);
+            graphConfig.setGraphsHistoSimulatorEnabled(cmdJMeter.graphsHistoSimulator);
+            graphConfig.setGraphsPercentileEnabled(cmdJMeter.graphsPercentile);
+            graphConfig.setGraphsResponseTimesEnabled(cmdJMeter.graphsResponseTimes);
+            graphConfig.setGraphsTpsEnabled(cmdJMeter.graphsTps);
+            graphConfig.setGraphsHtmlEnabled(cmdJMeter.graphsHtml);
+            graphConfig.setGraphWithTrueTPSEnabled(cmdJMeter.graphWithTrueTPS);
+            graphConfig.setBaseUnit(cmdMain.baseUnit);
+
+            if (graphConfig.isGraphRequested()) {
+                LogGraphCreator graphCreator = new LogGraphCreator(graphConfig);
+                File graphFile = graphCreator.createHtmlChartFile(reportDir, "jmeter-log-rater-charts.html", dataBundle.getRequestCounterStorePairs(), analysisPeriod);
+                log.info("Check out graphs: {}", graphFile);
+            }
+        } finally {
+            dataBundle.close();
         }
     }
 
@@ -84,42 +84,45 @@ public class LatencyLogReportCreator implements ReportCreatorWithCommand<Command
         FileFeeder feeder = new FileFeeder(files, config.getFileFeederFilterIncludes(), config.getFileFeederFilterExcludes());
         LatencyLogDataBundle dataBundle = LatencyLogReader.readAndProcessLatencyLogs(config, feeder);
 
-        RequestCounter totalRequestCounter = dataBundle.getTotalRequestCounterStorePair().getRequestCounterStoreSuccess().getTotalRequestCounter();
-        TimePeriod analysisPeriod = totalRequestCounter.getTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
+        try {
+            RequestCounter totalRequestCounter = dataBundle.getTotalRequestCounterStorePair().getRequestCounterStoreSuccess().getTotalRequestCounter();
+            TimePeriod analysisPeriod = totalRequestCounter.getTimePeriod().createFilterTimePeriodIfFilterIsSet(config.getFilterPeriod());
 
-        LatencyLogTextReport report = new LatencyLogTextReport(dataBundle);
-        if (analysisPeriod.hasBothTimestampsSet()) {
-            LogRater.writeReport(report, cmdMain.outputFilename, new File(cmdMain.reportDirectory), outputStream, analysisPeriod);
-        }
-        else {
-            log.warn("The analysis period has no timestamps, cannot create report. Check if any log lines are parsed without errors.");
-        }
-        ClickPathCollector clickPathCollector = dataBundle.getClickPathCollector();
-        if (clickPathCollector != null) {
-            File dir = new File(cmdMain.reportDirectory);
-            File clickpathFile = new File(dir, "clickpath-report-" + System.currentTimeMillis() + ".csv");
-            ClickPathReport.reportClickpaths(clickPathCollector, clickpathFile, cmdLatency.clickpathReportStepDurations);
-            log.info("The click path report: {}", clickpathFile.getPath());
-        }
+            LatencyLogTextReport report = new LatencyLogTextReport(dataBundle);
+            if (analysisPeriod.hasBothTimestampsSet()) {
+                LogRater.writeReport(report, cmdMain.outputFilename, new File(cmdMain.reportDirectory), outputStream, analysisPeriod);
+            }
+            else {
+                log.warn("The analysis period has no timestamps, cannot create report. Check if any log lines are parsed without errors.");
+            }
+            ClickPathCollector clickPathCollector = dataBundle.getClickPathCollector();
+            if (clickPathCollector != null) {
+                File dir = new File(cmdMain.reportDirectory);
+                File clickpathFile = new File(dir, "clickpath-report-" + System.currentTimeMillis() + ".csv");
+                ClickPathReport.reportClickpaths(clickPathCollector, clickpathFile, cmdLatency.clickpathReportStepDurations);
+                log.info("The click path report: {}", clickpathFile.getPath());
+            }
 
-        GraphConfig graphConfig = new GraphConfig();
-        graphConfig.setAggregateDurationInSeconds(cmdLatency.aggregateDurationInSeconds);
-        graphConfig.setGraphsHistoEnabled(cmdLatency.graphsHisto);
-        graphConfig.setGraphsHistoSimulatorEnabled(cmdLatency.graphsHistoSimulator);
-        graphConfig.setGraphsPercentileEnabled(cmdLatency.graphsPercentile);
-        graphConfig.setGraphsResponseTimesEnabled(cmdLatency.graphsResponseTimes);
-        graphConfig.setGraphsTpsEnabled(cmdLatency.graphsTps);
-        graphConfig.setGraphsHtmlEnabled(cmdLatency.graphsHtml);
-        graphConfig.setGraphWithTrueTPSEnabled(cmdLatency.graphWithTrueTPS);
-        graphConfig.setBaseUnit(cmdMain.baseUnit);
+            GraphConfig graphConfig = new GraphConfig();
+            graphConfig.setAggregateDurationInSeconds(cmdLatency.aggregateDurationInSeconds);
+            graphConfig.setGraphsHistoEnabled(cmdLatency.graphsHisto);
+            graphConfig.setGraphsHistoSimulatorEnabled(cmdLatency.graphsHistoSimulator);
+            graphConfig.setGraphsPercentileEnabled(cmdLatency.graphsPercentile);
+            graphConfig.setGraphsResponseTimesEnabled(cmdLatency.graphsResponseTimes);
+            graphConfig.setGraphsTpsEnabled(cmdLatency.graphsTps);
+            graphConfig.setGraphsHtmlEnabled(cmdLatency.graphsHtml);
+            graphConfig.setGraphWithTrueTPSEnabled(cmdLatency.graphWithTrueTPS);
+            graphConfig.setBaseUnit(cmdMain.baseUnit);
 
-        if (graphConfig.isGraphRequested()) {
-            LogGraphCreator logGraphCreator = new LogGraphCreator(graphConfig);
-            Collection<RequestCounterStorePair> stores = dataBundle.getRequestCounterStorePairs();
+            if (graphConfig.isGraphRequested()) {
+                LogGraphCreator logGraphCreator = new LogGraphCreator(graphConfig);
+                Collection<RequestCounterStorePair> stores = dataBundle.getRequestCounterStorePairs();
 
-            File graphFile = logGraphCreator.createHtmlChartFile(new File(cmdMain.reportDirectory), "performance-log-rater-charts.html", stores, analysisPeriod);
-            log.info("Check out graphs: {}", graphFile);
+                File graphFile = logGraphCreator.createHtmlChartFile(new File(cmdMain.reportDirectory), "performance-log-rater-charts.html", stores, analysisPeriod);
+                log.info("Check out graphs: {}", graphFile);
+            }
+        } finally {
+            dataBundle.close();
         }
-
     }
 }
@@ -46,4 +46,19 @@ public interface RequestCounterStore extends Iterable<RequestCounter> {
 	 * @return the new or existing request counter.
 	 */
 	RequestCounter addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(CounterKey counterKey);
+
+	/**
+	 * Add all time measurements of the counter to the counter for the counterKey and to the total counter,
+	 * with the same result as adding the time measurements one by one.
+	 */
+	default void addAll(CounterKey counterKey, RequestCounter counter) {
+		addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(counterKey).addAll(counter);
+		getTotalRequestCounter().addAll(counter);
+	}
+
+	/**
+	 * Release the resources of this store, such as files. The counters cannot be read after this.
+	 * Closing a store more than once has no effect.
+	 */
+	default void close() {}
 }
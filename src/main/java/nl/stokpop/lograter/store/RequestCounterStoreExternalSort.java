@@ -31,12 +31,15 @@ public class RequestCounterStoreExternalSort implements RequestCounterStore {
 	private final String name;
 	private final TimePeriod timePeriod;
 	private final RequestCounter totalRequestCounter;
-	private final File rootStorageDir;
+	private final TimeMeasurementSpillFiles spillFiles;
+	private final List<TimeMeasurementStoreToFiles> timeMeasurementStores = new ArrayList<>();
+	private boolean isClosed = false;
 
 	RequestCounterStoreExternalSort(File rootStorageDir, String storeName, CounterKey totalRequestKey, TimePeriod timePeriod) {
 		this.name = storeName;
-		this.rootStorageDir = rootStorageDir;
-		this.totalRequestCounter = new RequestCounter(totalRequestKey, new TimeMeasurementStoreToFiles(this.rootStorageDir, this.name, totalRequestKey.getName(), BUFFER_SIZE));
+		// one set of spill files for all counters of this store
+		this.spillFiles = TimeMeasurementSpillFiles.create(rootStorageDir, storeName, "all-counters");
+		this.totalRequestCounter = new RequestCounter(totalRequestKey, createTimeMeasurementStore(totalRequestKey));
 		this.timePeriod = timePeriod;
 	}
 	
@@ -54,7 +57,19 @@ public class RequestCounterStoreExternalSort implements RequestCounterStore {
 				'}';
 	}
 
+	private TimeMeasurementStoreToFiles createTimeMeasurementStore(CounterKey counterKey) {
+		TimeMeasurementStoreToFiles store = new TimeMeasurementStoreToFiles(spillFiles, counterKey.getName(), BUFFER_SIZE);
+		timeMeasurementStores.add(store);
+		return store;
+	}
+
+	/**
+	 * Iterating the request counters is the start of reading them, for instance for a report:
+	 * the external sorts of all counters are done in parallel first, then the runs file is reclaimed.
+	 */
 	public Iterator<RequestCounter> iterator() {
+		timeMeasurementStores.parallelStream().forEach(TimeMeasurementStoreToFiles::lockAndWrite);
+		spillFiles.reclaimRuns();
 		List<RequestCounter> values = new ArrayList<>(counters.values());
 		Collections.sort(values);
 		return values.iterator();
@@ -64,11 +79,22 @@ public class RequestCounterStoreExternalSort implements RequestCounterStore {
 	public boolean isEmpty() {
 		return counters.isEmpty();
 	}
+
+	/**
+	 * Closes the spill files, the time measurements of the counters cannot be read after this.
+	 */
+	@Override
+	public void close() {
+		if (!isClosed) {
+			isClosed = true;
+			spillFiles.close();
+		}
+	}
 	
     @Override
 	public RequestCounter addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(CounterKey counterKey) {
 		if (!counters.containsKey(counterKey)) {
-			RequestCounter counter = new RequestCounter(counterKey, new TimeMeasurementStoreToFiles(rootStorageDir, name, counterKey.getName(), BUFFER_SIZE));
+			RequestCounter counter = new RequestCounter(counterKey, createTimeMeasurementStore(counterKey));
 			counters.put(counterKey, counter);
 			return counter;
 		}
@@ -37,7 +37,14 @@ public class RequestCounterStoreFactory {
 
 	private final TimePeriod timePeriod;
 
+	// stores for partial results are not limited, the limit is applied when merged into the final stores
+	private final boolean limitUniqueCounters;
+
 	public RequestCounterStoreFactory(CounterStorageType type, TimePeriod timePeriod, File storageRootDir) {
+		this(type, timePeriod, storageRootDir, true);
+	}
+
+	private RequestCounterStoreFactory(CounterStorageType type, TimePeriod timePeriod, File storageRootDir, boolean limitUniqueCounters) {
         log.info(
                 "Create RequestCounterStoreFactory with storage type [{}] for time period [{}] and with storage dir [{}]."
                 , type, timePeriod, storageRootDir);
@@ -51,6 +58,7 @@ public class RequestCounterStoreFactory {
             storageRootDir = new File(".");
         }
         this.storageRootDir = storageRootDir;
+        this.limitUniqueCounters = limitUniqueCounters;
     }
 
 	public RequestCounterStoreFactory(CounterStorageType type, TimePeriod timePeriod) {
@@ -65,6 +73,17 @@ public class RequestCounterStoreFactory {
         this(type, TimePeriod.MAX_TIME_PERIOD, storageRootDir);
     }
 
+	/**
+	 * Create a factory for in memory stores that hold the partial results of one parallel worker.
+	 * These stores do not limit the number of unique counters and keep the counters in creation order,
+	 * so the max unique counters are applied when the partial results are merged into the final stores.
+	 *
+	 * @see RequestCounterStorePair#merge(RequestCounterStorePair)
+	 */
+	public static RequestCounterStoreFactory createPartialResultsFactory(TimePeriod timePeriod) {
+		return new RequestCounterStoreFactory(CounterStorageType.Memory, timePeriod, null, false);
+	}
+
     public RequestCounterStore newInstance(String storeName, CounterKey totalRequestsKey) {
 		return newInstance(storeName, totalRequestsKey, DEFAULT_MAX_UNIQUE_REQUESTS);
 	}
@@ -88,7 +107,10 @@ public class RequestCounterStoreFactory {
 				log.warn("No valid measurement store option found: {}, using in memory store.", type);
 				store = new RequestCounterStoreHashMap(storeName, totalRequestsKey, timePeriod);
 		}
-		// always limit the max number of requests to avoid memory issues and slow behaviour
+		if (!limitUniqueCounters) {
+			return store;
+		}
+		// limit the max number of requests to avoid memory issues and slow behaviour
 		return new RequestCounterStoreMaxCounters(store, maxUniqueCounters);
 	}
 
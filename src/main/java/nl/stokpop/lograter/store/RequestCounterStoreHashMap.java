@@ -26,7 +26,8 @@ import java.util.*;
 @NotThreadSafe
 public class RequestCounterStoreHashMap implements RequestCounterStore {
 
-    private final Map<CounterKey, RequestCounter> counters = new HashMap<>();
+    // keep insertion order: merging partial results replays counters in the order they were created
+    private final Map<CounterKey, RequestCounter> counters = new LinkedHashMap<>();
 	private final String name;
 	private final TimePeriod timePeriod;
     private final RequestCounter totalRequestCounter;
@@ -65,15 +65,23 @@ public class RequestCounterStoreMaxCounters implements RequestCounterStore {
 
     @Override
     public void add(CounterKey counterKey, long timestamp, int durationMillis) {
-        RequestCounter currentCounter;
+        findCounter(counterKey).incRequests(timestamp, durationMillis);
+        store.getTotalRequestCounter().incRequests(timestamp, durationMillis);
+    }
+
+    @Override
+    public void addAll(CounterKey counterKey, RequestCounter counter) {
+        findCounter(counterKey).addAll(counter);
+        store.getTotalRequestCounter().addAll(counter);
+    }
+
+    private RequestCounter findCounter(CounterKey counterKey) {
         if (isOverflowing()) {
-            currentCounter = findCounterWhenOverflown(counterKey);
+            return findCounterWhenOverflown(counterKey);
         }
         else {
-            currentCounter = addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(counterKey);
+            return addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(counterKey);
         }
-        currentCounter.incRequests(timestamp, durationMillis);
-        store.getTotalRequestCounter().incRequests(timestamp, durationMillis);
     }
 
     private RequestCounter findCounterWhenOverflown(CounterKey counterKey) {
@@ -97,6 +105,11 @@ public class RequestCounterStoreMaxCounters implements RequestCounterStore {
         return store.isEmpty();
     }
 
+    @Override
+    public void close() {
+        store.close();
+    }
+
     @Override
     public RequestCounter addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(CounterKey counterKey) {
         if (isOverflowing()) {
@@ -22,7 +22,11 @@ import nl.stokpop.lograter.counter.RequestCounter;
 import nl.stokpop.lograter.counter.RequestCounterPair;
 import nl.stokpop.lograter.util.time.TimePeriod;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Holds a separate RequestCounterStore for success and for failure.
@@ -100,6 +104,88 @@ public class RequestCounterStorePair {
 		}
 	}
 
+	private void addAllSuccess(CounterKey key, RequestCounter counter) {
+		storeSuccess.addAll(key, counter);
+		if (!storeFailure.contains(key)) {
+			storeFailure.addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(key);
+			assert storeSuccess.isOverflowing() == storeFailure.isOverflowing();
+		}
+	}
+
+	private void addAllFailure(CounterKey key, RequestCounter counter) {
+		storeFailure.addAll(key, counter);
+		if (!storeSuccess.contains(key)) {
+			storeSuccess.addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(key);
+			assert storeSuccess.isOverflowing() == storeFailure.isOverflowing();
+		}
+	}
+
+	/**
+	 * Add all measurements of the other store pair to this store pair, for instance the partial results
+	 * of a parallel worker. The counters are replayed in the order they were created in the other store pair,
+	 * so this store pair ends up with the same counters (and overflow counters) as when all measurements
+	 * had been added to this store pair directly. Merge partial results in the order of the input for
+	 * identical results.
+	 *
+	 * @param other the store pair to merge, preferably created with RequestCounterStoreFactory#createPartialResultsFactory
+	 */
+	public void merge(RequestCounterStorePair other) {
+		for (CounterKey key : other.storeSuccess.getCounterKeys()) {
+			RequestCounter successCounter = other.storeSuccess.get(key);
+			RequestCounter failureCounter = other.storeFailure.get(key);
+			if (successCounter != null && !successCounter.isEmpty()) {
+				addAllSuccess(key, successCounter);
+			}
+			if (failureCounter != null && !failureCounter.isEmpty()) {
+				addAllFailure(key, failureCounter);
+			}
+		}
+	}
+
+	/**
+	 * Write all measurements of this store pair, in the same order as merge replays them.
+	 * Read with readFrom to add the measurements to a store pair, for instance to cache partial results.
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		Set<CounterKey> keys = storeSuccess.getCounterKeys();
+		out.writeInt(keys.size());
+		for (CounterKey key : keys) {
+			key.writeTo(out);
+			writeTimeMeasurements(out, storeSuccess.get(key));
+			writeTimeMeasurements(out, storeFailure.get(key));
+		}
+	}
+
+	private static void writeTimeMeasurements(DataOutput out, RequestCounter counter) throws IOException {
+		if (counter == null) {
+			out.writeLong(0);
+			return;
+		}
+		out.writeLong(counter.getHits());
+		for (TimeMeasurement timeMeasurement : counter) {
+			out.writeLong(timeMeasurement.getTimestamp());
+			out.writeInt(timeMeasurement.getDurationInMillis());
+		}
+	}
+
+	/**
+	 * Add all measurements written by writeTo to this store pair, with the same result as merge.
+	 */
+	public void readFrom(DataInput in) throws IOException {
+		int keys = in.readInt();
+		for (int i = 0; i < keys; i++) {
+			CounterKey key = CounterKey.readFrom(in);
+			long successHits = in.readLong();
+			for (long hit = 0; hit < successHits; hit++) {
+				addSuccess(key, in.readLong(), in.readInt());
+			}
+			long failureHits = in.readLong();
+			for (long hit = 0; hit < failureHits; hit++) {
+				addFailure(key, in.readLong(), in.readInt());
+			}
+		}
+	}
+
     /**
      * @return the total period covering the success and the failures.
      */
@@ -145,4 +231,12 @@ public class RequestCounterStorePair {
 	    // actually both should be overflowing at same time
 		return storeFailure.isOverflowing() && storeSuccess.isOverflowing();
 	}
+
+	/**
+	 * Close both stores, for instance when the reports are done.
+	 */
+	public void close() {
+		storeSuccess.close();
+		storeFailure.close();
+	}
 }
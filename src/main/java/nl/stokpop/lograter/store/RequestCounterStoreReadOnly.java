@@ -58,6 +58,11 @@ public class RequestCounterStoreReadOnly implements RequestCounterStore {
     public boolean isEmpty() {
         return store.isEmpty();
     }
+
+    @Override
+    public void close() {
+        store.close();
+    }
     
     public RequestCounter addEmptyCounterIfNotExistsOrOverflowCounterWhenFull(CounterKey counterKey) {
         throw new UnsupportedOperationException("This RequestCounterStore is read only.");
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.store;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import nl.stokpop.lograter.LogRaterException;
+import nl.stokpop.lograter.util.ExternalSort;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Two files shared by the file backed time measurement stores of many counters: a runs file with the sorted
+ * buffers of the counters, appended as they are flushed, and a sorted file with the merged runs per counter.
+ * The stores keep the offsets of their runs and of their merged segment, so the number of files and
+ * file handles does not depend on the number of counters.
+ *
+ * Space in the files is reserved per run or segment, which are then written and read at their own
+ * positions, so stores can flush and merge in parallel.
+ *
+ * The runs are only read to merge them, so the runs file can be reclaimed when the runs of all
+ * stores are merged, after which the time measurements are only on disk once, in the sorted file.
+ */
+@ThreadSafe
+final class TimeMeasurementSpillFiles implements AutoCloseable {
+
+	private static final String RUNS_FILENAME = "timemeasurements.runs.ser";
+	private static final String SORTED_FILENAME = "timemeasurements.sorted.ser";
+	private static final int MAX_WRITE_BUFFER_SIZE = 256 * 1024;
+
+	// check if directories are unique, this is static because a directory must be used by one spill files object only
+	@GuardedBy("itself")
+	private static final Set<String> directories = new HashSet<>();
+
+	private final String key;
+	private final File dir;
+	private final FileChannel runs;
+	private final FileChannel sorted;
+
+	@GuardedBy("this")
+	private long runsSize = 0;
+	@GuardedBy("this")
+	private long sortedSize = 0;
+
+	private TimeMeasurementSpillFiles(String key, File dir) {
+		this.key = key;
+		this.dir = dir;
+		try {
+			this.runs = FileChannel.open(new File(dir, RUNS_FILENAME).toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.sorted = FileChannel.open(new File(dir, SORTED_FILENAME).toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		} catch (IOException e) {
+			throw new LogRaterException("Cannot create spill files in " + dir.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Create the spill files in a new directory for the store name and sub directory name in the root storage dir.
+	 * @throws LogRaterException when the directory is already in use
+	 */
+	static TimeMeasurementSpillFiles create(File rootStorageDir, String storeName, String subDirName) {
+		String key = new File(new File(rootStorageDir.getAbsoluteFile(), storeName), subDirName).getPath();
+		synchronized (directories) {
+			if (!directories.add(key)) {
+				throw new LogRaterException(String.format("Store/counter name already in use, it must be unique. Store name [%s] Counter name [%s].", storeName, subDirName));
+			}
+		}
+		return new TimeMeasurementSpillFiles(key, ExternalSort.createTempDir(rootStorageDir, storeName, subDirName));
+	}
+
+	/**
+	 * Append the time measurements of the buffer, in timestamp order, to the runs file.
+	 * @return the offset of the run in records
+	 */
+	long writeRun(TimeMeasurementStoreInMemory buffer) throws IOException {
+		int count = (int) buffer.getSize();
+		long offset = reserveRun(count);
+		try (ExternalSort.RecordWriter writer = new ExternalSort.RecordWriter(new ChannelOutputStream(runs, offset * ExternalSort.RECORD_SIZE), Math.min(MAX_WRITE_BUFFER_SIZE, count * ExternalSort.RECORD_SIZE))) {
+			for (int i = 0; i < count; i++) {
+				writer.write(buffer.getTimestamp(i), buffer.getDurationInMillis(i));
+			}
+		}
+		return offset;
+	}
+
+	private synchronized long reserveRun(long records) {
+		long offset = runsSize;
+		runsSize += records;
+		return offset;
+	}
+
+	/**
+	 * Reserve a segment in the sorted file.
+	 * @return the offset of the segment in records
+	 */
+	synchronized long reserveSorted(long records) {
+		long offset = sortedSize;
+		sortedSize += records;
+		return offset;
+	}
+
+	ExternalSort.RecordReader readRun(long offset, long records, int bufferSize) {
+		return new ExternalSort.RecordReader(new ChannelInputStream(runs, offset, records), bufferSize);
+	}
+
+	ExternalSort.RecordReader readSorted(long offset, long records, int bufferSize) {
+		return new ExternalSort.RecordReader(new ChannelInputStream(sorted, offset, records), bufferSize);
+	}
+
+	ExternalSort.RecordWriter writeSorted(long offset, int bufferSize) {
+		return new ExternalSort.RecordWriter(new ChannelOutputStream(sorted, offset * ExternalSort.RECORD_SIZE), bufferSize);
+	}
+
+	/**
+	 * Truncate the runs file, call when the runs of all stores that use these spill files are merged.
+	 * New runs are written from the start of the runs file again.
+	 */
+	synchronized void reclaimRuns() {
+		try {
+			runs.truncate(0);
+		} catch (IOException e) {
+			throw new LogRaterException("Cannot truncate runs file in " + dir.getAbsolutePath(), e);
+		}
+		runsSize = 0;
+	}
+
+	/**
+	 * Close the files, after which the directory can be used by new spill files.
+	 */
+	@Override
+	public void close() {
+		IOException closeError = null;
+		for (FileChannel channel : new FileChannel[] { runs, sorted }) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				if (closeError == null) {
+					closeError = e;
+				}
+				else {
+					closeError.addSuppressed(e);
+				}
+			}
+		}
+		synchronized (directories) {
+			directories.remove(key);
+		}
+		if (closeError != null) {
+			throw new LogRaterException("Cannot close spill files in " + dir.getAbsolutePath(), closeError);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TimeMeasurementSpillFiles{" + "dir=" + dir + '}';
+	}
+
+	/**
+	 * Reads a part of a file channel at its own position, closing does not close the channel.
+	 */
+	private static final class ChannelInputStream extends InputStream {
+		private final FileChannel channel;
+		private long position;
+		private final long end;
+
+		private ChannelInputStream(FileChannel channel, long offset, long records) {
+			this.channel = channel;
+			this.position = offset * ExternalSort.RECORD_SIZE;
+			this.end = position + records * ExternalSort.RECORD_SIZE;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (position >= end) {
+				return -1;
+			}
+			int length = (int) Math.min(len, end - position);
+			int read = channel.read(ByteBuffer.wrap(b, off, length), position);
+			if (read == -1) {
+				throw new LogRaterException("Unexpected end of spill file at position " + position);
+			}
+			position += read;
+			return read;
+		}
+	}
+
+	/**
+	 * Writes to a file channel from a position, closing does not close the channel.
+	 */
+	private static final class ChannelOutputStream extends OutputStream {
+		private final FileChannel channel;
+		private long position;
+
+		private ChannelOutputStream(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+			while (buffer.hasRemaining()) {
+				position += channel.write(buffer, position);
+			}
+		}
+	}
+}
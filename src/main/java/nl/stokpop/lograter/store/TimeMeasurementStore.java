@@ -23,6 +23,15 @@ public interface TimeMeasurementStore extends Iterable<TimeMeasurement> {
 
 	void add(TimeMeasurement timeMeasurement);
 
+	/**
+	 * Add all time measurements of the other store, for instance to merge partial results.
+	 */
+	default void addAll(TimeMeasurementStore other) {
+		for (TimeMeasurement timeMeasurement : other) {
+			add(timeMeasurement);
+		}
+	}
+
 	TimePeriod getTimePeriod();
 
 	TimeMeasurementStore getTimeSlice(TimePeriod timePeriod);
@@ -16,24 +16,136 @@
 package nl.stokpop.lograter.store;
 
 import net.jcip.annotations.NotThreadSafe;
+import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.util.time.TimePeriod;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 
 /**
+ * Keeps the time measurements in primitive columns: a timestamp and a duration per hit, about 12 bytes per hit.
+ * The number of hits column is only created when a time measurement with other than one hit is added.
+ * TimeMeasurement objects are created during iteration only.
+ *
  * This class is NOT thread safe due to sorting and sorting check.
  */
 @NotThreadSafe
-public class TimeMeasurementStoreInMemory extends AbstractTimeMeasurementStore {
+public class TimeMeasurementStoreInMemory extends AbstractTimeMeasurementStore implements TimeMeasurementStoreRandomAccess {
+
+	private static final int INITIAL_CAPACITY = 16;
+	// some VMs reserve header words in arrays
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
 
-	private final List<TimeMeasurement> timeMeasurements = new ArrayList<>();
+	private long[] timestamps;
+	private int[] durations;
+	// null when all time measurements have one hit
+	private int[] numberOfHits = null;
+	private int size = 0;
 	private boolean isOrdered = true;
 
+	public TimeMeasurementStoreInMemory() {
+		this(INITIAL_CAPACITY);
+	}
+
+	TimeMeasurementStoreInMemory(int initialCapacity) {
+		this.timestamps = new long[initialCapacity];
+		this.durations = new int[initialCapacity];
+	}
+
 	@Override
 	public void add(long timestamp, int durationMillis) {
-		this.add(new TimeMeasurement(timestamp, durationMillis));
+		add(timestamp, durationMillis, 1);
+	}
+
+	@Override
+	public void add(TimeMeasurement timeMeasurement) {
+		add(timeMeasurement.getTimestamp(), timeMeasurement.getDurationInMillis(), timeMeasurement.getNumberOfHits());
+	}
+
+	private void add(long timestamp, int durationMillis, int hits) {
+		if (timestamp < 0) {
+			throw new LogRaterException("Timestamp is not allowed to be negative: " + timestamp);
+		}
+		if (durationMillis < 0) {
+			throw new LogRaterException("Duration is not allowed to be negative: " + durationMillis);
+		}
+		if (size == timestamps.length) {
+			grow();
+		}
+		if (hits != 1 && numberOfHits == null) {
+			numberOfHits = new int[timestamps.length];
+			Arrays.fill(numberOfHits, 0, size, 1);
+		}
+		// check if stays ordered if already ordered
+		if (isOrdered && size > 0) {
+			isOrdered = timestamps[size - 1] <= timestamp;
+		}
+		timestamps[size] = timestamp;
+		durations[size] = durationMillis;
+		if (numberOfHits != null) {
+			numberOfHits[size] = hits;
+		}
+		size++;
+		updateFirstAndLastTimestamps(timestamp);
+	}
+
+	/**
+	 * Copies the arrays of another in memory store, without ordering the other store first.
+	 */
+	@Override
+	public void addAll(TimeMeasurementStore other) {
+		if (!(other instanceof TimeMeasurementStoreInMemory)) {
+			for (TimeMeasurement timeMeasurement : other) {
+				add(timeMeasurement);
+			}
+			return;
+		}
+		TimeMeasurementStoreInMemory otherStore = (TimeMeasurementStoreInMemory) other;
+		if (otherStore.size == 0) {
+			return;
+		}
+		long newSize = (long) size + otherStore.size;
+		if (newSize > MAX_CAPACITY) {
+			throw new LogRaterException("Too many time measurements for one in memory store: " + newSize);
+		}
+		if (newSize > timestamps.length) {
+			timestamps = Arrays.copyOf(timestamps, (int) newSize);
+			durations = Arrays.copyOf(durations, (int) newSize);
+			if (numberOfHits != null) {
+				numberOfHits = Arrays.copyOf(numberOfHits, (int) newSize);
+			}
+		}
+		if (otherStore.numberOfHits != null && numberOfHits == null) {
+			numberOfHits = new int[timestamps.length];
+			Arrays.fill(numberOfHits, 0, size, 1);
+		}
+		isOrdered = isOrdered && otherStore.isOrdered && (size == 0 || timestamps[size - 1] <= otherStore.timestamps[0]);
+		System.arraycopy(otherStore.timestamps, 0, timestamps, size, otherStore.size);
+		System.arraycopy(otherStore.durations, 0, durations, size, otherStore.size);
+		if (numberOfHits != null) {
+			if (otherStore.numberOfHits != null) {
+				System.arraycopy(otherStore.numberOfHits, 0, numberOfHits, size, otherStore.size);
+			}
+			else {
+				Arrays.fill(numberOfHits, size, size + otherStore.size, 1);
+			}
+		}
+		size = (int) newSize;
+		TimePeriod otherPeriod = otherStore.getTimePeriod();
+		updateFirstAndLastTimestamps(otherPeriod.getStartTime());
+		updateFirstAndLastTimestamps(otherPeriod.getEndTime());
+	}
+
+	private void grow() {
+		if (size == MAX_CAPACITY) {
+			throw new LogRaterException("Too many time measurements for one in memory store: " + size);
+		}
+		int capacity = (int) Math.min(MAX_CAPACITY, size + (size >> 1) + 1L);
+		timestamps = Arrays.copyOf(timestamps, capacity);
+		durations = Arrays.copyOf(durations, capacity);
+		if (numberOfHits != null) {
+			numberOfHits = Arrays.copyOf(numberOfHits, capacity);
+		}
 	}
 
 	@Override
@@ -46,51 +158,117 @@ public class TimeMeasurementStoreInMemory extends AbstractTimeMeasurementStore {
 
 	@Override
 	public long getSize() {
-		return timeMeasurements.size();
+		return size;
 	}
 
 	@Override
-	public void add(TimeMeasurement timeMeasurement) {
-		long newTimestamp = timeMeasurement.getTimestamp();
-		// check if stays ordered if already ordered
-		if (isOrdered && !timeMeasurements.isEmpty()) {
-			long lastTimestamp = timeMeasurements.get(timeMeasurements.size() - 1).getTimestamp();
-			isOrdered = lastTimestamp <= newTimestamp;
+	public String toString() {
+		return "TimeMeasurementStoreInMemory{" + "timeMeasurements.size=" + size + ", isOrdered=" + isOrdered + '}';
+	}
+
+	@Override
+	public TimeMeasurementIterator iterator() {
+		return iterator(0, size);
+	}
+
+	/**
+	 * @return timestamp at the index in timestamp order
+	 */
+	long getTimestamp(int index) {
+		if (!isOrdered) {
+			order();
 		}
-		timeMeasurements.add(timeMeasurement);
-		updateFirstAndLastTimestamps(newTimestamp);
+		return timestamps[index];
+	}
+
+	/**
+	 * @return duration at the index in timestamp order
+	 */
+	int getDurationInMillis(int index) {
+		if (!isOrdered) {
+			order();
+		}
+		return durations[index];
 	}
 
 	@Override
-	public String toString() {
-		return "TimeMeasurementStoreInMemory{" + "timeMeasurements.size=" + timeMeasurements.size() + ", isOrdered=" + isOrdered + '}';
+	public long lowerBound(long timestamp) {
+		return search(timestamp, false);
 	}
 
 	@Override
-	public TimeMeasurementIterator iterator() {
+	public long upperBound(long timestamp) {
+		return search(timestamp, true);
+	}
 
+	/**
+	 * Binary search for the first index with a timestamp after (or equal to, if not isAfter) the given timestamp.
+	 */
+	private int search(long timestamp, boolean isAfter) {
 		if (!isOrdered) {
 			order();
 		}
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			long middleTimestamp = timestamps[middle];
+			if (middleTimestamp < timestamp || (isAfter && middleTimestamp == timestamp)) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
 
-		final Iterator<TimeMeasurement> iterator = timeMeasurements.iterator();
+	@Override
+	public TimeMeasurementIterator iterator(long fromIndex, long toIndex) {
+
+		if (!isOrdered) {
+			order();
+		}
+
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+			throw new LogRaterException("Invalid index range [" + fromIndex + ", " + toIndex + ") for size " + size);
+		}
+
+		final int startIndex = (int) fromIndex;
+		final int endIndex = (int) toIndex;
 
 		return new TimeMeasurementIterator() {
 
+			private int index = startIndex;
+			private int end = endIndex;
+			private boolean canRemove = false;
+
 			@Override
 			public boolean hasNext() {
-				return iterator.hasNext();
+				return index < end;
 			}
 
 			@Override
 			public TimeMeasurement next() {
-				return iterator.next();
+				if (index >= end) {
+					throw new NoSuchElementException();
+				}
+				int hits = numberOfHits == null ? 1 : numberOfHits[index];
+				TimeMeasurement timeMeasurement = new TimeMeasurement(timestamps[index], durations[index], hits);
+				index++;
+				canRemove = true;
+				return timeMeasurement;
 			}
 
 			@Override
 			public void remove() {
-				iterator.remove();
-
+				if (!canRemove) {
+					throw new IllegalStateException();
+				}
+				index--;
+				end--;
+				removeAt(index);
+				canRemove = false;
 			}
 
 			@Override
@@ -100,13 +278,99 @@ public class TimeMeasurementStoreInMemory extends AbstractTimeMeasurementStore {
 		};
 	}
 
+	private void removeAt(int index) {
+		int moved = size - index - 1;
+		System.arraycopy(timestamps, index + 1, timestamps, index, moved);
+		System.arraycopy(durations, index + 1, durations, index, moved);
+		if (numberOfHits != null) {
+			System.arraycopy(numberOfHits, index + 1, numberOfHits, index, moved);
+		}
+		size--;
+	}
+
 	@Override
 	public boolean isEmpty() {
-		return timeMeasurements.isEmpty();
+		return size == 0;
 	}
 
+	/**
+	 * Stable natural merge sort on timestamp: merges the ordered runs in the columns,
+	 * so mostly ordered time measurements, as in most logs, are sorted in a few passes.
+	 */
 	private void order() {
-		timeMeasurements.sort(TimeMeasurement.ORDER_TIMESTAMP);
+		int[] runStarts = findRunStarts();
+		int runs = runStarts.length - 1;
+		if (runs > 1) {
+			long[] fromTimestamps = timestamps;
+			int[] fromDurations = durations;
+			int[] fromHits = numberOfHits;
+			long[] toTimestamps = new long[size];
+			int[] toDurations = new int[size];
+			int[] toHits = numberOfHits == null ? null : new int[size];
+
+			while (runs > 1) {
+				int mergedRuns = 0;
+				for (int run = 0; run < runs; run += 2) {
+					int start = runStarts[run];
+					int middle = runStarts[Math.min(run + 1, runs)];
+					int end = runStarts[Math.min(run + 2, runs)];
+					merge(fromTimestamps, fromDurations, fromHits, toTimestamps, toDurations, toHits, start, middle, end);
+					runStarts[mergedRuns++] = start;
+				}
+				runStarts[mergedRuns] = size;
+				runs = mergedRuns;
+
+				long[] swapTimestamps = fromTimestamps;
+				fromTimestamps = toTimestamps;
+				toTimestamps = swapTimestamps;
+				int[] swapDurations = fromDurations;
+				fromDurations = toDurations;
+				toDurations = swapDurations;
+				int[] swapHits = fromHits;
+				fromHits = toHits;
+				toHits = swapHits;
+			}
+			timestamps = fromTimestamps;
+			durations = fromDurations;
+			numberOfHits = fromHits;
+		}
 		isOrdered = true;
 	}
+
+	/**
+	 * @return the start index of each ordered run, followed by the size
+	 */
+	private int[] findRunStarts() {
+		int runs = 1;
+		for (int i = 1; i < size; i++) {
+			if (timestamps[i - 1] > timestamps[i]) {
+				runs++;
+			}
+		}
+		int[] runStarts = new int[runs + 1];
+		int run = 1;
+		for (int i = 1; i < size; i++) {
+			if (timestamps[i - 1] > timestamps[i]) {
+				runStarts[run++] = i;
+			}
+		}
+		runStarts[runs] = size;
+		return runStarts;
+	}
+
+	private static void merge(long[] fromTimestamps, int[] fromDurations, int[] fromHits,
+							  long[] toTimestamps, int[] toDurations, int[] toHits,
+							  int start, int middle, int end) {
+		int left = start;
+		int right = middle;
+		for (int i = start; i < end; i++) {
+			// take from the left on equal timestamps to keep the sort stable
+			int from = right >= end || (left < middle && fromTimestamps[left] <= fromTimestamps[right]) ? left++ : right++;
+			toTimestamps[i] = fromTimestamps[from];
+			toDurations[i] = fromDurations[from];
+			if (fromHits != null) {
+				toHits[i] = fromHits[from];
+			}
+		}
+	}
 }
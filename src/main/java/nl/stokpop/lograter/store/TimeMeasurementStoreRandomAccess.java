@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.store;
+
+/**
+ * A time measurement store that can find time measurements by timestamp without iterating from the start,
+ * so TimeMeasurementStoreView can slice it with binary searches.
+ *
+ * The indexes are positions in timestamp order, from 0 to the size of the store.
+ */
+public interface TimeMeasurementStoreRandomAccess extends TimeMeasurementStore {
+
+	/**
+	 * @return index of the first time measurement with a timestamp equal to or after the given timestamp, the size if none
+	 */
+	long lowerBound(long timestamp);
+
+	/**
+	 * @return index of the first time measurement with a timestamp after the given timestamp, the size if none
+	 */
+	long upperBound(long timestamp);
+
+	/**
+	 * @return iterator over the time measurements from fromIndex (inclusive) to toIndex (exclusive)
+	 */
+	TimeMeasurementIterator iterator(long fromIndex, long toIndex);
+}
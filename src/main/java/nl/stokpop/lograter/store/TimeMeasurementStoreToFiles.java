@@ -15,7 +15,6 @@
  */
 package nl.stokpop.lograter.store;
 
-import net.jcip.annotations.GuardedBy;
 import net.jcip.annotations.NotThreadSafe;
 import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.util.ExternalSort;
@@ -23,143 +22,117 @@ import nl.stokpop.lograter.util.time.TimePeriod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 
 /**
+ * Keeps the time measurements in spill files: full buffers are written as sorted runs,
+ * the first read action merges the runs into one sorted segment in the sorted file.
+ * The spill files can be shared by the stores of many counters, the owner of shared
+ * spill files reclaims the runs file when all stores are merged.
+ *
+ * A sparse timestamp index on the segment is kept in memory, so time slices start reading
+ * at the first time measurement of the slice instead of at the start of the segment.
+ *
  * This class is NOT thread safe due to sorting and sorting check.
  */
 @NotThreadSafe
-public class TimeMeasurementStoreToFiles extends AbstractTimeMeasurementStore {
+public class TimeMeasurementStoreToFiles extends AbstractTimeMeasurementStore implements TimeMeasurementStoreRandomAccess {
 
 	private static final Logger log = LoggerFactory.getLogger(TimeMeasurementStoreToFiles.class);
 
-	// check if store names are unique, this is static because the names need to be
-	// unique for all TimeMeasurementStoreToFiles objects
-	@GuardedBy("itself")
-	private static final List<String> storeNames = new ArrayList<>();
-
-	private List<TimeMeasurement> bufferedTimeMeasurements;
+	private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+	private static final int READ_BUFFER_SIZE = 256 * 1024;
 
-	private boolean isOrdered = true;
-	private final String storeName;
+	private final TimeMeasurementSpillFiles spillFiles;
+	private final boolean isOwnSpillFiles;
 	private final String counterName;
+
+	private TimeMeasurementStoreInMemory bufferedTimeMeasurements = new TimeMeasurementStoreInMemory();
 	private int size = 0;
 
 	private final int buffersize;
-	private int fileIndex = 0;
-	private boolean isDirty;
 	private boolean isLocked;
 	private boolean externalSortDone = false;
-	private File storeDir;
 
+	// offset and size in records of the runs in the runs file
+	private long[] runOffsets = new long[1];
+	private int[] runSizes = new int[1];
+	private int runs = 0;
+
+	// offset in records of the sorted segment in the sorted file
+	private long segmentOffset = 0;
+	private TimestampIndex segmentIndex;
 
+	/**
+	 * A store with its own spill files.
+	 */
 	public TimeMeasurementStoreToFiles(File rootStorageDir, String storeName, String counterName, int bufferSize) {
+		this(TimeMeasurementSpillFiles.create(rootStorageDir, storeName, counterName), true, counterName, bufferSize);
+	}
 
-		String combinedName = String.join("-", storeName, counterName);
-		synchronized (storeNames) {
-			if (storeNames.contains(combinedName)) {
-				throw new LogRaterException(String.format("Store/counter name already in use, it must be unique. Store name [%s] Counter name [%s].", storeName, combinedName));
-			}
-			storeNames.add(combinedName);
-		}
+	/**
+	 * A store that shares the spill files with other stores.
+	 */
+	TimeMeasurementStoreToFiles(TimeMeasurementSpillFiles spillFiles, String counterName, int bufferSize) {
+		this(spillFiles, false, counterName, bufferSize);
+	}
 
-		this.bufferedTimeMeasurements = createNewTimeMeasurementList();
-		this.storeName = storeName;
+	private TimeMeasurementStoreToFiles(TimeMeasurementSpillFiles spillFiles, boolean isOwnSpillFiles, String counterName, int bufferSize) {
+		this.spillFiles = spillFiles;
+		this.isOwnSpillFiles = isOwnSpillFiles;
 		this.counterName = counterName;
 		this.buffersize = bufferSize;
-
-		this.storeDir = ExternalSort.createTempDir(rootStorageDir, this.storeName, this.counterName);
-
 	}
 
 	@Override
 	public void add(long timestamp, int durationInMillis) {
-		add(new TimeMeasurement(timestamp, durationInMillis));
-	}
-
-	@Override
-	public void add(TimeMeasurement timeMeasurement) {
-		size++;
 		if (isLocked) {
 			throw new RuntimeException("This time measurement store has been locked due to reading, cannot add more data after read action.");
 		}
-		isDirty = true;
-
-		long timestamp = timeMeasurement.getTimestamp();
-
-		// check if stays ordered if already ordered
-		if (isOrdered && !bufferedTimeMeasurements.isEmpty()) {
-			long lastTimestamp = bufferedTimeMeasurements.get(bufferedTimeMeasurements.size() - 1).getTimestamp();
-			isOrdered = lastTimestamp <= timestamp;
-		}
-
-		bufferedTimeMeasurements.add(timeMeasurement);
+		bufferedTimeMeasurements.add(timestamp, durationInMillis);
+		size++;
 
 		updateFirstAndLastTimestamps(timestamp);
 
-		if (bufferedTimeMeasurements.size() == buffersize) {
+		if (bufferedTimeMeasurements.getSize() == buffersize) {
 			flushToFile();
 		}
 	}
 
+	@Override
+	public void add(TimeMeasurement timeMeasurement) {
+		add(timeMeasurement.getTimestamp(), timeMeasurement.getDurationInMillis());
+	}
+
 	private void flushToFile() {
-		int currentSize = bufferedTimeMeasurements.size();
+		int currentSize = (int) bufferedTimeMeasurements.getSize();
 		if (currentSize == 0) {
 			log.debug("Nothing to flush for {}", counterName);
 			return;
 		}
 		if (currentSize != buffersize) {
-			log.debug("Flushing {} time measurements buffer to new file while the buffer has not reached full buffersize {}",
+			log.debug("Flushing {} time measurements buffer to new run while the buffer has not reached full buffersize {}",
 					currentSize, buffersize);
 		}
 		log.debug("Flushing {} {} measurements to file.", currentSize, counterName);
 
-		File file = new File(storeDir, ExternalSort.createSerializedFilename(counterName, fileIndex++));
-		bufferedTimeMeasurements.sort(TimeMeasurement.ORDER_TIMESTAMP);
-		writeToDisk(file, bufferedTimeMeasurements);
-		bufferedTimeMeasurements = createNewTimeMeasurementList();
-		isDirty = false;
-	}
-
-	private List<TimeMeasurement> createNewTimeMeasurementList() {
-		// avoid array list growth
-		return new ArrayList<>(buffersize * 2);
-	}
-
-	private void writeToDisk(File file, List<TimeMeasurement> timeMeasurements) {
-
-		String filePath = file.getAbsolutePath();
 		try {
-			if (file.exists()) {
-				if (file.isDirectory()) {
-					throw new LogRaterException("File is a directory: " + filePath);
-				}
-				if (!file.canWrite()) {
-					throw new LogRaterException("File is not writeable: " + filePath);
-				}
-			}
-			else {
-				boolean newFileOK = file.createNewFile();
-				if (!newFileOK) throw new LogRaterException("File create failed: " + filePath);
-			}
-
-			try (
-				FileOutputStream fileOutputStream = new FileOutputStream(file);
-				BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(fileOutputStream);
-				DataOutputStream oos = new DataOutputStream(bufferedOutputStream)
-			) {
-				if (!isOrdered) {
-					timeMeasurements.sort(TimeMeasurement.ORDER_TIMESTAMP);
-				}
-				for (TimeMeasurement tm : timeMeasurements) {
-					ExternalSort.writeTimeMeasurement(oos, tm);
-				}
+			// the buffer sorts on timestamp on first access
+			long offset = spillFiles.writeRun(bufferedTimeMeasurements);
+			if (runs == runOffsets.length) {
+				runOffsets = Arrays.copyOf(runOffsets, runs * 2);
+				runSizes = Arrays.copyOf(runSizes, runs * 2);
 			}
+			runOffsets[runs] = offset;
+			runSizes[runs] = currentSize;
+			runs++;
 		} catch (IOException e) {
-			throw new LogRaterException(String.format("Cannot serialize file: %s", filePath), e);
+			throw new LogRaterException(String.format("Cannot write run of %s to %s", counterName, spillFiles), e);
 		}
+		bufferedTimeMeasurements = new TimeMeasurementStoreInMemory();
 	}
 
 	@Override
@@ -175,66 +148,91 @@ public class TimeMeasurementStoreToFiles extends AbstractTimeMeasurementStore {
 
 	@Override
     public String toString() {
-        return "TimeMeasurementStoreInMemory{" +
-                "timeMeasurements size=" + size +
+        return "TimeMeasurementStoreToFiles{" +
+                "counterName=" + counterName +
+                ", timeMeasurements size=" + size +
                 '}';
     }
 
 	@Override
 	public TimeMeasurementIterator iterator() {
+		return iterator(0, size);
+	}
 
-		// this is a read action that causes the time measurement store to sort and lock
+	@Override
+	public long lowerBound(long timestamp) {
+		return search(timestamp, false);
+	}
+
+	@Override
+	public long upperBound(long timestamp) {
+		return search(timestamp, true);
+	}
+
+	/**
+	 * Find the interval in the index, then read the records of that interval only.
+	 */
+	private long search(long timestamp, boolean isAfter) {
 		lockAndWrite();
+		int interval = segmentIndex.getInterval();
+		int sample = segmentIndex.firstSample(timestamp, isAfter);
+		// the first record after the timestamp is after the previous sample and at or before this sample
+		long from = sample == 0 ? 0 : (sample - 1L) * interval;
+		long to = Math.min(size, (long) sample * interval);
+		try (ExternalSort.RecordReader reader = readSegment(from, to - from, interval * ExternalSort.RECORD_SIZE)) {
+			for (long index = from; reader.next(); index++) {
+				long recordTimestamp = reader.getTimestamp();
+				if (recordTimestamp > timestamp || (!isAfter && recordTimestamp == timestamp)) {
+					return index;
+				}
+			}
+		} catch (IOException e) {
+			throw new LogRaterException(String.format("Cannot search timestamp %d for %s in %s", timestamp, counterName, spillFiles), e);
+		}
+		return to;
+	}
 
-		final File totalSerializedFile = new File(storeDir, ExternalSort.createTotalSerializedFilename(counterName));
+	private ExternalSort.RecordReader readSegment(long fromIndex, long records, int bufferSize) {
+		return spillFiles.readSorted(segmentOffset + fromIndex, records, bufferSize);
+	}
 
-		return new TimeMeasurementIterator() {
+	@Override
+	public TimeMeasurementIterator iterator(long fromIndex, long toIndex) {
 
-			private FileInputStream fis;
-			private BufferedInputStream bis;
-			private DataInputStream ois;
+		// this is a read action that causes the time measurement store to sort and lock
+		lockAndWrite();
 
-			TimeMeasurement previous = null;
-			boolean isHasNextCalled = false;
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+			throw new LogRaterException("Invalid index range [" + fromIndex + ", " + toIndex + ") for size " + size);
+		}
 
-			{
-				try {
-					fis = new FileInputStream(totalSerializedFile);
-					bis = new BufferedInputStream(fis, 256 * 1024);
-					ois = new DataInputStream(bis);
-				} catch (IOException e) {
-					throw new RuntimeException("Error reading file: " + totalSerializedFile, e);
-				}
-			}
+		final ExternalSort.RecordReader reader = readSegment(fromIndex, toIndex - fromIndex, READ_BUFFER_SIZE);
+
+		return new TimeMeasurementIterator() {
+
+			private boolean isNextRead = false;
+			private boolean hasNext = false;
 
 			@Override
 			public boolean hasNext() {
-				isHasNextCalled = true;
-				try {
-					previous = ExternalSort.readTimeMeasurement(ois);
-					return true;
-				} catch (EOFException e) {
-					previous = null;
-					return false;
-				} catch (IOException e) {
-					throw new RuntimeException("No next TimeMeasurement found due to error.", e);
+				if (!isNextRead) {
+					try {
+						hasNext = reader.next();
+					} catch (IOException e) {
+						throw new RuntimeException("No next TimeMeasurement found due to error.", e);
+					}
+					isNextRead = true;
 				}
+				return hasNext;
 			}
 
 			@Override
 			public TimeMeasurement next() {
-				if (isHasNextCalled) {
-					return previous;
-				}
-				else {
-					try {
-						previous = ExternalSort.readTimeMeasurement(ois);
-						isHasNextCalled = false;
-					} catch (IOException e) {
-						throw new RuntimeException("No next TimeMeasurement found due to error.", e);
-					}
-					return previous;
+				if (!hasNext()) {
+					throw new NoSuchElementException("No next TimeMeasurement for " + counterName);
 				}
+				isNextRead = false;
+				return new TimeMeasurement(reader.getTimestamp(), reader.getDurationInMillis());
 			}
 
 			@Override
@@ -244,9 +242,7 @@ public class TimeMeasurementStoreToFiles extends AbstractTimeMeasurementStore {
 
 			@Override
 			public void close() throws Exception {
-				if (ois != null) ois.close();
-				if (bis != null) bis.close();
-				if (fis != null) fis.close();
+				reader.close();
 			}
 		};
 
@@ -257,24 +253,46 @@ public class TimeMeasurementStoreToFiles extends AbstractTimeMeasurementStore {
 		return size == 0;
 	}
 
-	private void lockAndWrite() {
+	/**
+	 * Flush and merge the time measurements, as the first read action does. After this no time measurements can be added.
+	 * Can be called in parallel for different stores, also when they share spill files, for instance before reporting.
+	 */
+	void lockAndWrite() {
 		isLocked = true;
 		// push out remaining data
-		if (isDirty) flushToFile();
+		if (!bufferedTimeMeasurements.isEmpty()) flushToFile();
 		if (!externalSortDone) externalSort();
 	}
 
 	/**
-	 * Read all files and write one big sorted file to be used as underlying array on disk for iterator.
-	 * Based on http://exceptional-code.blogspot.nl/2011/07/external-sorting-for-sorting-large.html
+	 * Merge all runs into one sorted segment to be used as underlying array on disk for iterator.
+	 * One run is copied, so the runs file can be reclaimed.
 	 */
 	private void externalSort() {
-		try {
-			log.info("Start external sort for {} with size {}", counterName, size);
-			ExternalSort.externalMerge(storeDir, counterName, fileIndex, size);
-			externalSortDone = true;
+		if (runs > 1) {
+			log.info("Start external sort for {} with size {} in {} runs", counterName, size, runs);
+		}
+		ExternalSort.RecordReader[] readers = new ExternalSort.RecordReader[runs];
+		int readBufferSize = ExternalSort.readBufferSize(runs);
+		for (int i = 0; i < runs; i++) {
+			// small buffers for the many counters with a few time measurements
+			readers[i] = spillFiles.readRun(runOffsets[i], runSizes[i], (int) Math.min(readBufferSize, (long) runSizes[i] * ExternalSort.RECORD_SIZE));
+		}
+		long offset = spillFiles.reserveSorted(size);
+		TimestampIndex.Builder indexBuilder = new TimestampIndex.Builder(TimestampIndex.DEFAULT_INTERVAL);
+		try (ExternalSort.RecordWriter writer = spillFiles.writeSorted(offset, (int) Math.min(WRITE_BUFFER_SIZE, (long) size * ExternalSort.RECORD_SIZE))) {
+			long merged = ExternalSort.merge(readers, writer, indexBuilder);
+			if (merged != size) {
+				throw new LogRaterException(String.format("Expected %d time measurements for %s but merged %d.", size, counterName, merged));
+			}
 		} catch (IOException e) {
 			throw new RuntimeException("External merge failed.", e);
 		}
+		segmentOffset = offset;
+		segmentIndex = indexBuilder.build();
+		externalSortDone = true;
+		if (isOwnSpillFiles) {
+			spillFiles.reclaimRuns();
+		}
 	}
 }
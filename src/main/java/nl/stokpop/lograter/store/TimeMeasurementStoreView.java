@@ -22,12 +22,19 @@ import java.util.Iterator;
 
 /**
  * This is a view on an underlying time measurements store, with TimePeriod boundaries.
+ *
+ * For a TimeMeasurementStoreRandomAccess the boundaries are found with binary searches,
+ * other stores are iterated from the start.
  */
 public class TimeMeasurementStoreView implements TimeMeasurementStore {
 
 	private final TimeMeasurementStore innerStore;
 	private final TimePeriod timePeriod;
 	private final long size;
+	// only set for random access stores
+	private final TimeMeasurementStoreRandomAccess randomAccessStore;
+	private final long fromIndex;
+	private final long toIndex;
 
 	/**
 	 * A view on a bigger timemeasurements store for the given timePeriod.
@@ -39,12 +46,25 @@ public class TimeMeasurementStoreView implements TimeMeasurementStore {
 		this.timePeriod = timePeriod;
 		this.innerStore = innerStore;
 
+		if (innerStore instanceof TimeMeasurementStoreRandomAccess && timePeriod.hasBothTimestampsSet()) {
+			this.randomAccessStore = (TimeMeasurementStoreRandomAccess) innerStore;
+			this.fromIndex = randomAccessStore.lowerBound(timePeriod.getStartTime());
+			this.toIndex = Math.max(fromIndex, randomAccessStore.lowerBound(timePeriod.getEndTime()));
+		}
+		else {
+			this.randomAccessStore = null;
+			this.fromIndex = -1;
+			this.toIndex = -1;
+		}
+
 		if (timePeriod.covers(this.innerStore.getTimePeriod())) {
 			this.size = innerStore.getSize();
 		}
+		else if (randomAccessStore != null) {
+			this.size = toIndex - fromIndex;
+		}
 		else {
-			// TODO: this is heavy for external sort!
-			// Maybe some binary search to find correct period? With random access file?
+			// heavy for stores without random access: iterates from the start
 			final long endTime = timePeriod.getEndTime();
 			int count = 0;
 			for (TimeMeasurement tm : innerStore) {
@@ -94,12 +114,17 @@ public class TimeMeasurementStoreView implements TimeMeasurementStore {
 	@Override
 	public TimeMeasurementIterator iterator() {
 
+		if (randomAccessStore != null) {
+			return randomAccessStore.iterator(fromIndex, toIndex);
+		}
+
 		TimeMeasurement findFirstTimeMeasurementInPeriod = null;
 		final Iterator<TimeMeasurement> iterator = innerStore.iterator();
 		while (iterator.hasNext()) {
 			final TimeMeasurement next = iterator.next();
 			if (next.getTimestamp() >= timePeriod.getStartTime()) {
-				findFirstTimeMeasurementInPeriod = next;
+				// the first one after the start can also be after the end of the time period
+				findFirstTimeMeasurementInPeriod = timePeriod.isWithinTimePeriod(next.getTimestamp()) ? next : null;
 				break;
 			}
 		}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.store;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.NotThreadSafe;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Sparse index on ordered timestamps: the timestamp of every interval-th record.
+ * A search in the index narrows the search for a timestamp to the records of one interval.
+ */
+@Immutable
+final class TimestampIndex {
+
+	static final int DEFAULT_INTERVAL = 1024;
+
+	private final int interval;
+	private final long[] samples;
+
+	private TimestampIndex(int interval, long[] samples) {
+		this.interval = interval;
+		this.samples = samples;
+	}
+
+	int getInterval() {
+		return interval;
+	}
+
+	/**
+	 * @return the index of the first sample with a timestamp after (or equal to, if not isAfter) the timestamp,
+	 * the number of samples if none. The record index of sample i is i times the interval.
+	 */
+	int firstSample(long timestamp, boolean isAfter) {
+		int low = 0;
+		int high = samples.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (samples[middle] < timestamp || (isAfter && samples[middle] == timestamp)) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Collects the samples from the timestamps of the records in order.
+	 */
+	@NotThreadSafe
+	static final class Builder implements LongConsumer {
+		private final int interval;
+		private long records = 0;
+		private long[] samples = new long[16];
+		private int sampleCount = 0;
+
+		Builder(int interval) {
+			this.interval = interval;
+		}
+
+		@Override
+		public void accept(long timestamp) {
+			if (records % interval == 0) {
+				if (sampleCount == samples.length) {
+					samples = Arrays.copyOf(samples, sampleCount * 2);
+				}
+				samples[sampleCount++] = timestamp;
+			}
+			records++;
+		}
+
+		TimestampIndex build() {
+			return new TimestampIndex(interval, Arrays.copyOf(samples, sampleCount));
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for log lines as UTF-8 byte slices: the bytes between position and limit of a ByteBuffer.
+ */
+public final class ByteSliceUtils {
+
+    private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long CARRIAGE_RETURNS = 0x0D0D0D0D0D0D0D0DL;
+
+    private ByteSliceUtils() {
+    }
+
+    /**
+     * Decode the byte slice to a String. For ASCII only content, which is common for log lines,
+     * the bytes are copied into the String directly without a charset decoder.
+     * The position of the buffer is not changed.
+     */
+    public static String toString(ByteBuffer slice) {
+        int length = slice.remaining();
+        byte[] bytes = new byte[length];
+        slice.duplicate().get(bytes);
+        for (byte b : bytes) {
+            if (b < 0) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * View on the bytes of the slice as characters, without decoding or copying. Each byte is one character,
+     * so only ASCII content, such as the timestamps and separators of a log line, reads as the decoded String.
+     * The view is only valid as long as the content of the slice is not changed.
+     */
+    public static CharSequence asciiView(ByteBuffer slice) {
+        return new AsciiView(slice, slice.position(), slice.limit());
+    }
+
+    private static final class AsciiView implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        private AsciiView(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index " + index + " for length " + length());
+            }
+            return (char) (buffer.get(start + index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int subStart, int subEnd) {
+            if (subStart < 0 || subEnd > length() || subStart > subEnd) {
+                throw new IndexOutOfBoundsException("range [" + subStart + ", " + subEnd + ") for length " + length());
+            }
+            return new AsciiView(buffer, start + subStart, start + subEnd);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * @return true if the byte slice is empty or only contains ASCII whitespace (space and control characters)
+     */
+    public static boolean isBlank(ByteBuffer slice) {
+        for (int i = slice.position(); i < slice.limit(); i++) {
+            byte b = slice.get(i);
+            if (b < 0 || b > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return index of the first \n or \r in the buffer from index from (inclusive) to index to (exclusive), or -1
+     */
+    public static int indexOfLineEnd(ByteBuffer buffer, int from, int to) {
+        if (buffer.hasArray()) {
+            byte[] bytes = buffer.array();
+            int offset = buffer.arrayOffset();
+            for (int i = from; i < to; i++) {
+                byte b = bytes[offset + i];
+                if (b == '\n' || b == '\r') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        // eight bytes per read, instead of one read per byte of the mapped file
+        int i = from;
+        boolean isBigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        while (i + Long.BYTES <= to) {
+            long word = buffer.getLong(i);
+            long matches = zeroBytes(word ^ NEWLINES) | zeroBytes(word ^ CARRIAGE_RETURNS);
+            if (matches != 0) {
+                int bitIndex = isBigEndian ? Long.numberOfLeadingZeros(matches) : Long.numberOfTrailingZeros(matches);
+                return i + bitIndex / Byte.SIZE;
+            }
+            i += Long.BYTES;
+        }
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the high bit set of each byte that is zero in the word, without carries between the bytes
+     */
+    private static long zeroBytes(long word) {
+        long low7Bits = (word & LOW_7_BITS) + LOW_7_BITS;
+        return ~(low7Bits | word | LOW_7_BITS);
+    }
+}
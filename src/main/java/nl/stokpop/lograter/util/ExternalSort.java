@@ -16,95 +16,111 @@
 package nl.stokpop.lograter.util;
 
 import nl.stokpop.lograter.LogRaterException;
-import nl.stokpop.lograter.store.TimeMeasurement;
 
 import java.io.*;
+import java.util.function.LongConsumer;
 
+/**
+ * Merges sorted runs of time measurements into one sorted run.
+ *
+ * A time measurement is a record of 12 bytes: the timestamp as long and the duration as int, big endian.
+ * The records are read and written via byte buffers, without TimeMeasurement objects.
+ */
 public class ExternalSort {
 
-	public static String createSerializedFilename(String name, int fileIndex) {
-		return FileUtils.replaceNonFileChars(name) + ".timemeasurements." + fileIndex + ".ser";
-	}
-
-	public static String createTotalSerializedFilename(String name) {
-		return FileUtils.replaceNonFileChars(name) + ".timemeasurements.total.ser";
-	}
-
-	public static void externalMerge(File tempDir, String name, int slices, int size) throws IOException {
-		// Now open each file and merge them, then write back to disk
-		TimeMeasurement[] topNums = new TimeMeasurement[slices];
-		DataInputStream[] ois = new DataInputStream[slices];
+	public static final int RECORD_SIZE = 12;
 
-		for (int i = 0; i < slices; i++) {
+	private static final int MIN_READ_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_READ_BUFFER_SIZE = 1024 * 1024;
+	// the read buffers of all files of one merge together
+	private static final int TOTAL_READ_BUFFER_SIZE = 32 * 1024 * 1024;
 
-			File serializedFile = new File(tempDir, createSerializedFilename(name, i));
-			FileInputStream fis = new FileInputStream(serializedFile);
-			BufferedInputStream bis = new BufferedInputStream(fis, 256 * 1024);
+	/**
+	 * @return size of the read buffer per sorted input when merging the given number of inputs
+	 */
+	public static int readBufferSize(int inputs) {
+		return Math.max(MIN_READ_BUFFER_SIZE, Math.min(MAX_READ_BUFFER_SIZE, TOTAL_READ_BUFFER_SIZE / Math.max(1, inputs)));
+	}
 
-			try {
-				ois[i] = new DataInputStream(bis);
-				// unshared to avoid "memory leak": otherwise all objects will be held for future reference
-				TimeMeasurement timeMeasurement = readTimeMeasurement(ois[i]);
-				topNums[i] = timeMeasurement;
-			} catch (EOFException eofe) {
-				// seems no non-exception catcher for eof exists...
-				topNums[i] = TimeMeasurement.END_OF_TIME;
+	/**
+	 * Merge the records of the sorted readers into the writer with a min heap on the timestamps of the readers.
+	 * Records with the same timestamp keep the order of the readers. Does not close the readers and the writer.
+	 * @param timestampConsumer called with the timestamp of each merged record in order, for instance to build an index, can be null
+	 * @return the number of merged records
+	 */
+	public static long merge(RecordReader[] readers, RecordWriter writer, LongConsumer timestampConsumer) throws IOException {
+		int inputs = readers.length;
+		// the heap contains the indexes of the readers that have a next record
+		int[] heap = new int[inputs];
+		long[] timestamps = new long[inputs];
+		int heapSize = 0;
+		for (int i = 0; i < inputs; i++) {
+			if (readers[i].next()) {
+				timestamps[i] = readers[i].getTimestamp();
+				heap[heapSize] = i;
+				siftUp(heap, heapSize, timestamps);
+				heapSize++;
 			}
-
 		}
 
-
-		File totalSerializedFile = new File(tempDir, createTotalSerializedFilename(name));
-
-		try (
-				FileOutputStream fos = new FileOutputStream(totalSerializedFile);
-				BufferedOutputStream bos = new BufferedOutputStream(fos, 1024 * 1024);
-				DataOutputStream dos = new DataOutputStream(bos)
-			) {
-
-			for (int i = 0; i < size; i++) {
-				TimeMeasurement min = topNums[0];
-				int minFile = 0;
-
-				for (int j = 0; j < slices; j++) {
-					if (min.getTimestamp() > topNums[j].getTimestamp()) {
-						min = topNums[j];
-						minFile = j;
-					}
-				}
-				writeTimeMeasurement(dos, min);
-
-				try {
-					TimeMeasurement timeMeasurement = readTimeMeasurement(ois[minFile]);
-
-					topNums[minFile] = timeMeasurement;
-				} catch (EOFException eofe) {
-					// seems no non-exception catcher for eof exists...
-					topNums[minFile] = TimeMeasurement.END_OF_TIME;
-				}
+		long merged = 0;
+		while (heapSize > 0) {
+			int input = heap[0];
+			RecordReader reader = readers[input];
+			writer.write(reader.getTimestamp(), reader.getDurationInMillis());
+			if (timestampConsumer != null) {
+				timestampConsumer.accept(reader.getTimestamp());
 			}
-		} finally {
-			for (int i = 0; i < slices; i++)
-				ois[i].close();
-		}
-		for (int i = 0; i < slices; i++) {
-			File serializedFile = new File(tempDir, createSerializedFilename(name, i));
-			boolean deleteOK = serializedFile.delete();
-			if (!deleteOK) throw new LogRaterException("Cannot delete file " + serializedFile.getAbsolutePath());
+			merged++;
+			if (reader.next()) {
+				timestamps[input] = reader.getTimestamp();
+			}
+			else {
+				heapSize--;
+				heap[0] = heap[heapSize];
+			}
+			siftDown(heap, heapSize, timestamps);
 		}
+		return merged;
 	}
 
-	public static void writeTimeMeasurement(DataOutputStream dos, TimeMeasurement tm) throws IOException {
-		dos.writeLong(tm.getTimestamp());
-		// long is much more efficient to read/write that an int, see code of DataOutputStream
-		dos.writeLong(tm.getDurationInMillis());
+	private static boolean isBefore(int slice, int otherSlice, long[] timestamps) {
+		return timestamps[slice] < timestamps[otherSlice] || (timestamps[slice] == timestamps[otherSlice] && slice < otherSlice);
 	}
 
-	public static TimeMeasurement readTimeMeasurement(DataInputStream dis) throws IOException {
-		long timestamp = dis.readLong();
-		// long is much more efficient to read/write that an int, see code of DataOutputStream
-		int duration = (int) dis.readLong();
-		return new TimeMeasurement(timestamp, duration);
+	private static void siftUp(int[] heap, int index, long[] timestamps) {
+		int slice = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!isBefore(slice, heap[parent], timestamps)) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = slice;
+	}
+
+	private static void siftDown(int[] heap, int heapSize, long[] timestamps) {
+		if (heapSize == 0) {
+			return;
+		}
+		int slice = heap[0];
+		int index = 0;
+		int half = heapSize >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			int right = child + 1;
+			if (right < heapSize && isBefore(heap[right], heap[child], timestamps)) {
+				child = right;
+			}
+			if (!isBefore(heap[child], slice, timestamps)) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = slice;
 	}
 
 	public static File createTempDir(File rootTmpDir, String storeName, String counterName) {
@@ -125,4 +141,134 @@ public class ExternalSort {
 
 		return tempDirCounter;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Writes time measurement records via a byte buffer.
+	 */
+	public static final class RecordWriter implements Closeable {
+		private final OutputStream out;
+		private final byte[] buffer;
+		private int position = 0;
+
+		public RecordWriter(OutputStream out, int bufferSize) {
+			this.out = out;
+			this.buffer = new byte[Math.max(RECORD_SIZE, bufferSize - bufferSize % RECORD_SIZE)];
+		}
+
+		public void write(long timestamp, int durationInMillis) throws IOException {
+			if (position == buffer.length) {
+				flush();
+			}
+			byte[] b = buffer;
+			int p = position;
+			b[p] = (byte) (timestamp >>> 56);
+			b[p + 1] = (byte) (timestamp >>> 48);
+			b[p + 2] = (byte) (timestamp >>> 40);
+			b[p + 3] = (byte) (timestamp >>> 32);
+			b[p + 4] = (byte) (timestamp >>> 24);
+			b[p + 5] = (byte) (timestamp >>> 16);
+			b[p + 6] = (byte) (timestamp >>> 8);
+			b[p + 7] = (byte) timestamp;
+			b[p + 8] = (byte) (durationInMillis >>> 24);
+			b[p + 9] = (byte) (durationInMillis >>> 16);
+			b[p + 10] = (byte) (durationInMillis >>> 8);
+			b[p + 11] = (byte) durationInMillis;
+			position = p + RECORD_SIZE;
+		}
+
+		private void flush() throws IOException {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads time measurement records via a byte buffer: call next() before each record.
+	 */
+	public static final class RecordReader implements Closeable {
+		private final InputStream in;
+		private final byte[] buffer;
+		private int position = 0;
+		private int limit = 0;
+		private boolean isEndOfStream = false;
+
+		private long timestamp;
+		private int durationInMillis;
+
+		public RecordReader(InputStream in, int bufferSize) {
+			this.in = in;
+			this.buffer = new byte[Math.max(RECORD_SIZE, bufferSize - bufferSize % RECORD_SIZE)];
+		}
+
+		/**
+		 * @return false when there are no more records
+		 * @throws LogRaterException when the stream ends within a record
+		 */
+		public boolean next() throws IOException {
+			if (limit - position < RECORD_SIZE && !fill()) {
+				return false;
+			}
+			byte[] b = buffer;
+			int p = position;
+			timestamp = ((long) (b[p] & 0xFF) << 56)
+				| ((long) (b[p + 1] & 0xFF) << 48)
+				| ((long) (b[p + 2] & 0xFF) << 40)
+				| ((long) (b[p + 3] & 0xFF) << 32)
+				| ((long) (b[p + 4] & 0xFF) << 24)
+				| ((b[p + 5] & 0xFF) << 16)
+				| ((b[p + 6] & 0xFF) << 8)
+				| (b[p + 7] & 0xFF);
+			durationInMillis = ((b[p + 8] & 0xFF) << 24)
+				| ((b[p + 9] & 0xFF) << 16)
+				| ((b[p + 10] & 0xFF) << 8)
+				| (b[p + 11] & 0xFF);
+			position = p + RECORD_SIZE;
+			return true;
+		}
+
+		private boolean fill() throws IOException {
+			int remaining = limit - position;
+			System.arraycopy(buffer, position, buffer, 0, remaining);
+			position = 0;
+			limit = remaining;
+			while (!isEndOfStream && limit < buffer.length) {
+				int read = in.read(buffer, limit, buffer.length - limit);
+				if (read == -1) {
+					isEndOfStream = true;
+				}
+				else {
+					limit += read;
+				}
+			}
+			if (limit == 0) {
+				return false;
+			}
+			if (limit < RECORD_SIZE) {
+				throw new LogRaterException("Incomplete time measurement record of " + limit + " bytes at end of stream.");
+			}
+			return true;
+		}
+
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public int getDurationInMillis() {
+			return durationInMillis;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+}
@@ -26,11 +26,13 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 
@@ -68,6 +70,117 @@ public class FileUtils {
         return FileUtils.createBufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
     }
 
+    /**
+     * @return true if the file is read via a decompressing stream, see createBufferedReader(File)
+     */
+    public static boolean isCompressed(File file) {
+        final String lowerCaseFilename = file.getName().toLowerCase();
+        return lowerCaseFilename.endsWith(".gz") || lowerCaseFilename.endsWith(".zip") || lowerCaseFilename.endsWith(".bz2");
+    }
+
+    /**
+     * Read the bytes from startOffset (inclusive) to endOffset (exclusive) of an uncompressed file.
+     * Make sure the offsets are at the start of a line, otherwise the first line is partial.
+     */
+    public static BufferedReader createBufferedReader(File file, long startOffset, long endOffset) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            long toSkip = startOffset;
+            while (toSkip > 0) {
+                long skipped = inputStream.skip(toSkip);
+                if (skipped <= 0) {
+                    throw new EOFException("Cannot skip to offset " + startOffset + " in " + file);
+                }
+                toSkip -= skipped;
+            }
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        InputStream limitedInputStream = new LimitedInputStream(inputStream, endOffset - startOffset);
+        return FileUtils.createBufferedReader(new InputStreamReader(limitedInputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Find the offset of the start of the first line that starts at or after the given offset.
+     * @return offset of the start of the line, or the file length if there is no next line
+     */
+    public static long findStartOfNextLine(RandomAccessFile file, long offset) throws IOException {
+        if (offset <= 0) {
+            return 0;
+        }
+        long length = file.length();
+        // the line starts at offset when the preceding byte is a newline
+        long position = offset - 1;
+        file.seek(position);
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = file.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position = position + read;
+        }
+        return length;
+    }
+
+    /**
+     * Find the offset after the last newline in the range, to read complete lines only
+     * of a file that is still being written.
+     * @return offset after the last newline, or startOffset if there is no newline in the range
+     */
+    public static long findEndOfLastLine(RandomAccessFile file, long startOffset, long endOffset) throws IOException {
+        byte[] buffer = new byte[8192];
+        long blockEnd = endOffset;
+        while (blockEnd > startOffset) {
+            long blockStart = Math.max(startOffset, blockEnd - buffer.length);
+            int length = (int) (blockEnd - blockStart);
+            file.seek(blockStart);
+            file.readFully(buffer, 0, length);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer[i] == '\n') {
+                    return blockStart + i + 1;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        return startOffset;
+    }
+
+    /**
+     * The file key identifies a file independent of its name, e.g. the inode on unix systems,
+     * so a file that is renamed on log rotation is recognised.
+     * @return the file key, or null if the file system has no file keys
+     */
+    public static String fileKey(File file) throws IOException {
+        Object fileKey = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        return fileKey == null ? null : fileKey.toString();
+    }
+
+    /**
+     * Fingerprint of the content of the file based on the first and last 64 KB, to detect
+     * a changed file that has the same size and modification time.
+     * @return hex string of a CRC32 checksum
+     */
+    public static String fingerprint(File file) throws IOException {
+        final int blockSize = 64 * 1024;
+        CRC32 crc = new CRC32();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            byte[] buffer = new byte[(int) Math.min(blockSize, length)];
+            randomAccessFile.readFully(buffer);
+            crc.update(buffer);
+            if (length > blockSize) {
+                randomAccessFile.seek(Math.max(blockSize, length - blockSize));
+                int read = randomAccessFile.read(buffer);
+                crc.update(buffer, 0, Math.max(read, 0));
+            }
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
     public static List<File> findFilesThatMatchFilenames(List<String> files) {
 	    if (files == null) {
 		    log.warn("Empty file list given! Return empty list of files.");
@@ -191,4 +304,56 @@ public class FileUtils {
         return new PrintWriter(new BufferedWriter(new OutputStreamWriter(new BufferedOutputStream(outputStream), StandardCharsets.UTF_8)));
     }
 
+    /**
+     * Reads at most limit bytes of the underlying stream.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int result = in.read();
+            if (result != -1) {
+                remaining--;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int result = in.read(b, off, (int) Math.min(len, remaining));
+            if (result != -1) {
+                remaining -= result;
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util;
+
+import net.jcip.annotations.Immutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Cheap pre-check for a regular expression: a line can only match the regular expression
+ * if it contains one of the literal strings that every match of the regular expression contains.
+ *
+ * For instance, for "GET /api/.*\.json" each match contains "GET /api/", so lines without "GET /api/"
+ * are rejected with a fast String.indexOf without running the regular expression.
+ * For a top level alternation, such as "foo|bar", each alternative contributes a literal.
+ *
+ * The extraction is conservative: when the regular expression contains constructs that
+ * are not understood, or is case insensitive, there are no literals and each line might match.
+ */
+@Immutable
+public final class RegExpLiteralFilter {
+
+    public static final RegExpLiteralFilter MATCH_ALL = new RegExpLiteralFilter(Collections.emptyList());
+
+    private static final Pattern INLINE_FLAGS_CHANGING_LITERALS = Pattern.compile("\\(\\?[a-zA-Z-]*[ixU]");
+
+    private static final int UNPARSEABLE = -1;
+
+    private final List<String> literals;
+
+    private RegExpLiteralFilter(List<String> literals) {
+        this.literals = Collections.unmodifiableList(new ArrayList<>(literals));
+    }
+
+    /**
+     * @return filter for the given pattern, MATCH_ALL when no required literals are found or the pattern is null
+     */
+    public static RegExpLiteralFilter of(Pattern pattern) {
+        if (pattern == null) {
+            return MATCH_ALL;
+        }
+        int flags = pattern.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            return (flags & Pattern.CASE_INSENSITIVE) != 0 || pattern.pattern().isEmpty()
+                ? MATCH_ALL : new RegExpLiteralFilter(Collections.singletonList(pattern.pattern()));
+        }
+        if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ | Pattern.UNICODE_CHARACTER_CLASS)) != 0) {
+            return MATCH_ALL;
+        }
+        List<String> literals = extractRequiredLiterals(pattern.pattern());
+        return literals.isEmpty() ? MATCH_ALL : new RegExpLiteralFilter(literals);
+    }
+
+    /**
+     * @return false if the line cannot match the regular expression, true if it might match
+     */
+    public boolean mightMatch(String line) {
+        if (literals.isEmpty()) {
+            return true;
+        }
+        for (String literal : literals) {
+            if (line.indexOf(literal) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isMatchAll() {
+        return literals.isEmpty();
+    }
+
+    public List<String> getLiterals() {
+        return literals;
+    }
+
+    /**
+     * @return the longest required literal of each top level alternative, or an empty list if
+     * one of the alternatives has no required literal
+     */
+    static List<String> extractRequiredLiterals(String regExp) {
+        if (INLINE_FLAGS_CHANGING_LITERALS.matcher(regExp).find()) {
+            return Collections.emptyList();
+        }
+        List<String> literals = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i <= regExp.length()) {
+            if (i == regExp.length() || regExp.charAt(i) == '|') {
+                String literal = longestRequiredLiteral(regExp, start, i);
+                if (literal == null || literal.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                if (!literals.contains(literal)) {
+                    literals.add(literal);
+                }
+                start = i + 1;
+                i++;
+                continue;
+            }
+            char c = regExp.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regExp, i);
+            }
+            else if (c == '[') {
+                i = skipCharacterClass(regExp, i);
+            }
+            else if (c == '(') {
+                i = skipGroup(regExp, i);
+            }
+            else {
+                i++;
+            }
+            if (i == UNPARSEABLE) {
+                return Collections.emptyList();
+            }
+        }
+        return literals;
+    }
+
+    /**
+     * @return the longest literal that each match of the alternation free part of the regular expression
+     * between start and end contains, empty if there is none, null if the part cannot be parsed
+     */
+    private static String longestRequiredLiteral(String regExp, int start, int end) {
+        String longest = "";
+        StringBuilder current = new StringBuilder();
+        // number of chars of the last single atom in current, a quantifier after it applies to that atom only
+        int lastAtomLength = 0;
+        int i = start;
+        while (i < end) {
+            char c = regExp.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '+') {
+                int next = skipQuantifier(regExp, i);
+                if (next == UNPARSEABLE) {
+                    return null;
+                }
+                if (lastAtomLength > 0) {
+                    // the atom is optional or repeated: the literal cannot continue after it
+                    boolean atLeastOnce = c == '+' || (c == '{' && i + 1 < end && regExp.charAt(i + 1) != '0' && regExp.charAt(i + 1) != ',');
+                    if (!atLeastOnce) {
+                        current.setLength(current.length() - lastAtomLength);
+                    }
+                    longest = longest(longest, current);
+                    current.setLength(0);
+                }
+                lastAtomLength = 0;
+                i = next;
+                continue;
+            }
+            if (c == '\\' && i + 1 < end && regExp.charAt(i + 1) == 'Q') {
+                int quoteEnd = regExp.indexOf("\\E", i + 2);
+                int literalEnd = quoteEnd == -1 || quoteEnd > end ? end : quoteEnd;
+                current.append(regExp, i + 2, literalEnd);
+                lastAtomLength = literalEnd > i + 2 ? 1 : 0;
+                i = literalEnd == end ? end : literalEnd + 2;
+                continue;
+            }
+            if (c == '\\' && i + 1 < end && !Character.isLetterOrDigit(regExp.charAt(i + 1))) {
+                current.append(regExp.charAt(i + 1));
+                lastAtomLength = 1;
+                i = i + 2;
+                continue;
+            }
+            if (c == '\\' || c == '[' || c == '(' || c == '.' || c == '^' || c == '$') {
+                longest = longest(longest, current);
+                current.setLength(0);
+                lastAtomLength = 0;
+                i = c == '\\' ? skipEscape(regExp, i) : c == '[' ? skipCharacterClass(regExp, i) : c == '(' ? skipGroup(regExp, i) : i + 1;
+                if (i == UNPARSEABLE) {
+                    return null;
+                }
+                continue;
+            }
+            current.append(c);
+            lastAtomLength = 1;
+            i++;
+        }
+        return longest(longest, current);
+    }
+
+    private static String longest(String longest, StringBuilder current) {
+        return current.length() > longest.length() ? current.toString() : longest;
+    }
+
+    /**
+     * @return index after the escape sequence that starts at index i
+     */
+    private static int skipEscape(String regExp, int i) {
+        int length = regExp.length();
+        if (i + 1 >= length) {
+            return UNPARSEABLE;
+        }
+        char c = regExp.charAt(i + 1);
+        int next = i + 2;
+        switch (c) {
+            case 'Q':
+                int quoteEnd = regExp.indexOf("\\E", next);
+                return quoteEnd == -1 ? length : quoteEnd + 2;
+            case 'x':
+            case 'p':
+            case 'P':
+            case 'N':
+                if (next < length && regExp.charAt(next) == '{') {
+                    int close = regExp.indexOf('}', next);
+                    return close == -1 ? UNPARSEABLE : close + 1;
+                }
+                return Math.min(length, next + (c == 'x' ? 2 : 1));
+            case 'u':
+                return Math.min(length, next + 4);
+            case 'c':
+                return Math.min(length, next + 1);
+            case 'k':
+                int close = regExp.indexOf('>', next);
+                return close == -1 ? UNPARSEABLE : close + 1;
+            default:
+                if (c >= '0' && c <= '9') {
+                    // octal escape or back reference, both can be followed by more digits
+                    while (next < length && Character.isDigit(regExp.charAt(next))) {
+                        next++;
+                    }
+                }
+                return next;
+        }
+    }
+
+    /**
+     * @return index after the (possibly nested) character class that starts at index i
+     */
+    private static int skipCharacterClass(String regExp, int i) {
+        int length = regExp.length();
+        int depth = 0;
+        while (i < length) {
+            char c = regExp.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < length && regExp.charAt(i + 1) == 'Q') {
+                    return UNPARSEABLE;
+                }
+                i = skipEscape(regExp, i);
+                if (i == UNPARSEABLE) {
+                    return UNPARSEABLE;
+                }
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                i++;
+                if (i < length && regExp.charAt(i) == '^') {
+                    i++;
+                }
+                // a ']' directly at the start of a class is a literal ']'
+                if (i < length && regExp.charAt(i) == ']') {
+                    i++;
+                }
+                continue;
+            }
+            if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return UNPARSEABLE;
+    }
+
+    /**
+     * @return index after the group, including nested groups, that starts at index i
+     */
+    private static int skipGroup(String regExp, int i) {
+        int length = regExp.length();
+        int depth = 0;
+        while (i < length) {
+            char c = regExp.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regExp, i);
+            }
+            else if (c == '[') {
+                i = skipCharacterClass(regExp, i);
+            }
+            else {
+                if (c == '(') {
+                    depth++;
+                }
+                else if (c == ')') {
+                    depth--;
+                    if (depth == 0) {
+                        return i + 1;
+                    }
+                }
+                i++;
+            }
+            if (i == UNPARSEABLE) {
+                return UNPARSEABLE;
+            }
+        }
+        return UNPARSEABLE;
+    }
+
+    /**
+     * @return index after the quantifier, including a lazy or possessive modifier, that starts at index i
+     */
+    private static int skipQuantifier(String regExp, int i) {
+        int next = i + 1;
+        if (regExp.charAt(i) == '{') {
+            int close = regExp.indexOf('}', i);
+            if (close == -1) {
+                return UNPARSEABLE;
+            }
+            next = close + 1;
+        }
+        if (next < regExp.length() && (regExp.charAt(next) == '?' || regExp.charAt(next) == '+')) {
+            next++;
+        }
+        return next;
+    }
+
+    @Override
+    public String toString() {
+        return "RegExpLiteralFilter{" + "literals=" + literals + '}';
+    }
+}
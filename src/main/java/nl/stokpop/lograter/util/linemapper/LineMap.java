@@ -114,6 +114,13 @@ public class LineMap {
 		return regExpPattern;
 	}
 
+	/**
+	 * @return the literal start that all matching lines start with, empty if unknown
+	 */
+	String getRegExpPrefix() {
+		return regExpPrefix;
+	}
+
 	@Override
 	public int hashCode() {
 		throw new UnsupportedOperationException();
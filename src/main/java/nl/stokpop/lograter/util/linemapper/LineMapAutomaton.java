@@ -0,0 +1,703 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util.linemapper;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the regular expressions of all line maps of one or more sections into one automaton,
+ * so one pass over a line finds the matching line maps of all sections.
+ *
+ * The automaton is a Thompson NFA that is simulated with a set of active states, without captures:
+ * it only determines if a line map matches, the names with replacements are created by the LineMap.
+ * The supported syntax is the syntax that is common in mapper files: literals, escapes, character classes,
+ * the predefined classes \d \w \s, the dot, groups, alternation, greedy and lazy quantifiers and ^ and $.
+ * Line maps with other constructs, such as back references and look arounds, are matched with
+ * java.util.regex per line map. Lines with line terminators or surrogate characters are matched with
+ * java.util.regex for all line maps.
+ */
+@ThreadSafe
+public final class LineMapAutomaton {
+
+    // protection against large repetitions, such as a{1,1000}, those line maps are matched with java.util.regex
+    private static final int MAX_STATES_PER_LINE_MAP = 2000;
+
+    private static final int CHAR = 0;
+    private static final int SPLIT = 1;
+    private static final int LINE_START = 2;
+    private static final int LINE_END = 3;
+    private static final int MATCH = 4;
+
+    private static final CharRanges ANY_CHAR_BUT_LINE_TERMINATOR =
+        CharRanges.of('\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029').complement();
+
+    private final LineMap[] lineMaps;
+    private final Map<LineMapperSection, Integer> sectionOffsets;
+    // line maps matched with java.util.regex
+    private final int[] fallbackLineMaps;
+
+    // the states, by index
+    private final int[] types;
+    private final CharRanges[] charRanges;
+    private final int[] outs;
+    private final int[][] splitOuts;
+    private final int[] matchLineMaps;
+    private final int startState;
+
+    private LineMapAutomaton(LineMap[] lineMaps, Map<LineMapperSection, Integer> sectionOffsets, int[] fallbackLineMaps, Builder builder, int startState) {
+        this.lineMaps = lineMaps;
+        this.sectionOffsets = sectionOffsets;
+        this.fallbackLineMaps = fallbackLineMaps;
+        int size = builder.types.size();
+        this.types = new int[size];
+        this.charRanges = new CharRanges[size];
+        this.outs = new int[size];
+        this.splitOuts = new int[size][];
+        this.matchLineMaps = new int[size];
+        for (int i = 0; i < size; i++) {
+            types[i] = builder.types.get(i);
+            charRanges[i] = builder.charRanges.get(i);
+            outs[i] = builder.outs.get(i);
+            splitOuts[i] = builder.splitOuts.get(i);
+            matchLineMaps[i] = builder.matchLineMaps.get(i);
+        }
+        this.startState = startState;
+    }
+
+    /**
+     * Compile the line maps of the sections, in the order of the sections.
+     */
+    public static LineMapAutomaton compile(List<LineMapperSection> sections) {
+        List<LineMap> allLineMaps = new ArrayList<>();
+        Map<LineMapperSection, Integer> sectionOffsets = new IdentityHashMap<>();
+        for (LineMapperSection section : sections) {
+            sectionOffsets.put(section, allLineMaps.size());
+            allLineMaps.addAll(section.getLineMaps());
+        }
+
+        Builder builder = new Builder();
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> fallbacks = new ArrayList<>();
+        for (int i = 0; i < allLineMaps.size(); i++) {
+            int mark = builder.size();
+            try {
+                Node node = new Parser(allLineMaps.get(i).getRegExpPattern()).parse();
+                int match = builder.add(MATCH, null, -1, null, i);
+                starts.add(node.compile(builder, match));
+            } catch (UnsupportedSyntax e) {
+                builder.truncate(mark);
+                fallbacks.add(i);
+            }
+        }
+        int[] startOuts = starts.stream().mapToInt(Integer::intValue).toArray();
+        int startState = builder.addStart(startOuts);
+        return new LineMapAutomaton(allLineMaps.toArray(new LineMap[0]), sectionOffsets,
+            fallbacks.stream().mapToInt(Integer::intValue).toArray(), builder, startState);
+    }
+
+    /**
+     * @return the index of the first line map of the section in the matches, -1 if the section is not compiled in this automaton
+     */
+    public int offsetOf(LineMapperSection section) {
+        Integer offset = sectionOffsets.get(section);
+        return offset == null ? -1 : offset;
+    }
+
+    public int getLineMapCount() {
+        return lineMaps.length;
+    }
+
+    /**
+     * @return number of line maps that are matched with java.util.regex
+     */
+    public int getFallbackLineMapCount() {
+        return fallbackLineMaps.length;
+    }
+
+    /**
+     * Same result as LineMap.isMatch for all line maps of the compiled sections.
+     * @return per line map, by index in the order of the sections, if the line map matches the line
+     */
+    public boolean[] match(String line) {
+        boolean[] matches = new boolean[lineMaps.length];
+        if (needsFallback(line)) {
+            for (int i = 0; i < lineMaps.length; i++) {
+                matches[i] = lineMaps[i].isMatch(line);
+            }
+            return matches;
+        }
+
+        int[] marks = new int[types.length];
+        int[] current = new int[types.length];
+        int[] next = new int[types.length];
+        int[] stack = new int[types.length];
+        int generation = 1;
+        int length = line.length();
+
+        int currentSize = addState(startState, 0, length, marks, generation, current, 0, stack, matches);
+        for (int pos = 0; pos < length && currentSize > 0; pos++) {
+            char c = line.charAt(pos);
+            generation++;
+            int nextSize = 0;
+            for (int i = 0; i < currentSize; i++) {
+                int state = current[i];
+                if (charRanges[state].contains(c)) {
+                    nextSize = addState(outs[state], pos + 1, length, marks, generation, next, nextSize, stack, matches);
+                }
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            currentSize = nextSize;
+        }
+
+        for (int i = 0; i < lineMaps.length; i++) {
+            // LineMap.isMatch first checks the prefix
+            if (matches[i] && !line.startsWith(lineMaps[i].getRegExpPrefix())) {
+                matches[i] = false;
+            }
+        }
+        for (int fallback : fallbackLineMaps) {
+            matches[fallback] = lineMaps[fallback].isMatch(line);
+        }
+        return matches;
+    }
+
+    /**
+     * Follow the epsilon transitions from the state, add the char states to the list.
+     * @return the new size of the list
+     */
+    private int addState(int state, int pos, int length, int[] marks, int generation, int[] list, int size, int[] stack, boolean[] matches) {
+        int top = 0;
+        stack[top++] = state;
+        while (top > 0) {
+            int s = stack[--top];
+            if (marks[s] == generation) {
+                continue;
+            }
+            marks[s] = generation;
+            switch (types[s]) {
+                case CHAR:
+                    list[size++] = s;
+                    break;
+                case SPLIT:
+                    int[] splits = splitOuts[s];
+                    // reverse order, the order does not matter for the matches, but keeps the stack small
+                    for (int i = splits.length - 1; i >= 0; i--) {
+                        if (marks[splits[i]] != generation) {
+                            stack[top++] = splits[i];
+                        }
+                    }
+                    break;
+                case LINE_START:
+                    if (pos == 0) {
+                        stack[top++] = outs[s];
+                    }
+                    break;
+                case LINE_END:
+                    if (pos == length) {
+                        stack[top++] = outs[s];
+                    }
+                    break;
+                case MATCH:
+                    if (pos == length) {
+                        matches[matchLineMaps[s]] = true;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown state type: " + types[s]);
+            }
+        }
+        return size;
+    }
+
+    private static boolean needsFallback(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isSurrogate(c) || !ANY_CHAR_BUT_LINE_TERMINATOR.contains(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the states while compiling.
+     */
+    private static final class Builder {
+        private final List<Integer> types = new ArrayList<>();
+        private final List<CharRanges> charRanges = new ArrayList<>();
+        private final List<Integer> outs = new ArrayList<>();
+        private final List<int[]> splitOuts = new ArrayList<>();
+        private final List<Integer> matchLineMaps = new ArrayList<>();
+        private int lineMapStart = 0;
+
+        private int add(int type, CharRanges ranges, int out, int[] splits, int matchLineMap) {
+            if (type == MATCH) {
+                lineMapStart = types.size();
+            }
+            else if (types.size() - lineMapStart > MAX_STATES_PER_LINE_MAP) {
+                throw new UnsupportedSyntax("too many states");
+            }
+            types.add(type);
+            charRanges.add(ranges);
+            outs.add(out);
+            splitOuts.add(splits);
+            matchLineMaps.add(matchLineMap);
+            return types.size() - 1;
+        }
+
+        /**
+         * The start state is shared by all line maps, so it does not count for the states of the last line map.
+         */
+        private int addStart(int[] splits) {
+            lineMapStart = types.size();
+            return add(SPLIT, null, -1, splits, -1);
+        }
+
+        private int size() {
+            return types.size();
+        }
+
+        private void truncate(int size) {
+            while (types.size() > size) {
+                int last = types.size() - 1;
+                types.remove(last);
+                charRanges.remove(last);
+                outs.remove(last);
+                splitOuts.remove(last);
+                matchLineMaps.remove(last);
+            }
+        }
+
+        private void setSplitOuts(int state, int[] splits) {
+            splitOuts.set(state, splits);
+        }
+    }
+
+    private static final class UnsupportedSyntax extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedSyntax(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Regular expression syntax tree, compiled backwards: each node is compiled with the state to continue with.
+     */
+    private interface Node {
+        /**
+         * @return the start state of this node
+         */
+        int compile(Builder builder, int next);
+    }
+
+    private static final class CharNode implements Node {
+        private final CharRanges ranges;
+
+        private CharNode(CharRanges ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        public int compile(Builder builder, int next) {
+            return builder.add(CHAR, ranges, next, null, -1);
+        }
+    }
+
+    private static final class AssertNode implements Node {
+        private final int type;
+
+        private AssertNode(int type) {
+            this.type = type;
+        }
+
+        @Override
+        public int compile(Builder builder, int next) {
+            return builder.add(type, null, next, null, -1);
+        }
+    }
+
+    private static final class SequenceNode implements Node {
+        private final List<Node> nodes;
+
+        private SequenceNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public int compile(Builder builder, int next) {
+            int start = next;
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                start = nodes.get(i).compile(builder, start);
+            }
+            return start;
+        }
+    }
+
+    private static final class AlternationNode implements Node {
+        private final List<Node> alternatives;
+
+        private AlternationNode(List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        public int compile(Builder builder, int next) {
+            int[] starts = new int[alternatives.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = alternatives.get(i).compile(builder, next);
+            }
+            return builder.add(SPLIT, null, -1, starts, -1);
+        }
+    }
+
+    private static final class RepeatNode implements Node {
+        private final Node node;
+        private final int min;
+        // -1 for unbounded
+        private final int max;
+
+        private RepeatNode(Node node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public int compile(Builder builder, int next) {
+            int tail;
+            if (max == -1) {
+                int loop = builder.add(SPLIT, null, -1, null, -1);
+                int body = node.compile(builder, loop);
+                builder.setSplitOuts(loop, new int[] { body, next });
+                tail = loop;
+            }
+            else {
+                tail = next;
+                for (int i = 0; i < max - min; i++) {
+                    int body = node.compile(builder, tail);
+                    tail = builder.add(SPLIT, null, -1, new int[] { body, next }, -1);
+                }
+            }
+            for (int i = 0; i < min; i++) {
+                tail = node.compile(builder, tail);
+            }
+            return tail;
+        }
+    }
+
+    /**
+     * Parses the supported subset of the java.util.regex syntax, throws UnsupportedSyntax for other constructs.
+     * The patterns are already compiled by java.util.regex, so the syntax is known to be valid.
+     */
+    private static final class Parser {
+        private final String pattern;
+        private int pos = 0;
+
+        private Parser(String pattern) {
+            this.pattern = pattern;
+        }
+
+        private Node parse() {
+            Node node = parseAlternation();
+            if (pos != pattern.length()) {
+                throw new UnsupportedSyntax("unexpected " + pattern.charAt(pos));
+            }
+            return node;
+        }
+
+        private Node parseAlternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseSequence());
+            while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+                pos++;
+                alternatives.add(parseSequence());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+        }
+
+        private Node parseSequence() {
+            List<Node> nodes = new ArrayList<>();
+            while (pos < pattern.length() && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') {
+                nodes.add(parseRepeat());
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new SequenceNode(nodes);
+        }
+
+        private Node parseRepeat() {
+            Node node = parseAtom();
+            while (pos < pattern.length()) {
+                char c = pattern.charAt(pos);
+                int min;
+                int max;
+                if (c == '*') {
+                    min = 0;
+                    max = -1;
+                    pos++;
+                }
+                else if (c == '+') {
+                    min = 1;
+                    max = -1;
+                    pos++;
+                }
+                else if (c == '?') {
+                    min = 0;
+                    max = 1;
+                    pos++;
+                }
+                else if (c == '{') {
+                    int close = pattern.indexOf('}', pos);
+                    if (close == -1) {
+                        throw new UnsupportedSyntax("no closing }");
+                    }
+                    String[] bounds = pattern.substring(pos + 1, close).split(",", -1);
+                    try {
+                        min = Integer.parseInt(bounds[0].trim());
+                        max = bounds.length == 1 ? min : bounds[1].trim().isEmpty() ? -1 : Integer.parseInt(bounds[1].trim());
+                    } catch (NumberFormatException e) {
+                        throw new UnsupportedSyntax("invalid repetition");
+                    }
+                    if (bounds.length > 2 || (max != -1 && max < min) || min > MAX_STATES_PER_LINE_MAP || max > MAX_STATES_PER_LINE_MAP) {
+                        throw new UnsupportedSyntax("invalid repetition");
+                    }
+                    pos = close + 1;
+                }
+                else {
+                    break;
+                }
+                if (node instanceof AssertNode) {
+                    throw new UnsupportedSyntax("repeated assertion");
+                }
+                if (pos < pattern.length()) {
+                    char modifier = pattern.charAt(pos);
+                    if (modifier == '?') {
+                        // lazy, the same lines match
+                        pos++;
+                    }
+                    else if (modifier == '+') {
+                        throw new UnsupportedSyntax("possessive quantifier");
+                    }
+                }
+                node = new RepeatNode(node, min, max);
+            }
+            return node;
+        }
+
+        private Node parseAtom() {
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(':
+                    if (pattern.startsWith("?:", pos)) {
+                        pos += 2;
+                    }
+                    else if (pattern.startsWith("?<", pos) && pos + 2 < pattern.length() && Character.isLetter(pattern.charAt(pos + 2))) {
+                        // named group
+                        int close = pattern.indexOf('>', pos);
+                        if (close == -1) {
+                            throw new UnsupportedSyntax("invalid named group");
+                        }
+                        pos = close + 1;
+                    }
+                    else if (pattern.startsWith("?", pos)) {
+                        throw new UnsupportedSyntax("special group");
+                    }
+                    Node group = parseAlternation();
+                    if (pos >= pattern.length() || pattern.charAt(pos) != ')') {
+                        throw new UnsupportedSyntax("no closing )");
+                    }
+                    pos++;
+                    return group;
+                case '[':
+                    return new CharNode(parseClass());
+                case '.':
+                    return new CharNode(ANY_CHAR_BUT_LINE_TERMINATOR);
+                case '^':
+                    return new AssertNode(LINE_START);
+                case '$':
+                    return new AssertNode(LINE_END);
+                case '\\':
+                    return new CharNode(parseEscape());
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                case ')':
+                case '|':
+                    throw new UnsupportedSyntax("unexpected " + c);
+                default:
+                    return new CharNode(CharRanges.of(c, c));
+            }
+        }
+
+        private CharRanges parseEscape() {
+            if (pos >= pattern.length()) {
+                throw new UnsupportedSyntax("escape at end");
+            }
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case 'd': return CharRanges.DIGIT;
+                case 'D': return CharRanges.DIGIT.complement();
+                case 'w': return CharRanges.WORD;
+                case 'W': return CharRanges.WORD.complement();
+                case 's': return CharRanges.SPACE;
+                case 'S': return CharRanges.SPACE.complement();
+                case 't': return CharRanges.of('\t', '\t');
+                case 'n': return CharRanges.of('\n', '\n');
+                case 'r': return CharRanges.of('\r', '\r');
+                case 'f': return CharRanges.of('\f', '\f');
+                case 'a': return CharRanges.of('\u0007', '\u0007');
+                case 'e': return CharRanges.of('\u001B', '\u001B');
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        // back references, boundaries, quotes, unicode and other escapes
+                        throw new UnsupportedSyntax("escape \\" + c);
+                    }
+                    return CharRanges.of(c, c);
+            }
+        }
+
+        private CharRanges parseClass() {
+            boolean isNegated = pos < pattern.length() && pattern.charAt(pos) == '^';
+            if (isNegated) {
+                pos++;
+            }
+            List<CharRanges> parts = new ArrayList<>();
+            boolean isFirst = true;
+            while (true) {
+                if (pos >= pattern.length()) {
+                    throw new UnsupportedSyntax("no closing ]");
+                }
+                char c = pattern.charAt(pos);
+                if (c == ']' && !isFirst) {
+                    pos++;
+                    break;
+                }
+                // a ] directly after [ and nested classes have special meanings in java.util.regex
+                if (c == '[' || c == ']' || pattern.startsWith("&&", pos)) {
+                    throw new UnsupportedSyntax("nested class or intersection");
+                }
+                isFirst = false;
+                pos++;
+                CharRanges start = c == '\\' ? parseEscape() : CharRanges.of(c, c);
+                boolean isRange = pos + 1 < pattern.length() && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']';
+                if (isRange) {
+                    pos++;
+                    char endChar = pattern.charAt(pos++);
+                    CharRanges end = endChar == '\\' ? parseEscape() : CharRanges.of(endChar, endChar);
+                    if (!start.isSingleChar() || !end.isSingleChar() || end.first() < start.first()) {
+                        throw new UnsupportedSyntax("invalid range");
+                    }
+                    parts.add(CharRanges.of(start.first(), end.first()));
+                }
+                else {
+                    parts.add(start);
+                }
+            }
+            CharRanges union = CharRanges.union(parts);
+            return isNegated ? union.complement() : union;
+        }
+    }
+
+    /**
+     * Sorted, non overlapping, inclusive ranges of chars.
+     */
+    private static final class CharRanges {
+        private static final CharRanges DIGIT = of('0', '9');
+        private static final CharRanges WORD = of('0', '9', 'A', 'Z', '_', '_', 'a', 'z');
+        private static final CharRanges SPACE = of('\t', '\r', ' ', ' ');
+
+        private final char[] ranges;
+
+        private CharRanges(char[] ranges) {
+            this.ranges = ranges;
+        }
+
+        /**
+         * @param bounds pairs of first and last char of each range, sorted and not overlapping
+         */
+        private static CharRanges of(char... bounds) {
+            return new CharRanges(bounds);
+        }
+
+        private static CharRanges union(List<CharRanges> parts) {
+            List<char[]> all = new ArrayList<>();
+            for (CharRanges part : parts) {
+                for (int i = 0; i < part.ranges.length; i += 2) {
+                    all.add(new char[] { part.ranges[i], part.ranges[i + 1] });
+                }
+            }
+            all.sort((one, two) -> Character.compare(one[0], two[0]));
+            char[] merged = new char[all.size() * 2];
+            int size = 0;
+            for (char[] range : all) {
+                if (size > 0 && range[0] <= merged[size - 1] + 1) {
+                    merged[size - 1] = (char) Math.max(merged[size - 1], range[1]);
+                }
+                else {
+                    merged[size++] = range[0];
+                    merged[size++] = range[1];
+                }
+            }
+            return new CharRanges(Arrays.copyOf(merged, size));
+        }
+
+        private CharRanges complement() {
+            char[] complement = new char[ranges.length + 2];
+            int size = 0;
+            int from = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > from) {
+                    complement[size++] = (char) from;
+                    complement[size++] = (char) (ranges[i] - 1);
+                }
+                from = ranges[i + 1] + 1;
+            }
+            if (from <= Character.MAX_VALUE) {
+                complement[size++] = (char) from;
+                complement[size++] = Character.MAX_VALUE;
+            }
+            return new CharRanges(Arrays.copyOf(complement, size));
+        }
+
+        private boolean contains(char c) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (c < ranges[i]) {
+                    return false;
+                }
+                if (c <= ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isSingleChar() {
+            return ranges.length == 2 && ranges[0] == ranges[1];
+        }
+
+        private char first() {
+            return ranges[0];
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util.linemapper;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Runs a LineMapAutomaton and remembers the matches of the last line, so the line mapper caches
+ * of all sections in the automaton share one pass over each line. Use one matcher per thread,
+ * for instance per parallel worker.
+ */
+@NotThreadSafe
+public class LineMapAutomatonMatcher {
+
+    private final LineMapAutomaton automaton;
+
+    private String lastLine;
+    private boolean[] lastMatches;
+
+    public LineMapAutomatonMatcher(LineMapAutomaton automaton) {
+        this.automaton = automaton;
+    }
+
+    /**
+     * @see LineMapAutomaton#match(String)
+     */
+    public boolean[] match(String line) {
+        if (!line.equals(lastLine)) {
+            lastMatches = automaton.match(line);
+            lastLine = line;
+        }
+        return lastMatches;
+    }
+
+    /**
+     * @see LineMapAutomaton#offsetOf(LineMapperSection)
+     */
+    public int offsetOf(LineMapperSection section) {
+        return automaton.offsetOf(section);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util.linemapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Character trie on the literal prefixes of the line maps of a section, to select the line maps
+ * a line can match: only line maps with a prefix the line starts with. Line maps without a prefix
+ * are in the root and are candidates for all lines.
+ *
+ * Adding is not thread safe, looking up candidates is safe when no line maps are added anymore.
+ */
+final class LineMapPrefixTrie {
+
+    private static final int[] NO_INDEXES = new int[0];
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        // indexes of the line maps with the prefix that ends in this node, in increasing order
+        private int[] lineMapIndexes = NO_INDEXES;
+
+        private Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node addChild(char c) {
+            Node child = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = child;
+            return child;
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Add line maps in the order of the section, the index should be higher than all indexes added before.
+     */
+    void add(String prefix, int lineMapIndex) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            Node child = node.child(c);
+            node = child == null ? node.addChild(c) : child;
+        }
+        node.lineMapIndexes = Arrays.copyOf(node.lineMapIndexes, node.lineMapIndexes.length + 1);
+        node.lineMapIndexes[node.lineMapIndexes.length - 1] = lineMapIndex;
+    }
+
+    /**
+     * @return the candidate line map indexes for the line, in increasing order
+     */
+    Candidates candidates(String line) {
+        List<int[]> indexes = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        while (node != null) {
+            if (node.lineMapIndexes.length > 0) {
+                indexes.add(node.lineMapIndexes);
+            }
+            node = i < line.length() ? node.child(line.charAt(i++)) : null;
+        }
+        return new Candidates(indexes.toArray(new int[0][]));
+    }
+
+    /**
+     * Merges the sorted index arrays of the nodes on the path of a line.
+     */
+    static final class Candidates {
+        private final int[][] indexes;
+        private final int[] positions;
+
+        private Candidates(int[][] indexes) {
+            this.indexes = indexes;
+            this.positions = new int[indexes.length];
+        }
+
+        /**
+         * @return the next candidate line map index, or -1 when there are no more candidates
+         */
+        int next() {
+            int lowest = -1;
+            int lowestList = -1;
+            for (int i = 0; i < indexes.length; i++) {
+                if (positions[i] < indexes[i].length) {
+                    int index = indexes[i][positions[i]];
+                    if (lowest == -1 || index < lowest) {
+                        lowest = index;
+                        lowestList = i;
+                    }
+                }
+            }
+            if (lowestList != -1) {
+                positions[lowestList]++;
+            }
+            return lowest;
+        }
+    }
+}
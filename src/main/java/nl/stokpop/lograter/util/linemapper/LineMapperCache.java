@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util.linemapper;
+
+import net.jcip.annotations.NotThreadSafe;
+import nl.stokpop.lograter.LogRaterException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Remembers the matching line maps and the names with replacements per line for a line mapper section,
+ * so the regular expressions of the section only run once per distinct line, such as an url.
+ *
+ * The number of lines is bounded: when full, a line that has not been used since the last round
+ * of the clock hand is evicted (CLOCK, an approximation of least recently used).
+ *
+ * With a LineMapAutomatonMatcher the matching line maps of a new line are found with the automaton,
+ * which is shared by the caches of all sections, instead of with the regular expressions of this section.
+ */
+@NotThreadSafe
+public class LineMapperCache {
+
+    public static final int DEFAULT_MAX_LINES = 10_000;
+
+    private static final LineMap[] NO_LINE_MAPS = new LineMap[0];
+
+    private static final class Resolved {
+        private final LineMap[] lineMaps;
+        private final String[] names;
+
+        private Resolved(LineMap[] lineMaps, String[] names) {
+            this.lineMaps = lineMaps;
+            this.names = names;
+        }
+    }
+
+    private final LineMapperSection lineMapperSection;
+    private final boolean doCountMultipleMapperHits;
+    private final int maxLines;
+    private final LineMapAutomatonMatcher automatonMatcher;
+
+    private final Map<String, Integer> lineToSlot = new HashMap<>();
+    private final String[] lines;
+    private final Resolved[] resolved;
+    private final boolean[] isReferenced;
+    private int clockHand = 0;
+    private int size = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public LineMapperCache(LineMapperSection lineMapperSection, boolean doCountMultipleMapperHits) {
+        this(lineMapperSection, doCountMultipleMapperHits, DEFAULT_MAX_LINES);
+    }
+
+    public LineMapperCache(LineMapperSection lineMapperSection, boolean doCountMultipleMapperHits, int maxLines) {
+        this(lineMapperSection, doCountMultipleMapperHits, maxLines, null);
+    }
+
+    /**
+     * @param automatonMatcher matcher with an automaton that contains the line mapper section, or null to use the regular expressions of the section
+     */
+    public LineMapperCache(LineMapperSection lineMapperSection, boolean doCountMultipleMapperHits, int maxLines, LineMapAutomatonMatcher automatonMatcher) {
+        if (maxLines < 1) {
+            throw new LogRaterException("Max lines of line mapper cache should be at least 1: " + maxLines);
+        }
+        this.lineMapperSection = lineMapperSection;
+        this.doCountMultipleMapperHits = doCountMultipleMapperHits;
+        this.maxLines = maxLines;
+        this.automatonMatcher = automatonMatcher;
+        if (automatonMatcher != null && automatonMatcher.offsetOf(lineMapperSection) == -1) {
+            throw new LogRaterException("Line mapper section is not part of the automaton: " + lineMapperSection.getName());
+        }
+        this.lines = new String[maxLines];
+        this.resolved = new Resolved[maxLines];
+        this.isReferenced = new boolean[maxLines];
+    }
+
+    /**
+     * Same callbacks as LineMapperSection.updateMappers, with the name with replacements for each match.
+     * @see LineMapperSection#updateMappers(String, boolean, LineMapperCallback)
+     */
+    public void updateMappers(String line, LineMapperCallback callback) {
+        if (line == null) throw new LogRaterException("updateMappers cannot map a 'null' line.");
+
+        Resolved result;
+        Integer slot = lineToSlot.get(line);
+        if (slot != null) {
+            hits++;
+            isReferenced[slot] = true;
+            result = resolved[slot];
+        }
+        else {
+            misses++;
+            result = resolve(line);
+            store(line, result);
+        }
+
+        LineMap[] lineMaps = result.lineMaps;
+        for (int i = 0; i < lineMaps.length; i++) {
+            callback.matchFound(lineMaps[i], result.names[i]);
+        }
+        if (lineMaps.length == 0) {
+            callback.noMatchFound(line);
+        }
+        else if (lineMaps.length > 1) {
+            callback.multiMatchFound(line, lineMaps.length);
+        }
+    }
+
+    private Resolved resolve(String line) {
+        final List<LineMap> matches = new ArrayList<>(1);
+        if (automatonMatcher != null) {
+            collectAutomatonMatches(line, matches);
+        }
+        else {
+            collectMatches(line, matches);
+        }
+        if (matches.isEmpty()) {
+            return new Resolved(NO_LINE_MAPS, new String[0]);
+        }
+        String[] names = new String[matches.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = matches.get(i).getNameWithReplacementsFromLine(line);
+        }
+        return new Resolved(matches.toArray(NO_LINE_MAPS), names);
+    }
+
+    private void collectAutomatonMatches(String line, List<LineMap> matches) {
+        boolean[] isMatch = automatonMatcher.match(line);
+        int offset = automatonMatcher.offsetOf(lineMapperSection);
+        List<LineMap> lineMaps = lineMapperSection.getLineMaps();
+        for (int i = 0; i < lineMaps.size(); i++) {
+            if (isMatch[offset + i]) {
+                matches.add(lineMaps.get(i));
+                if (!doCountMultipleMapperHits) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void collectMatches(String line, final List<LineMap> matches) {
+        lineMapperSection.updateMappers(line, doCountMultipleMapperHits, new LineMapperCallback() {
+            @Override
+            public void matchFound(LineMap mapper) {
+                matches.add(mapper);
+            }
+
+            @Override
+            public void noMatchFound(String line) {
+                // no matches
+            }
+
+            @Override
+            public void multiMatchFound(String line, int hits) {
+                // all matches are collected
+            }
+        });
+    }
+
+    private void store(String line, Resolved result) {
+        int slot;
+        if (size < maxLines) {
+            slot = size++;
+        }
+        else {
+            // give referenced lines a second chance
+            while (isReferenced[clockHand]) {
+                isReferenced[clockHand] = false;
+                clockHand = (clockHand + 1) % maxLines;
+            }
+            slot = clockHand;
+            clockHand = (clockHand + 1) % maxLines;
+            lineToSlot.remove(lines[slot]);
+            evictions++;
+        }
+        lines[slot] = line;
+        resolved[slot] = result;
+        isReferenced[slot] = false;
+        lineToSlot.put(line, slot);
+    }
+
+    /**
+     * Add the hits, misses and evictions of the other cache, for instance of a parallel worker.
+     */
+    public void addStatistics(LineMapperCache other) {
+        hits += other.hits;
+        misses += other.misses;
+        evictions += other.evictions;
+    }
+
+    public LineMapperSection getLineMapperSection() {
+        return lineMapperSection;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public String getStatistics() {
+        return String.format(Locale.US, "hits [%d] misses [%d] hit rate [%.1f%%] evictions [%d]",
+            hits, misses, getHitRate() * 100, evictions);
+    }
+
+    @Override
+    public String toString() {
+        return "LineMapperCache{" +
+            "lineMapperSection=" + lineMapperSection +
+            ", maxLines=" + maxLines +
+            ", " + getStatistics() +
+            '}';
+    }
+}
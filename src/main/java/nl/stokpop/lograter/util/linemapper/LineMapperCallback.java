@@ -19,6 +19,13 @@ public interface LineMapperCallback {
 
 	void matchFound(LineMap mapper);
 
+	/**
+	 * Called instead of matchFound(mapper) when the name with replacements for the line is already known.
+	 */
+	default void matchFound(LineMap mapper, String nameWithReplacements) {
+		matchFound(mapper);
+	}
+
 	void noMatchFound(String line);
 
 	void multiMatchFound(String line, int hits);
@@ -21,7 +21,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 public class LineMapperSection {
@@ -39,6 +38,8 @@ public class LineMapperSection {
 	}
 
     private final List<LineMap> lineMaps = new ArrayList<>();
+    // only the line maps with a prefix that a line starts with can match the line
+    private final LineMapPrefixTrie prefixTrie = new LineMapPrefixTrie();
 
 	private final String name;
 
@@ -50,6 +51,7 @@ public class LineMapperSection {
         log.debug("Add mapper from {} to {}", regexp, name);
         LineMap accessLogMapper = new LineMap(regexp, name);
         lineMaps.add(accessLogMapper);
+        prefixTrie.add(accessLogMapper.getRegExpPrefix(), lineMaps.size() - 1);
     }
 
         /**
@@ -59,6 +61,8 @@ public class LineMapperSection {
 		 * - multiple matches found that will tell the total number of matches if more than 1
 		 * - no match found
 		 *
+		 * Only the line maps with a literal prefix the line starts with are tried, in the order of this section.
+		 *
 		 * @see LineMapperCallback
 		 */
 		public void updateMappers(String line, boolean doCountMultipleMapperHits, LineMapperCallback callback) {
@@ -67,9 +71,10 @@ public class LineMapperSection {
 			boolean matchFound = false;
 			int hits = 0;
 	
-			Iterator<LineMap> it = lineMaps.iterator();
-			while ((!matchFound || doCountMultipleMapperHits) && it.hasNext()) {
-				LineMap mapper = it.next();
+			LineMapPrefixTrie.Candidates candidates = prefixTrie.candidates(line);
+			int index;
+			while ((!matchFound || doCountMultipleMapperHits) && (index = candidates.next()) != -1) {
+				LineMap mapper = lineMaps.get(index);
 				matchFound = mapper.isMatch(line);
 				if (matchFound) {
 					hits++;
@@ -88,6 +93,10 @@ public class LineMapperSection {
         return name;
     }
 
+    public List<LineMap> getLineMaps() {
+        return Collections.unmodifiableList(lineMaps);
+    }
+
     public int size() {
         return lineMaps.size();
     }
@@ -47,18 +47,36 @@ public class LineMapperUtils {
 
     public static List<AccessLogUrlMapperProcessor> createUrlMapperProcessors(
     		RequestCounterStoreFactory csFactory, AccessLogConfig config) {
+        return createUrlMapperProcessors(csFactory, config, compileMapperAutomaton(config));
+    }
+
+    /**
+     * @return the automaton for all line mappers of the config, null if the config does not use the mapper automaton
+     */
+    public static LineMapAutomaton compileMapperAutomaton(AccessLogConfig config) {
+        return config.useMapperAutomaton() ? LineMapAutomaton.compile(config.getLineMappers()) : null;
+    }
+
+    /**
+     * @param automaton compiled once for the config and shared by the processors of all parallel workers, can be null
+     */
+    public static List<AccessLogUrlMapperProcessor> createUrlMapperProcessors(
+    		RequestCounterStoreFactory csFactory, AccessLogConfig config, LineMapAutomaton automaton) {
 
         List<LineMapperSection> lineMappers = config.getLineMappers();
 
         List<AccessLogUrlMapperProcessor> processors = new ArrayList<>();
 
+        // one matcher per call, the processors are created per parallel worker
+        LineMapAutomatonMatcher automatonMatcher = automaton == null ? null : new LineMapAutomatonMatcher(automaton);
+
         for (LineMapperSection lineMapper : lineMappers) {
             RequestCounterStore mappersSuccess = csFactory.newInstance(lineMapper.getName() + "-mappers-success", CounterKey.of("Mappers-Total-Success"), config.getMaxUniqueCounters());
             RequestCounterStore mappersFailure = csFactory.newInstance(lineMapper.getName() + "-mappers-failure", CounterKey.of("Mappers-Total-Failure"), config.getMaxUniqueCounters());
             AccessLogCounterKeyCreator keyCreator = new AccessLogCounterKeyCreator(config.getGroupByFields());
             AccessLogUrlMapperProcessor processor =
                     new AccessLogUrlMapperProcessor(new RequestCounterStorePair(mappersSuccess, mappersFailure), lineMapper, keyCreator,
-                            config.countNoMappersAsOne(), config.ignoreMultiAndNoMatches(), config.countMultipleMapperHits());
+                            config.countNoMappersAsOne(), config.ignoreMultiAndNoMatches(), config.countMultipleMapperHits(), automatonMatcher);
             processors.add(processor);
         }
         return processors;
@@ -38,6 +38,16 @@ public class DataTimePeriod {
         updateLogEndTime(timestamp);
     }
 
+    /**
+     * Include the timestamps of the other data set, if it has any.
+     */
+    public void merge(DataTimePeriod other) {
+        if (other.dataStartTime != 0L) {
+            updateLogStartTime(other.dataStartTime);
+        }
+        updateLogEndTime(other.dataEndTime);
+    }
+
     private void updateLogStartTime(long startTime) {
         if (this.dataStartTime == 0L) {
             this.dataStartTime = startTime;
@@ -15,18 +15,40 @@
  */
 package nl.stokpop.lograter.feeder;
 
+import nl.stokpop.lograter.util.time.TimePeriod;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class FileFeederTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void feedFiles() {
         final List<File> files = new ArrayList<>();
@@ -55,4 +77,433 @@ public class FileFeederTest {
 
         assertEquals(2, numberOfLines.intValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void feedFilesWithIncludeAndExcludeFilter() throws IOException {
+        File file = temporaryFolder.newFile("filter.log");
+        Files.write(file.toPath(), Arrays.asList(
+            "GET /api/items.json 200", "GET /api/items.xml 200", "POST /api/items.json 201",
+            "GET /api/health.json 200", "GET /static/app.js 200"), StandardCharsets.UTF_8);
+
+        FileFeeder fileFeeder = new FileFeeder(Collections.singletonList(file), "/api/.*\\.json", "health|ping");
+
+        final List<String> fedLines = new ArrayList<>();
+        fileFeeder.feed((filename, logLine) -> fedLines.add(logLine));
+
+        assertEquals(Arrays.asList("GET /api/items.json 200", "POST /api/items.json 201"), fedLines);
+    }
+
+    @Test
+    public void feedFilesParallel() {
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            files.add(new File("src/test/resources/feeder/feeder-test-file.log"));
+        }
+        FileFeeder fileFeeder = new FileFeeder(files, 1, 3);
+        assertTrue(fileFeeder.isParallel());
+
+        final List<Integer> fedLinesPerFeeder = new ArrayList<>();
+        fileFeeder.feedParallel(LineCountFeeder::new, feeder -> fedLinesPerFeeder.add(feeder.lines));
+
+        assertEquals(10, fedLinesPerFeeder.size());
+        fedLinesPerFeeder.forEach(lines -> assertEquals(2, lines.intValue()));
+    }
+
+    @Test
+    public void feedChunksWithMultiLineEntries() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("header");
+        for (int i = 1; i <= 100; i++) {
+            lines.add("entry " + i);
+            for (int j = 0; j < i % 4; j++) {
+                lines.add("  at line " + j + " of entry " + i);
+            }
+        }
+        File file = temporaryFolder.newFile("multi-line.log");
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+
+        List<File> files = new ArrayList<>();
+        files.add(file);
+        FileFeeder fileFeeder = new FileFeeder(files, null, (Pattern) null, 1, 3, 100);
+
+        final List<String> fedLines = new ArrayList<>();
+        final AtomicInteger feeders = new AtomicInteger();
+        fileFeeder.feedParallel(MultiLineFeeder::new, feeder -> {
+            feeders.incrementAndGet();
+            assertTrue("each chunk starts with an entry", feeder.lines.isEmpty() || feeder.lines.get(0).startsWith("entry"));
+            assertEquals("end of input of each chunk", 1, feeder.endOfInputs);
+            fedLines.addAll(feeder.lines);
+        });
+
+        assertTrue("file is split in chunks", feeders.get() > 10);
+        assertEquals("all lines except header are fed once, in order", lines.subList(1, lines.size()), fedLines);
+    }
+
+    @Test
+    public void feedCompressedFile() throws IOException {
+        File file = temporaryFolder.newFile("compressed.log.gz");
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 20000; i++) {
+                writer.write("line " + i + "\n");
+            }
+        }
+        List<File> files = new ArrayList<>();
+        files.add(file);
+
+        final List<String> fedLines = new ArrayList<>();
+        new FileFeeder(files).feed((filename, logLine) -> fedLines.add(logLine));
+
+        assertEquals(20000, fedLines.size());
+        assertEquals("line 0", fedLines.get(0));
+        assertEquals("line 19999", fedLines.get(19999));
+    }
+
+    @Test
+    public void feedAllEntriesOfZipArchive() throws IOException {
+        File file = temporaryFolder.newFile("logs.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            for (int entry = 0; entry < 3; entry++) {
+                zip.putNextEntry(new ZipEntry("server/hour-" + entry + ".log"));
+                zip.write(archiveEntryContent(entry));
+                zip.closeEntry();
+            }
+        }
+        checkArchiveFeed(file, 3);
+    }
+
+    @Test
+    public void feedAllEntriesOfTarArchive() throws IOException {
+        File file = temporaryFolder.newFile("logs.tar");
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new FileOutputStream(file))) {
+            writeTarEntries(tar);
+        }
+        checkArchiveFeed(file, 3);
+    }
+
+    @Test
+    public void feedAllEntriesOfTarGzArchive() throws IOException {
+        File file = temporaryFolder.newFile("logs.tar.gz");
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(new FileOutputStream(file)))) {
+            writeTarEntries(tar);
+        }
+        // entries of a compressed tar are fed to one feeder
+        checkArchiveFeed(file, 1);
+    }
+
+    @Test
+    public void feedTgzArchiveLargerThanChunkSizeAsOneFile() throws IOException {
+        File file = temporaryFolder.newFile("logs.tgz");
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(new FileOutputStream(file)))) {
+            writeTarEntries(tar);
+        }
+        assertTrue("archive is larger than the chunk size", file.length() > 100);
+        // compressed bytes cannot be split in chunks at line boundaries
+        checkArchiveFeed(file, 1, 100);
+    }
+
+    private static void writeTarEntries(TarArchiveOutputStream tar) throws IOException {
+        tar.putArchiveEntry(new TarArchiveEntry("server/", TarArchiveEntry.LF_DIR));
+        tar.closeArchiveEntry();
+        for (int entry = 0; entry < 3; entry++) {
+            byte[] content = archiveEntryContent(entry);
+            TarArchiveEntry tarEntry = new TarArchiveEntry("server/hour-" + entry + ".log");
+            tarEntry.setSize(content.length);
+            tar.putArchiveEntry(tarEntry);
+            tar.write(content);
+            tar.closeArchiveEntry();
+        }
+    }
+
+    private static byte[] archiveEntryContent(int entry) {
+        StringBuilder content = new StringBuilder("header\n");
+        for (int i = 0; i < 1000; i++) {
+            content.append("entry ").append(entry).append(" line ").append(i).append('\n');
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void checkArchiveFeed(File file, int expectedParallelFeeders) {
+        checkArchiveFeed(file, expectedParallelFeeders, FileFeeder.DEFAULT_CHUNK_SIZE_BYTES);
+    }
+
+    private void checkArchiveFeed(File file, int expectedParallelFeeders, long chunkSizeBytes) {
+        List<File> files = new ArrayList<>();
+        files.add(file);
+
+        final List<String> fedLines = new ArrayList<>();
+        new FileFeeder(files, 1).feed((filename, logLine) -> fedLines.add(logLine));
+
+        assertEquals("all entries are fed, without header lines", 3000, fedLines.size());
+        assertEquals("entry 0 line 0", fedLines.get(0));
+        assertEquals("entry 2 line 999", fedLines.get(2999));
+
+        MultiLineFeeder sequentialFeeder = new MultiLineFeeder();
+        new FileFeeder(files, 1).feed(sequentialFeeder);
+        assertEquals("one end of input per archive entry", 3, sequentialFeeder.endOfInputs);
+
+        final List<String> fedLinesParallel = new ArrayList<>();
+        final AtomicInteger feeders = new AtomicInteger();
+        final AtomicInteger endOfInputs = new AtomicInteger();
+        new FileFeeder(files, null, (Pattern) null, 1, 3, chunkSizeBytes).feedParallel(MultiLineFeeder::new, feeder -> {
+            feeders.incrementAndGet();
+            endOfInputs.addAndGet(feeder.endOfInputs);
+            fedLinesParallel.addAll(feeder.lines);
+        });
+
+        assertEquals(expectedParallelFeeders, feeders.get());
+        assertEquals("end of input of each archive entry", 3, endOfInputs.get());
+        assertEquals("same lines in same order", fedLines, fedLinesParallel);
+    }
+
+    @Test
+    public void resumeFromCheckpointFile() throws IOException {
+        File file = temporaryFolder.newFile("access.log");
+        File checkpointFile = new File(temporaryFolder.getRoot(), "lograter.checkpoint");
+        appendLines(file, 0, 100);
+        Files.write(file.toPath(), "partial".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals("complete lines are fed", 100, feedWithCheckpoints(checkpointFile, file).size());
+        assertTrue(checkpointFile.exists());
+        assertEquals("nothing is fed twice", 0, feedWithCheckpoints(checkpointFile, file).size());
+
+        Files.write(file.toPath(), " line\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        appendLines(file, 100, 150);
+        List<String> fedLines = feedWithCheckpoints(checkpointFile, file);
+        assertEquals(51, fedLines.size());
+        assertEquals("partial line", fedLines.get(0));
+        assertEquals("line 149", fedLines.get(50));
+    }
+
+    @Test
+    public void resumeFromCheckpointFileWithResultCache() throws IOException {
+        File file = temporaryFolder.newFile("cached.log");
+        File checkpointFile = new File(temporaryFolder.getRoot(), "cached.checkpoint");
+        appendLines(file, 0, 100);
+        FeedResultCache<LineCountFeeder> unusedCache = new FeedResultCache<LineCountFeeder>() {
+            @Override
+            public boolean contains(String inputKey) {
+                throw new AssertionError("cache is not used with checkpoints");
+            }
+            @Override
+            public boolean load(String inputKey, LineCountFeeder feeder) {
+                throw new AssertionError("cache is not used with checkpoints");
+            }
+            @Override
+            public void store(String inputKey, LineCountFeeder feeder) {
+                throw new AssertionError("cache is not used with checkpoints");
+            }
+        };
+
+        assertEquals(100, feedParallelWithCheckpoints(checkpointFile, unusedCache, file));
+        assertEquals("nothing is fed twice", 0, feedParallelWithCheckpoints(checkpointFile, unusedCache, file));
+        appendLines(file, 100, 120);
+        assertEquals("only new lines are fed", 20, feedParallelWithCheckpoints(checkpointFile, unusedCache, file));
+    }
+
+    private static int feedParallelWithCheckpoints(File checkpointFile, FeedResultCache<LineCountFeeder> resultCache, File file) {
+        FileFeeder fileFeeder = new FileFeeder(Collections.singletonList(file), 0, 2);
+        fileFeeder.useCheckpointFile(checkpointFile);
+        final AtomicInteger fedLines = new AtomicInteger();
+        fileFeeder.feedParallel(LineCountFeeder::new, feeder -> fedLines.addAndGet(feeder.lines), resultCache, null);
+        fileFeeder.saveCheckpoints();
+        return fedLines.get();
+    }
+
+    @Test
+    public void resumeRotatedFileFromCheckpointFile() throws IOException {
+        File file = temporaryFolder.newFile("access.log");
+        File rotatedFile = new File(temporaryFolder.getRoot(), "access.log.1");
+        File checkpointFile = new File(temporaryFolder.getRoot(), "lograter.checkpoint");
+        appendLines(file, 0, 100);
+        assertEquals(100, feedWithCheckpoints(checkpointFile, file, rotatedFile).size());
+
+        appendLines(file, 100, 120);
+        Files.move(file.toPath(), rotatedFile.toPath());
+        appendLines(file, 120, 130);
+
+        List<String> fedLines = feedWithCheckpoints(checkpointFile, file, rotatedFile);
+        assertEquals("remainder of rotated file and new file are fed", 30, fedLines.size());
+        assertTrue(fedLines.contains("line 100"));
+        assertTrue(fedLines.contains("line 129"));
+        assertEquals(0, feedWithCheckpoints(checkpointFile, file, rotatedFile).size());
+    }
+
+    @Test
+    public void saveCheckpointsOnlyWhenRequested() throws IOException {
+        File file = temporaryFolder.newFile("unsaved.log");
+        File checkpointFile = new File(temporaryFolder.getRoot(), "unsaved.checkpoint");
+        appendLines(file, 0, 100);
+
+        FileFeeder fileFeeder = new FileFeeder(Collections.singletonList(file));
+        fileFeeder.useCheckpointFile(checkpointFile);
+        final List<String> fedLines = new ArrayList<>();
+        fileFeeder.feed((filename, logLine) -> fedLines.add(logLine));
+        assertEquals(100, fedLines.size());
+        assertFalse("checkpoint is not saved by feed", checkpointFile.exists());
+
+        appendLines(file, 100, 110);
+        fedLines.clear();
+        fileFeeder.feed((filename, logLine) -> fedLines.add(logLine));
+        assertEquals("next feed continues after previous feed", 10, fedLines.size());
+
+        assertEquals("lines of unsaved checkpoint are fed again", 110, feedWithCheckpoints(checkpointFile, file).size());
+        assertEquals(0, feedWithCheckpoints(checkpointFile, file).size());
+    }
+
+    @Test
+    public void feedRemainderOfFileRotatedAway() throws IOException {
+        File file = temporaryFolder.newFile("rotate.log");
+        File rotatedFile = new File(temporaryFolder.getRoot(), "rotate.log.1");
+        File checkpointFile = new File(temporaryFolder.getRoot(), "rotate.checkpoint");
+        appendLines(file, 0, 100);
+        assertEquals(100, feedWithCheckpoints(checkpointFile, file).size());
+
+        appendLines(file, 100, 120);
+        Files.move(file.toPath(), rotatedFile.toPath());
+        appendLines(file, 120, 130);
+
+        FileFeeder fileFeeder = new FileFeeder(Collections.singletonList(file));
+        fileFeeder.useCheckpointFile(checkpointFile);
+        final List<String> fedLines = new ArrayList<>();
+        fileFeeder.feed((filename, logLine) -> fedLines.add(logLine));
+        assertEquals("remainder of rotated file and new file are fed", 30, fedLines.size());
+        assertTrue(fedLines.contains("line 100"));
+        assertTrue(fedLines.contains("line 129"));
+
+        appendLines(rotatedFile, 130, 135);
+        fedLines.clear();
+        fileFeeder.feed((filename, logLine) -> fedLines.add(logLine));
+        assertEquals("rotated file is followed", 5, fedLines.size());
+        fileFeeder.saveCheckpoints();
+
+        assertEquals(0, feedWithCheckpoints(checkpointFile, file).size());
+    }
+
+    @Test
+    public void followAppendedLines() throws Exception {
+        File file = temporaryFolder.newFile("follow.log");
+        appendLines(file, 0, 10);
+
+        Thread appender = new Thread(() -> {
+            try {
+                for (int i = 1; i <= 5; i++) {
+                    Thread.sleep(50);
+                    appendLines(file, i * 10, i * 10 + 10);
+                }
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        List<File> files = new ArrayList<>();
+        files.add(file);
+        FileFeeder fileFeeder = new FileFeeder(files, 0, 2);
+        fileFeeder.follow(1000, 20);
+        assertFalse("follow uses one feeder", fileFeeder.isParallel());
+
+        final List<String> fedLines = new ArrayList<>();
+        appender.start();
+        fileFeeder.feed((filename, logLine) -> fedLines.add(logLine));
+        appender.join();
+
+        assertEquals(60, fedLines.size());
+        assertEquals("line 59", fedLines.get(59));
+    }
+
+    @Test
+    public void skipFilesOutsideFilterPeriod() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int hour = 0; hour < 5; hour++) {
+            File file = temporaryFolder.newFile("hour-" + hour + ".log");
+            List<String> lines = new ArrayList<>();
+            lines.add("header without timestamp");
+            for (int minute = 0; minute < 60; minute++) {
+                lines.add((hour * 3_600_000L + minute * 60_000L) + ";hour " + hour + " minute " + minute);
+            }
+            Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+            files.add(file);
+        }
+
+        TimePeriod filterPeriod = TimePeriod.createExcludingEndTime(2 * 3_600_000L + 600_000L, 2 * 3_600_000L + 1_200_000L);
+        TimestampFeeder feeder = new TimestampFeeder(filterPeriod);
+        new FileFeeder(files).feed(feeder);
+
+        assertEquals("only the file of hour 2 is fed", 61, feeder.lines.size());
+        assertTrue(feeder.lines.stream().skip(1).allMatch(line -> line.contains("hour 2")));
+
+        final List<String> fedLines = new ArrayList<>();
+        new FileFeeder(files, 0, 3).feedParallel(() -> new TimestampFeeder(filterPeriod), fedFeeder -> fedLines.addAll(fedFeeder.lines), null, feeder);
+        assertEquals(feeder.lines, fedLines);
+
+        TimestampFeeder noFilterFeeder = new TimestampFeeder(TimePeriod.UNDEFINED_PERIOD);
+        new FileFeeder(files).feed(noFilterFeeder);
+        assertEquals("all files are fed without filter period", 5 * 61, noFilterFeeder.lines.size());
+    }
+
+    private static List<String> feedWithCheckpoints(File checkpointFile, File... files) {
+        FileFeeder fileFeeder = new FileFeeder(Arrays.asList(files));
+        fileFeeder.useCheckpointFile(checkpointFile);
+        final List<String> fedLines = new ArrayList<>();
+        fileFeeder.feed((filename, logLine) -> fedLines.add(logLine));
+        fileFeeder.saveCheckpoints();
+        return fedLines;
+    }
+
+    private static void appendLines(File file, int from, int to) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            lines.add("line " + i);
+        }
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static class TimestampFeeder implements TimeFilteredFeeder {
+        private final List<String> lines = new ArrayList<>();
+        private final TimePeriod filterPeriod;
+
+        private TimestampFeeder(TimePeriod filterPeriod) {
+            this.filterPeriod = filterPeriod;
+        }
+
+        @Override
+        public void addLogLine(String filename, String logLine) {
+            lines.add(logLine);
+        }
+
+        @Override
+        public long parseTimestamp(String logLine) {
+            int separator = logLine.indexOf(';');
+            return separator == -1 ? TimePeriod.NOT_SET : Long.parseLong(logLine.substring(0, separator));
+        }
+
+        @Override
+        public TimePeriod getFilterPeriod() {
+            return filterPeriod;
+        }
+    }
+
+    private static class LineCountFeeder implements Feeder {
+        private int lines = 0;
+        @Override
+        public void addLogLine(String filename, String logLine) {
+            lines++;
+        }
+    }
+
+    private static class MultiLineFeeder implements Feeder {
+        private final List<String> lines = new ArrayList<>();
+        private int endOfInputs = 0;
+        @Override
+        public void addLogLine(String filename, String logLine) {
+            lines.add(logLine);
+        }
+        @Override
+        public boolean isStartOfEntry(String logLine) {
+            return logLine.startsWith("entry");
+        }
+        @Override
+        public void endOfInput() {
+            endOfInputs++;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import nl.stokpop.lograter.util.time.TimePeriod;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GzipIndexTest {
+
+    private static final int LINES = 10000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void seekInMultiMemberGzipFile() throws IOException {
+        File file = createGzipFile("multi-member.log.gz", 1000);
+        checkIndexedReads(file);
+    }
+
+    @Test
+    public void seekInSingleMemberGzipFile() throws IOException {
+        File file = createGzipFile("single-member.log.gz", LINES);
+        checkIndexedReads(file);
+    }
+
+    @Test
+    public void indexIsIgnoredForChangedFile() throws IOException {
+        File file = createGzipFile("changed.log.gz", 1000);
+        feed(file, TimePeriod.MAX_TIME_PERIOD);
+        File indexFile = GzipIndex.indexFileFor(file, null);
+        assertNotNull(GzipIndex.readIfValid(indexFile, file));
+
+        assertTrue(file.setLastModified(file.lastModified() - 10_000));
+        assertNull(GzipIndex.readIfValid(indexFile, file));
+
+        TimePeriod filterPeriod = TimePeriod.createExcludingEndTime(3_000_000, 3_500_000);
+        assertEquals("changed file is read completely", LINES, feed(file, filterPeriod).size());
+    }
+
+    @Test
+    public void skipFileOutsideFilterPeriodWithIndex() throws IOException {
+        File file = createGzipFile("skip.log.gz", 1000);
+        TimePeriod filterPeriod = TimePeriod.createExcludingEndTime(100_000_000, 200_000_000);
+        assertTrue("without index the lines are read", feed(file, filterPeriod).size() > 0);
+        assertEquals("with index the file is skipped", 0, feed(file, filterPeriod).size());
+    }
+
+    @Test
+    public void indexInStorageDir() throws IOException {
+        File file = createGzipFile("stored.log.gz", 1000);
+        File indexDir = temporaryFolder.newFolder("index");
+
+        List<File> files = Collections.singletonList(file);
+        FileFeeder fileFeeder = new FileFeeder(files);
+        fileFeeder.useGzipIndex(indexDir);
+        fileFeeder.feed(new TimestampFeeder(TimePeriod.MAX_TIME_PERIOD));
+
+        File indexFile = GzipIndex.indexFileFor(file, indexDir);
+        assertEquals(indexDir, indexFile.getParentFile());
+        assertTrue(indexFile.exists());
+        assertFalse(GzipIndex.indexFileFor(file, null).exists());
+    }
+
+    @Test(expected = ZipException.class)
+    public void noGzipMemberAtSeekOffset() throws IOException {
+        File file = createGzipFile("no-member.log.gz", 1000);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            new GzipMemberInputStream(randomAccessFile, 5, 0);
+        }
+    }
+
+    @Test
+    public void readWholeFileForIndexWithBadMemberOffset() throws IOException {
+        File file = createGzipFile("bad-index.log.gz", 1000);
+        feed(file, TimePeriod.MAX_TIME_PERIOD);
+        File indexFile = GzipIndex.indexFileFor(file, null);
+        GzipIndex index = GzipIndex.readIfValid(indexFile, file);
+        assertNotNull(index);
+
+        List<GzipIndex.Checkpoint> badCheckpoints = new ArrayList<>();
+        for (GzipIndex.Checkpoint checkpoint : index.getCheckpoints()) {
+            badCheckpoints.add(new GzipIndex.Checkpoint(checkpoint.getMemberOffset() + 1, checkpoint.getMemberUncompressedOffset(),
+                checkpoint.getLineOffset(), checkpoint.getFirstTimestamp()));
+        }
+        new GzipIndex(file.length(), file.lastModified(), index.getFirstTimestamp(), index.getLastTimestamp(), badCheckpoints).write(indexFile);
+
+        TimePeriod filterPeriod = TimePeriod.createExcludingEndTime(3_000_000, 3_500_000);
+        assertEquals("file with bad index is read completely", LINES, feed(file, filterPeriod).size());
+
+        GzipIndex recreatedIndex = GzipIndex.readIfValid(indexFile, file);
+        assertNotNull(recreatedIndex);
+        assertEquals("index is recreated", index.getCheckpoints().get(1).getMemberOffset(), recreatedIndex.getCheckpoints().get(1).getMemberOffset());
+    }
+
+    private void checkIndexedReads(File file) throws IOException {
+        List<String> allLines = feed(file, TimePeriod.MAX_TIME_PERIOD);
+        assertEquals(LINES, allLines.size());
+
+        File indexFile = GzipIndex.indexFileFor(file, null);
+        GzipIndex index = GzipIndex.readIfValid(indexFile, file);
+        assertNotNull("index is created on first read", index);
+        assertTrue(index.getCheckpoints().size() > 10);
+
+        TimePeriod filterPeriod = TimePeriod.createExcludingEndTime(3_000_000, 3_500_000);
+        List<String> fedLines = feed(file, filterPeriod);
+
+        assertTrue("only part of the file is read: " + fedLines.size(), fedLines.size() < LINES / 2);
+        int firstIndex = allLines.indexOf(fedLines.get(0));
+        assertEquals("lines read are a consecutive part of the file", allLines.subList(firstIndex, firstIndex + fedLines.size()), fedLines);
+        assertTrue("first line read is before filter start", timestamp(fedLines.get(0)) < filterPeriod.getStartTime());
+        assertTrue("last line read is after filter end", timestamp(fedLines.get(fedLines.size() - 1)) >= filterPeriod.getEndTime());
+    }
+
+    private List<String> feed(File file, TimePeriod filterPeriod) {
+        FileFeeder fileFeeder = new FileFeeder(Collections.singletonList(file));
+        fileFeeder.useGzipIndex(null);
+        fileFeeder.setGzipIndexCheckpointInterval(2000);
+        TimestampFeeder feeder = new TimestampFeeder(filterPeriod);
+        fileFeeder.feed(feeder);
+        return feeder.lines;
+    }
+
+    /**
+     * Lines with a timestamp of one second apart, compressed in gzip members of the given number of lines.
+     */
+    private File createGzipFile(String name, int linesPerMember) throws IOException {
+        File file = temporaryFolder.newFile(name);
+        try (OutputStream out = new FileOutputStream(file)) {
+            for (int member = 0; member < LINES / linesPerMember; member++) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                    @Override
+                    public void close() throws IOException {
+                        // finish member, keep file open for the next member
+                        finish();
+                    }
+                };
+                for (int i = member * linesPerMember; i < (member + 1) * linesPerMember; i++) {
+                    gzip.write((i * 1000L + ";line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+                gzip.close();
+            }
+        }
+        return file;
+    }
+
+    private static long timestamp(String logLine) {
+        return Long.parseLong(logLine.substring(0, logLine.indexOf(';')));
+    }
+
+    private static class TimestampFeeder implements TimeFilteredFeeder {
+        private final List<String> lines = new ArrayList<>();
+        private final TimePeriod filterPeriod;
+
+        private TimestampFeeder(TimePeriod filterPeriod) {
+            this.filterPeriod = filterPeriod;
+        }
+
+        @Override
+        public void addLogLine(String filename, String logLine) {
+            lines.add(logLine);
+        }
+
+        @Override
+        public long parseTimestamp(String logLine) {
+            return timestamp(logLine);
+        }
+
+        @Override
+        public TimePeriod getFilterPeriod() {
+            return filterPeriod;
+        }
+    }
+}
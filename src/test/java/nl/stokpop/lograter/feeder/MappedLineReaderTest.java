@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import nl.stokpop.lograter.util.ByteSliceUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedLineReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readLines() throws IOException {
+        File file = createFile("line one\r\nline two\n\nlíne fóur\nlast line without newline");
+
+        List<String> lines = readAll(new MappedLineReader(file));
+
+        assertEquals(Arrays.asList("line one", "line two", "", "líne fóur", "last line without newline"), lines);
+    }
+
+    @Test
+    public void readLinesCrossingWindows() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String line = "line " + i + " " + "x".repeat(i % 13);
+            expected.add(line);
+            content.append(line).append('\n');
+        }
+        // one line that does not fit in a window
+        String longLine = "y".repeat(100);
+        expected.add(longLine);
+        content.append(longLine).append('\n');
+        File file = createFile(content.toString());
+
+        List<String> lines = readAll(new MappedLineReader(file, 0, file.length(), 16));
+
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    public void readLinesLikeBufferedReader() throws IOException {
+        String content = "one\rtwo\r\nthree\n\r\rfour longer than a word\r\n\nfive\r";
+        File file = createFile(content);
+        List<String> expected = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                expected.add(line);
+            }
+        }
+
+        for (int windowSize = 1; windowSize <= content.length(); windowSize++) {
+            List<String> lines = readAll(new MappedLineReader(file, 0, file.length(), windowSize));
+            assertEquals("window size " + windowSize, expected, lines);
+        }
+    }
+
+    @Test
+    public void readRange() throws IOException {
+        File file = createFile("first\nsecond\nthird\n");
+
+        List<String> lines = readAll(new MappedLineReader(file, 6, 13));
+
+        assertEquals(Arrays.asList("second"), lines);
+    }
+
+    private File createFile(String content) throws IOException {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> readAll(MappedLineReader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (MappedLineReader lineReader = reader) {
+            ByteBuffer line;
+            while ((line = lineReader.readLine()) != null) {
+                lines.add(ByteSliceUtils.toString(line));
+            }
+        }
+        return lines;
+    }
+}
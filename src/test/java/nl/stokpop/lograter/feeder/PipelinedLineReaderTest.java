@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.feeder;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class PipelinedLineReaderTest {
+
+    @Test
+    public void readAllLinesInOrder() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add("line " + i);
+            content.append("line ").append(i).append('\n');
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (PipelinedLineReader reader = new PipelinedLineReader(new BufferedReader(new StringReader(content.toString())), "test", 7, 2)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            assertNull("stays at end of input", reader.readLine());
+        }
+
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    public void readErrorAfterLinesReadBefore() throws IOException {
+        Reader failingReader = new StringReader("one\ntwo\n") {
+            private int reads = 0;
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                if (reads++ > 0) {
+                    throw new IOException("Corrupt input");
+                }
+                return super.read(cbuf, off, len);
+            }
+        };
+
+        try (PipelinedLineReader reader = new PipelinedLineReader(new BufferedReader(failingReader), "test", 1, 1)) {
+            assertEquals("one", reader.readLine());
+            assertEquals("two", reader.readLine());
+            reader.readLine();
+            fail("expected read error");
+        } catch (IOException e) {
+            assertEquals("Corrupt input", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void errorOfReaderThreadDoesNotBlockReadLine() throws IOException {
+        Reader failingReader = new StringReader("one\ntwo\n") {
+            private int reads = 0;
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                if (reads++ > 0) {
+                    throw new AssertionError("Decompressor failure");
+                }
+                return super.read(cbuf, off, len);
+            }
+        };
+
+        try (PipelinedLineReader reader = new PipelinedLineReader(new BufferedReader(failingReader), "test", 1, 1)) {
+            assertEquals("one", reader.readLine());
+            assertEquals("two", reader.readLine());
+            reader.readLine();
+            fail("expected read error");
+        } catch (AssertionError e) {
+            assertEquals("Decompressor failure", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void closeBeforeEndStopsReaderThread() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            content.append("line ").append(i).append('\n');
+        }
+        PipelinedLineReader reader = new PipelinedLineReader(new BufferedReader(new StringReader(content.toString())), "test", 10, 1);
+        assertEquals("line 0", reader.readLine());
+        reader.close();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.logentry;
+
+import nl.stokpop.lograter.counter.HttpMethod;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AccessLogEntryTest {
+
+    @Test
+    public void fieldsInSlotsAndMap() {
+        AccessLogEntry entry = new AccessLogEntry();
+        entry.setLogline("1.2.3.4 GET /index.html");
+        entry.useFieldSlots(FieldSlots.of(Arrays.asList("h", "m", "U")));
+        entry.setFieldBounds(0, 0, 7);
+        entry.setFieldBounds(2, 12, 23);
+        entry.addField("extra", "value");
+
+        assertEquals("1.2.3.4", entry.getField("h"));
+        assertEquals("/index.html", entry.getField("U"));
+        assertNull("slot without value", entry.getField("m"));
+        assertEquals("value", entry.getField("extra"));
+        assertNull(entry.getField("unknown"));
+
+        entry.addField("h", "5.6.7.8");
+        assertEquals("last value wins", "5.6.7.8", entry.getField("h"));
+
+        assertEquals(new HashSet<>(Arrays.asList("h", "U", "extra")), new HashSet<>(Arrays.asList(entry.getFields())));
+    }
+
+    @Test
+    public void httpStatusAndMethodFields() {
+        AccessLogEntry entry = new AccessLogEntry();
+        assertNull(entry.getField(LogEntry.HTTP_STATUS));
+        assertNull(entry.getField(LogEntry.HTTP_METHOD));
+
+        entry.setHttpStatus(404);
+        entry.setHttpMethod(HttpMethod.POST);
+
+        assertEquals("404", entry.getField(LogEntry.HTTP_STATUS));
+        assertEquals("POST", entry.getField(LogEntry.HTTP_METHOD));
+        assertEquals(new HashSet<>(Arrays.asList(LogEntry.HTTP_STATUS, LogEntry.HTTP_METHOD)), new HashSet<>(Arrays.asList(entry.getFields())));
+    }
+}
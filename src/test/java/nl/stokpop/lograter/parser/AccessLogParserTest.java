@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser;
+
+import nl.stokpop.lograter.LogRaterException;
+import nl.stokpop.lograter.logentry.AccessLogEntry;
+import nl.stokpop.lograter.logentry.ApacheLogMapperFactory;
+import nl.stokpop.lograter.parser.line.ApacheLogFormatParser;
+import nl.stokpop.lograter.parser.line.LogFormatParser;
+import nl.stokpop.lograter.parser.line.LogbackElement;
+import nl.stokpop.lograter.parser.line.ParseResult;
+import nl.stokpop.lograter.util.time.TimePeriod;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class AccessLogParserTest {
+
+    private static final String PATTERN = "%h %l %u %t \"%r\" %>s %b";
+
+    @Test
+    public void skipLinesOutsideFilterPeriodWithoutParsingAllFields() {
+        List<LogbackElement> elements = ApacheLogFormatParser.parse(PATTERN);
+        ApacheLogFormatParser<AccessLogEntry> apacheParser =
+            new ApacheLogFormatParser<>(elements, ApacheLogMapperFactory.initializeMappers(elements), AccessLogEntry::new);
+
+        final AtomicInteger completeParses = new AtomicInteger();
+        LogFormatParser<AccessLogEntry> countingParser = new LogFormatParser<AccessLogEntry>() {
+            @Override
+            public AccessLogEntry parseLogLine(String logline) {
+                completeParses.incrementAndGet();
+                return apacheParser.parseLogLine(logline);
+            }
+            @Override
+            public long parseTimestamp(CharSequence logline) {
+                return apacheParser.parseTimestamp(logline);
+            }
+        };
+
+        String before = "127.0.0.1 - - [07/Jan/2019:00:55:00 +0100] \"GET /before HTTP/1.1\" 200 10";
+        String within = "127.0.0.1 - - [07/Jan/2019:00:56:00 +0100] \"GET /within HTTP/1.1\" 200 10";
+        String after = "127.0.0.1 - - [07/Jan/2019:00:57:00 +0100] \"GET /after HTTP/1.1\" 200 10";
+
+        long start = apacheParser.parseTimestamp(within);
+        AccessLogParser parser = new AccessLogParser(countingParser, TimePeriod.createExcludingEndTime(start, start + 60_000));
+        final List<String> urls = new ArrayList<>();
+        parser.addProcessor(entry -> urls.add(entry.getUrl()));
+
+        parser.addLogLine("access.log", before);
+        parser.addLogLine("access.log", within);
+        parser.addLogLine("access.log", after);
+
+        assertEquals("/within", String.join(",", urls));
+        assertEquals("only the line within the filter period is parsed completely", 1, completeParses.get());
+        assertEquals(2, parser.getFilteredLines());
+    }
+
+    @Test
+    public void skipByteSliceLinesOutsideFilterPeriodWithoutDecoding() {
+        List<LogbackElement> elements = ApacheLogFormatParser.parse(PATTERN);
+        ApacheLogFormatParser<AccessLogEntry> apacheParser =
+            new ApacheLogFormatParser<>(elements, ApacheLogMapperFactory.initializeMappers(elements), AccessLogEntry::new);
+
+        final AtomicInteger completeParses = new AtomicInteger();
+        final AtomicInteger decodedTimestampParses = new AtomicInteger();
+        LogFormatParser<AccessLogEntry> countingParser = new LogFormatParser<AccessLogEntry>() {
+            @Override
+            public AccessLogEntry parseLogLine(String logline) {
+                completeParses.incrementAndGet();
+                return apacheParser.parseLogLine(logline);
+            }
+            @Override
+            public long parseTimestamp(CharSequence logline) {
+                if (logline instanceof String) {
+                    decodedTimestampParses.incrementAndGet();
+                }
+                return apacheParser.parseTimestamp(logline);
+            }
+        };
+
+        String within = "127.0.0.1 - - [07/Jan/2019:00:56:00 +0100] \"GET /within HTTP/1.1\" 200 10";
+        long start = apacheParser.parseTimestamp(within);
+        AccessLogParser parser = new AccessLogParser(countingParser, TimePeriod.createExcludingEndTime(start, start + 60_000));
+        final List<String> urls = new ArrayList<>();
+        parser.addProcessor(entry -> urls.add(entry.getUrl()));
+
+        parser.addLogLine("access.log", directBuffer("127.0.0.1 - - [07/Jan/2019:00:55:00 +0100] \"GET /before HTTP/1.1\" 200 10"));
+        parser.addLogLine("access.log", directBuffer(within));
+        parser.addLogLine("access.log", directBuffer("127.0.0.1 - - [07/Jan/2019:00:57:00 +0100] \"GET /äfter HTTP/1.1\" 200 10"));
+        parser.addLogLine("access.log", directBuffer(""));
+
+        assertEquals("/within", String.join(",", urls));
+        assertEquals("only the line within the filter period is parsed completely", 1, completeParses.get());
+        assertEquals("timestamps are parsed from the bytes", 0, decodedTimestampParses.get());
+        assertEquals(2, parser.getFilteredLines());
+    }
+
+    private static ByteBuffer directBuffer(String logLine) {
+        byte[] bytes = logLine.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+        buffer.put((byte) '\n').put(bytes).put((byte) '\n');
+        // slice of the line only, like the lines of the MappedLineReader
+        buffer.limit(bytes.length + 1).position(1);
+        return buffer;
+    }
+
+    @Test(expected = LogRaterException.class)
+    public void reportErrorForLineWithInvalidTimestamp() {
+        List<LogbackElement> elements = ApacheLogFormatParser.parse(PATTERN);
+        ApacheLogFormatParser<AccessLogEntry> apacheParser =
+            new ApacheLogFormatParser<>(elements, ApacheLogMapperFactory.initializeMappers(elements), AccessLogEntry::new);
+        AccessLogParser parser = new AccessLogParser(apacheParser, TimePeriod.createExcludingEndTime(0, 1000));
+
+        parser.addLogLine("access.log", "127.0.0.1 - - [no date] \"GET /x HTTP/1.1\" 200 10");
+    }
+
+    @Test
+    public void tryAddLogLineReportsMalformedLineWithoutException() {
+        List<LogbackElement> elements = ApacheLogFormatParser.parse(PATTERN);
+        ApacheLogFormatParser<AccessLogEntry> apacheParser =
+            new ApacheLogFormatParser<>(elements, ApacheLogMapperFactory.initializeMappers(elements), AccessLogEntry::new);
+        AccessLogParser parser = new AccessLogParser(apacheParser, TimePeriod.MAX_TIME_PERIOD);
+        final List<String> urls = new ArrayList<>();
+        parser.addProcessor(entry -> urls.add(entry.getUrl()));
+
+        ParseResult<?> malformed = parser.tryAddLogLine("access.log", "127.0.0.1 - - no date");
+        assertEquals(ParseResult.Status.MALFORMED, malformed.getStatus());
+
+        ParseResult<?> badStatus = parser.tryAddLogLine("access.log", "127.0.0.1 - - [07/Jan/2019:00:56:00 +0100] \"GET /x HTTP/1.1\" OK 10");
+        assertEquals(ParseResult.Status.MALFORMED, badStatus.getStatus());
+
+        ParseResult<?> parsed = parser.tryAddLogLine("access.log", "127.0.0.1 - - [07/Jan/2019:00:56:00 +0100] \"GET /within HTTP/1.1\" 200 10");
+        assertEquals(ParseResult.Status.PARSED, parsed.getStatus());
+        assertEquals("/within", String.join(",", urls));
+    }
+}
@@ -18,6 +18,7 @@ package nl.stokpop.lograter.parser.line;
 import nl.stokpop.lograter.counter.HttpMethod;
 import nl.stokpop.lograter.logentry.AccessLogEntry;
 import nl.stokpop.lograter.logentry.ApacheLogMapperFactory;
+import nl.stokpop.lograter.util.time.TimePeriod;
 import org.junit.Test;
 
 import java.time.Instant;
@@ -203,6 +204,7 @@ public class ApacheLogFormatParserTest {
         assertEquals("23/May/2016:07:15:14", entry.getField("t"));
         assertEquals("257", entry.getField("msec_frac"));
         assertEquals("2016-05-23T07:15:14.257", epochMillisToAmsterdamDateTime(entry.getTimestamp()));
+        assertEquals("timestamp only parse", entry.getTimestamp(), parser.parseTimestamp(logline));
         assertEquals(HttpMethod.POST, entry.getHttpMethod());
         assertEquals(200, entry.getHttpStatus());
         assertEquals("/request/", entry.getUrl());
@@ -213,6 +215,26 @@ public class ApacheLogFormatParserTest {
 
     }
 
+    @Test
+    public void parseTimestampOnly() {
+
+        String pattern = "%h %l %u %t \"%r\" %>s %b";
+
+        List<LogbackElement> elements = ApacheLogFormatParser.parse(pattern);
+        Map<String, LogEntryMapper<AccessLogEntry>> mappers = ApacheLogMapperFactory.initializeMappers(elements);
+        ApacheLogFormatParser<AccessLogEntry> parser = new ApacheLogFormatParser<>(elements, mappers, AccessLogEntry::new);
+
+        String logline = "127.0.0.1 - - [07/Jan/2019:00:56:00 +0100] \"GET /index.html HTTP/1.1\" 200 4196";
+
+        assertEquals(parser.parseLogLine(logline).getTimestamp(), parser.parseTimestamp(logline));
+        assertEquals("2019-01-07T00:56:00.000", epochMillisToAmsterdamDateTime(parser.parseTimestamp(logline)));
+
+        List<LogbackElement> elementsNoTime = ApacheLogFormatParser.parse("%h %l %u \"%r\" %>s %b");
+        ApacheLogFormatParser<AccessLogEntry> parserNoTime =
+            new ApacheLogFormatParser<>(elementsNoTime, ApacheLogMapperFactory.initializeMappers(elementsNoTime), AccessLogEntry::new);
+        assertEquals(TimePeriod.NOT_SET, parserNoTime.parseTimestamp("127.0.0.1 - - \"GET /index.html HTTP/1.1\" 200 4196"));
+    }
+
     @Test
     public void parseVeryLongDuration() {
 
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FieldViewTest {
+
+    private static final String LINE = "GET /index.html 200 -12345678901 -";
+
+    @Test
+    public void viewOnPartOfLine() {
+        FieldView view = new FieldView().set(LINE, 4, 15);
+        assertEquals(11, view.length());
+        assertEquals('/', view.charAt(0));
+        assertEquals("/index.html", view.toString());
+        assertEquals("index", view.subSequence(1, 6).toString());
+        assertTrue(view.contentEquals("/index.html"));
+        assertFalse(view.contentEquals("/index.htm"));
+    }
+
+    @Test
+    public void parseNumbers() {
+        FieldView view = new FieldView();
+        assertEquals(200, view.set(LINE, 16, 19).parseInt());
+        assertEquals(-12345678901L, view.set(LINE, 20, 32).parseLong());
+        assertTrue(view.set(LINE, 33, 34).contentEquals("-"));
+        assertEquals(42, FieldView.of("42").parseInt());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseInvalidNumber() {
+        new FieldView().set(LINE, 33, 34).parseInt();
+    }
+
+    @Test(expected = StringIndexOutOfBoundsException.class)
+    public void charAtOutsideView() {
+        new FieldView().set(LINE, 16, 19).charAt(3);
+    }
+}
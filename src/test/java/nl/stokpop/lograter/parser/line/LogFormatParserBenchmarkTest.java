@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+import nl.stokpop.lograter.logentry.AccessLogEntry;
+import nl.stokpop.lograter.logentry.ApacheLogMapperFactory;
+import nl.stokpop.lograter.logentry.NginxLogMapperFactory;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Measures the lines per second of the access log format parsers. Run manually, with enough heap, e.g. -Xmx1g.
+ */
+public class LogFormatParserBenchmarkTest {
+
+    private static final int LINES = 200_000;
+    private static final int ROUNDS = 10;
+
+    @Ignore // benchmark, run manually
+    @Test
+    public void benchmarkApacheLogFormatParser() {
+        String pattern = "%h %l %u %t \"%r\" %>s %b %D \"%{Referer}i\" \"%{User-Agent}i\"";
+        List<LogbackElement> elements = ApacheLogFormatParser.parse(pattern);
+        ApacheLogFormatParser<AccessLogEntry> parser =
+            new ApacheLogFormatParser<>(elements, ApacheLogMapperFactory.initializeMappers(elements), AccessLogEntry::new);
+
+        List<String> lines = createLines(i -> String.format("10.0.%d.%d - - [07/Jan/2019:00:%02d:%02d +0100] \"GET /api/items/%d?page=%d HTTP/1.1\" 200 %d %d \"-\" \"Mozilla/5.0 (X11; Linux x86_64)\"",
+            i % 200, i % 100, (i / 60) % 60, i % 60, i % 1000, i % 7, 1000 + i % 5000, 100 + i % 90000));
+
+        benchmark("apache", parser, lines);
+    }
+
+    @Ignore // benchmark, run manually
+    @Test
+    public void benchmarkNginxLogFormatParser() {
+        String pattern = "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent \"$http_referer\" \"$http_user_agent\"";
+        List<LogbackElement> elements = NginxLogFormatParser.parse(pattern);
+        NginxLogFormatParser<AccessLogEntry> parser =
+            new NginxLogFormatParser<>(elements, NginxLogMapperFactory.initializeMappers(elements), AccessLogEntry::new);
+
+        List<String> lines = createLines(i -> String.format("10.0.%d.%d - pp [12/Mar/2018:20:%02d:%02d +0100] \"POST /story-api/story/%d HTTP/1.1\" 200 %d \"-\" \"Apache-HttpClient/4.5 (Java/1.8.0_102)\"",
+            i % 200, i % 100, (i / 60) % 60, i % 60, i % 1000, 1000 + i % 5000));
+
+        benchmark("nginx", parser, lines);
+    }
+
+    private static List<String> createLines(Function<Integer, String> lineCreator) {
+        List<String> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            lines.add(lineCreator.apply(i));
+        }
+        return lines;
+    }
+
+    private static void benchmark(String name, LogFormatParser<AccessLogEntry> parser, List<String> lines) {
+        long checksum = 0;
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String line : lines) {
+                checksum += parser.parseLogLine(line).getTimestamp();
+            }
+            long nanos = System.nanoTime() - start;
+            bestNanos = Math.min(bestNanos, nanos);
+            System.out.printf("%s round %d: %.0f lines/sec%n", name, round, lines.size() / (nanos / 1_000_000_000.0));
+        }
+        System.out.printf("%s best: %.0f lines/sec (checksum %d)%n", name, lines.size() / (bestNanos / 1_000_000_000.0), checksum);
+    }
+}
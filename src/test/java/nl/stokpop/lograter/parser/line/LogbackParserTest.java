@@ -210,4 +210,44 @@ public class LogbackParserTest {
 		assertNotNull(entry.getMessage());
 
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testTryParseReportsStatusWithoutException() {
+		LogbackParser<LogbackLogEntry> parser = LogbackParser.createLogbackParser("%d [%t] %p %c - %m%n");
+
+		ParseResult<LogbackLogEntry> parsed = parser.tryParseLogLine("2019-03-22 23:29:51,878 [main] INFO nl.stokpop.Foo - started");
+		assertEquals(ParseResult.Status.PARSED, parsed.getStatus());
+		assertEquals("main", parsed.getEntry().getThreadName());
+
+		assertEquals(ParseResult.Status.NOT_A_LOG_LINE, parser.tryParseLogLine("\tat nl.stokpop.Foo.bar(Foo.java:12)").getStatus());
+		assertEquals(ParseResult.Status.NOT_A_LOG_LINE, parser.tryParseLogLine("Caused by: java.lang.NullPointerException").getStatus());
+		assertEquals(ParseResult.Status.NOT_A_LOG_LINE, parser.tryParseLogLine("   ").getStatus());
+
+		ParseResult<LogbackLogEntry> noThread = parser.tryParseLogLine("2019-03-22 23:29:51,878 main INFO");
+		assertEquals(ParseResult.Status.MALFORMED, noThread.getStatus());
+		assertNull(noThread.getEntry());
+		assertNotNull(noThread.getReason());
+
+		assertEquals(ParseResult.Status.MALFORMED, parser.tryParseLogLine("2019-13-45 23:29:51,878 [main] INFO nl.stokpop.Foo - bad date").getStatus());
+	}
+
+	@Test
+	public void testIsStartOfLogLine() {
+		LogbackParser<LogbackLogEntry> parser = LogbackParser.createLogbackParser("%d [%t] %p %c - %m%n");
+
+		assertTrue(parser.isStartOfLogLine("2019-03-22 23:29:51,878 [main] INFO nl.stokpop.Foo - started"));
+		assertFalse(parser.isStartOfLogLine("\tat nl.stokpop.Foo.bar(Foo.java:12)"));
+		assertFalse(parser.isStartOfLogLine("Caused by: java.lang.NullPointerException"));
+		assertFalse(parser.isStartOfLogLine("   "));
+
+		LogbackParser<LogbackLogEntry> threadFirstParser = LogbackParser.createLogbackParser("[%t] %p %c - %m%n");
+		assertTrue(threadFirstParser.isStartOfLogLine("[main] INFO nl.stokpop.Foo - started"));
+		assertFalse(threadFirstParser.isStartOfLogLine("\tat nl.stokpop.Foo.bar(Foo.java:12)"));
+	}
+
+	@Test(expected = LogRaterException.class)
+	public void testParseThrowsForStackTraceLine() {
+		LogbackParser<LogbackLogEntry> parser = LogbackParser.createLogbackParser("%d [%t] %p %c - %m%n");
+		parser.parseLogLine("\tat nl.stokpop.Foo.bar(Foo.java:12)");
+	}
+}
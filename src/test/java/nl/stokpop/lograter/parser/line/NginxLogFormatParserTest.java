@@ -47,6 +47,7 @@ public class NginxLogFormatParserTest {
 
         assertEquals("10.239.208.214", entry.getField("remote_addr"));
         assertEquals("12/Mar/2018:20:03:01 +0100", entry.getField("time_local"));
+        assertEquals("timestamp only parse", entry.getTimestamp(), parser.parseTimestamp(logline));
         assertEquals(HttpMethod.POST, entry.getHttpMethod());
         assertEquals(400, entry.getHttpStatus());
         assertEquals("/story-api/createStory", entry.getUrl());
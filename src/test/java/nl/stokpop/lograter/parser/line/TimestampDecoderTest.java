@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.parser.line;
+
+import nl.stokpop.lograter.LogRater;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TimestampDecoderTest {
+
+    @Test
+    public void decodeApacheSameAsDateParser() {
+        String format = "[dd/MMM/yyyy:HH:mm:ss Z]";
+        assertSameAsDateParser(format,
+            "[01/Jan/2026:00:00:00 +0000]",
+            "[29/Feb/2024:23:59:59 +0100]",
+            "[29/Feb/2024:23:59:59 +0100]",
+            "[15/Aug/1999:12:30:05 -0930]",
+            "[31/Dec/2025:23:59:59 +1400]",
+            "[31/Oct/2021:02:30:00 +0200]");
+    }
+
+    @Test
+    public void decodeNginxSameAsDateParser() {
+        assertSameAsDateParser("dd/MMM/yyyy:HH:mm:ss Z",
+            "10/Mar/2026:08:15:42 +0100",
+            "10/Mar/2026:08:15:43 +0100",
+            "10/Mar/2026:08:15:42 -0500");
+    }
+
+    @Test
+    public void decodeIso8601SameAsDateParser() {
+        assertSameAsDateParser("ISO8601",
+            "2026-03-10T08:15:42.000Z",
+            "2026-03-10T08:15:42.123Z",
+            "2026-03-10T08:15:42.999+01:00",
+            "2026-03-10T08:15:42.001-03:30",
+            "2026-03-10T08:15:43.456Z");
+    }
+
+    @Test
+    public void decodeLogbackSameAsDateParser() {
+        assertSameAsDateParser("yyyy-MM-dd HH:mm:ss,SSS",
+            "2026-03-10 08:15:42,000",
+            "2026-03-10 08:15:42,123",
+            "2026-03-10 08:15:42,999",
+            "2026-03-29 03:30:00,500",
+            "2026-10-25 02:30:00,250",
+            "2026-10-25 02:30:00,750");
+        assertSameAsDateParser("yyyy-MM-dd HH:mm:ss.SSS",
+            "2026-03-10 08:15:42.000",
+            "2026-03-10 08:15:42.321");
+    }
+
+    @Test
+    public void doNotDecodeOtherLayouts() {
+        TimestampDecoder apache = TimestampDecoder.forDateFormat("[dd/MMM/yyyy:HH:mm:ss Z]", null);
+        assertEquals(TimestampDecoder.NOT_DECODED, apache.decode("[1/Jan/2026:00:00:00 +0000]"));
+        assertEquals(TimestampDecoder.NOT_DECODED, apache.decode("[01/jan/2026:00:00:00 +0000]"));
+        assertEquals(TimestampDecoder.NOT_DECODED, apache.decode("[30/Feb/2026:00:00:00 +0000]"));
+        assertEquals(TimestampDecoder.NOT_DECODED, apache.decode("[01/Jan/2026:24:00:00 +0000]"));
+        assertEquals(TimestampDecoder.NOT_DECODED, apache.decode("01/Jan/2026:00:00:00 +0000  "));
+
+        TimestampDecoder iso = TimestampDecoder.forDateFormat("ISO8601", null);
+        assertEquals(TimestampDecoder.NOT_DECODED, iso.decode("2026-03-10T08:15:42.12Z"));
+        assertEquals(TimestampDecoder.NOT_DECODED, iso.decode("2026-03-10T08:15:42.123+0100"));
+
+        TimestampDecoder logback = TimestampDecoder.forDateFormat("yyyy-MM-dd HH:mm:ss,SSS", localDateTimeFormatter("yyyy-MM-dd HH:mm:ss,SSS"));
+        assertEquals(1, logback.decode("2026-03-10 08:15:42,001") - logback.decode("2026-03-10 08:15:42,000"));
+        assertEquals(TimestampDecoder.NOT_DECODED, logback.decode("2026-03-10 08:15:42,0x1"));
+        assertEquals(TimestampDecoder.NOT_DECODED, logback.decode("2026-03-10 08:15:42.001"));
+    }
+
+    @Test
+    public void noDecoderForOtherFormats() {
+        assertNull(TimestampDecoder.forDateFormat("yyyy-MM-dd'T'HH:mm:ss", null));
+        assertNull(TimestampDecoder.forDateFormat("dd/MM/yyyy HH:mm:ss", null));
+        assertNull(TimestampDecoder.forDateFormat(null, null));
+    }
+
+    private static void assertSameAsDateParser(String format, String... values) {
+        DateTimeFormatter dateFormatter = "ISO8601".equals(format) ? ISODateTimeFormat.dateTime() : localDateTimeFormatter(format);
+        TimestampDecoder decoder = TimestampDecoder.forDateFormat(format, dateFormatter);
+        // decode twice to check both the decoded and the cached second
+        for (int i = 0; i < 2; i++) {
+            for (String value : values) {
+                assertEquals(value, dateFormatter.parseMillis(value), decoder.decode(value));
+            }
+        }
+    }
+
+    private static DateTimeFormatter localDateTimeFormatter(String format) {
+        return DateTimeFormat.forPattern(format).withLocale(LogRater.DEFAULT_LOCALE);
+    }
+}
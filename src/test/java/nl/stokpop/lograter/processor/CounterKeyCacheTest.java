@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.processor;
+
+import nl.stokpop.lograter.counter.CounterKey;
+import nl.stokpop.lograter.logentry.AccessLogEntry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class CounterKeyCacheTest {
+
+    @Test
+    public void sameKeyForSameBaseNameAndValues() {
+        CounterKeyCache cache = new CounterKeyCache(Arrays.asList("host", "user"));
+
+        CounterKey key = cache.counterKey(entry("host1", "user,1"), "/index");
+        assertEquals("/index,host1,user_1", key.getName());
+        assertEquals("user,1", key.getMetaData().get("user"));
+
+        assertSame(key, cache.counterKey(entry("host1", "user,1"), "/index"));
+        assertNotSame(key, cache.counterKey(entry("host2", "user,1"), "/index"));
+        assertNotSame(key, cache.counterKey(entry("host1", "user,1"), "/other"));
+        assertEquals(key, cache.counterKey(entry("host1", "user,1"), new String("/index")));
+    }
+
+    @Test
+    public void keysWithoutGroupByFields() {
+        CounterKeyCache cache = new CounterKeyCache(Collections.emptyList());
+
+        CounterKey key = cache.counterKey(new AccessLogEntry(), "/index");
+        assertEquals(CounterKey.of("/index"), key);
+        assertSame(key, cache.counterKey(new AccessLogEntry(), "/index"));
+    }
+
+    @Test
+    public void sameKeysWhenCacheIsFull() {
+        CounterKeyCache cache = new CounterKeyCache(Collections.singletonList("host"));
+        for (int i = 0; i < 10_000; i++) {
+            CounterKey key = cache.counterKey(entry("host" + i, "user"), "/url" + (i % 7));
+            assertEquals("/url" + (i % 7) + ",host" + i, key.getName());
+            assertSame(key, cache.counterKey(entry("host" + i, "user"), "/url" + (i % 7)));
+        }
+    }
+
+    private static AccessLogEntry entry(String host, String user) {
+        AccessLogEntry entry = new AccessLogEntry();
+        entry.addField("host", host);
+        entry.addField("user", user);
+        return entry;
+    }
+}
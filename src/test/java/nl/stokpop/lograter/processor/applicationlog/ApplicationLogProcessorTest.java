@@ -33,4 +33,22 @@ public class ApplicationLogProcessorTest {
 		assertEquals(1, data.getTotalLogLines());
 	}
 
+	@Test
+	public void detailsAreCountedUntilListIsFull() {
+		ApplicationLogData data = new ApplicationLogData();
+		ApplicationsLogDetailsKey key = new ApplicationsLogDetailsKey("nl.stokpop.Foo", "ERROR");
+		String[] noLines = new String[0];
+
+		data.addDetails(key, "message 0", noLines);
+		data.addDetails(key, "message 0", noLines);
+		for (int i = 1; i <= 20; i++) {
+			data.addDetails(key, "message " + i, noLines);
+		}
+		data.addDetails(key, "message 0", noLines);
+		data.addDetails(key, "message 21", noLines);
+
+		assertEquals(21, data.findApplicationLogDetails(key).size());
+		assertEquals("no counting after the list is full", 2, data.getCountPerLogDetails().get(new ApplicationLogDetails("message 0", noLines)).getCount());
+	}
+
 }
\ No newline at end of file
@@ -20,6 +20,9 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
 public class AccessLogRunTest {
@@ -127,6 +130,71 @@ public class AccessLogRunTest {
 
 	}
 
+    @Test
+	public void testAccessLogOverflowParallel() throws Exception {
+        String[] runArgs = {
+                "--report.dir",
+                tempFolder.getRoot().getPath(),
+                "access",
+				"-lp",
+				"\"%{X-Client-IP}i\" %V %t \"%r\" %>s %b %D \"%{x-host}i\" \"%{Referer}i\" \"%{User-Agent}i\"",
+                "--max-unique-counters",
+                "2",
+                "--ignore-multi-and-no-matches",
+                "-mf",
+                "src/test/resources/access-log/mapper.txt",
+                "src/test/resources/access-log/access.log",
+                "src/test/resources/access-log/access.log.2"};
+
+		String[] runArgsParallel = new String[runArgs.length + 2];
+		System.arraycopy(runArgs, 0, runArgsParallel, 0, 3);
+		runArgsParallel[3] = "-threads";
+		runArgsParallel[4] = "2";
+		System.arraycopy(runArgs, 3, runArgsParallel, 5, runArgs.length - 3);
+
+		String result = LogRaterRunTestUtil.getOutputFromLogRater(runArgs);
+		String resultParallel = LogRaterRunTestUtil.getOutputFromLogRater(runArgsParallel);
+
+		assertTrue("Contains an overflow counter with 16 hits and 8 failures.", resultParallel.contains("OVERFLOW-COUNTER,16,8"));
+		assertEquals("Parallel run gives same counters as sequential run.", counters(result), counters(resultParallel));
+	}
+
+	@Test
+	public void testAccessLogResultCache() throws Exception {
+		String storageDir = tempFolder.newFolder("storage").getPath();
+		String[] runArgs = {
+				"--report.dir",
+				tempFolder.getRoot().getPath(),
+				"-storage.dir",
+				storageDir,
+				"access",
+				"-result-cache",
+				"-lp",
+				"\"%{X-Client-IP}i\" %V %t \"%r\" %>s %b %D \"%{x-host}i\" \"%{Referer}i\" \"%{User-Agent}i\"",
+				"-mf",
+				"src/test/resources/access-log/mapper.txt",
+				"src/test/resources/access-log/access.log",
+				"src/test/resources/access-log/access.log.2"};
+
+		String[] runArgsNoCache = new String[runArgs.length - 1];
+		System.arraycopy(runArgs, 0, runArgsNoCache, 0, 5);
+		System.arraycopy(runArgs, 6, runArgsNoCache, 5, runArgs.length - 6);
+
+		String result = LogRaterRunTestUtil.getOutputFromLogRater(runArgsNoCache);
+		String resultFirstRun = LogRaterRunTestUtil.getOutputFromLogRater(runArgs);
+		File[] cacheFiles = new File(storageDir, "lograter-cache").listFiles();
+		String resultCachedRun = LogRaterRunTestUtil.getOutputFromLogRater(runArgs);
+
+		assertEquals("One cache file per log file.", 2, cacheFiles == null ? 0 : cacheFiles.length);
+		assertEquals("First run with cache gives same counters.", counters(result), counters(resultFirstRun));
+		assertEquals("Run from cache gives same counters.", counters(result), counters(resultCachedRun));
+	}
+
+	private static String counters(String result) {
+		// skip the header with command line and run id
+		return result.substring(result.indexOf("counter,"));
+	}
+
 	@Test
 	public void testAccessLogToCsv() throws Exception {
         String[] runArgs = {
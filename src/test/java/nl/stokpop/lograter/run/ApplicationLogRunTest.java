@@ -21,6 +21,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ApplicationLogRunTest {
@@ -44,6 +45,36 @@ public class ApplicationLogRunTest {
         assertTrue("LogRater application log run outputs a duration.", result.contains("Duration"));
     }
 
+    @Test
+    public void testApplicationLogParallel() throws Exception {
+        String[] runArgs = {
+                "--report.dir",
+                temporaryFolder.getRoot().getPath(),
+                "application",
+                "-lp",
+                "%d;[%t] [%p] [%marker] [cid=%X{cid}] [Service=%X{service}] [Portlet=%X{portletName} %X{portletId}] %c - %m%n %xEx{short}",
+                "src/test/resources/application-log/default/application.log" };
+
+        String[] runArgsParallel = {
+                "--report.dir",
+                temporaryFolder.getRoot().getPath(),
+                "application",
+                "-threads",
+                "2",
+                "-lp",
+                "%d;[%t] [%p] [%marker] [cid=%X{cid}] [Service=%X{service}] [Portlet=%X{portletName} %X{portletId}] %c - %m%n %xEx{short}",
+                "src/test/resources/application-log/default/application.log" };
+
+        String result = LogRaterRunTestUtil.getOutputFromLogRater(runArgs);
+        String resultParallel = LogRaterRunTestUtil.getOutputFromLogRater(runArgsParallel);
+
+        // skip the header with command line and run id
+        String marker = "Total chars";
+        assertTrue("LogRater application log run reports total chars.", resultParallel.contains(marker));
+        assertEquals("Parallel run gives same report as sequential run.",
+            result.substring(result.indexOf(marker)), resultParallel.substring(resultParallel.indexOf(marker)));
+    }
+
 	@Test
 	public void testSimpleLogPatternApplicationLog() throws Exception {
 		String[] runArgs = {
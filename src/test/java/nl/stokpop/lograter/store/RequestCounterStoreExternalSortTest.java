@@ -17,12 +17,22 @@ package nl.stokpop.lograter.store;
 
 import nl.stokpop.lograter.counter.CounterKey;
 import nl.stokpop.lograter.counter.CounterStorageType;
+import nl.stokpop.lograter.counter.RequestCounter;
+import nl.stokpop.lograter.util.ExternalSort;
+import nl.stokpop.lograter.util.time.TimePeriod;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
 import static nl.stokpop.lograter.store.RequestCounterStoreMaxCounters.OVERFLOW_COUNTER_NAME;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class RequestCounterStoreExternalSortTest {
 
@@ -49,4 +59,83 @@ public class RequestCounterStoreExternalSortTest {
         assertEquals(2, store.get(CounterKey.of(OVERFLOW_COUNTER_NAME)).getHits());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void manyCountersShareSpillFiles() throws IOException {
+        int counters = 2000;
+        RequestCounterStore store = new RequestCounterStoreFactory(CounterStorageType.ExternalSort, temporaryFolder.getRoot())
+                .newInstance("many-counters", CounterKey.of("total"), counters);
+
+        for (int i = 0; i < counters; i++) {
+            // reverse order, to check the sort per counter
+            store.add(CounterKey.of("counter-" + i), 10_000 - i, i);
+            store.add(CounterKey.of("counter-" + i), 5_000 - i, i + 1);
+        }
+        // more than one buffer for one counter, to check the merge of runs
+        int hits = 250_000;
+        for (int i = 0; i < hits; i++) {
+            store.add(CounterKey.of("counter-0"), (i * 7919L) % hits, 1);
+        }
+
+        for (RequestCounter counter : store) {
+            long previous = Long.MIN_VALUE;
+            long count = 0;
+            for (TimeMeasurement timeMeasurement : counter) {
+                assertTrue(counter.getCounterKey().getName(), previous <= timeMeasurement.getTimestamp());
+                previous = timeMeasurement.getTimestamp();
+                count++;
+            }
+            assertEquals(counter.getCounterKey().getName(), counter.getHits(), count);
+        }
+        assertEquals(2 + hits, store.get(CounterKey.of("counter-0")).getHits());
+        assertEquals(2 * counters + hits, store.getTotalRequestCounter().getHits());
+
+        File storeDir = new File(new File(temporaryFolder.getRoot(), "serialized-time-stores"), "many-counters");
+        try (Stream<Path> files = Files.walk(storeDir.toPath())) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void closeStorePairReleasesStoresOfFactory() {
+        RequestCounterStoreFactory factory = new RequestCounterStoreFactory(CounterStorageType.ExternalSort, temporaryFolder.getRoot());
+        RequestCounterStorePair pair = new RequestCounterStorePair(factory.newInstance("close-success"), factory.newInstance("close-failure"));
+        pair.addSuccess(CounterKey.of("counter"), 1000, 10);
+
+        // close via the read only stores, as the data bundles do, and close twice
+        new RequestCounterStorePair(pair.getRequestCounterStoreSuccess(), pair.getRequestCounterStoreFailure()).close();
+        pair.close();
+
+        // the store names can be used again after close
+        new RequestCounterStorePair(factory.newInstance("close-success"), factory.newInstance("close-failure")).close();
+    }
+
+    @Test
+    public void runsFileIsReclaimedAfterMerge() {
+        CounterKey totalKey = CounterKey.of("total");
+        RequestCounterStoreExternalSort store = new RequestCounterStoreExternalSort(temporaryFolder.getRoot(), "reclaim-runs", totalKey, TimePeriod.MAX_TIME_PERIOD);
+        int hits = 250_000;
+        for (int i = 0; i < hits; i++) {
+            store.add(CounterKey.of("counter-" + i % 3), hits - i, 1);
+        }
+
+        File storeDir = new File(new File(new File(temporaryFolder.getRoot(), "serialized-time-stores"), "reclaim-runs"), "all-counters");
+        File runsFile = new File(storeDir, "timemeasurements.runs.ser");
+        File sortedFile = new File(storeDir, "timemeasurements.sorted.ser");
+        assertTrue("full buffers of the total counter are written as runs", runsFile.length() > 0);
+
+        long hitsRead = 0;
+        for (RequestCounter counter : store) {
+            assertEquals(0, runsFile.length());
+            for (TimeMeasurement ignored : counter) {
+                hitsRead++;
+            }
+        }
+        assertEquals(hits, hitsRead);
+        assertEquals(2L * hits * ExternalSort.RECORD_SIZE, sortedFile.length());
+        assertEquals(hits, store.getTotalRequestCounter().getHits());
+
+        store.close();
+        // the directory can be used again after close
+        new RequestCounterStoreExternalSort(temporaryFolder.getRoot(), "reclaim-runs", totalKey, TimePeriod.MAX_TIME_PERIOD).close();
+    }
+}
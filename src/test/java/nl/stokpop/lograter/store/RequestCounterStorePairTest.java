@@ -17,9 +17,19 @@ package nl.stokpop.lograter.store;
 
 import nl.stokpop.lograter.LogRaterException;
 import nl.stokpop.lograter.counter.CounterKey;
+import nl.stokpop.lograter.counter.CounterKeyMetaData;
 import nl.stokpop.lograter.counter.CounterStorageType;
+import nl.stokpop.lograter.counter.RequestCounter;
+import nl.stokpop.lograter.util.time.TimePeriod;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+
 import static nl.stokpop.lograter.store.RequestCounterStoreMaxCounters.OVERFLOW_COUNTER_NAME;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -28,6 +38,77 @@ import static org.junit.Assert.assertTrue;
 
 public class RequestCounterStorePairTest {
 
+    @Test
+    public void mergePartialResultsWithOverflow() {
+
+        RequestCounterStoreFactory factory = new RequestCounterStoreFactory(CounterStorageType.Memory);
+        RequestCounterStorePair pair = new RequestCounterStorePair(
+            factory.newInstance("success", CounterKey.of("successStore"), 2),
+            factory.newInstance("failure", CounterKey.of("failureStore"), 2));
+
+        RequestCounterStoreFactory partialFactory = RequestCounterStoreFactory.createPartialResultsFactory(TimePeriod.MAX_TIME_PERIOD);
+        RequestCounterStorePair partial1 = new RequestCounterStorePair(
+            partialFactory.newInstance("success", CounterKey.of("successStore"), 2),
+            partialFactory.newInstance("failure", CounterKey.of("failureStore"), 2));
+        RequestCounterStorePair partial2 = new RequestCounterStorePair(
+            partialFactory.newInstance("success", CounterKey.of("successStore"), 2),
+            partialFactory.newInstance("failure", CounterKey.of("failureStore"), 2));
+
+        partial1.addSuccess(CounterKey.of("key1"), 0, 10);
+        partial1.addFailure(CounterKey.of("key2"), 1, 11);
+        partial1.addSuccess(CounterKey.of("key3"), 2, 12);
+        partial2.addSuccess(CounterKey.of("key4"), 3, 13);
+        partial2.addSuccess(CounterKey.of("key1"), 4, 14);
+
+        assertEquals("partial results are not limited", 3, partial1.getRequestCounterStoreSuccess().getCounterKeys().size());
+
+        pair.merge(partial1);
+        pair.merge(partial2);
+
+        RequestCounterStore successFromPair = pair.getRequestCounterStoreSuccess();
+        assertEquals(4, successFromPair.getTotalRequestCounter().getHits());
+        assertEquals(2, successFromPair.get(CounterKey.of("key1")).getHits());
+        assertEquals(0, successFromPair.get(CounterKey.of("key2")).getHits());
+        assertEquals(2, successFromPair.get(CounterKey.of(OVERFLOW_COUNTER_NAME)).getHits());
+
+        RequestCounterStore failureFromPair = pair.getRequestCounterStoreFailure();
+        assertEquals(1, failureFromPair.getTotalRequestCounter().getHits());
+        assertEquals(1, failureFromPair.get(CounterKey.of("key2")).getHits());
+    }
+
+    @Test
+    public void writeAndReadPartialResults() throws IOException {
+        RequestCounterStoreFactory partialFactory = RequestCounterStoreFactory.createPartialResultsFactory(TimePeriod.MAX_TIME_PERIOD);
+        RequestCounterStorePair partial = new RequestCounterStorePair(
+            partialFactory.newInstance("success", CounterKey.of("successStore"), 2),
+            partialFactory.newInstance("failure", CounterKey.of("failureStore"), 2));
+
+        CounterKeyMetaData metaData = new CounterKeyMetaData(Collections.singletonList("status"), Collections.singletonList("200"));
+        partial.addSuccess(CounterKey.of("key1", metaData), 0, 10);
+        partial.addFailure(CounterKey.of("key2"), 1, 11);
+        partial.addSuccess(CounterKey.of("key1", metaData), 2, 12);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        partial.writeTo(new DataOutputStream(bytes));
+
+        RequestCounterStorePair merged = new RequestCounterStorePair(
+            partialFactory.newInstance("success", CounterKey.of("successStore"), 2),
+            partialFactory.newInstance("failure", CounterKey.of("failureStore"), 2));
+        merged.merge(partial);
+
+        RequestCounterStorePair read = new RequestCounterStorePair(
+            partialFactory.newInstance("success", CounterKey.of("successStore"), 2),
+            partialFactory.newInstance("failure", CounterKey.of("failureStore"), 2));
+        read.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals("reading gives same counters as merge", merged.getRequestCounterStoreSuccess().getCounterKeys(), read.getRequestCounterStoreSuccess().getCounterKeys());
+        assertEquals(merged.getTotalRequestCounterPair().getCombinedRequestCounter().getHits(), read.getTotalRequestCounterPair().getCombinedRequestCounter().getHits());
+        RequestCounter key1 = read.getRequestCounterStoreSuccess().get(CounterKey.of("key1"));
+        assertEquals(2, key1.getHits());
+        assertEquals(metaData, key1.getUniqueCounterKey().getMetaData());
+        assertEquals(1, read.getRequestCounterStoreFailure().get(CounterKey.of("key2")).getHits());
+    }
+
     @Test
     public void addAndOverflow() {
 
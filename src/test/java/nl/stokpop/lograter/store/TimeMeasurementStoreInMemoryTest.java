@@ -15,9 +15,15 @@
  */
 package nl.stokpop.lograter.store;
 
+import nl.stokpop.lograter.LogRaterException;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class TimeMeasurementStoreInMemoryTest {
 
@@ -43,5 +49,113 @@ public class TimeMeasurementStoreInMemoryTest {
         assertEquals(1000, timeMeasurementStoreInMemory.getTimePeriod().getDurationInMillis());
     }
 
+    @Test
+    public void iterateUnorderedTimeMeasurementsStableOnTimestamp() {
+        TimeMeasurementStoreInMemory store = new TimeMeasurementStoreInMemory();
+        List<TimeMeasurement> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            // mostly ordered, as in logs of parallel requests
+            long timestamp = 1000 + i - random.nextInt(50);
+            TimeMeasurement timeMeasurement = new TimeMeasurement(timestamp, i);
+            store.add(timeMeasurement.getTimestamp(), timeMeasurement.getDurationInMillis());
+            expected.add(timeMeasurement);
+        }
+        expected.sort(TimeMeasurement.ORDER_TIMESTAMP);
+
+        assertEquals(expected.size(), store.getSize());
+        int index = 0;
+        for (TimeMeasurement timeMeasurement : store) {
+            assertEquals(expected.get(index).getTimestamp(), timeMeasurement.getTimestamp());
+            assertEquals(expected.get(index).getDurationInMillis(), timeMeasurement.getDurationInMillis());
+            assertEquals(1, timeMeasurement.getNumberOfHits());
+            index++;
+        }
+        assertEquals(expected.size(), index);
+    }
+
+    @Test
+    public void keepNumberOfHits() {
+        TimeMeasurementStoreInMemory store = new TimeMeasurementStoreInMemory();
+        store.add(3000, 300);
+        store.add(new TimeMeasurement(1000, 100, 5));
+        store.add(2000, 200);
+
+        TimeMeasurementIterator iterator = store.iterator();
+        assertEquals(5, iterator.next().getNumberOfHits());
+        assertEquals(1, iterator.next().getNumberOfHits());
+        TimeMeasurement last = iterator.next();
+        assertEquals(3000, last.getTimestamp());
+        assertEquals(1, last.getNumberOfHits());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void addAllOfOtherStore() {
+        TimeMeasurementStoreInMemory store = new TimeMeasurementStoreInMemory();
+        store.add(2000, 200);
+        store.add(4000, 400);
+
+        TimeMeasurementStoreInMemory other = new TimeMeasurementStoreInMemory();
+        other.add(5000, 500);
+        other.add(new TimeMeasurement(1000, 100, 5));
+        other.add(3000, 300);
+
+        store.addAll(other);
+
+        assertEquals(5, store.getSize());
+        assertEquals(1000, store.getTimePeriod().getStartTime());
+        assertEquals(5000, store.getTimePeriod().getEndTime());
+        long[] expectedTimestamps = { 1000, 2000, 3000, 4000, 5000 };
+        int index = 0;
+        for (TimeMeasurement timeMeasurement : store) {
+            assertEquals(expectedTimestamps[index], timeMeasurement.getTimestamp());
+            assertEquals(expectedTimestamps[index] / 10, timeMeasurement.getDurationInMillis());
+            assertEquals(index == 0 ? 5 : 1, timeMeasurement.getNumberOfHits());
+            index++;
+        }
+        assertEquals("other store is not changed", 3, other.getSize());
+    }
+
+    @Test
+    public void removeWithIterator() {
+        TimeMeasurementStoreInMemory store = new TimeMeasurementStoreInMemory();
+        store.add(1000, 100);
+        store.add(2000, 200);
+        store.add(3000, 300);
+
+        TimeMeasurementIterator iterator = store.iterator();
+        iterator.next();
+        iterator.next();
+        iterator.remove();
+        assertEquals(3000, iterator.next().getTimestamp());
+        assertEquals(2, store.getSize());
+    }
+
+    @Test(expected = LogRaterException.class)
+    public void negativeDuration() {
+        new TimeMeasurementStoreInMemory().add(1000, -1);
+    }
+
+    @Test
+    public void lowerAndUpperBound() {
+        TimeMeasurementStoreInMemory store = new TimeMeasurementStoreInMemory();
+        store.add(3000, 300);
+        store.add(1000, 100);
+        store.add(2000, 200);
+        store.add(2000, 201);
+
+        assertEquals(0, store.lowerBound(500));
+        assertEquals(0, store.lowerBound(1000));
+        assertEquals(1, store.upperBound(1000));
+        assertEquals(1, store.lowerBound(2000));
+        assertEquals(3, store.upperBound(2000));
+        assertEquals(4, store.upperBound(3000));
+        assertEquals(4, store.lowerBound(4000));
 
-}
\ No newline at end of file
+        TimeMeasurementIterator iterator = store.iterator(1, 3);
+        assertEquals(200, iterator.next().getDurationInMillis());
+        assertEquals(201, iterator.next().getDurationInMillis());
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -15,11 +15,15 @@
  */
 package nl.stokpop.lograter.store;
 
+import nl.stokpop.lograter.util.time.TimePeriod;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TimeMeasurementStoreToFilesTest {
@@ -100,4 +104,44 @@ public class TimeMeasurementStoreToFilesTest {
 		return checkTotal;
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void boundsAndSlicesWithOneRun() {
+		assertSameBoundsAndSlicesAsInMemory("Test-Bounds-One-Run", 100_000);
+	}
+
+	@Test
+	public void boundsAndSlicesWithMergedRuns() {
+		assertSameBoundsAndSlicesAsInMemory("Test-Bounds-Merged-Runs", 700);
+	}
+
+	private void assertSameBoundsAndSlicesAsInMemory(String counterName, int bufferSize) {
+		TimeMeasurementStoreToFiles store = new TimeMeasurementStoreToFiles(temporaryFolder.getRoot(), "Test-Store", counterName, bufferSize);
+		TimeMeasurementStoreInMemory expected = new TimeMeasurementStoreInMemory();
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			long timestamp = 1000 + random.nextInt(5000);
+			store.add(timestamp, i);
+			expected.add(timestamp, i);
+		}
+
+		for (long timestamp = 900; timestamp < 6100; timestamp += 7) {
+			assertEquals("lower bound " + timestamp, expected.lowerBound(timestamp), store.lowerBound(timestamp));
+			assertEquals("upper bound " + timestamp, expected.upperBound(timestamp), store.upperBound(timestamp));
+		}
+
+		for (long start = 900; start < 6100; start += 250) {
+			TimePeriod timePeriod = TimePeriod.createExcludingEndTime(start, start + 60);
+			TimeMeasurementStore slice = store.getTimeSlice(timePeriod);
+			TimeMeasurementStore expectedSlice = expected.getTimeSlice(timePeriod);
+			assertEquals(timePeriod.toString(), expectedSlice.getSize(), slice.getSize());
+			TimeMeasurementIterator expectedIterator = expectedSlice.iterator();
+			for (TimeMeasurement timeMeasurement : slice) {
+				TimeMeasurement expectedTimeMeasurement = expectedIterator.next();
+				assertEquals(expectedTimeMeasurement.getTimestamp(), timeMeasurement.getTimestamp());
+				assertEquals(expectedTimeMeasurement.getDurationInMillis(), timeMeasurement.getDurationInMillis());
+			}
+			assertFalse(expectedIterator.hasNext());
+		}
+	}
+
+}
@@ -20,7 +20,11 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class TimeMeasurementStoreViewTest {
 
@@ -85,4 +89,56 @@ public class TimeMeasurementStoreViewTest {
 
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testRandomSlicesOfUnorderedStore() {
+
+		TimeMeasurementStore store = new TimeMeasurementStoreInMemory();
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			store.add(random.nextInt(500), i);
+		}
+
+		for (int i = 0; i < 200; i++) {
+			long start = random.nextInt(600);
+			long end = start + random.nextInt(100);
+			TimePeriod timePeriod = TimePeriod.createExcludingEndTime(start, end);
+
+			int expectedCount = 0;
+			long expectedTotal = 0;
+			for (TimeMeasurement timeMeasurement : store) {
+				if (timePeriod.isWithinTimePeriod(timeMeasurement.getTimestamp())) {
+					expectedCount++;
+					expectedTotal += timeMeasurement.getDurationInMillis();
+				}
+			}
+
+			TimeMeasurementStore view = store.getTimeSlice(timePeriod);
+			int count = 0;
+			long total = 0;
+			long previous = Long.MIN_VALUE;
+			for (TimeMeasurement timeMeasurement : view) {
+				assertTrue(previous <= timeMeasurement.getTimestamp());
+				previous = timeMeasurement.getTimestamp();
+				total += timeMeasurement.getDurationInMillis();
+				count++;
+			}
+			assertEquals(timePeriod.toString(), expectedCount, view.getSize());
+			assertEquals(timePeriod.toString(), expectedCount, count);
+			assertEquals(timePeriod.toString(), expectedTotal, total);
+		}
+	}
+
+	@Test
+	public void testEmptySliceBeforeLaterTimeMeasurements() {
+
+		TimeMeasurementStore store = new TimeMeasurementStoreInMemory();
+		store.add(5, 1);
+		store.add(25, 2);
+
+		TimeMeasurementStore view = store.getTimeSlice(TimePeriod.createExcludingEndTime(10, 20));
+
+		assertEquals(0, view.getSize());
+		assertFalse(view.iterator().hasNext());
+	}
+
+}
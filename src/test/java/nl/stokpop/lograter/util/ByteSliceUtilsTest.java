@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteSliceUtilsTest {
+
+    @Test
+    public void indexOfLineEnd() {
+        byte[] bytes = "0123456789abcdef\rghij\nklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        ByteBuffer directLittleEndian = ByteBuffer.allocateDirect(bytes.length).order(ByteOrder.LITTLE_ENDIAN).put(bytes);
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+
+        for (ByteBuffer buffer : new ByteBuffer[] { direct, directLittleEndian, heap }) {
+            for (int from = 0; from <= bytes.length; from++) {
+                assertEquals(expectedIndexOfLineEnd(bytes, from), ByteSliceUtils.indexOfLineEnd(buffer, from, bytes.length));
+            }
+            assertEquals("end is exclusive", -1, ByteSliceUtils.indexOfLineEnd(buffer, 0, 16));
+            assertEquals(21, ByteSliceUtils.indexOfLineEnd(buffer, 17, 22));
+        }
+    }
+
+    private static int expectedIndexOfLineEnd(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '\n' || bytes[i] == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void asciiView() {
+        ByteBuffer buffer = ByteBuffer.wrap("[07/Jan/2019:00:56:00 +0100] GET".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(1).limit(21);
+
+        CharSequence view = ByteSliceUtils.asciiView(buffer);
+
+        assertEquals("07/Jan/2019:00:56:00", view.toString());
+        assertEquals(20, view.length());
+        assertEquals('J', view.charAt(3));
+        assertEquals("Jan", view.subSequence(3, 6).toString());
+    }
+}
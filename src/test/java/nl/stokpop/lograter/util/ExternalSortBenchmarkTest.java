@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util;
+
+import nl.stokpop.lograter.store.TimeMeasurement;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Compares the time measurements per second of the external merge with the previous implementation:
+ * a scan over all files per record, a TimeMeasurement per record and records of 16 bytes via data streams. Run manually.
+ */
+public class ExternalSortBenchmarkTest {
+
+    private static final int SLICES = 100;
+    private static final int RECORDS_PER_SLICE = 100_000;
+    private static final int ROUNDS = 5;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Ignore // benchmark, run manually
+    @Test
+    public void benchmarkExternalMerge() throws IOException {
+        int size = SLICES * RECORDS_PER_SLICE;
+        long bestNanos = Long.MAX_VALUE;
+        long bestPreviousNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            File dir = temporaryFolder.newFolder();
+            writeSlices(dir, false);
+            long start = System.nanoTime();
+            heapMerge(dir, SLICES);
+            long nanos = System.nanoTime() - start;
+            bestNanos = Math.min(bestNanos, nanos);
+
+            File previousDir = temporaryFolder.newFolder();
+            writeSlices(previousDir, true);
+            start = System.nanoTime();
+            previousExternalMerge(previousDir, SLICES, size);
+            long previousNanos = System.nanoTime() - start;
+            bestPreviousNanos = Math.min(bestPreviousNanos, previousNanos);
+
+            System.out.printf("round %d: heap merge %.0f records/sec, previous merge %.0f records/sec%n",
+                round, size / (nanos / 1_000_000_000.0), size / (previousNanos / 1_000_000_000.0));
+        }
+        System.out.printf("best: heap merge %.0f records/sec, previous merge %.0f records/sec%n",
+            size / (bestNanos / 1_000_000_000.0), size / (bestPreviousNanos / 1_000_000_000.0));
+    }
+
+    private static void writeSlices(File dir, boolean isPreviousFormat) throws IOException {
+        Random random = new Random(42);
+        for (int slice = 0; slice < SLICES; slice++) {
+            File file = sliceFile(dir, slice);
+            long timestamp = 1_546_815_600_000L + random.nextInt(1000);
+            if (isPreviousFormat) {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+                    for (int i = 0; i < RECORDS_PER_SLICE; i++) {
+                        timestamp += random.nextInt(100);
+                        out.writeLong(timestamp);
+                        out.writeLong(random.nextInt(5000));
+                    }
+                }
+            }
+            else {
+                try (ExternalSort.RecordWriter writer = new ExternalSort.RecordWriter(new FileOutputStream(file), 256 * 1024)) {
+                    for (int i = 0; i < RECORDS_PER_SLICE; i++) {
+                        timestamp += random.nextInt(100);
+                        writer.write(timestamp, random.nextInt(5000));
+                    }
+                }
+            }
+        }
+    }
+
+    private static File sliceFile(File dir, int slice) {
+        return new File(dir, "counter.timemeasurements." + slice + ".ser");
+    }
+
+    private static File totalFile(File dir) {
+        return new File(dir, "counter.timemeasurements.total.ser");
+    }
+
+    /**
+     * The heap merge of the sorted slice files into the total file.
+     */
+    private static void heapMerge(File dir, int slices) throws IOException {
+        ExternalSort.RecordReader[] readers = new ExternalSort.RecordReader[slices];
+        for (int i = 0; i < slices; i++) {
+            readers[i] = new ExternalSort.RecordReader(new FileInputStream(sliceFile(dir, i)), ExternalSort.readBufferSize(slices));
+        }
+        try (ExternalSort.RecordWriter writer = new ExternalSort.RecordWriter(new FileOutputStream(totalFile(dir)), 1024 * 1024)) {
+            ExternalSort.merge(readers, writer, null);
+        } finally {
+            for (ExternalSort.RecordReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * The merge before the heap: finds the minimum by scanning the heads of all files for every record.
+     */
+    private static void previousExternalMerge(File dir, int slices, int size) throws IOException {
+        TimeMeasurement[] heads = new TimeMeasurement[slices];
+        DataInputStream[] ins = new DataInputStream[slices];
+        for (int i = 0; i < slices; i++) {
+            File file = sliceFile(dir, i);
+            ins[i] = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 256 * 1024));
+            heads[i] = read(ins[i]);
+        }
+        File total = totalFile(dir);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(total), 1024 * 1024))) {
+            for (int i = 0; i < size; i++) {
+                int min = 0;
+                for (int j = 0; j < slices; j++) {
+                    if (heads[min].getTimestamp() > heads[j].getTimestamp()) {
+                        min = j;
+                    }
+                }
+                out.writeLong(heads[min].getTimestamp());
+                out.writeLong(heads[min].getDurationInMillis());
+                heads[min] = read(ins[min]);
+            }
+        } finally {
+            for (DataInputStream in : ins) {
+                in.close();
+            }
+        }
+    }
+
+    private static TimeMeasurement read(DataInputStream in) throws IOException {
+        try {
+            long timestamp = in.readLong();
+            return new TimeMeasurement(timestamp, (int) in.readLong());
+        } catch (EOFException e) {
+            return TimeMeasurement.END_OF_TIME;
+        }
+    }
+}
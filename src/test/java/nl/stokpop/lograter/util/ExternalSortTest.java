@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util;
+
+import nl.stokpop.lograter.LogRaterException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExternalSortTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void writeAndReadRecords() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // small buffers to test the buffer boundaries
+        try (ExternalSort.RecordWriter writer = new ExternalSort.RecordWriter(out, 30)) {
+            writer.write(0, 0);
+            writer.write(Long.MAX_VALUE, Integer.MAX_VALUE);
+            writer.write(1_546_815_600_123L, 1234);
+        }
+        assertEquals(3 * ExternalSort.RECORD_SIZE, out.size());
+
+        ExternalSort.RecordReader reader = new ExternalSort.RecordReader(new ByteArrayInputStream(out.toByteArray()), 30);
+        assertTrue(reader.next());
+        assertEquals(0, reader.getTimestamp());
+        assertEquals(0, reader.getDurationInMillis());
+        assertTrue(reader.next());
+        assertEquals(Long.MAX_VALUE, reader.getTimestamp());
+        assertEquals(Integer.MAX_VALUE, reader.getDurationInMillis());
+        assertTrue(reader.next());
+        assertEquals(1_546_815_600_123L, reader.getTimestamp());
+        assertEquals(1234, reader.getDurationInMillis());
+        assertFalse(reader.next());
+    }
+
+    @Test(expected = LogRaterException.class)
+    public void readIncompleteRecord() throws IOException {
+        new ExternalSort.RecordReader(new ByteArrayInputStream(new byte[ExternalSort.RECORD_SIZE - 1]), 1024).next();
+    }
+
+    @Test
+    public void mergeSortedFiles() throws IOException {
+        File dir = temporaryFolder.getRoot();
+        Random random = new Random(42);
+        int slices = 7;
+        List<long[]> expected = new ArrayList<>();
+        for (int slice = 0; slice < slices; slice++) {
+            File file = new File(dir, "counter." + slice + ".ser");
+            try (ExternalSort.RecordWriter writer = new ExternalSort.RecordWriter(new FileOutputStream(file), 1024)) {
+                long timestamp = 0;
+                int records = slice == 3 ? 0 : random.nextInt(500);
+                for (int i = 0; i < records; i++) {
+                    timestamp += random.nextInt(5);
+                    // the duration identifies the file and the record
+                    int duration = slice * 1000 + i;
+                    writer.write(timestamp, duration);
+                    expected.add(new long[] { timestamp, duration });
+                }
+            }
+        }
+        // stable: same timestamps keep the order of the files
+        expected.sort((one, two) -> Long.compare(one[0], two[0]) != 0 ? Long.compare(one[0], two[0]) : Long.compare(one[1], two[1]));
+
+        ExternalSort.RecordReader[] readers = new ExternalSort.RecordReader[slices];
+        for (int slice = 0; slice < slices; slice++) {
+            readers[slice] = new ExternalSort.RecordReader(new FileInputStream(new File(dir, "counter." + slice + ".ser")), ExternalSort.readBufferSize(slices));
+        }
+        File total = new File(dir, "counter.total.ser");
+        try (ExternalSort.RecordWriter writer = new ExternalSort.RecordWriter(new FileOutputStream(total), 1024)) {
+            assertEquals(expected.size(), ExternalSort.merge(readers, writer, null));
+        } finally {
+            for (ExternalSort.RecordReader reader : readers) {
+                reader.close();
+            }
+        }
+
+        try (ExternalSort.RecordReader reader = new ExternalSort.RecordReader(new FileInputStream(total), 1024)) {
+            for (long[] record : expected) {
+                assertTrue(reader.next());
+                assertEquals(record[0], reader.getTimestamp());
+                assertEquals(record[1], reader.getDurationInMillis());
+            }
+            assertFalse(reader.next());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RegExpLiteralFilterTest {
+
+    @Test
+    public void extractRequiredLiterals() {
+        assertLiterals("GET /api/", "GET /api/.*\\.json");
+        assertLiterals("/static/", "^/static/[a-z]+\\.(css|js)$");
+        assertLiterals("status=5", "status=5\\d\\d");
+        assertLiterals("HTTP/1.1\" 500 ", "HTTP/1\\.1\" 500 ");
+        assertLiterals("/user", "/users?/\\d+");
+        assertLiterals("/ap", "/api{0,1}/");
+        assertLiterals("/api", "/api{2}/x");
+        assertLiterals("a.", "\\Qa.b\\E*c");
+        assertLiterals("foo", "foo|bar", "bar");
+        assertLiterals("health", "health|/ping\\b", "/ping");
+    }
+
+    @Test
+    public void noRequiredLiterals() {
+        assertLiterals(null, ".*");
+        assertLiterals(null, "\\d+");
+        assertLiterals(null, "\\x41\\u0042");
+        assertLiterals(null, "(abc)+");
+        assertLiterals(null, "[GET]");
+        assertLiterals(null, "foo|\\d+");
+        assertLiterals(null, "(?i)get");
+        assertTrue(RegExpLiteralFilter.of(Pattern.compile("get", Pattern.CASE_INSENSITIVE)).isMatchAll());
+        assertTrue(RegExpLiteralFilter.of(null).isMatchAll());
+    }
+
+    @Test
+    public void literalFlag() {
+        RegExpLiteralFilter filter = RegExpLiteralFilter.of(Pattern.compile(".*(", Pattern.LITERAL));
+        assertEquals(Collections.singletonList(".*("), filter.getLiterals());
+        assertTrue(filter.mightMatch("x.*(y"));
+        assertFalse(filter.mightMatch("xy"));
+    }
+
+    @Test
+    public void neverRejectsMatchingLines() {
+        List<String> regExps = Arrays.asList("GET /api/.*\\.json", "/users?/\\d+", "foo|bar", "a+b", "x{0,2}yz",
+            "[\\]ab]cd", "(?:ab)?cd", "\\.\\*", "\\Qa|b\\E", "\\0101B", "(a)\\1b", "\\p{Alpha}q", "ab*?c");
+        List<String> lines = Arrays.asList("GET /api/items.json", "GET /user/12", "GET /users/12", "foo", "bar", "aaab",
+            "b", "yz", "xxyz", "]cd", "acd", "cd", "abcd", ".*", "a|b", "AB", "aab", "Aq", "q", "ac", "abbc", "");
+        for (String regExp : regExps) {
+            Pattern pattern = Pattern.compile(regExp);
+            RegExpLiteralFilter filter = RegExpLiteralFilter.of(pattern);
+            for (String line : lines) {
+                if (pattern.matcher(line).find()) {
+                    assertTrue("literal filter " + filter + " of " + regExp + " should not reject " + line, filter.mightMatch(line));
+                }
+            }
+        }
+    }
+
+    private static void assertLiterals(String expected, String regExp, String... moreExpected) {
+        RegExpLiteralFilter filter = RegExpLiteralFilter.of(Pattern.compile(regExp));
+        if (expected == null) {
+            assertTrue("no literals expected for " + regExp + ": " + filter, filter.isMatchAll());
+        }
+        else {
+            String[] all = new String[moreExpected.length + 1];
+            all[0] = expected;
+            System.arraycopy(moreExpected, 0, all, 1, moreExpected.length);
+            assertEquals(regExp, Arrays.asList(all), filter.getLiterals());
+        }
+    }
+}
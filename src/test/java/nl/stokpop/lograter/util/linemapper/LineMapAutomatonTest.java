@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util.linemapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class LineMapAutomatonTest {
+
+    private static final String[] SUPPORTED = {
+        "/api/users/(\\d+)", "^/api/orders/.*$", ".*\\.js", "/api/users", "/api.*?", "(/other|/another)/.*",
+        "/static/app\\.js", "/", ".*", "\\d+", "/a{2,3}b", "/a{2,}b?", "(ab|a)*b", "/[^/]+/[a-z0-9_-]+",
+        "/[a-]x", "/x*?y+?", "/\\w+\\s\\S", "/(?:cd)+(?<name>e|f)?", "/[\\d.]+", "", "a|b|", "/\\W\\D"
+    };
+
+    private static final String[] FALLBACK = {
+        "/(a)\\1", "/api(?=/users).*", "/a++b", "/\\bapi.*", "/[a[b]]", "(?i)/API.*", "/\\p{Lower}+", "/a{1,3000}", "/[]]"
+    };
+
+    private static final String[] LINES = {
+        "/api/users/12", "/api/users", "/api/orders/1/items", "/api", "/static/app.js", "/", "", "/apix",
+        "/other/path", "api/users", "123", "d123", "/aab", "/aaaab", "/aa", "abab", "aab", "b", "/foo/bar-1",
+        "/-x", "/ax", "/yyy", "/xxy", "/abc d", "/abc\td", "/cdcde", "/cdf", "/1.2.3", "/]", "a", "/#1",
+        "/aa", "/API/users", "/api/x\n", "/api/ ", "/abc", "/😀", "/aé"
+    };
+
+    @Test
+    public void sameMatchesAsLineMaps() {
+        LineMapperSection one = section("one", SUPPORTED);
+        LineMapperSection two = section("two", FALLBACK);
+        LineMapAutomaton automaton = LineMapAutomaton.compile(Arrays.asList(one, two));
+
+        assertEquals(SUPPORTED.length + FALLBACK.length, automaton.getLineMapCount());
+        assertEquals(FALLBACK.length, automaton.getFallbackLineMapCount());
+        assertEquals(0, automaton.offsetOf(one));
+        assertEquals(SUPPORTED.length, automaton.offsetOf(two));
+        assertEquals(-1, automaton.offsetOf(new LineMapperSection("other")));
+
+        for (String line : LINES) {
+            assertMatches(automaton, Arrays.asList(one, two), line);
+        }
+    }
+
+    @Test
+    public void sameMatchesAsLineMapsForGeneratedLines() {
+        LineMapperSection section = section("generated", SUPPORTED);
+        List<LineMapperSection> sections = Arrays.asList(section);
+        LineMapAutomaton automaton = LineMapAutomaton.compile(sections);
+        assertEquals(0, automaton.getFallbackLineMapCount());
+
+        String alphabet = "/abcdxy19._-] \t";
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder line = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertMatches(automaton, sections, line.toString());
+        }
+    }
+
+    @Test
+    public void lastLineMapWithMaximumNumberOfStates() {
+        LineMapperSection section = section("last", new String[] { "/api.*", "a{2000}" });
+        List<LineMapperSection> sections = Arrays.asList(section);
+        LineMapAutomaton automaton = LineMapAutomaton.compile(sections);
+        assertEquals(0, automaton.getFallbackLineMapCount());
+
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            line.append('a');
+        }
+        for (String l : new String[] { line.toString(), line.substring(1), "/api/users" }) {
+            assertMatches(automaton, sections, l);
+        }
+    }
+
+    @Test
+    public void lineMapperCacheWithAutomaton() {
+        LineMapperSection one = section("one", SUPPORTED);
+        LineMapperSection two = section("two", FALLBACK);
+        LineMapAutomatonMatcher matcher = new LineMapAutomatonMatcher(LineMapAutomaton.compile(Arrays.asList(one, two)));
+
+        for (boolean doCountMultipleMapperHits : new boolean[] { false, true }) {
+            for (LineMapperSection section : Arrays.asList(one, two)) {
+                LineMapperCache expected = new LineMapperCache(section, doCountMultipleMapperHits);
+                LineMapperCache actual = new LineMapperCache(section, doCountMultipleMapperHits, 4, matcher);
+                for (String line : LINES) {
+                    assertEquals(line, matchNames(expected, line), matchNames(actual, line));
+                }
+            }
+        }
+    }
+
+    private static void assertMatches(LineMapAutomaton automaton, List<LineMapperSection> sections, String line) {
+        List<Boolean> expected = new ArrayList<>();
+        for (LineMapperSection section : sections) {
+            for (LineMap lineMap : section.getLineMaps()) {
+                expected.add(lineMap.isMatch(line));
+            }
+        }
+        boolean[] expectedMatches = new boolean[expected.size()];
+        for (int i = 0; i < expectedMatches.length; i++) {
+            expectedMatches[i] = expected.get(i);
+        }
+        assertArrayEquals(line, expectedMatches, automaton.match(line));
+    }
+
+    private static List<String> matchNames(LineMapperCache cache, String line) {
+        List<String> names = new ArrayList<>();
+        cache.updateMappers(line, new LineMapperCallback() {
+            @Override
+            public void matchFound(LineMap mapper) {
+                names.add(mapper.getName());
+            }
+
+            @Override
+            public void matchFound(LineMap mapper, String nameWithReplacements) {
+                names.add(nameWithReplacements);
+            }
+
+            @Override
+            public void noMatchFound(String line) {
+                names.add("no match");
+            }
+
+            @Override
+            public void multiMatchFound(String line, int hits) {
+                names.add("hits " + hits);
+            }
+        });
+        return names;
+    }
+
+    private static LineMapperSection section(String name, String[] regExps) {
+        LineMapperSection section = new LineMapperSection(name);
+        for (int i = 0; i < regExps.length; i++) {
+            section.addMapperRule(regExps[i], name + "-" + i);
+        }
+        return section;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util.linemapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LineMapperCacheTest {
+
+    @Test
+    public void sameCallbacksAsSection() {
+        LineMapperSection section = createSection();
+        for (boolean doCountMultipleMapperHits : new boolean[] { false, true }) {
+            LineMapperCache cache = new LineMapperCache(section, doCountMultipleMapperHits);
+            for (String line : new String[] { "/api/users/12", "/api/orders", "/static/app.js", "/api/orders", "/api/users/12" }) {
+                RecordingCallback expected = new RecordingCallback(line);
+                section.updateMappers(line, doCountMultipleMapperHits, expected);
+                RecordingCallback actual = new RecordingCallback(line);
+                cache.updateMappers(line, actual);
+                assertEquals(line, expected.calls, actual.calls);
+            }
+            assertEquals(2, cache.getHits());
+            assertEquals(3, cache.getMisses());
+        }
+    }
+
+    @Test
+    public void evictLinesNotUsedRecently() {
+        LineMapperCache cache = new LineMapperCache(createSection(), false, 2);
+        RecordingCallback callback = new RecordingCallback("cached names only");
+
+        cache.updateMappers("/api/a", callback);
+        cache.updateMappers("/api/b", callback);
+        // a is used again, so b is evicted for c
+        cache.updateMappers("/api/a", callback);
+        cache.updateMappers("/api/c", callback);
+        cache.updateMappers("/api/a", callback);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getEvictions());
+
+        cache.updateMappers("/api/b", callback);
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+        assertEquals("hits [2] misses [4] hit rate [33.3%] evictions [2]", cache.getStatistics());
+    }
+
+    private static LineMapperSection createSection() {
+        LineMapperSection section = new LineMapperSection("test");
+        section.addMapperRule("/api/users/(\\d+)", "user $1");
+        section.addMapperRule("/api/(.*)", "api $1");
+        section.addMapperRule("/api/orders", "orders");
+        return section;
+    }
+
+    private static class RecordingCallback implements LineMapperCallback {
+        private final String line;
+        private final List<String> calls = new ArrayList<>();
+
+        private RecordingCallback(String line) {
+            this.line = line;
+        }
+
+        @Override
+        public void matchFound(LineMap mapper) {
+            matchFound(mapper, mapper.getNameWithReplacementsFromLine(line));
+        }
+
+        @Override
+        public void matchFound(LineMap mapper, String nameWithReplacements) {
+            calls.add("match " + mapper.getName() + " " + nameWithReplacements);
+        }
+
+        @Override
+        public void noMatchFound(String line) {
+            calls.add("no match " + line);
+        }
+
+        @Override
+        public void multiMatchFound(String line, int hits) {
+            calls.add("multi match " + line + " " + hits);
+        }
+    }
+}
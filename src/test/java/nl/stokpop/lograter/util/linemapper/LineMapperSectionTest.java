@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 Peter Paul Bakker, Stokpop
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.stokpop.lograter.util.linemapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LineMapperSectionTest {
+
+    private static final String[] LINES = {
+        "/api/users/12", "/api/users", "/api/orders/1/items", "/api", "/static/app.js", "/", "", "/apix", "/other/path", "api/users"
+    };
+
+    @Test
+    public void sameMatchesAsTryingAllLineMaps() {
+        LineMapperSection section = new LineMapperSection("test");
+        section.addMapperRule("/api/users/(\\d+)", "user");
+        section.addMapperRule("^/api/orders/.*", "orders");
+        section.addMapperRule(".*\\.js", "javascript");
+        section.addMapperRule("/api/users", "users");
+        section.addMapperRule("/api.*", "api");
+        section.addMapperRule("/api/users.*", "users and more");
+        section.addMapperRule("(/other|/another)/.*", "other");
+        section.addMapperRule("/static/app\\.js", "app");
+        section.addMapperRule("/", "root");
+        section.addMapperRule(".*", "all");
+
+        for (boolean doCountMultipleMapperHits : new boolean[] { false, true }) {
+            for (String line : LINES) {
+                List<String> expected = new ArrayList<>();
+                for (LineMap lineMap : section.getLineMaps()) {
+                    if (lineMap.isMatch(line)) {
+                        expected.add(lineMap.getName());
+                        if (!doCountMultipleMapperHits) {
+                            break;
+                        }
+                    }
+                }
+                List<String> actual = new ArrayList<>();
+                section.updateMappers(line, doCountMultipleMapperHits, new LineMapperCallback() {
+                    @Override
+                    public void matchFound(LineMap mapper) {
+                        actual.add(mapper.getName());
+                    }
+
+                    @Override
+                    public void noMatchFound(String line) {
+                        actual.add("no match");
+                    }
+
+                    @Override
+                    public void multiMatchFound(String line, int hits) {
+                        assertEquals(line, actual.size(), hits);
+                    }
+                });
+                if (expected.isEmpty()) {
+                    expected.add("no match");
+                }
+                assertEquals(line + " " + doCountMultipleMapperHits, expected, actual);
+            }
+        }
+    }
+}